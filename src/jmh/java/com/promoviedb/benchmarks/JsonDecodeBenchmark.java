@@ -0,0 +1,59 @@
+package com.promoviedb.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.promoviedb.model.common.Credits;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.model.response.PagedResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+
+/**
+ * Gson decoding of representative response payloads
+ */
+@State(Scope.Benchmark)
+public class JsonDecodeBenchmark {
+    private static final Type SEARCH_PAGE = new TypeToken<PagedResponse<JsonObject>>() {
+    }.getType();
+
+    private Gson gson;
+    private String movieDetails;
+    private String credits;
+    private String searchMovie;
+
+    @Setup
+    public void setUp() {
+        gson = new Gson();
+        movieDetails = Fixtures.load(Fixtures.MOVIE_DETAILS);
+        credits = Fixtures.load(Fixtures.CREDITS);
+        searchMovie = Fixtures.load(Fixtures.SEARCH_MOVIE);
+    }
+
+    @Benchmark
+    public MovieDetails movieDetails() {
+        return gson.fromJson(movieDetails, MovieDetails.class);
+    }
+
+    @Benchmark
+    public Credits credits() {
+        return gson.fromJson(credits, Credits.class);
+    }
+
+    /**
+     * Search results as returned by SearchService
+     */
+    @Benchmark
+    public JsonObject searchTree() {
+        return gson.fromJson(searchMovie, JsonObject.class);
+    }
+
+    @Benchmark
+    public PagedResponse<JsonObject> searchPage() {
+        return gson.fromJson(searchMovie, SEARCH_PAGE);
+    }
+}
@@ -0,0 +1,62 @@
+package com.promoviedb.benchmarks;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.service.MovieService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * End-to-end MovieService.getDetails call against a local server
+ * Covers URL building, the HTTP round trip on a pooled connection and JSON decoding.
+ */
+@State(Scope.Benchmark)
+public class MovieServiceBenchmark {
+
+    private MockWebServer server;
+    private HttpClient httpClient;
+    private MovieService movieService;
+
+    @Setup
+    public void setUp() throws IOException {
+        String body = Fixtures.load(Fixtures.MOVIE_DETAILS);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json;charset=utf-8")
+                        .setBody(body);
+            }
+        });
+        server.start();
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("benchmark-api-key")
+                .baseUrl(server.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+        movieService = new MovieService(httpClient, config);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        httpClient.close();
+        server.shutdown();
+    }
+
+    @Benchmark
+    public MovieDetails getDetails() {
+        return movieService.getDetails("550");
+    }
+}
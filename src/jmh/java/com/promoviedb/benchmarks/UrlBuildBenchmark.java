@@ -0,0 +1,72 @@
+package com.promoviedb.benchmarks;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.service.BaseService;
+import com.promoviedb.util.UrlBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * URL construction done by every service method before a request is sent
+ */
+@State(Scope.Benchmark)
+public class UrlBuildBenchmark {
+
+    private HttpClient httpClient;
+    private UrlService service;
+
+    @Setup
+    public void setUp() {
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("benchmark-api-key")
+                .build();
+        httpClient = new HttpClient(config);
+        service = new UrlService(httpClient, config);
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+    }
+
+    @Benchmark
+    public String baseServiceBuildUrl() {
+        return service.url("np/3/movie/550");
+    }
+
+    @Benchmark
+    public String urlBuilderBuild() {
+        return UrlBuilder.create("https://api.promoviedb.com/v1/np/3/search/movie")
+                .addQueryParam("api_key", "benchmark-api-key")
+                .addQueryParam("query", "fight club")
+                .addQueryParam("language", "en-US")
+                .addQueryParam("page", 2)
+                .addQueryParam("include_adult", false)
+                .build();
+    }
+
+    @Benchmark
+    public String serviceDetailsUrl() {
+        return UrlBuilder.create(service.url("np/3/movie/550"))
+                .addQueryParam("api_key", "benchmark-api-key")
+                .addQueryParam("append_to_response", "credits,images")
+                .build();
+    }
+
+    /**
+     * Exposes the protected URL helper of BaseService
+     */
+    private static final class UrlService extends BaseService {
+        UrlService(HttpClient httpClient, ClientConfig config) {
+            super(httpClient, config);
+        }
+
+        String url(String path) {
+            return buildUrl(path);
+        }
+    }
+}
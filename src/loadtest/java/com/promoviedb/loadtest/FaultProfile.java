@@ -0,0 +1,165 @@
+package com.promoviedb.loadtest;
+
+import java.util.Random;
+
+/**
+ * Latency and failures injected by the stand-in server
+ * <p>
+ * Latency follows a log-normal distribution fitted to a median and a 99th percentile, which matches the
+ * long tail of real API latency far better than a constant delay. Each response independently becomes
+ * a 429 with {@code Retry-After}, a 5xx error or a throttled body with the configured probabilities.
+ */
+public final class FaultProfile {
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final double medianMillis;
+    private final double sigma;
+    private final double rateLimitRate;
+    private final int retryAfterSeconds;
+    private final double serverErrorRate;
+    private final double slowBodyRate;
+    private final int slowBodyBytesPerSecond;
+
+    private FaultProfile(Builder builder) {
+        this.medianMillis = builder.medianMillis;
+        this.sigma = builder.medianMillis > 0 && builder.p99Millis > builder.medianMillis
+                ? Math.log(builder.p99Millis / builder.medianMillis) / Z_99
+                : 0;
+        this.rateLimitRate = builder.rateLimitRate;
+        this.retryAfterSeconds = builder.retryAfterSeconds;
+        this.serverErrorRate = builder.serverErrorRate;
+        this.slowBodyRate = builder.slowBodyRate;
+        this.slowBodyBytesPerSecond = builder.slowBodyBytesPerSecond;
+    }
+
+    /**
+     * A profile with no latency and no failures
+     */
+    public static FaultProfile none() {
+        return new Builder().build();
+    }
+
+    /**
+     * Draw a server latency in milliseconds
+     */
+    long sampleLatencyMillis(Random random) {
+        if (medianMillis <= 0) {
+            return 0;
+        }
+        return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    public double getRateLimitRate() {
+        return rateLimitRate;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public double getServerErrorRate() {
+        return serverErrorRate;
+    }
+
+    public double getSlowBodyRate() {
+        return slowBodyRate;
+    }
+
+    public int getSlowBodyBytesPerSecond() {
+        return slowBodyBytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "FaultProfile{" +
+                "medianMillis=" + medianMillis +
+                ", sigma=" + String.format("%.3f", sigma) +
+                ", rateLimitRate=" + rateLimitRate +
+                ", retryAfterSeconds=" + retryAfterSeconds +
+                ", serverErrorRate=" + serverErrorRate +
+                ", slowBodyRate=" + slowBodyRate +
+                ", slowBodyBytesPerSecond=" + slowBodyBytesPerSecond +
+                '}';
+    }
+
+    /**
+     * Builder for creating FaultProfile instances
+     */
+    public static class Builder {
+        private double medianMillis;
+        private double p99Millis;
+        private double rateLimitRate;
+        private int retryAfterSeconds = 1;
+        private double serverErrorRate;
+        private double slowBodyRate;
+        private int slowBodyBytesPerSecond = 16 * 1024;
+
+        /**
+         * Log-normal server latency with the given median and 99th percentile
+         */
+        public Builder latency(double medianMillis, double p99Millis) {
+            this.medianMillis = medianMillis;
+            this.p99Millis = p99Millis;
+            return this;
+        }
+
+        /**
+         * Fraction of responses that are 429 Too Many Requests
+         */
+        public Builder rateLimitRate(double rateLimitRate) {
+            this.rateLimitRate = rateLimitRate;
+            return this;
+        }
+
+        /**
+         * Retry-After value sent with 429 responses (default 1)
+         */
+        public Builder retryAfterSeconds(int retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        /**
+         * Fraction of responses that are 500, 502 or 503
+         */
+        public Builder serverErrorRate(double serverErrorRate) {
+            this.serverErrorRate = serverErrorRate;
+            return this;
+        }
+
+        /**
+         * Fraction of successful responses whose body is throttled
+         */
+        public Builder slowBodyRate(double slowBodyRate) {
+            this.slowBodyRate = slowBodyRate;
+            return this;
+        }
+
+        /**
+         * Transfer rate of throttled bodies (default 16 KiB/s)
+         */
+        public Builder slowBodyBytesPerSecond(int slowBodyBytesPerSecond) {
+            this.slowBodyBytesPerSecond = slowBodyBytesPerSecond;
+            return this;
+        }
+
+        public FaultProfile build() {
+            if (medianMillis < 0 || (p99Millis > 0 && p99Millis < medianMillis)) {
+                throw new IllegalArgumentException("Invalid latency distribution");
+            }
+            if (!isRate(rateLimitRate) || !isRate(serverErrorRate) || !isRate(slowBodyRate)
+                    || rateLimitRate + serverErrorRate > 1) {
+                throw new IllegalArgumentException("Fault rates must be between 0 and 1");
+            }
+            if (retryAfterSeconds < 0 || slowBodyBytesPerSecond <= 0) {
+                throw new IllegalArgumentException("Invalid fault settings");
+            }
+            return new FaultProfile(this);
+        }
+
+        private static boolean isRate(double rate) {
+            return rate >= 0 && rate <= 1;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.promoviedb.loadtest;
+
+import com.promoviedb.ProMovieDBClient;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.ConcurrencyLimitException;
+import com.promoviedb.exception.DeadlineExceededException;
+import com.promoviedb.exception.RateLimitException;
+import com.promoviedb.metrics.LatencyHistogram;
+import com.promoviedb.util.ThreadSupport;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives a client at a fixed request rate and measures the result
+ * <p>
+ * The generator is open-loop: requests start on a fixed schedule whether or not earlier ones have
+ * completed, as traffic from independent users does. Latency is measured from the scheduled start,
+ * so time spent waiting behind slow requests is counted rather than hidden. Requests that would
+ * exceed {@code maxConcurrency} are not sent and are reported as dropped.
+ *
+ * <pre>{@code
+ * LoadReport report = new LoadGenerator.Builder()
+ *     .targetRps(200)
+ *     .durationSeconds(60)
+ *     .build()
+ *     .run(client);
+ * System.out.println(report.format());
+ * }</pre>
+ */
+public class LoadGenerator {
+    private final double targetRps;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int maxConcurrency;
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    private LoadGenerator(Builder builder) {
+        this.targetRps = builder.targetRps;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(builder.durationSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(builder.warmupSeconds);
+        this.maxConcurrency = builder.maxConcurrency;
+        this.operations = builder.operations.isEmpty() ? defaultMix() : new ArrayList<>(builder.operations);
+        int weight = 0;
+        for (Operation operation : operations) {
+            weight += operation.weight;
+        }
+        this.totalWeight = weight;
+    }
+
+    /**
+     * Run the load and wait for the requests still in flight at the end
+     */
+    public LoadReport run(ProMovieDBClient client) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        Semaphore slots = new Semaphore(maxConcurrency);
+        ExecutorService workers = ThreadSupport.newBlockingExecutor("promoviedb-load", maxConcurrency);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / targetRps);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        try {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = pick();
+                boolean measured = scheduled >= measureFrom;
+                if (!slots.tryAcquire()) {
+                    if (measured) {
+                        recorder.dropped.increment();
+                    }
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        Outcome outcome = execute(operation, client);
+                        if (measured) {
+                            recorder.record(operation.name, outcome, System.nanoTime() - scheduled);
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+        }
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        long drainNanos = Math.max(0, System.nanoTime() - end);
+        return recorder.report(targetRps, durationNanos, drainNanos);
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static Outcome execute(Operation operation, ProMovieDBClient client) {
+        try {
+            operation.call.accept(client);
+            return Outcome.OK;
+        } catch (RateLimitException e) {
+            return Outcome.RATE_LIMITED;
+        } catch (ConcurrencyLimitException e) {
+            return Outcome.REJECTED;
+        } catch (DeadlineExceededException | CallCancelledException e) {
+            return Outcome.TIMEOUT;
+        } catch (ApiException e) {
+            return e.getStatusCode() >= 500 ? Outcome.SERVER_ERROR : Outcome.OTHER_ERROR;
+        } catch (RuntimeException e) {
+            return Outcome.OTHER_ERROR;
+        }
+    }
+
+    /**
+     * A mix of lookups and searches weighted like an interactive application
+     */
+    private static List<Operation> defaultMix() {
+        List<Operation> mix = new ArrayList<>();
+        mix.add(new Operation("movie.getDetails", 30, c -> c.movieService().getDetails(randomId(100000))));
+        mix.add(new Operation("movie.getCredits", 10, c -> c.movieService().getCredits(randomId(100000))));
+        mix.add(new Operation("movie.getImages", 5, c -> c.movieService().getImages(randomId(100000))));
+        mix.add(new Operation("search.searchMovie", 20, c -> c.searchService().searchMovie("fight club")));
+        mix.add(new Operation("search.searchMulti", 10, c -> c.searchService().searchMulti("game")));
+        mix.add(new Operation("tv.getDetails", 10, c -> c.tvSeriesService().getDetails(randomId(50000))));
+        mix.add(new Operation("person.getDetails", 10, c -> c.personService().getDetails(randomId(500000))));
+        mix.add(new Operation("genre.getMovieGenres", 5, c -> c.genreService().getMovieGenres()));
+        return mix;
+    }
+
+    private static String randomId(int max) {
+        return String.valueOf(1 + ThreadLocalRandom.current().nextInt(max));
+    }
+
+    enum Outcome {
+        OK, RATE_LIMITED, SERVER_ERROR, REJECTED, TIMEOUT, OTHER_ERROR
+    }
+
+    private static final class Operation {
+        final String name;
+        final int weight;
+        final Consumer<ProMovieDBClient> call;
+
+        Operation(String name, int weight, Consumer<ProMovieDBClient> call) {
+            this.name = name;
+            this.weight = weight;
+            this.call = call;
+        }
+    }
+
+    private static final class Recorder {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<String, LatencyHistogram> byOperation = new ConcurrentHashMap<>();
+        final Map<Outcome, LongAdder> outcomes = new ConcurrentHashMap<>();
+        final LongAdder dropped = new LongAdder();
+
+        void record(String operation, Outcome outcome, long latencyNanos) {
+            latency.record(latencyNanos);
+            byOperation.computeIfAbsent(operation, o -> new LatencyHistogram()).record(latencyNanos);
+            outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+        }
+
+        LoadReport report(double targetRps, long durationNanos, long drainNanos) {
+            Map<Outcome, Long> counts = new LinkedHashMap<>();
+            for (Outcome outcome : Outcome.values()) {
+                LongAdder count = outcomes.get(outcome);
+                counts.put(outcome, count != null ? count.sum() : 0);
+            }
+            return new LoadReport(targetRps, durationNanos, drainNanos, latency, new LinkedHashMap<>(byOperation),
+                    counts, dropped.sum());
+        }
+    }
+
+    /**
+     * Builder for creating LoadGenerator instances
+     */
+    public static class Builder {
+        private double targetRps = 50;
+        private long durationSeconds = 30;
+        private long warmupSeconds = 5;
+        private int maxConcurrency = 256;
+        private final List<Operation> operations = new ArrayList<>();
+
+        /**
+         * Requests started per second (default 50)
+         */
+        public Builder targetRps(double targetRps) {
+            this.targetRps = targetRps;
+            return this;
+        }
+
+        /**
+         * Length of the measured run (default 30)
+         */
+        public Builder durationSeconds(long durationSeconds) {
+            this.durationSeconds = durationSeconds;
+            return this;
+        }
+
+        /**
+         * Load applied before measurement starts, to warm connections and the JIT (default 5)
+         */
+        public Builder warmupSeconds(long warmupSeconds) {
+            this.warmupSeconds = warmupSeconds;
+            return this;
+        }
+
+        /**
+         * Maximum number of requests in flight (default 256)
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Add an operation to the workload; without any, a default mix of lookups and searches is used
+         *
+         * @param weight Relative frequency of the operation
+         */
+        public Builder operation(String name, int weight, Consumer<ProMovieDBClient> call) {
+            this.operations.add(new Operation(name, weight, call));
+            return this;
+        }
+
+        public LoadGenerator build() {
+            if (targetRps <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Invalid load settings");
+            }
+            for (Operation operation : operations) {
+                if (operation.weight <= 0) {
+                    throw new IllegalArgumentException("Operation weight must be positive: " + operation.name);
+                }
+            }
+            return new LoadGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.promoviedb.loadtest;
+
+import com.promoviedb.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput, latency percentiles and error rates of a load run
+ */
+public final class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final double targetRps;
+    private final long durationNanos;
+    private final long drainNanos;
+    private final LatencyHistogram latency;
+    private final Map<String, LatencyHistogram> byOperation;
+    private final Map<LoadGenerator.Outcome, Long> outcomes;
+    private final long dropped;
+
+    LoadReport(double targetRps, long durationNanos, long drainNanos, LatencyHistogram latency,
+               Map<String, LatencyHistogram> byOperation, Map<LoadGenerator.Outcome, Long> outcomes, long dropped) {
+        this.targetRps = targetRps;
+        this.durationNanos = durationNanos;
+        this.drainNanos = drainNanos;
+        this.latency = latency;
+        this.byOperation = byOperation;
+        this.outcomes = outcomes;
+        this.dropped = dropped;
+    }
+
+    /**
+     * Get the number of requests that completed, successfully or not
+     */
+    public long getCompleted() {
+        return latency.getCount();
+    }
+
+    /**
+     * Get the number of scheduled requests not sent because too many were in flight
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Get the completed requests per second of the measured run, not counting the drain time
+     */
+    public double getThroughput() {
+        return getCompleted() / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Get the time the requests still in flight at the end of the run took to complete
+     */
+    public long getDrainMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(drainNanos);
+    }
+
+    /**
+     * Get the fraction of completed requests that failed
+     */
+    public double getErrorRate() {
+        long completed = getCompleted();
+        return completed == 0 ? 0 : (completed - getSuccessCount()) / (double) completed;
+    }
+
+    public long getSuccessCount() {
+        return outcomes.getOrDefault(LoadGenerator.Outcome.OK, 0L);
+    }
+
+    public long getRateLimitedCount() {
+        return outcomes.getOrDefault(LoadGenerator.Outcome.RATE_LIMITED, 0L);
+    }
+
+    public long getServerErrorCount() {
+        return outcomes.getOrDefault(LoadGenerator.Outcome.SERVER_ERROR, 0L);
+    }
+
+    /**
+     * Get the number of requests rejected by the client's own limiter or scheduler
+     */
+    public long getRejectedCount() {
+        return outcomes.getOrDefault(LoadGenerator.Outcome.REJECTED, 0L);
+    }
+
+    public long getTimeoutCount() {
+        return outcomes.getOrDefault(LoadGenerator.Outcome.TIMEOUT, 0L);
+    }
+
+    /**
+     * Get the latency histogram of all completed requests, measured from their scheduled start
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Get the latency histograms by operation name
+     */
+    public Map<String, LatencyHistogram> getLatencyByOperation() {
+        return byOperation;
+    }
+
+    /**
+     * Render the report as a plain-text table
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Target %.1f req/s, achieved %.1f req/s over %.1f s, drained in %.1f s%n",
+                targetRps, getThroughput(), durationNanos / 1e9, drainNanos / 1e9));
+        out.append(String.format("Completed %d, dropped %d, error rate %.2f%%%n",
+                getCompleted(), dropped, getErrorRate() * 100));
+        for (Map.Entry<LoadGenerator.Outcome, Long> entry : outcomes.entrySet()) {
+            if (entry.getValue() > 0) {
+                out.append(String.format("  %-14s %8d  %6.2f%%%n", entry.getKey().name().toLowerCase(),
+                        entry.getValue(), 100.0 * entry.getValue() / Math.max(1, getCompleted())));
+            }
+        }
+        out.append(String.format("%nLatency (ms)%n%-24s %8s %9s %9s %9s %9s%n", "operation", "count",
+                "p50", "p90", "p99", "p99.9"));
+        appendRow(out, "all", latency);
+        for (Map.Entry<String, LatencyHistogram> entry : byOperation.entrySet()) {
+            appendRow(out, entry.getKey(), entry.getValue());
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    private static void appendRow(StringBuilder out, String name, LatencyHistogram histogram) {
+        out.append(String.format("%-24s %8d", name, histogram.getCount()));
+        for (double percentile : PERCENTILES) {
+            out.append(String.format(" %9.1f", histogram.getPercentileMillis(percentile)));
+        }
+        out.append(String.format("%n"));
+    }
+}
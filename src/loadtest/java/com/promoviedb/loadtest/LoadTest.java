@@ -0,0 +1,102 @@
+package com.promoviedb.loadtest;
+
+import com.promoviedb.ProMovieDBClient;
+import okhttp3.mockwebserver.MockWebServer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the load generator against a local stand-in for the API
+ * <p>
+ * Options are passed as {@code --name=value}:
+ * <ul>
+ *     <li>{@code rps}, {@code duration}, {@code warmup}, {@code concurrency} - load shape</li>
+ *     <li>{@code latency-median}, {@code latency-p99} - server latency in milliseconds</li>
+ *     <li>{@code rate-limit-rate}, {@code retry-after} - 429 responses</li>
+ *     <li>{@code server-error-rate} - 5xx responses</li>
+ *     <li>{@code slow-body-rate}, {@code slow-body-bps} - throttled bodies</li>
+ *     <li>{@code target} - base URL of a real server to load instead of the stand-in</li>
+ *     <li>{@code api-key} - API key sent by the client</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+
+        FaultProfile faults = new FaultProfile.Builder()
+                .latency(number(options, "latency-median", 40), number(options, "latency-p99", 250))
+                .rateLimitRate(number(options, "rate-limit-rate", 0.01))
+                .retryAfterSeconds((int) number(options, "retry-after", 1))
+                .serverErrorRate(number(options, "server-error-rate", 0.005))
+                .slowBodyRate(number(options, "slow-body-rate", 0.01))
+                .slowBodyBytesPerSecond((int) number(options, "slow-body-bps", 16 * 1024))
+                .build();
+        LoadGenerator generator = new LoadGenerator.Builder()
+                .targetRps(number(options, "rps", 50))
+                .durationSeconds((long) number(options, "duration", 30))
+                .warmupSeconds((long) number(options, "warmup", 5))
+                .maxConcurrency((int) number(options, "concurrency", 256))
+                .build();
+
+        MockWebServer server = null;
+        String baseUrl = options.get("target");
+        StandInDispatcher dispatcher = null;
+        if (baseUrl == null) {
+            dispatcher = new StandInDispatcher(faults);
+            server = new MockWebServer();
+            server.setDispatcher(dispatcher);
+            server.start();
+            baseUrl = server.url("/").toString();
+            System.out.println("Stand-in API on " + baseUrl + " with " + faults);
+        }
+
+        ProMovieDBClient client = new ProMovieDBClient.Builder()
+                .apiKey(options.getOrDefault("api-key", "load-test-key"))
+                .baseUrl(baseUrl)
+                .build();
+        try {
+            LoadReport report = generator.run(client);
+            System.out.println();
+            System.out.print(report.format());
+            if (dispatcher != null) {
+                System.out.println();
+                System.out.println("Server responses by status: " + dispatcher.getStatusCounts());
+            }
+        } finally {
+            client.close();
+            if (server != null) {
+                server.shutdown();
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static double number(Map<String, String> options, String name, double defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " must be a number: " + value);
+        }
+    }
+}
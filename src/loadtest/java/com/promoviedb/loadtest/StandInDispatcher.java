@@ -0,0 +1,130 @@
+package com.promoviedb.loadtest;
+
+import com.promoviedb.metrics.EndpointFamily;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MockWebServer dispatcher that stands in for the ProMovieDB API
+ * <p>
+ * Every endpoint family called by the services is answered with a recorded fixture payload, after a
+ * latency drawn from the {@link FaultProfile}, which also decides which responses fail.
+ */
+public class StandInDispatcher extends Dispatcher {
+    private static final int[] SERVER_ERRORS = {500, 502, 503};
+    private static final String NOT_FOUND = "{\"status_code\":34,\"status_message\":\"The resource you requested could not be found.\"}";
+
+    private final FaultProfile faults;
+    private final Map<String, String> payloads = new HashMap<>();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    public StandInDispatcher(FaultProfile faults) {
+        this.faults = faults;
+        route("movie/{id}", "movie_details.json");
+        route("movie/{id}/credits", "credits.json");
+        route("movie/{id}/videos", "videos.json");
+        route("movie/{id}/images", "images.json");
+        route("movie/{id}/release_dates", "release_dates.json");
+        route("tv/{id}", "tv_details.json");
+        route("tv/{id}/credits", "credits.json");
+        route("tv/{id}/aggregate_credits", "aggregate_credits.json");
+        route("tv/{id}/content_ratings", "content_ratings.json");
+        route("tv/{id}/videos", "videos.json");
+        route("tv/{id}/images", "images.json");
+        route("person/{id}", "person_details.json");
+        route("person/{id}/movie_credits", "person_credits.json");
+        route("person/{id}/tv_credits", "person_credits.json");
+        route("person/{id}/combined_credits", "person_credits.json");
+        route("person/{id}/images", "images.json");
+        route("person/{id}/changes", "person_changes.json");
+        route("search/movie", "search_movie.json");
+        route("search/tv", "search_tv.json");
+        route("search/person", "search_person.json");
+        route("search/multi", "search_multi.json");
+        route("genre/movie/list", "genres_movie.json");
+        route("genre/tv/list", "genres_tv.json");
+        route("certification/movie/list", "certifications.json");
+        route("certification/tv/list", "certifications.json");
+        route("credit/{id}", "credit.json");
+        route("api/openApi/ping/v1", "ping.json");
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpUrl url = request.getRequestUrl();
+        String body = url != null ? payloads.get(EndpointFamily.of(url.pathSegments())) : null;
+
+        MockResponse response = new MockResponse()
+                .setHeader("Content-Type", "application/json;charset=utf-8")
+                .setHeadersDelay(faults.sampleLatencyMillis(random), TimeUnit.MILLISECONDS);
+
+        double roll = random.nextDouble();
+        int status;
+        if (body == null) {
+            status = 404;
+            response.setBody(NOT_FOUND);
+        } else if (roll < faults.getRateLimitRate()) {
+            status = 429;
+            response.setHeader("Retry-After", faults.getRetryAfterSeconds())
+                    .setBody("{\"status_code\":25,\"status_message\":\"Your request count is over the allowed limit.\"}");
+        } else if (roll < faults.getRateLimitRate() + faults.getServerErrorRate()) {
+            status = SERVER_ERRORS[random.nextInt(SERVER_ERRORS.length)];
+            response.setBody("{\"status_code\":11,\"status_message\":\"Internal error.\"}");
+        } else {
+            status = 200;
+            response.setBody(body);
+            if (random.nextDouble() < faults.getSlowBodyRate()) {
+                // Ten chunks a second keep the transfer smooth rather than bursty
+                response.throttleBody(Math.max(1, faults.getSlowBodyBytesPerSecond() / 10), 100, TimeUnit.MILLISECONDS);
+            }
+        }
+        response.setResponseCode(status);
+        statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+        return response;
+    }
+
+    /**
+     * Get the number of responses served, by status code
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new HashMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    private void route(String endpoint, String fixture) {
+        payloads.put(endpoint, loadFixture(fixture));
+    }
+
+    static String loadFixture(String name) {
+        try (InputStream in = StandInDispatcher.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
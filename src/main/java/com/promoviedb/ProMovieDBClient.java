@@ -1,8 +1,37 @@
 package com.promoviedb;
 
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.CacheSnapshot;
+import com.promoviedb.cache.EntityCache;
 import com.promoviedb.config.ClientConfig;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.health.HealthMonitor;
+import com.promoviedb.http.AdaptiveConcurrencyLimiter;
+import com.promoviedb.http.ApiKeyPool;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.EndpointRouter;
+import com.promoviedb.http.FairScheduler;
 import com.promoviedb.http.HttpClient;
+import com.promoviedb.http.Lane;
+import com.promoviedb.http.SharedTransport;
+import com.promoviedb.metrics.MetricsRecorder;
+import com.promoviedb.recording.TrafficRecorder;
+import com.promoviedb.recording.TrafficReplayer;
+import com.promoviedb.search.SearchResultCache;
+import com.promoviedb.search.TitleIndex;
 import com.promoviedb.service.*;
+import com.promoviedb.tracing.SpanExporter;
+import com.promoviedb.util.ThreadSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Main client class for ProMovieDB API
@@ -20,102 +49,154 @@ import com.promoviedb.service.*;
  * }</pre>
  */
 public class ProMovieDBClient {
+    private static final Logger logger = LoggerFactory.getLogger(ProMovieDBClient.class);
+    private static final int ASYNC_PLATFORM_THREADS = 16;
+
     private final ClientConfig config;
     private final HttpClient httpClient;
+    private final EntityCache cache;
+    private final HealthMonitor healthMonitor;
+    private final TitleIndex titleIndex;
 
-    // Services
-    private MovieService movieService;
-    private TvSeriesService tvSeriesService;
-    private PersonService personService;
-    private SearchService searchService;
-    private GenreService genreService;
-    private CreditService creditService;
-    private CertificationService certificationService;
-    private StatusService statusService;
-
-    private ProMovieDBClient(ClientConfig config) {
+    // Services, created lazily; a lost initialization race only discards a duplicate instance
+    private final AtomicReference<MovieService> movieService = new AtomicReference<>();
+    private final AtomicReference<TvSeriesService> tvSeriesService = new AtomicReference<>();
+    private final AtomicReference<PersonService> personService = new AtomicReference<>();
+    private final AtomicReference<SearchService> searchService = new AtomicReference<>();
+    private final AtomicReference<GenreService> genreService = new AtomicReference<>();
+    private final AtomicReference<CreditService> creditService = new AtomicReference<>();
+    private final AtomicReference<CertificationService> certificationService = new AtomicReference<>();
+    private final AtomicReference<StatusService> statusService = new AtomicReference<>();
+    private final AtomicReference<ExecutorService> executor = new AtomicReference<>();
+
+    private ProMovieDBClient(ClientConfig config, SharedTransport transport) {
         this.config = config;
-        this.httpClient = new HttpClient(config);
+        this.httpClient = new HttpClient(config, transport);
+        if (transport != null && transport.getCache() != null) {
+            this.cache = transport.getCache();
+        } else {
+            this.cache = config.isCacheEnabled()
+                    ? new EntityCache(config.getCacheTtlSeconds() * 1000L, config.getCacheMaxEntries())
+                    : null;
+        }
+        registerCacheMetrics();
+        registerSearchCacheMetrics();
+        this.titleIndex = createTitleIndex();
+        restoreCache();
+        this.healthMonitor = startHealthMonitor();
+    }
+
+    private static <T> T lazy(AtomicReference<T> ref, Supplier<T> factory) {
+        T value = ref.get();
+        if (value == null) {
+            T created = factory.get();
+            value = ref.compareAndSet(null, created) ? created : ref.get();
+        }
+        return value;
     }
 
     /**
      * Get movie service for movie-related API calls
      */
     public MovieService movieService() {
-        if (movieService == null) {
-            movieService = new MovieService(httpClient, config);
-        }
-        return movieService;
+        return lazy(movieService, () -> new MovieService(httpClient, config, cache));
     }
 
     /**
      * Get TV series service for TV-related API calls
      */
     public TvSeriesService tvSeriesService() {
-        if (tvSeriesService == null) {
-            tvSeriesService = new TvSeriesService(httpClient, config);
-        }
-        return tvSeriesService;
+        return lazy(tvSeriesService, () -> new TvSeriesService(httpClient, config, cache));
     }
 
     /**
      * Get person service for person-related API calls
      */
     public PersonService personService() {
-        if (personService == null) {
-            personService = new PersonService(httpClient, config);
-        }
-        return personService;
+        return lazy(personService, () -> new PersonService(httpClient, config, cache));
     }
 
     /**
      * Get search service for search-related API calls
      */
     public SearchService searchService() {
-        if (searchService == null) {
-            searchService = new SearchService(httpClient, config);
-        }
-        return searchService;
+        return lazy(searchService, () -> {
+            SearchService service = new SearchService(httpClient, config);
+            service.setTitleIndex(titleIndex);
+            service.setSearchCache(config.getSearchCache());
+            return service;
+        });
     }
 
     /**
      * Get genre service for genre-related API calls
      */
     public GenreService genreService() {
-        if (genreService == null) {
-            genreService = new GenreService(httpClient, config);
-        }
-        return genreService;
+        return lazy(genreService, () -> new GenreService(httpClient, config));
     }
 
     /**
      * Get credit service for credit-related API calls
      */
     public CreditService creditService() {
-        if (creditService == null) {
-            creditService = new CreditService(httpClient, config);
-        }
-        return creditService;
+        return lazy(creditService, () -> new CreditService(httpClient, config));
     }
 
     /**
      * Get certification service for certification-related API calls
      */
     public CertificationService certificationService() {
-        if (certificationService == null) {
-            certificationService = new CertificationService(httpClient, config);
-        }
-        return certificationService;
+        return lazy(certificationService, () -> new CertificationService(httpClient, config));
     }
 
     /**
      * Get status service for status/monitoring API calls
      */
     public StatusService statusService() {
-        if (statusService == null) {
-            statusService = new StatusService(httpClient, config);
-        }
-        return statusService;
+        return lazy(statusService, () -> new StatusService(httpClient, config));
+    }
+
+    /**
+     * Get the executor for running blocking API calls asynchronously
+     * On Java 21 and later every task gets its own virtual thread; on older runtimes tasks share
+     * 16 daemon platform threads. Tasks run with the {@link CallContext} of the thread that submitted
+     * them, so deadlines and cancellation carry over. The executor is shut down by {@link #close()}.
+     *
+     * <pre>{@code
+     * CompletableFuture<MovieDetails> movie = CompletableFuture.supplyAsync(
+     *     () -> client.movieService().getDetails("550"), client.executor());
+     * }</pre>
+     */
+    public ExecutorService executor() {
+        return lazy(executor, () -> CallContext.propagating(
+                ThreadSupport.newBlockingExecutor("promoviedb-async", ASYNC_PLATFORM_THREADS)));
+    }
+
+    /**
+     * Get the details cache shared by the movie, TV series and person services
+     *
+     * @return the cache, or null if caching is disabled
+     */
+    public EntityCache cache() {
+        return cache;
+    }
+
+    /**
+     * Get the background health monitor
+     *
+     * @return the monitor, or null if no health check interval is configured
+     */
+    public HealthMonitor healthMonitor() {
+        return healthMonitor;
+    }
+
+    /**
+     * Get the local index title searches are answered from first
+     *
+     * @return the index, or null if the local title index is disabled
+     */
+    public TitleIndex titleIndex() {
+        return titleIndex;
     }
 
     /**
@@ -127,18 +208,156 @@ public class ProMovieDBClient {
 
     /**
      * Close the client and release resources
+     * When a cache snapshot file is configured, the cache is saved to it first.
      */
     public void close() {
+        if (healthMonitor != null) {
+            healthMonitor.close();
+        }
+        saveCache();
+        ExecutorService asyncExecutor = executor.get();
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
         if (httpClient != null) {
             httpClient.close();
         }
     }
 
+    private void registerCacheMetrics() {
+        if (cache == null) {
+            return;
+        }
+        MetricsRecorder metrics = config.getMetricsRecorder();
+        metrics.registerCounter("promoviedb_cache_hits_total", "Details cache hits", cache::getHitCount);
+        metrics.registerCounter("promoviedb_cache_misses_total", "Details cache misses", cache::getMissCount);
+        metrics.registerGauge("promoviedb_cache_entries", "Entries in the details cache", cache::size);
+        metrics.registerGauge("promoviedb_cache_hit_ratio", "Share of details lookups served from the cache", () -> {
+            long hits = cache.getHitCount();
+            long total = hits + cache.getMissCount();
+            return total > 0 ? (double) hits / total : 0;
+        });
+    }
+
+    private void registerSearchCacheMetrics() {
+        SearchResultCache searchCache = config.getSearchCache();
+        if (searchCache == null) {
+            return;
+        }
+        MetricsRecorder metrics = config.getMetricsRecorder();
+        metrics.registerCounter("promoviedb_search_cache_hits_total", "Search pages served from the cache",
+                searchCache::getHitCount);
+        metrics.registerCounter("promoviedb_search_cache_misses_total", "Search pages fetched from the API",
+                searchCache::getMissCount);
+        metrics.registerGauge("promoviedb_search_cache_queries", "Queries in the search cache", searchCache::size);
+    }
+
+    private TitleIndex createTitleIndex() {
+        if (!config.isLocalTitleIndex()) {
+            return null;
+        }
+        TitleIndex index = new TitleIndex();
+        if (cache != null) {
+            index.attach(cache);
+        }
+        config.getMetricsRecorder().registerGauge("promoviedb_title_index_entries",
+                "Movies, TV series and people in the local title index", index::size);
+        return index;
+    }
+
+    private HealthMonitor startHealthMonitor() {
+        if (config.getHealthCheckIntervalSeconds() <= 0) {
+            return null;
+        }
+        StatusService status = statusService();
+        HealthMonitor monitor = new HealthMonitor.Builder(status::ping)
+                .intervalMillis(config.getHealthCheckIntervalSeconds() * 1000L)
+                .timeoutMillis(Math.min(config.getHealthCheckIntervalSeconds(), config.getReadTimeout()) * 1000L)
+                .build();
+        status.setHealthMonitor(monitor);
+
+        MetricsRecorder metrics = config.getMetricsRecorder();
+        metrics.registerGauge("promoviedb_health_available", "Whether the API passed its recent health checks",
+                () -> monitor.isAvailable() ? 1 : 0);
+        metrics.registerGauge("promoviedb_health_latency_seconds", "Moving average of health check latency",
+                () -> monitor.getSnapshot().getLatencyEwmaMillis() / 1000);
+        metrics.registerGauge("promoviedb_health_success_ratio", "Share of recent health checks that succeeded",
+                () -> monitor.getSnapshot().getSuccessRate());
+        monitor.start();
+        return monitor;
+    }
+
+    private void restoreCache() {
+        Path snapshotFile = config.getCacheSnapshotFile();
+        if (cache == null || snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        try {
+            CacheSnapshot.LoadResult result = CacheSnapshot.load(cache, snapshotFile);
+            logger.debug("Restored {} cache entries from {}, {} expired",
+                    result.getLoaded(), snapshotFile, result.getExpired());
+            refreshInBackground(result.getExpiredHotKeys());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to restore cache snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private void saveCache() {
+        Path snapshotFile = config.getCacheSnapshotFile();
+        if (cache == null || snapshotFile == null) {
+            return;
+        }
+        try {
+            int written = CacheSnapshot.write(cache, snapshotFile);
+            logger.debug("Saved {} cache entries to {}", written, snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to save cache snapshot {}", snapshotFile, e);
+        }
+    }
+
+    /**
+     * Refetch hot entries that expired while the client was down
+     */
+    private void refreshInBackground(List<CacheKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        CallContext context = CallContext.current().withLane(Lane.BACKGROUND);
+        ThreadSupport.newThread("promoviedb-cache-refresh", () -> {
+            try (CallContext.Scope scope = context.attach()) {
+                refresh(keys);
+            }
+        }).start();
+    }
+
+    private void refresh(List<CacheKey> keys) {
+        for (CacheKey key : keys) {
+            try {
+                switch (key.getType()) {
+                    case MOVIE:
+                        movieService().getDetails(key.getId(), key.getLanguage(), null);
+                        break;
+                    case TV_SERIES:
+                        tvSeriesService().getDetails(key.getId(), key.getLanguage(), null);
+                        break;
+                    case PERSON:
+                        personService().getDetails(key.getId(), key.getLanguage(), null);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (ApiException e) {
+                logger.debug("Background refresh of {} failed", key, e);
+            }
+        }
+    }
+
     /**
      * Builder for creating ProMovieDBClient instances
      */
     public static class Builder {
         private final ClientConfig.Builder configBuilder;
+        private SharedTransport transport;
 
         public Builder() {
             this.configBuilder = new ClientConfig.Builder();
@@ -149,6 +368,22 @@ public class ProMovieDBClient {
             return this;
         }
 
+        /**
+         * Spread requests across several API keys (optional)
+         */
+        public Builder apiKeyPool(ApiKeyPool apiKeyPool) {
+            configBuilder.apiKeyPool(apiKeyPool);
+            return this;
+        }
+
+        /**
+         * Spread requests across several base URLs (optional); replaces the base URL when set
+         */
+        public Builder endpointRouter(EndpointRouter endpointRouter) {
+            configBuilder.endpointRouter(endpointRouter);
+            return this;
+        }
+
         public Builder baseUrl(String baseUrl) {
             configBuilder.baseUrl(baseUrl);
             return this;
@@ -184,9 +419,105 @@ public class ProMovieDBClient {
             return this;
         }
 
+        public Builder cacheTtlSeconds(int cacheTtlSeconds) {
+            configBuilder.cacheTtlSeconds(cacheTtlSeconds);
+            return this;
+        }
+
+        public Builder cacheMaxEntries(int cacheMaxEntries) {
+            configBuilder.cacheMaxEntries(cacheMaxEntries);
+            return this;
+        }
+
+        public Builder cacheSnapshotFile(Path cacheSnapshotFile) {
+            configBuilder.cacheSnapshotFile(cacheSnapshotFile);
+            return this;
+        }
+
+        /**
+         * Limit in-flight requests adaptively from observed latency (optional)
+         */
+        public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            configBuilder.concurrencyLimiter(concurrencyLimiter);
+            return this;
+        }
+
+        /**
+         * Dispatch requests fairly across lanes and tenants (optional)
+         */
+        public Builder scheduler(FairScheduler scheduler) {
+            configBuilder.scheduler(scheduler);
+            return this;
+        }
+
+        /**
+         * Record request metrics (optional)
+         */
+        public Builder metricsRecorder(MetricsRecorder metricsRecorder) {
+            configBuilder.metricsRecorder(metricsRecorder);
+            return this;
+        }
+
+        /**
+         * Export a span with connection phase timings for every call (optional)
+         */
+        public Builder spanExporter(SpanExporter spanExporter) {
+            configBuilder.spanExporter(spanExporter);
+            return this;
+        }
+
+        /**
+         * Record every exchange, with the API key redacted (optional)
+         * The recorder is not closed with the client.
+         */
+        public Builder trafficRecorder(TrafficRecorder trafficRecorder) {
+            configBuilder.trafficRecorder(trafficRecorder);
+            return this;
+        }
+
+        /**
+         * Answer requests from a recording instead of the network (optional)
+         */
+        public Builder trafficReplayer(TrafficReplayer trafficReplayer) {
+            configBuilder.trafficReplayer(trafficReplayer);
+            return this;
+        }
+
+        /**
+         * Ping the API in the background at this interval and cache its health (0 = disabled, default)
+         */
+        public Builder healthCheckIntervalSeconds(int healthCheckIntervalSeconds) {
+            configBuilder.healthCheckIntervalSeconds(healthCheckIntervalSeconds);
+            return this;
+        }
+
+        /**
+         * Answer title searches from a local index first, falling back to the API on a miss (default false)
+         */
+        public Builder localTitleIndex(boolean localTitleIndex) {
+            configBuilder.localTitleIndex(localTitleIndex);
+            return this;
+        }
+
+        /**
+         * Cache search results across pages, page sizes and spellings of a query (optional)
+         */
+        public Builder searchCache(SearchResultCache searchCache) {
+            configBuilder.searchCache(searchCache);
+            return this;
+        }
+
+        /**
+         * Share a connection pool, dispatcher and cache with other clients (optional)
+         */
+        public Builder transport(SharedTransport transport) {
+            this.transport = transport;
+            return this;
+        }
+
         public ProMovieDBClient build() {
             ClientConfig config = configBuilder.build();
-            return new ProMovieDBClient(config);
+            return new ProMovieDBClient(config, transport);
         }
     }
 }
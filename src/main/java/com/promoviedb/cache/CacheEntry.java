@@ -0,0 +1,64 @@
+package com.promoviedb.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cached entity together with its fetch and expiry timestamps
+ * <p>
+ * The cached value is shared by every caller that reads it and must be treated as read-only.
+ * Updates go through {@link EntityCache#put} or {@link EntityCache#replace}, which install a new entry.
+ */
+public final class CacheEntry {
+    private final Object value;
+    private final long createdAt;
+    private final long expiresAt;
+    private final AtomicLong hits;
+    private volatile long lastAccessedAt;
+
+    CacheEntry(Object value, long createdAt, long expiresAt, long hits) {
+        this.value = value;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.hits = new AtomicLong(hits);
+        this.lastAccessedAt = createdAt;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Time (epoch millis) at which the value was fetched from the API
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Time (epoch millis) after which the entry is no longer served
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    void recordHit(long now) {
+        hits.incrementAndGet();
+        lastAccessedAt = now;
+    }
+
+    void touch(long now) {
+        lastAccessedAt = now;
+    }
+}
@@ -0,0 +1,55 @@
+package com.promoviedb.cache;
+
+import java.util.Objects;
+
+/**
+ * Key of a cached entity: entity type, entity ID and response language
+ */
+public final class CacheKey {
+    private final EntityType type;
+    private final String id;
+    private final String language;
+
+    public CacheKey(EntityType type, String id, String language) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.id = Objects.requireNonNull(id, "id");
+        this.language = language != null ? language : "";
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) o;
+        return type == other.type && id.equals(other.id) && language.equals(other.language);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + id.hashCode();
+        result = 31 * result + language.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return type + "/" + id + "/" + language;
+    }
+}
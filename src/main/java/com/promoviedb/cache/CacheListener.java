@@ -0,0 +1,27 @@
+package com.promoviedb.cache;
+
+/**
+ * Notified when a value is stored in or removed from an {@link EntityCache}
+ * <p>
+ * Listeners run on the thread that changed the cache and should return quickly.
+ */
+public interface CacheListener {
+
+    /**
+     * A value was put, replaced or restored from a snapshot
+     *
+     * @param key   Key of the entry
+     * @param value Value now cached under the key
+     */
+    void onPut(CacheKey key, Object value);
+
+    /**
+     * An entry was invalidated, evicted, dropped on expiry or cleared
+     * Not called when an entry is replaced by a put; {@link #onPut} is called instead.
+     *
+     * @param key   Key of the entry
+     * @param value Value that was cached under the key
+     */
+    default void onRemove(CacheKey key, Object value) {
+    }
+}
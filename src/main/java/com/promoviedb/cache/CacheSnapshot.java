@@ -0,0 +1,268 @@
+package com.promoviedb.cache;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact, versioned binary snapshot of an {@link EntityCache}
+ * <p>
+ * The snapshot is a deflated stream holding a header, one record per cache entry (key, timestamps,
+ * hit count and the entity as JSON) and a list of the hottest keys by hit count. Loading reads the
+ * file sequentially and decodes the entity payloads in parallel across cores. Expired entries are
+ * skipped; expired hot keys are reported so that they can be refreshed in the background.
+ */
+public final class CacheSnapshot {
+    private static final int MAGIC = 0x504D4442; // "PMDB"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of most-hit keys recorded in the hot-key list
+     */
+    public static final int HOT_KEY_LIMIT = 1024;
+
+    private static final Gson gson = new Gson();
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * Write a snapshot of the cache, replacing the file atomically
+     *
+     * @return number of entries written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static int write(EntityCache cache, Path file) throws IOException {
+        List<Map.Entry<CacheKey, CacheEntry>> entries = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<CacheKey, CacheEntry> e : cache.entrySet()) {
+            if (!e.getValue().isExpired(now)) {
+                entries.add(e);
+            }
+        }
+
+        // Indexes of the entries sorted by descending hit count
+        List<Integer> hot = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getValue().getHits() > 0) {
+                hot.add(i);
+            }
+        }
+        hot.sort((a, b) -> Long.compare(entries.get(b).getValue().getHits(), entries.get(a).getValue().getHits()));
+        if (hot.size() > HOT_KEY_LIMIT) {
+            hot = hot.subList(0, HOT_KEY_LIMIT);
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new DeflaterOutputStream(Files.newOutputStream(tmp), new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE),
+                    BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(now);
+                out.writeInt(entries.size());
+                for (Map.Entry<CacheKey, CacheEntry> e : entries) {
+                    writeEntry(out, e.getKey(), e.getValue());
+                }
+                out.writeInt(hot.size());
+                for (int index : hot) {
+                    out.writeInt(index);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return entries.size();
+    }
+
+    /**
+     * Load a snapshot into the cache
+     * Entries still cached under the same key are overwritten.
+     *
+     * @return what was loaded and which hot keys had expired
+     * @throws IOException if the snapshot cannot be read or has an unsupported version
+     */
+    public static LoadResult load(EntityCache cache, Path file) throws IOException {
+        List<RawEntry> raw;
+        List<Integer> hot;
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(in, new Inflater(), BUFFER_SIZE), BUFFER_SIZE));
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a cache snapshot: " + file);
+            }
+            int version = data.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cache snapshot version " + version);
+            }
+            data.readLong();
+            int count = data.readInt();
+            raw = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                raw.add(readEntry(data));
+            }
+            int hotCount = data.readInt();
+            hot = new ArrayList<>(hotCount);
+            for (int i = 0; i < hotCount; i++) {
+                hot.add(data.readInt());
+            }
+        }
+
+        Set<Integer> hotIndexes = new HashSet<>(hot);
+        long now = System.currentTimeMillis();
+
+        // Decoding the JSON payloads dominates load time, so it runs on all cores
+        Object[] values = new Object[raw.size()];
+        IntStream.range(0, raw.size()).parallel().forEach(i -> {
+            RawEntry entry = raw.get(i);
+            if (entry.expiresAt > now) {
+                values[i] = decode(entry);
+            }
+        });
+
+        int loaded = 0;
+        int expired = 0;
+        for (int i = 0; i < raw.size(); i++) {
+            RawEntry entry = raw.get(i);
+            if (values[i] == null) {
+                expired++;
+                continue;
+            }
+            cache.restore(entry.key, values[i], entry.createdAt, entry.expiresAt, entry.hits, hotIndexes.contains(i));
+            loaded++;
+        }
+
+        List<CacheKey> hotKeys = new ArrayList<>(hot.size());
+        List<CacheKey> expiredHotKeys = new ArrayList<>();
+        for (int index : hot) {
+            if (index < 0 || index >= raw.size()) {
+                continue;
+            }
+            hotKeys.add(raw.get(index).key);
+            if (values[index] == null) {
+                expiredHotKeys.add(raw.get(index).key);
+            }
+        }
+        return new LoadResult(loaded, expired, hotKeys, expiredHotKeys);
+    }
+
+    private static void writeEntry(DataOutputStream out, CacheKey key, CacheEntry entry) throws IOException {
+        byte[] payload = gson.toJson(entry.getValue()).getBytes(StandardCharsets.UTF_8);
+        // Entity types are stored by ordinal; reordering EntityType requires a new snapshot version
+        out.writeByte(key.getType().ordinal());
+        out.writeUTF(key.getId());
+        out.writeUTF(key.getLanguage());
+        out.writeLong(entry.getCreatedAt());
+        out.writeLong(entry.getExpiresAt());
+        out.writeLong(entry.getHits());
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    private static RawEntry readEntry(DataInputStream in) throws IOException {
+        int typeIndex = in.readUnsignedByte();
+        EntityType[] types = EntityType.values();
+        if (typeIndex >= types.length) {
+            throw new IOException("Unknown entity type " + typeIndex + " in cache snapshot");
+        }
+        CacheKey key = new CacheKey(types[typeIndex], in.readUTF(), in.readUTF());
+        long createdAt = in.readLong();
+        long expiresAt = in.readLong();
+        long hits = in.readLong();
+        byte[] payload = new byte[in.readInt()];
+        in.readFully(payload);
+        return new RawEntry(key, createdAt, expiresAt, hits, payload);
+    }
+
+    private static Object decode(RawEntry entry) {
+        return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(entry.payload), StandardCharsets.UTF_8),
+                entry.key.getType().getModelClass());
+    }
+
+    private static final class RawEntry {
+        final CacheKey key;
+        final long createdAt;
+        final long expiresAt;
+        final long hits;
+        final byte[] payload;
+
+        RawEntry(CacheKey key, long createdAt, long expiresAt, long hits, byte[] payload) {
+            this.key = key;
+            this.createdAt = createdAt;
+            this.expiresAt = expiresAt;
+            this.hits = hits;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Outcome of loading a snapshot
+     */
+    public static class LoadResult {
+        private final int loaded;
+        private final int expired;
+        private final List<CacheKey> hotKeys;
+        private final List<CacheKey> expiredHotKeys;
+
+        LoadResult(int loaded, int expired, List<CacheKey> hotKeys, List<CacheKey> expiredHotKeys) {
+            this.loaded = loaded;
+            this.expired = expired;
+            this.hotKeys = Collections.unmodifiableList(hotKeys);
+            this.expiredHotKeys = Collections.unmodifiableList(expiredHotKeys);
+        }
+
+        /**
+         * Number of entries installed in the cache
+         */
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Number of entries skipped because their TTL had passed
+         */
+        public int getExpired() {
+            return expired;
+        }
+
+        /**
+         * Most-hit keys at snapshot time, hottest first
+         */
+        public List<CacheKey> getHotKeys() {
+            return hotKeys;
+        }
+
+        /**
+         * Hot keys whose entries had expired, hottest first; candidates for a background refresh
+         */
+        public List<CacheKey> getExpiredHotKeys() {
+            return expiredHotKeys;
+        }
+    }
+}
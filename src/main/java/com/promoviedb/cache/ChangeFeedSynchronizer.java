@@ -0,0 +1,465 @@
+package com.promoviedb.cache;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.CancellationToken;
+import com.promoviedb.http.Lane;
+import com.promoviedb.model.person.PersonDetails;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.util.ThreadSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background component that keeps cached person details in sync with the person change feed
+ * <p>
+ * Each poll asks {@link PersonService#getChanges} for the changes of every person held in the
+ * {@link EntityCache} since the last checkpoint. Only entries with a change newer than the time they
+ * were fetched are invalidated (or refreshed), so the cache TTL can be set long without serving stale data.
+ * The checkpoint is advanced after a poll without failures and can be persisted to a file so that a
+ * restarted process resumes where it left off.
+ * <p>
+ * In patch mode the change items are applied directly to a copy of the cached {@link PersonDetails},
+ * which is swapped in atomically; entries whose changes cannot be applied fall back to a full refetch.
+ * <p>
+ * The change feed only covers the last {@value #MAX_WINDOW_DAYS} days; entries that cannot be
+ * verified against the feed are treated as changed.
+ *
+ * <pre>{@code
+ * ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+ *     .personService(client.personService())
+ *     .cache(client.cache())
+ *     .pollIntervalSeconds(600)
+ *     .checkpointFile(Paths.get("person-changes.checkpoint"))
+ *     .build();
+ * sync.start();
+ * }</pre>
+ */
+public class ChangeFeedSynchronizer {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedSynchronizer.class);
+
+    /**
+     * Maximum number of days the change feed can be queried for
+     */
+    public static final int MAX_WINDOW_DAYS = 14;
+
+    private static final String CHECKPOINT_PROPERTY = "last_sync";
+    private static final DateTimeFormatter CHANGE_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss 'UTC'").withZone(ZoneOffset.UTC);
+
+    private final PersonService personService;
+    private final EntityCache cache;
+    private final int pollIntervalSeconds;
+    private final Path checkpointFile;
+    private final boolean refresh;
+    private final PersonChangePatcher patcher;
+
+    private volatile Instant checkpoint;
+    private ScheduledExecutorService scheduler;
+    private CancellationToken cancellation;
+
+    // Serializes passes; separate from the monitor of start and close so that close never waits for a pass,
+    // and a lock rather than a monitor so a pass on a virtual thread unmounts while it waits for the API
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private ChangeFeedSynchronizer(Builder builder) {
+        this.personService = builder.personService;
+        this.cache = builder.cache;
+        this.pollIntervalSeconds = builder.pollIntervalSeconds;
+        this.checkpointFile = builder.checkpointFile;
+        this.refresh = builder.refresh;
+        this.patcher = builder.patch ? new PersonChangePatcher() : null;
+        this.checkpoint = loadCheckpoint();
+    }
+
+    /**
+     * Start polling the change feed in the background
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                r -> ThreadSupport.newThread("promoviedb-change-feed", r));
+        cancellation = new CancellationToken();
+        CallContext context = CallContext.current().withLane(Lane.BACKGROUND).toBuilder()
+                .cancellationToken(cancellation)
+                .build();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try (CallContext.Scope scope = context.attach()) {
+                syncOnce();
+            } catch (CallCancelledException e) {
+                logger.debug("Change feed sync stopped");
+            } catch (RuntimeException e) {
+                logger.warn("Change feed sync failed", e);
+            }
+        }, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop background polling, cancelling a pass in progress without advancing the checkpoint
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            cancellation.cancel();
+            scheduler.shutdownNow();
+            scheduler = null;
+            cancellation = null;
+        }
+    }
+
+    /**
+     * Run a single synchronization pass over every cached person
+     *
+     * @return counts of the entries checked, invalidated, refreshed, patched and failed
+     * @throws CallCancelledException if the call is cancelled during the pass
+     */
+    public SyncResult syncOnce() {
+        syncLock.lock();
+        try {
+            return sync();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private SyncResult sync() {
+        CallContext context = CallContext.current();
+        Instant pollStart = Instant.now();
+        Instant since = checkpoint;
+
+        LocalDate endDate = LocalDate.now(ZoneOffset.UTC);
+        LocalDate windowStart = endDate.minusDays(MAX_WINDOW_DAYS);
+        Instant windowStartInstant = windowStart.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        // Entries fetched before this instant were never covered by a previous poll
+        Instant coverageStart = since != null && !since.isBefore(windowStartInstant) ? null : windowStartInstant;
+        LocalDate startDate = coverageStart == null ? since.atZone(ZoneOffset.UTC).toLocalDate() : windowStart;
+
+        // One scan of the cache for the whole pass, grouping the entries of each person
+        Map<String, List<CacheKey>> keysById = new LinkedHashMap<>();
+        for (CacheKey key : cache.keys(EntityType.PERSON)) {
+            keysById.computeIfAbsent(key.getId(), id -> new ArrayList<>()).add(key);
+        }
+
+        SyncResult result = new SyncResult();
+        for (Map.Entry<String, List<CacheKey>> person : keysById.entrySet()) {
+            String personId = person.getKey();
+            context.checkActive();
+            List<ChangeItem> changes;
+            try {
+                changes = fetchChanges(personId, startDate, endDate);
+            } catch (ApiException e) {
+                logger.warn("Failed to fetch changes for person {}", personId, e);
+                result.failed++;
+                continue;
+            }
+
+            for (CacheKey key : person.getValue()) {
+                CacheEntry entry = cache.getEntry(key);
+                if (entry == null) {
+                    continue;
+                }
+                result.checked++;
+
+                boolean unverified = coverageStart != null && entry.getCreatedAt() < coverageStart.toEpochMilli();
+                List<ChangeItem> pending = changesAfter(changes, entry.getCreatedAt(), key.getLanguage());
+                if (!unverified && pending.isEmpty()) {
+                    continue;
+                }
+                if (!unverified && patch(key, entry, pending)) {
+                    result.patched++;
+                    continue;
+                }
+                applyChange(key, result);
+            }
+        }
+
+        if (result.failed == 0) {
+            checkpoint = pollStart;
+            saveCheckpoint(pollStart);
+        }
+        logger.debug("Change feed sync finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Get the time of the last successful synchronization pass
+     *
+     * @return the checkpoint, or null if no pass has completed yet
+     */
+    public Instant getCheckpoint() {
+        return checkpoint;
+    }
+
+    private boolean patch(CacheKey key, CacheEntry entry, List<ChangeItem> pending) {
+        if (patcher == null || !(entry.getValue() instanceof PersonDetails)) {
+            return false;
+        }
+        PersonDetails patched = patcher.apply((PersonDetails) entry.getValue(), pending);
+        return patched != null && cache.replace(key, entry, patched);
+    }
+
+    private void applyChange(CacheKey key, SyncResult result) {
+        cache.invalidate(key);
+        if (!refresh && patcher == null) {
+            result.invalidated++;
+            return;
+        }
+        try {
+            personService.getDetails(key.getId(), key.getLanguage(), null);
+            result.refreshed++;
+        } catch (ApiException e) {
+            logger.warn("Failed to refresh person {}", key.getId(), e);
+            result.invalidated++;
+        }
+    }
+
+    private List<ChangeItem> fetchChanges(String personId, LocalDate startDate, LocalDate endDate) throws ApiException {
+        List<ChangeItem> items = new ArrayList<>();
+        int page = 1;
+        int totalPages = 1;
+        do {
+            JsonObject response = personService.getChanges(personId, startDate.toString(), endDate.toString(), page);
+            if (response == null) {
+                break;
+            }
+            if (response.has("total_pages") && !response.get("total_pages").isJsonNull()) {
+                totalPages = response.get("total_pages").getAsInt();
+            }
+            JsonArray changes = response.has("changes") && response.get("changes").isJsonArray()
+                    ? response.getAsJsonArray("changes") : new JsonArray();
+            for (JsonElement change : changes) {
+                JsonObject changeObject = change.getAsJsonObject();
+                String key = getString(changeObject, "key");
+                if (!changeObject.has("items") || !changeObject.get("items").isJsonArray()) {
+                    continue;
+                }
+                for (JsonElement item : changeObject.getAsJsonArray("items")) {
+                    items.add(ChangeItem.parse(key, item.getAsJsonObject()));
+                }
+            }
+            page++;
+        } while (page <= totalPages);
+        return items;
+    }
+
+    private static List<ChangeItem> changesAfter(List<ChangeItem> changes, long fetchedAt, String language) {
+        List<ChangeItem> pending = new ArrayList<>();
+        for (ChangeItem item : changes) {
+            if (item.appliesTo(language) && (item.time == null || item.time.toEpochMilli() > fetchedAt)) {
+                pending.add(item);
+            }
+        }
+        return pending;
+    }
+
+    static String getString(JsonObject object, String member) {
+        JsonElement element = object.get(member);
+        return element != null && !element.isJsonNull() && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    private Instant loadCheckpoint() {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+            String value = properties.getProperty(CHECKPOINT_PROPERTY);
+            return value != null ? Instant.parse(value) : null;
+        } catch (IOException | DateTimeParseException e) {
+            logger.warn("Ignoring unreadable change feed checkpoint {}", checkpointFile, e);
+            return null;
+        }
+    }
+
+    private void saveCheckpoint(Instant value) {
+        if (checkpointFile == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(CHECKPOINT_PROPERTY, value.toString());
+        try {
+            Path parent = checkpointFile.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(parent, checkpointFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "ProMovieDB change feed checkpoint");
+            }
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to persist change feed checkpoint {}", checkpointFile, e);
+        }
+    }
+
+    /**
+     * A single item of a change record
+     */
+    static final class ChangeItem {
+        final String key;
+        final String action;
+        final Instant time;
+        final String language;
+        final JsonObject raw;
+
+        private ChangeItem(String key, String action, Instant time, String language, JsonObject raw) {
+            this.key = key;
+            this.action = action;
+            this.time = time;
+            this.language = language;
+            this.raw = raw;
+        }
+
+        static ChangeItem parse(String key, JsonObject item) {
+            Instant time = null;
+            String timeValue = getString(item, "time");
+            if (timeValue != null) {
+                try {
+                    time = Instant.from(CHANGE_TIME_FORMAT.parse(timeValue));
+                } catch (DateTimeParseException e) {
+                    // Unknown time format, treated as a change of unknown age
+                }
+            }
+            return new ChangeItem(key, getString(item, "action"), time, getString(item, "iso_639_1"), item);
+        }
+
+        /**
+         * Whether this change affects an entry cached in the given language
+         */
+        boolean appliesTo(String entryLanguage) {
+            if (language == null || language.isEmpty() || entryLanguage == null || entryLanguage.isEmpty()) {
+                return true;
+            }
+            int dash = entryLanguage.indexOf('-');
+            String primary = dash > 0 ? entryLanguage.substring(0, dash) : entryLanguage;
+            return language.equalsIgnoreCase(primary);
+        }
+    }
+
+    /**
+     * Outcome of a synchronization pass
+     */
+    public static class SyncResult {
+        private int checked;
+        private int invalidated;
+        private int refreshed;
+        private int patched;
+        private int failed;
+
+        public int getChecked() {
+            return checked;
+        }
+
+        public int getInvalidated() {
+            return invalidated;
+        }
+
+        public int getRefreshed() {
+            return refreshed;
+        }
+
+        public int getPatched() {
+            return patched;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return "checked=" + checked + ", invalidated=" + invalidated
+                    + ", refreshed=" + refreshed + ", patched=" + patched + ", failed=" + failed;
+        }
+    }
+
+    /**
+     * Builder for creating ChangeFeedSynchronizer instances
+     */
+    public static class Builder {
+        private PersonService personService;
+        private EntityCache cache;
+        private int pollIntervalSeconds = 300;
+        private Path checkpointFile;
+        private boolean refresh = false;
+        private boolean patch = false;
+
+        public Builder personService(PersonService personService) {
+            this.personService = personService;
+            return this;
+        }
+
+        public Builder cache(EntityCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public Builder pollIntervalSeconds(int pollIntervalSeconds) {
+            this.pollIntervalSeconds = pollIntervalSeconds;
+            return this;
+        }
+
+        /**
+         * File the checkpoint is persisted to (optional)
+         */
+        public Builder checkpointFile(Path checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        /**
+         * Refetch changed entries instead of only invalidating them (default false)
+         */
+        public Builder refresh(boolean refresh) {
+            this.refresh = refresh;
+            return this;
+        }
+
+        /**
+         * Apply change items to cached entries in place of a refetch when possible (default false)
+         * Entries whose changes cannot be applied are refetched.
+         */
+        public Builder patch(boolean patch) {
+            this.patch = patch;
+            return this;
+        }
+
+        public ChangeFeedSynchronizer build() {
+            if (personService == null) {
+                throw new IllegalArgumentException("Person service is required");
+            }
+            if (cache == null) {
+                throw new IllegalArgumentException("Cache is required");
+            }
+            if (pollIntervalSeconds <= 0) {
+                throw new IllegalArgumentException("Poll interval must be positive");
+            }
+            return new ChangeFeedSynchronizer(this);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.promoviedb.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of movie, TV series and person details
+ * <p>
+ * Entries expire after a fixed TTL. When the cache grows beyond its maximum size, expired entries
+ * are dropped first and then the least recently accessed ones, down to 90% of the maximum.
+ */
+public class EntityCache {
+    private final ConcurrentHashMap<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final List<CacheListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param ttlMillis  Time-to-live of an entry in milliseconds
+     * @param maxEntries Maximum number of entries
+     */
+    public EntityCache(long ttlMillis, int maxEntries) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache TTL must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @return the cached value, or null if absent or expired
+     */
+    public <T> T get(CacheKey key, Class<T> type) {
+        long now = System.currentTimeMillis();
+        CacheEntry entry = entries.get(key);
+        if (entry == null || entry.isExpired(now) || !type.isInstance(entry.getValue())) {
+            if (entry != null && entry.isExpired(now)) {
+                remove(key, entry);
+            }
+            missCount.incrementAndGet();
+            return null;
+        }
+        entry.recordHit(now);
+        hitCount.incrementAndGet();
+        return type.cast(entry.getValue());
+    }
+
+    /**
+     * Get the raw entry for a key without touching hit statistics
+     *
+     * @return the entry, possibly expired, or null if absent
+     */
+    public CacheEntry getEntry(CacheKey key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Cache a value, replacing any existing entry
+     */
+    public void put(CacheKey key, Object value) {
+        long now = System.currentTimeMillis();
+        entries.put(key, new CacheEntry(value, now, now + ttlMillis, 0));
+        notifyPut(key, value);
+        evictIfNeeded();
+    }
+
+    /**
+     * Replace an entry only if it is still the expected one
+     *
+     * @return true if the entry was replaced
+     */
+    public boolean replace(CacheKey key, CacheEntry expected, Object value) {
+        long now = System.currentTimeMillis();
+        if (!entries.replace(key, expected, new CacheEntry(value, now, now + ttlMillis, expected.getHits()))) {
+            return false;
+        }
+        notifyPut(key, value);
+        return true;
+    }
+
+    /**
+     * Remove a single entry
+     */
+    public void invalidate(CacheKey key) {
+        CacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            notifyRemove(key, entry.getValue());
+        }
+    }
+
+    /**
+     * Remove every entry of an entity, whatever its language
+     *
+     * @return number of entries removed
+     */
+    public int invalidate(EntityType type, String id) {
+        int removed = 0;
+        for (CacheKey key : keys(type)) {
+            if (!key.getId().equals(id)) {
+                continue;
+            }
+            CacheEntry entry = entries.remove(key);
+            if (entry != null) {
+                notifyRemove(key, entry.getValue());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the keys currently cached for an entity type
+     */
+    public List<CacheKey> keys(EntityType type) {
+        List<CacheKey> keys = new ArrayList<>();
+        for (CacheKey key : entries.keySet()) {
+            if (key.getType() == type) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Get the distinct entity IDs currently cached for an entity type
+     */
+    public Set<String> ids(EntityType type) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (CacheKey key : keys(type)) {
+            ids.add(key.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Install an entry restored from a snapshot, keeping its original timestamps
+     */
+    void restore(CacheKey key, Object value, long createdAt, long expiresAt, long hits, boolean hot) {
+        CacheEntry entry = new CacheEntry(value, createdAt, expiresAt, hits);
+        if (hot) {
+            entry.touch(System.currentTimeMillis());
+        }
+        entries.put(key, entry);
+        notifyPut(key, value);
+        evictIfNeeded();
+    }
+
+    /**
+     * Be notified of every value stored from now on
+     */
+    public void addListener(CacheListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CacheListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Live view of the cached entries
+     */
+    Set<Map.Entry<CacheKey, CacheEntry>> entrySet() {
+        return entries.entrySet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        for (Map.Entry<CacheKey, CacheEntry> e : entries.entrySet()) {
+            remove(e.getKey(), e.getValue());
+        }
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private void notifyPut(CacheKey key, Object value) {
+        for (CacheListener listener : listeners) {
+            listener.onPut(key, value);
+        }
+    }
+
+    private void notifyRemove(CacheKey key, Object value) {
+        for (CacheListener listener : listeners) {
+            listener.onRemove(key, value);
+        }
+    }
+
+    /**
+     * Remove an entry if it is still the given one, notifying listeners
+     */
+    private void remove(CacheKey key, CacheEntry entry) {
+        if (entries.remove(key, entry)) {
+            notifyRemove(key, entry.getValue());
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (entries.size() <= maxEntries || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<CacheKey, CacheEntry> e : entries.entrySet()) {
+                if (e.getValue().isExpired(now)) {
+                    remove(e.getKey(), e.getValue());
+                }
+            }
+
+            int target = (int) (maxEntries * 0.9);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<CacheKey, CacheEntry>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().getLastAccessedAt()));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Map.Entry<CacheKey, CacheEntry> e = candidates.get(i);
+                remove(e.getKey(), e.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
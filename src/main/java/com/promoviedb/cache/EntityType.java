@@ -0,0 +1,27 @@
+package com.promoviedb.cache;
+
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.model.person.PersonDetails;
+import com.promoviedb.model.tv.TvSeriesDetails;
+
+/**
+ * Entity types held in the {@link EntityCache}
+ */
+public enum EntityType {
+    MOVIE(MovieDetails.class),
+    TV_SERIES(TvSeriesDetails.class),
+    PERSON(PersonDetails.class);
+
+    private final Class<?> modelClass;
+
+    EntityType(Class<?> modelClass) {
+        this.modelClass = modelClass;
+    }
+
+    /**
+     * Get the model class cached for this entity type
+     */
+    public Class<?> getModelClass() {
+        return modelClass;
+    }
+}
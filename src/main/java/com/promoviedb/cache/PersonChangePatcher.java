@@ -0,0 +1,123 @@
+package com.promoviedb.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.promoviedb.model.person.PersonDetails;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies person change items to a cached {@link PersonDetails}
+ * <p>
+ * The cached instance is never modified: a patched copy is built from its JSON tree so that the
+ * new version can be swapped into the cache atomically.
+ */
+final class PersonChangePatcher {
+    private static final Set<String> SCALAR_FIELDS = new HashSet<>(Arrays.asList(
+            "name", "biography", "birthday", "deathday", "gender", "homepage", "imdb_id",
+            "known_for_department", "place_of_birth", "popularity", "profile_path"));
+    private static final String ALSO_KNOWN_AS = "also_known_as";
+
+    private final Gson gson = new Gson();
+
+    /**
+     * Apply change items to a copy of the given person
+     *
+     * @param current Cached person details (left untouched)
+     * @param changes Change items relevant to the cached entry
+     * @return the patched copy, or null if any change cannot be applied
+     */
+    PersonDetails apply(PersonDetails current, List<ChangeFeedSynchronizer.ChangeItem> changes) {
+        List<ChangeFeedSynchronizer.ChangeItem> ordered = new ArrayList<>(changes);
+        for (ChangeFeedSynchronizer.ChangeItem item : ordered) {
+            if (item.time == null || item.key == null || item.action == null) {
+                return null;
+            }
+        }
+        ordered.sort(Comparator.comparing(item -> item.time));
+
+        JsonObject tree = gson.toJsonTree(current).getAsJsonObject();
+        for (ChangeFeedSynchronizer.ChangeItem item : ordered) {
+            boolean applied = ALSO_KNOWN_AS.equals(item.key)
+                    ? applyListChange(tree, item)
+                    : applyScalarChange(tree, item);
+            if (!applied) {
+                return null;
+            }
+        }
+        return gson.fromJson(tree, PersonDetails.class);
+    }
+
+    private static boolean applyScalarChange(JsonObject tree, ChangeFeedSynchronizer.ChangeItem item) {
+        if (!SCALAR_FIELDS.contains(item.key)) {
+            return false;
+        }
+        switch (item.action) {
+            case "added":
+            case "updated":
+                JsonElement value = item.raw.get("value");
+                if (value == null || !(value.isJsonPrimitive() || value.isJsonNull())) {
+                    return false;
+                }
+                tree.add(item.key, value);
+                return true;
+            case "deleted":
+                tree.add(item.key, JsonNull.INSTANCE);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean applyListChange(JsonObject tree, ChangeFeedSynchronizer.ChangeItem item) {
+        JsonElement existing = tree.get(ALSO_KNOWN_AS);
+        JsonArray names = existing != null && existing.isJsonArray() ? existing.getAsJsonArray() : new JsonArray();
+        JsonElement value = item.raw.get("value");
+        JsonElement originalValue = item.raw.get("original_value");
+
+        switch (item.action) {
+            case "added":
+                if (value == null || !value.isJsonPrimitive()) {
+                    return false;
+                }
+                names.add(value);
+                break;
+            case "deleted":
+                if (originalValue == null || !names.remove(originalValue)) {
+                    return false;
+                }
+                break;
+            case "updated":
+                if (value == null || !value.isJsonPrimitive() || originalValue == null) {
+                    return false;
+                }
+                int index = indexOf(names, originalValue);
+                if (index < 0) {
+                    return false;
+                }
+                names.set(index, value);
+                break;
+            default:
+                return false;
+        }
+        tree.add(ALSO_KNOWN_AS, names);
+        return true;
+    }
+
+    private static int indexOf(JsonArray array, JsonElement element) {
+        for (int i = 0; i < array.size(); i++) {
+            if (array.get(i).equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,5 +1,17 @@
 package com.promoviedb.config;
 
+import com.promoviedb.http.AdaptiveConcurrencyLimiter;
+import com.promoviedb.http.ApiKeyPool;
+import com.promoviedb.http.EndpointRouter;
+import com.promoviedb.http.FairScheduler;
+import com.promoviedb.metrics.MetricsRecorder;
+import com.promoviedb.recording.TrafficRecorder;
+import com.promoviedb.recording.TrafficReplayer;
+import com.promoviedb.search.SearchResultCache;
+import com.promoviedb.tracing.SpanExporter;
+
+import java.nio.file.Path;
+
 /**
  * Configuration class for ProMovieDB client
  */
@@ -12,16 +24,44 @@ public class ClientConfig {
     private final int readTimeout;
     private final int writeTimeout;
     private final boolean enableLogging;
+    private final int cacheTtlSeconds;
+    private final int cacheMaxEntries;
+    private final Path cacheSnapshotFile;
+    private final ApiKeyPool apiKeyPool;
+    private final EndpointRouter endpointRouter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final FairScheduler scheduler;
+    private final MetricsRecorder metricsRecorder;
+    private final SpanExporter spanExporter;
+    private final TrafficRecorder trafficRecorder;
+    private final TrafficReplayer trafficReplayer;
+    private final int healthCheckIntervalSeconds;
+    private final boolean localTitleIndex;
+    private final SearchResultCache searchCache;
 
     private ClientConfig(Builder builder) {
-        this.apiKey = builder.apiKey;
-        this.baseUrl = builder.baseUrl;
+        this.apiKey = builder.apiKeyPool != null ? builder.apiKeyPool.getPrimaryKey() : builder.apiKey;
+        this.baseUrl = builder.endpointRouter != null ? builder.endpointRouter.getPrimaryBaseUrl() : builder.baseUrl;
         this.apiVersion = normalizeVersion(builder.apiVersion);
         this.language = builder.language;
         this.connectTimeout = builder.connectTimeout;
         this.readTimeout = builder.readTimeout;
         this.writeTimeout = builder.writeTimeout;
         this.enableLogging = builder.enableLogging;
+        this.cacheTtlSeconds = builder.cacheTtlSeconds;
+        this.cacheMaxEntries = builder.cacheMaxEntries;
+        this.cacheSnapshotFile = builder.cacheSnapshotFile;
+        this.apiKeyPool = builder.apiKeyPool;
+        this.endpointRouter = builder.endpointRouter;
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.scheduler = builder.scheduler;
+        this.metricsRecorder = builder.metricsRecorder;
+        this.spanExporter = builder.spanExporter;
+        this.trafficRecorder = builder.trafficRecorder;
+        this.trafficReplayer = builder.trafficReplayer;
+        this.healthCheckIntervalSeconds = builder.healthCheckIntervalSeconds;
+        this.localTitleIndex = builder.localTitleIndex;
+        this.searchCache = builder.searchCache;
     }
 
     /**
@@ -71,6 +111,102 @@ public class ClientConfig {
         return enableLogging;
     }
 
+    public int getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public Path getCacheSnapshotFile() {
+        return cacheSnapshotFile;
+    }
+
+    /**
+     * Get the API key pool requests are dispatched across, or null if every request uses the single API key
+     */
+    public ApiKeyPool getApiKeyPool() {
+        return apiKeyPool;
+    }
+
+    /**
+     * Get the router spreading requests across several base URLs, or null if all go to the base URL
+     */
+    public EndpointRouter getEndpointRouter() {
+        return endpointRouter;
+    }
+
+    /**
+     * Get the limiter on in-flight requests, or null if requests are not limited
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Get the scheduler that orders requests by lane and tenant, or null if requests are sent as they come
+     */
+    public FairScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Get the recorder that receives request metrics; {@link MetricsRecorder#NOOP} unless one is configured
+     */
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * Get the exporter that receives call spans, or null if tracing is disabled
+     */
+    public SpanExporter getSpanExporter() {
+        return spanExporter;
+    }
+
+    /**
+     * Get the recorder that captures every exchange, or null if traffic is not recorded
+     */
+    public TrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
+    /**
+     * Get the replayer that answers requests from a recording, or null if requests go to the network
+     */
+    public TrafficReplayer getTrafficReplayer() {
+        return trafficReplayer;
+    }
+
+    /**
+     * Get the interval between background health checks; 0 when health is not monitored
+     */
+    public int getHealthCheckIntervalSeconds() {
+        return healthCheckIntervalSeconds;
+    }
+
+    /**
+     * Whether title searches are answered from a local index of cached and previously found entities
+     */
+    public boolean isLocalTitleIndex() {
+        return localTitleIndex;
+    }
+
+    /**
+     * Get the cache that search results are served from, or null if searches are not cached
+     */
+    public SearchResultCache getSearchCache() {
+        return searchCache;
+    }
+
+    /**
+     * Whether details responses are cached (enabled when the cache TTL is positive)
+     */
+    public boolean isCacheEnabled() {
+        return cacheTtlSeconds > 0;
+    }
+
     public static class Builder {
         private String apiKey;
         private String baseUrl = "https://api.promoviedb.com";
@@ -80,6 +216,20 @@ public class ClientConfig {
         private int readTimeout = 30;
         private int writeTimeout = 30;
         private boolean enableLogging = false;
+        private int cacheTtlSeconds = 0;
+        private int cacheMaxEntries = 10000;
+        private Path cacheSnapshotFile;
+        private ApiKeyPool apiKeyPool;
+        private EndpointRouter endpointRouter;
+        private AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private FairScheduler scheduler;
+        private MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+        private SpanExporter spanExporter;
+        private TrafficRecorder trafficRecorder;
+        private TrafficReplayer trafficReplayer;
+        private int healthCheckIntervalSeconds = 0;
+        private boolean localTitleIndex = false;
+        private SearchResultCache searchCache;
 
         public Builder apiKey(String apiKey) {
             this.apiKey = apiKey;
@@ -121,13 +271,128 @@ public class ClientConfig {
             return this;
         }
 
+        public Builder cacheTtlSeconds(int cacheTtlSeconds) {
+            this.cacheTtlSeconds = cacheTtlSeconds;
+            return this;
+        }
+
+        public Builder cacheMaxEntries(int cacheMaxEntries) {
+            this.cacheMaxEntries = cacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * File the cache is saved to on close and restored from on startup (optional)
+         */
+        public Builder cacheSnapshotFile(Path cacheSnapshotFile) {
+            this.cacheSnapshotFile = cacheSnapshotFile;
+            return this;
+        }
+
+        /**
+         * Spread requests across several API keys (optional); replaces the API key when set
+         */
+        public Builder apiKeyPool(ApiKeyPool apiKeyPool) {
+            this.apiKeyPool = apiKeyPool;
+            return this;
+        }
+
+        /**
+         * Spread requests across several base URLs (optional); replaces the base URL when set
+         */
+        public Builder endpointRouter(EndpointRouter endpointRouter) {
+            this.endpointRouter = endpointRouter;
+            return this;
+        }
+
+        /**
+         * Limit in-flight requests adaptively from observed latency (optional)
+         */
+        public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * Dispatch requests fairly across lanes and tenants (optional)
+         */
+        public Builder scheduler(FairScheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Record request metrics (optional)
+         */
+        public Builder metricsRecorder(MetricsRecorder metricsRecorder) {
+            this.metricsRecorder = metricsRecorder != null ? metricsRecorder : MetricsRecorder.NOOP;
+            return this;
+        }
+
+        /**
+         * Export a span with connection phase timings for every call (optional)
+         */
+        public Builder spanExporter(SpanExporter spanExporter) {
+            this.spanExporter = spanExporter;
+            return this;
+        }
+
+        /**
+         * Record every exchange, with the API key redacted (optional)
+         */
+        public Builder trafficRecorder(TrafficRecorder trafficRecorder) {
+            this.trafficRecorder = trafficRecorder;
+            return this;
+        }
+
+        /**
+         * Answer requests from a recording instead of the network (optional)
+         */
+        public Builder trafficReplayer(TrafficReplayer trafficReplayer) {
+            this.trafficReplayer = trafficReplayer;
+            return this;
+        }
+
+        /**
+         * Ping the API in the background at this interval and cache its health (0 = disabled, default)
+         */
+        public Builder healthCheckIntervalSeconds(int healthCheckIntervalSeconds) {
+            this.healthCheckIntervalSeconds = healthCheckIntervalSeconds;
+            return this;
+        }
+
+        /**
+         * Answer title searches from a local index first, falling back to the API on a miss (default false)
+         */
+        public Builder localTitleIndex(boolean localTitleIndex) {
+            this.localTitleIndex = localTitleIndex;
+            return this;
+        }
+
+        /**
+         * Cache search results across pages, page sizes and spellings of a query (optional)
+         */
+        public Builder searchCache(SearchResultCache searchCache) {
+            this.searchCache = searchCache;
+            return this;
+        }
+
         public ClientConfig build() {
-            if (apiKey == null || apiKey.trim().isEmpty()) {
+            if (trafficRecorder != null && trafficReplayer != null) {
+                throw new IllegalArgumentException("Traffic cannot be recorded and replayed at the same time");
+            }
+            if (apiKeyPool == null && (apiKey == null || apiKey.trim().isEmpty())) {
                 throw new IllegalArgumentException("API key is required");
             }
-            if (baseUrl == null || baseUrl.trim().isEmpty()) {
+            if (endpointRouter == null && (baseUrl == null || baseUrl.trim().isEmpty())) {
                 throw new IllegalArgumentException("Base URL is required");
             }
+            if (cacheTtlSeconds > 0 && cacheMaxEntries <= 0) {
+                throw new IllegalArgumentException("Cache max entries must be positive");
+            }
+            if (healthCheckIntervalSeconds < 0) {
+                throw new IllegalArgumentException("Health check interval must not be negative");
+            }
             return new ClientConfig(this);
         }
     }
@@ -0,0 +1,16 @@
+package com.promoviedb.diagnostics;
+
+/**
+ * An API call being timed; ended exactly once
+ */
+public interface CallRecording {
+
+    /**
+     * End the call
+     *
+     * @param statusCode    HTTP status code, or -1 if no response was received
+     * @param bytesSent     Size of the request body
+     * @param bytesReceived Size of the response body
+     */
+    void end(int statusCode, long bytesSent, long bytesReceived);
+}
@@ -0,0 +1,31 @@
+package com.promoviedb.diagnostics;
+
+/**
+ * Phases of an API call reported as flight recorder events
+ */
+public enum Phase {
+    /**
+     * Parsing the request URL and building the HTTP request
+     */
+    URL_BUILD,
+
+    /**
+     * Waiting for a scheduler or concurrency limiter slot
+     */
+    QUEUE_WAIT,
+
+    /**
+     * Sending the request and waiting for the response headers
+     */
+    NETWORK,
+
+    /**
+     * Reading the response body
+     */
+    BODY_READ,
+
+    /**
+     * Decoding the response JSON into model objects
+     */
+    JSON_DECODE
+}
@@ -0,0 +1,14 @@
+package com.promoviedb.diagnostics;
+
+/**
+ * A phase being timed; ended exactly once
+ */
+public interface PhaseRecording {
+
+    /**
+     * End the phase
+     *
+     * @param endpoint Endpoint family, or null to use the last endpoint called on this thread
+     */
+    void end(String endpoint);
+}
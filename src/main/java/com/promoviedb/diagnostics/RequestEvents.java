@@ -0,0 +1,39 @@
+package com.promoviedb.diagnostics;
+
+/**
+ * Emits Java Flight Recorder events for API calls and their phases
+ * <p>
+ * This is the Java 8 implementation, which records nothing. On Java 21 and later the multi-release
+ * JAR provides an implementation that emits {@code promoviedb.ApiCall} and {@code promoviedb.Phase}
+ * events. When those events are disabled in the recording settings, no event objects are created.
+ */
+public final class RequestEvents {
+    private static final PhaseRecording NOOP_PHASE = endpoint -> {
+    };
+    private static final CallRecording NOOP_CALL = (statusCode, bytesSent, bytesReceived) -> {
+    };
+
+    private RequestEvents() {
+    }
+
+    /**
+     * Whether events are being recorded
+     */
+    public static boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Start timing a phase on the current thread
+     */
+    public static PhaseRecording begin(Phase phase) {
+        return NOOP_PHASE;
+    }
+
+    /**
+     * Start timing an API call on the current thread
+     */
+    public static CallRecording beginCall(String endpoint, String method) {
+        return NOOP_CALL;
+    }
+}
@@ -0,0 +1,31 @@
+package com.promoviedb.exception;
+
+/**
+ * Exception thrown when a call is cancelled by its caller.
+ * <p>
+ * This exception is thrown when the cancellation token of the {@code CallContext} is cancelled,
+ * either before the request is sent or while it is in flight, in which case the HTTP call is cancelled.
+ * </p>
+ *
+ * @see ApiException
+ */
+public class CallCancelledException extends ApiException {
+    /**
+     * Constructs a new call cancelled exception with the specified message.
+     *
+     * @param message the detail message
+     */
+    public CallCancelledException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new call cancelled exception with the specified message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of this exception
+     */
+    public CallCancelledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
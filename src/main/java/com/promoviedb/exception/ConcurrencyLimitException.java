@@ -0,0 +1,21 @@
+package com.promoviedb.exception;
+
+/**
+ * Exception thrown when a request is rejected by the client-side concurrency limiter.
+ * <p>
+ * This exception is thrown without contacting the API when the number of in-flight requests
+ * is at the current limit and the request could not be queued, or waited too long in the queue.
+ * </p>
+ *
+ * @see ApiException
+ */
+public class ConcurrencyLimitException extends ApiException {
+    /**
+     * Constructs a new concurrency limit exception with the specified message.
+     *
+     * @param message the detail message
+     */
+    public ConcurrencyLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.promoviedb.exception;
+
+/**
+ * Exception thrown when a call does not complete before its deadline.
+ * <p>
+ * This exception is thrown when the deadline of the {@code CallContext} has passed, either before
+ * the request is sent or while it is in flight, in which case the HTTP call is cancelled.
+ * </p>
+ *
+ * @see ApiException
+ */
+public class DeadlineExceededException extends ApiException {
+    /**
+     * Constructs a new deadline exceeded exception with the specified message.
+     *
+     * @param message the detail message
+     */
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new deadline exceeded exception with the specified message and cause.
+     *
+     * @param message the detail message
+     * @param cause the cause of this exception
+     */
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
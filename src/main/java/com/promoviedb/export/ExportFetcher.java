@@ -0,0 +1,108 @@
+package com.promoviedb.export;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.model.common.Cast;
+import com.promoviedb.model.common.Credits;
+import com.promoviedb.model.common.Crew;
+import com.promoviedb.service.MovieService;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.service.SearchService;
+import com.promoviedb.service.TvSeriesService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fetch stage of an export: turns one input into the records written for it
+ *
+ * @param <I> Input type, e.g. an entity ID or a search query
+ */
+public interface ExportFetcher<I> {
+
+    /**
+     * Fetch the records for one input; each record is written as one NDJSON line
+     *
+     * @throws ApiException if the request fails
+     */
+    Iterable<?> fetch(I input) throws ApiException;
+
+    /**
+     * Fetch movie details by movie ID
+     */
+    static ExportFetcher<String> movieDetails(MovieService movieService) {
+        return movieId -> Collections.singletonList(movieService.getDetails(movieId));
+    }
+
+    /**
+     * Fetch TV series details by series ID
+     */
+    static ExportFetcher<String> tvSeriesDetails(TvSeriesService tvSeriesService) {
+        return seriesId -> Collections.singletonList(tvSeriesService.getDetails(seriesId));
+    }
+
+    /**
+     * Fetch person details by person ID
+     */
+    static ExportFetcher<String> personDetails(PersonService personService) {
+        return personId -> Collections.singletonList(personService.getDetails(personId));
+    }
+
+    /**
+     * Fetch every movie search hit of a query, one record per hit
+     *
+     * @param maxPages Maximum number of result pages per query (the API serves at most 10)
+     */
+    static ExportFetcher<String> movieSearchHits(SearchService searchService, int maxPages) {
+        return query -> {
+            List<JsonElement> hits = new ArrayList<>();
+            int totalPages = 1;
+            for (int page = 1; page <= Math.min(totalPages, maxPages); page++) {
+                JsonObject response = searchService.searchMovie(query, null, null, page, null, null);
+                if (response == null || !response.has("results") || !response.get("results").isJsonArray()) {
+                    break;
+                }
+                JsonArray results = response.getAsJsonArray("results");
+                for (JsonElement hit : results) {
+                    hits.add(hit);
+                }
+                if (response.has("total_pages") && !response.get("total_pages").isJsonNull()) {
+                    totalPages = response.get("total_pages").getAsInt();
+                }
+                if (results.size() == 0) {
+                    break;
+                }
+            }
+            return hits;
+        };
+    }
+
+    /**
+     * Collect the distinct person IDs of the cast and crew of a set of credits
+     */
+    static List<String> personIds(Iterable<Credits> credits) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Credits credit : credits) {
+            if (credit.getCast() != null) {
+                for (Cast cast : credit.getCast()) {
+                    if (cast.getId() != null) {
+                        ids.add(cast.getId().toString());
+                    }
+                }
+            }
+            if (credit.getCrew() != null) {
+                for (Crew crew : credit.getCrew()) {
+                    if (crew.getId() != null) {
+                        ids.add(crew.getId().toString());
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+}
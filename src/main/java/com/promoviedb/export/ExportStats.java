@@ -0,0 +1,101 @@
+package com.promoviedb.export;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress and throughput counters of an export
+ * <p>
+ * Counters are updated while the export runs and can be read from any thread.
+ */
+public class ExportStats {
+    private final AtomicLong inputs = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+    private volatile BlockingQueue<?> queue;
+
+    /**
+     * Number of inputs taken by the fetch stage
+     */
+    public long getInputs() {
+        return inputs.get();
+    }
+
+    /**
+     * Number of records written
+     */
+    public long getRecords() {
+        return records.get();
+    }
+
+    /**
+     * Number of inputs whose fetch failed
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Number of uncompressed NDJSON bytes written
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Number of fetched records waiting for the writer
+     */
+    public int getQueueDepth() {
+        BlockingQueue<?> current = queue;
+        return current != null ? current.size() : 0;
+    }
+
+    public long getElapsedMillis() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    /**
+     * Records written per second since the export started
+     */
+    public double getRecordsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed > 0 ? records.get() * 1000.0 / elapsed : 0;
+    }
+
+    public boolean isFinished() {
+        return endNanos != 0;
+    }
+
+    void input() {
+        inputs.incrementAndGet();
+    }
+
+    void failure() {
+        failures.incrementAndGet();
+    }
+
+    void written(long byteCount) {
+        records.incrementAndGet();
+        bytes.addAndGet(byteCount);
+    }
+
+    void attach(BlockingQueue<?> queue) {
+        this.queue = queue;
+    }
+
+    void finish() {
+        queue = null;
+        endNanos = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("inputs=%d, records=%d, failures=%d, bytes=%d, elapsed=%dms, %.1f records/s",
+                getInputs(), getRecords(), getFailures(), getBytes(), getElapsedMillis(), getRecordsPerSecond());
+    }
+}
@@ -0,0 +1,354 @@
+package com.promoviedb.export;
+
+import com.google.gson.Gson;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.DeadlineExceededException;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.Lane;
+import com.promoviedb.util.ThreadSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams fetched entities to newline-delimited JSON, optionally gzipped
+ * <p>
+ * A pool of fetch workers pulls inputs and hands the fetched records to a single writer through a
+ * bounded queue. When the writer falls behind, workers block on the full queue, so memory use stays
+ * flat whatever the size of the export. Inputs whose fetch fails are counted and skipped.
+ *
+ * <pre>{@code
+ * NdjsonExporter exporter = new NdjsonExporter.Builder()
+ *     .parallelism(8)
+ *     .gzip(true)
+ *     .build();
+ *
+ * List<String> personIds = ExportFetcher.personIds(creditsList);
+ * ExportStats stats = exporter.export(personIds,
+ *     ExportFetcher.personDetails(client.personService()), Paths.get("people.ndjson.gz"));
+ * }</pre>
+ */
+public class NdjsonExporter {
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonExporter.class);
+    private static final Object NO_INPUT = new Object();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int parallelism;
+    private final int queueCapacity;
+    private final boolean gzip;
+    private final int progressInterval;
+    private final ProgressListener progressListener;
+    private final Lane lane;
+    private final Gson gson = new Gson();
+
+    private NdjsonExporter(Builder builder) {
+        this.parallelism = builder.parallelism;
+        this.queueCapacity = builder.queueCapacity;
+        this.gzip = builder.gzip;
+        this.progressInterval = builder.progressInterval;
+        this.progressListener = builder.progressListener;
+        this.lane = builder.lane;
+    }
+
+    /**
+     * Export the records fetched for every input to a file
+     *
+     * @return final export counters
+     * @throws IOException if the file cannot be written
+     */
+    public <I> ExportStats export(Iterable<I> inputs, ExportFetcher<I> fetcher, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return export(inputs.iterator(), fetcher, out);
+        }
+    }
+
+    /**
+     * Export the records fetched for every input to a stream
+     * The stream is flushed but not closed. The deadline and cancellation token of the caller's
+     * {@link CallContext} apply to the whole export.
+     *
+     * @return final export counters
+     * @throws IOException if the stream cannot be written
+     * @throws CallCancelledException if the export is cancelled; records fetched so far are written
+     * @throws DeadlineExceededException if the deadline passes first; records fetched so far are written
+     */
+    public <I> ExportStats export(Iterator<I> inputs, ExportFetcher<I> fetcher, OutputStream out) throws IOException {
+        ExportStats stats = new ExportStats();
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        stats.attach(queue);
+
+        AtomicBoolean aborted = new AtomicBoolean();
+        AtomicInteger finishedWorkers = new AtomicInteger();
+        InputCursor<I> cursor = new InputCursor<>(inputs);
+        CallContext context = CallContext.current().withLane(lane);
+        ExecutorService workers = ThreadSupport.newBlockingExecutor("promoviedb-export", parallelism);
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                workers.execute(() -> {
+                    try (CallContext.Scope scope = context.attach()) {
+                        fetchLoop(cursor, fetcher, queue, stats, aborted);
+                    } finally {
+                        finishedWorkers.incrementAndGet();
+                    }
+                });
+            }
+            writeLoop(queue, out, stats, aborted, finishedWorkers);
+            if (aborted.get()) {
+                context.checkActive();
+            }
+            return stats;
+        } catch (IOException | RuntimeException e) {
+            aborted.set(true);
+            throw e;
+        } finally {
+            workers.shutdownNow();
+            stats.finish();
+            if (progressListener != null) {
+                progressListener.onProgress(stats);
+            }
+        }
+    }
+
+    private <I> void fetchLoop(InputCursor<I> cursor, ExportFetcher<I> fetcher,
+                               BlockingQueue<Object> queue, ExportStats stats, AtomicBoolean aborted) {
+        try {
+            Object next;
+            while (!aborted.get() && (next = cursor.next()) != NO_INPUT) {
+                @SuppressWarnings("unchecked")
+                I input = (I) next;
+                stats.input();
+
+                Iterable<?> records;
+                try {
+                    records = fetcher.fetch(input);
+                } catch (CallCancelledException | DeadlineExceededException e) {
+                    // The caller gave up; stop every worker rather than failing input after input
+                    aborted.set(true);
+                    return;
+                } catch (RuntimeException e) {
+                    logger.warn("Export fetch failed for input {}", input, e);
+                    stats.failure();
+                    continue;
+                }
+                if (records == null) {
+                    continue;
+                }
+                for (Object record : records) {
+                    if (record != null && !put(queue, record, aborted)) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean put(BlockingQueue<Object> queue, Object item, AtomicBoolean aborted) throws InterruptedException {
+        if (aborted.get()) {
+            return false;
+        }
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (aborted.get()) {
+                return false;
+            }
+            try {
+                CallContext.current().checkActive();
+            } catch (CallCancelledException | DeadlineExceededException e) {
+                // The writer may be slow to drain; do not wait for it once the caller has given up
+                aborted.set(true);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write records until every worker has finished, or the export is aborted and the queue is drained
+     */
+    private void writeLoop(BlockingQueue<Object> queue, OutputStream out, ExportStats stats,
+                           AtomicBoolean aborted, AtomicInteger finishedWorkers) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(new NonClosingOutputStream(out), BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        while (true) {
+            Object item;
+            try {
+                item = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            }
+            if (item == null) {
+                if (!aborted.get() && finishedWorkers.get() < parallelism) {
+                    continue;
+                }
+                // Records put just before the last worker finished are still queued
+                item = queue.poll();
+                if (item == null) {
+                    break;
+                }
+            }
+
+            String line = gson.toJson(item);
+            writer.write(line);
+            writer.write('\n');
+            stats.written(utf8Length(line) + 1);
+
+            if (progressListener != null && stats.getRecords() % progressInterval == 0) {
+                progressListener.onProgress(stats);
+            }
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        out.flush();
+    }
+
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Callback invoked by the writer every progress interval and once the export ends
+     */
+    public interface ProgressListener {
+        void onProgress(ExportStats stats);
+    }
+
+    /**
+     * Hands out inputs to fetch workers one at a time
+     */
+    private static final class InputCursor<I> {
+        private final Iterator<I> inputs;
+
+        InputCursor(Iterator<I> inputs) {
+            this.inputs = inputs;
+        }
+
+        synchronized Object next() {
+            return inputs.hasNext() ? inputs.next() : NO_INPUT;
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Builder for creating NdjsonExporter instances
+     */
+    public static class Builder {
+        private int parallelism = 4;
+        private int queueCapacity = 256;
+        private boolean gzip = false;
+        private int progressInterval = 1000;
+        private ProgressListener progressListener;
+        private Lane lane = Lane.BULK;
+
+        /**
+         * Number of concurrent fetch workers (default 4)
+         * On Java 21 and later each worker is a virtual thread, so thousands of workers are cheap.
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Maximum number of fetched records buffered ahead of the writer (default 256)
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Gzip the output (default false)
+         */
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Report progress every given number of records (default 1000)
+         */
+        public Builder progressListener(ProgressListener progressListener, int progressInterval) {
+            this.progressListener = progressListener;
+            this.progressInterval = progressInterval;
+            return this;
+        }
+
+        /**
+         * Lane the fetches are scheduled in (default BULK); the tenant is taken from the caller's context
+         */
+        public Builder lane(Lane lane) {
+            this.lane = lane;
+            return this;
+        }
+
+        public NdjsonExporter build() {
+            if (lane == null) {
+                throw new IllegalArgumentException("Lane is required");
+            }
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive");
+            }
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive");
+            }
+            if (progressInterval <= 0) {
+                throw new IllegalArgumentException("Progress interval must be positive");
+            }
+            return new NdjsonExporter(this);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.promoviedb.graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest chain of credits between two people
+ */
+public final class Connection {
+    private final List<GraphNode> path;
+    private final int fetchCount;
+
+    Connection(List<GraphNode> path, int fetchCount) {
+        this.path = Collections.unmodifiableList(path);
+        this.fetchCount = fetchCount;
+    }
+
+    /**
+     * Get the chain from the first person to the second, alternating people and titles
+     */
+    public List<GraphNode> getPath() {
+        return path;
+    }
+
+    /**
+     * Get the degrees of separation: the number of titles on the chain
+     */
+    public int getDegrees() {
+        return path.size() / 2;
+    }
+
+    /**
+     * Get the number of credit lists fetched to find the chain; 0 when the cached graph sufficed
+     */
+    public int getFetchCount() {
+        return fetchCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Connection{" +
+                "degrees=" + getDegrees() +
+                ", path=" + path +
+                '}';
+    }
+}
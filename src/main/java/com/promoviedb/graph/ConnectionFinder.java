@@ -0,0 +1,323 @@
+package com.promoviedb.graph;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.service.MovieService;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.service.TvSeriesService;
+import com.promoviedb.util.ThreadSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Finds how two people are connected through the movies and TV series they appeared in
+ * <p>
+ * The search is a bidirectional breadth-first search over a {@link CreditGraph}, expanding one whole
+ * level of the smaller side at a time, so it explores about the square root of the nodes a one-sided
+ * search would. Credits are fetched only for the nodes about to be expanded that the graph does not
+ * have yet, all of a level in parallel, and stay in the graph for later searches.
+ *
+ * <pre>{@code
+ * ConnectionFinder finder = new ConnectionFinder.Builder(client.personService(), client.movieService(),
+ *         client.tvSeriesService())
+ *     .executor(client.executor())
+ *     .build();
+ * Connection connection = finder.find(4724, 1245);   // Kevin Bacon to Scarlett Johansson
+ * }</pre>
+ */
+public class ConnectionFinder implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionFinder.class);
+
+    private final PersonService personService;
+    private final MovieService movieService;
+    private final TvSeriesService tvSeriesService;
+    private final CreditGraph graph;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxDegrees;
+    private final int maxFetches;
+
+    private ConnectionFinder(Builder builder) {
+        this.personService = builder.personService;
+        this.movieService = builder.movieService;
+        this.tvSeriesService = builder.tvSeriesService;
+        this.graph = builder.graph != null ? builder.graph : new CreditGraph();
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor
+                ? ThreadSupport.newBlockingExecutor("promoviedb-graph", builder.parallelism)
+                : builder.executor;
+        this.maxDegrees = builder.maxDegrees;
+        this.maxFetches = builder.maxFetches;
+    }
+
+    /**
+     * Find the shortest chain of credits between two people
+     *
+     * @param fromPersonId First person
+     * @param toPersonId   Second person
+     * @return the chain, or null if there is none within the maximum degrees or fetch budget
+     * @throws ApiException if fetching credits fails
+     */
+    public Connection find(int fromPersonId, int toPersonId) throws ApiException {
+        int source = graph.nodeOf(EntityType.PERSON, fromPersonId);
+        int target = graph.nodeOf(EntityType.PERSON, toPersonId);
+        CreditGraph.Snapshot snapshot = graph.snapshot();
+        if (source == target) {
+            return new Connection(Collections.singletonList(snapshot.toNode(source)), 0);
+        }
+
+        Side forward = new Side(source);
+        Side backward = new Side(target);
+        int fetches = 0;
+        while (forward.size > 0 && backward.size > 0) {
+            if (forward.level + backward.level + 1 > 2 * maxDegrees) {
+                return null;
+            }
+            Side side = forward.size <= backward.size ? forward : backward;
+            Side other = side == forward ? backward : forward;
+
+            List<Long> missing = new ArrayList<>();
+            for (int i = 0; i < side.size; i++) {
+                if (!snapshot.isComplete(side.frontier[i])) {
+                    missing.add(snapshot.key(side.frontier[i]));
+                }
+            }
+            if (!missing.isEmpty()) {
+                if (fetches + missing.size() > maxFetches) {
+                    logger.debug("Stopped connecting {} and {} after {} fetches", fromPersonId, toPersonId, fetches);
+                    return null;
+                }
+                fetch(missing);
+                fetches += missing.size();
+                snapshot = graph.snapshot();
+            }
+
+            int meeting = side.expand(snapshot, other);
+            if (meeting >= 0) {
+                return new Connection(path(snapshot, meeting, forward, backward), fetches);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the graph of every credit fetched so far
+     */
+    public CreditGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Shut down the executor if the finder created it
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void fetch(List<Long> keys) throws ApiException {
+        CallContext context = CallContext.current();
+        List<Future<Void>> futures = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            Callable<Void> task = () -> {
+                load(CreditGraph.toNode(key));
+                return null;
+            };
+            futures.add(executor.submit(context.wrap(task)));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ApiException("Failed to fetch credits", e.getCause());
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new CallCancelledException("Interrupted while fetching credits", e);
+        }
+    }
+
+    private void load(GraphNode node) throws ApiException {
+        String id = String.valueOf(node.getId());
+        if (node.getType() == EntityType.PERSON) {
+            graph.addPersonCredits(node.getId(), personService.getCombinedCredits(id));
+        } else if (node.getType() == EntityType.MOVIE) {
+            graph.addTitleCredits(EntityType.MOVIE, node.getId(), movieService.getCredits(id));
+        } else {
+            graph.addTitleCredits(EntityType.TV_SERIES, node.getId(), tvSeriesService.getCredits(id));
+        }
+    }
+
+    private static void cancel(List<Future<Void>> futures) {
+        for (Future<Void> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static List<GraphNode> path(CreditGraph.Snapshot snapshot, int meeting, Side forward, Side backward) {
+        List<GraphNode> path = new ArrayList<>();
+        for (int node = meeting; node >= 0; node = forward.parent[node]) {
+            path.add(snapshot.toNode(node));
+        }
+        Collections.reverse(path);
+        for (int node = backward.parent[meeting]; node >= 0; node = backward.parent[node]) {
+            path.add(snapshot.toNode(node));
+        }
+        return path;
+    }
+
+    /**
+     * State of one direction of the search
+     */
+    private static final class Side {
+        private int[] distance = new int[0];
+        private int[] parent = new int[0];
+        private int[] frontier;
+        private int size;
+        private int level;
+
+        private Side(int start) {
+            grow(start + 1);
+            distance[start] = 0;
+            frontier = new int[] {start};
+            size = 1;
+        }
+
+        /**
+         * Visit the neighbours of the frontier and make them the new frontier
+         *
+         * @return the newly visited node on the shortest path through both sides, or -1 if the sides have not met
+         */
+        private int expand(CreditGraph.Snapshot snapshot, Side other) {
+            grow(snapshot.nodeCount);
+            other.grow(snapshot.nodeCount);
+            int[] next = new int[Math.max(16, size)];
+            int nextSize = 0;
+            int meeting = -1;
+            int shortest = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int node = frontier[i];
+                for (int e = snapshot.offsets[node]; e < snapshot.offsets[node + 1]; e++) {
+                    int neighbour = snapshot.targets[e];
+                    if (distance[neighbour] >= 0) {
+                        continue;
+                    }
+                    distance[neighbour] = level + 1;
+                    parent[neighbour] = node;
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = neighbour;
+                    if (other.distance[neighbour] >= 0 && level + 1 + other.distance[neighbour] < shortest) {
+                        shortest = level + 1 + other.distance[neighbour];
+                        meeting = neighbour;
+                    }
+                }
+            }
+            frontier = next;
+            size = nextSize;
+            level++;
+            return meeting;
+        }
+
+        private void grow(int nodeCount) {
+            if (nodeCount > distance.length) {
+                int old = distance.length;
+                int length = Math.max(nodeCount, old * 2);
+                distance = Arrays.copyOf(distance, length);
+                parent = Arrays.copyOf(parent, length);
+                Arrays.fill(distance, old, length, -1);
+                Arrays.fill(parent, old, length, -1);
+            }
+        }
+    }
+
+    /**
+     * Builder for creating ConnectionFinder instances
+     */
+    public static class Builder {
+        private final PersonService personService;
+        private final MovieService movieService;
+        private final TvSeriesService tvSeriesService;
+        private CreditGraph graph;
+        private ExecutorService executor;
+        private int parallelism = 8;
+        private int maxDegrees = 6;
+        private int maxFetches = 500;
+
+        public Builder(PersonService personService, MovieService movieService, TvSeriesService tvSeriesService) {
+            this.personService = personService;
+            this.movieService = movieService;
+            this.tvSeriesService = tvSeriesService;
+        }
+
+        /**
+         * Search and extend this graph (optional); share one to reuse credits across finders
+         */
+        public Builder graph(CreditGraph graph) {
+            this.graph = graph;
+            return this;
+        }
+
+        /**
+         * Fetch credits on this executor (optional); the finder creates and owns one otherwise
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Threads of the executor the finder creates when none is given (default 8)
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Longest chain searched for, in titles between the two people (default 6)
+         */
+        public Builder maxDegrees(int maxDegrees) {
+            this.maxDegrees = maxDegrees;
+            return this;
+        }
+
+        /**
+         * Credit lists one search may fetch before giving up (default 500)
+         */
+        public Builder maxFetches(int maxFetches) {
+            this.maxFetches = maxFetches;
+            return this;
+        }
+
+        public ConnectionFinder build() {
+            if (personService == null || movieService == null || tvSeriesService == null) {
+                throw new IllegalArgumentException("Person, movie and TV series services are required");
+            }
+            if (parallelism <= 0 || maxDegrees <= 0 || maxFetches < 0) {
+                throw new IllegalArgumentException("Invalid connection finder settings");
+            }
+            return new ConnectionFinder(this);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.promoviedb.graph;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.model.common.Cast;
+import com.promoviedb.model.common.Credits;
+import com.promoviedb.model.common.Crew;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Bipartite graph of people and the movies and TV series they are credited in
+ * <p>
+ * Nodes are numbered densely as they are discovered and edges are kept in compressed sparse row form:
+ * the neighbours of node {@code n} are {@code targets[offsets[n]]} up to {@code targets[offsets[n + 1]]},
+ * two primitive arrays for the whole graph. Credits are appended to a primitive edge list and the CSR
+ * arrays are rebuilt on the next read after a change, so a batch of ingested credits costs one rebuild.
+ * <p>
+ * A node is complete once its own credits have been ingested; until then it only has the edges found
+ * from the other side. The graph only grows, so it works as a cache of every credit list fetched.
+ * It is safe for concurrent use.
+ */
+public class CreditGraph {
+    private static final long MOVIE_BITS = 1L << 32;
+    private static final long TV_BITS = 2L << 32;
+
+    private final boolean includeCrew;
+
+    // Guarded by this
+    private final LongIntMap nodes = new LongIntMap(1024);
+    private final LongIntMap edgeSet = new LongIntMap(4096);
+    private final BitSet complete = new BitSet();
+    private long[] keys = new long[1024];
+    private int nodeCount;
+    private int personCount;
+    private int[] edgeFrom = new int[4096];
+    private int[] edgeTo = new int[4096];
+    private int edgeCount;
+    private int version;
+    private Snapshot snapshot;
+
+    /**
+     * Graph of cast credits only
+     */
+    public CreditGraph() {
+        this(false);
+    }
+
+    /**
+     * @param includeCrew Whether crew credits connect people too, not just cast credits
+     */
+    public CreditGraph(boolean includeCrew) {
+        this.includeCrew = includeCrew;
+    }
+
+    /**
+     * Add the credits of a movie or TV series and mark it complete
+     *
+     * @param type    {@link EntityType#MOVIE} or {@link EntityType#TV_SERIES}
+     * @param titleId Movie or TV series ID
+     * @param credits Credits as returned by {@code getCredits}
+     */
+    public synchronized void addTitleCredits(EntityType type, int titleId, Credits credits) {
+        int title = node(key(type, titleId));
+        if (credits != null && credits.getCast() != null) {
+            for (Cast cast : credits.getCast()) {
+                if (cast != null && cast.getId() != null) {
+                    addEdge(personNode(cast.getId()), title);
+                }
+            }
+        }
+        if (includeCrew && credits != null && credits.getCrew() != null) {
+            for (Crew crew : credits.getCrew()) {
+                if (crew != null && crew.getId() != null) {
+                    addEdge(personNode(crew.getId()), title);
+                }
+            }
+        }
+        markComplete(title);
+    }
+
+    /**
+     * Add the movie and TV credits of a person and mark the person complete
+     *
+     * @param personId        Person ID
+     * @param combinedCredits Credits as returned by {@code PersonService.getCombinedCredits}
+     */
+    public synchronized void addPersonCredits(int personId, JsonObject combinedCredits) {
+        int person = personNode(personId);
+        if (combinedCredits != null) {
+            addPersonCredits(person, combinedCredits.get("cast"));
+            if (includeCrew) {
+                addPersonCredits(person, combinedCredits.get("crew"));
+            }
+        }
+        markComplete(person);
+    }
+
+    /**
+     * Whether the credits of a node have been ingested
+     */
+    public synchronized boolean isComplete(EntityType type, int id) {
+        int node = nodes.get(key(type, id));
+        return node >= 0 && complete.get(node);
+    }
+
+    /**
+     * Get the nodes connected to a node so far
+     */
+    public List<GraphNode> getNeighbours(EntityType type, int id) {
+        Snapshot graph;
+        int node;
+        synchronized (this) {
+            node = nodes.get(key(type, id));
+            graph = snapshot();
+        }
+        List<GraphNode> neighbours = new ArrayList<>();
+        if (node >= 0) {
+            for (int e = graph.offsets[node]; e < graph.offsets[node + 1]; e++) {
+                neighbours.add(graph.toNode(graph.targets[e]));
+            }
+        }
+        return neighbours;
+    }
+
+    public synchronized int getPersonCount() {
+        return personCount;
+    }
+
+    public synchronized int getTitleCount() {
+        return nodeCount - personCount;
+    }
+
+    /**
+     * Get the number of distinct person-title credits
+     */
+    public synchronized int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Get the node index of an entity, adding the entity if it is new
+     */
+    synchronized int nodeOf(EntityType type, int id) {
+        return node(key(type, id));
+    }
+
+    /**
+     * Get an immutable view of the graph as it is now
+     */
+    synchronized Snapshot snapshot() {
+        if (snapshot == null || snapshot.version != version) {
+            snapshot = new Snapshot(this);
+        }
+        return snapshot;
+    }
+
+    private void addPersonCredits(int person, JsonElement credits) {
+        if (credits == null || !credits.isJsonArray()) {
+            return;
+        }
+        JsonArray array = credits.getAsJsonArray();
+        for (JsonElement element : array) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+            JsonObject credit = element.getAsJsonObject();
+            JsonElement id = credit.get("id");
+            JsonElement mediaType = credit.get("media_type");
+            if (id == null || !id.isJsonPrimitive() || mediaType == null || !mediaType.isJsonPrimitive()) {
+                continue;
+            }
+            String media = mediaType.getAsString();
+            if ("movie".equals(media)) {
+                addEdge(person, node(key(EntityType.MOVIE, id.getAsInt())));
+            } else if ("tv".equals(media)) {
+                addEdge(person, node(key(EntityType.TV_SERIES, id.getAsInt())));
+            }
+        }
+    }
+
+    private int personNode(int personId) {
+        return node(key(EntityType.PERSON, personId));
+    }
+
+    private int node(long key) {
+        int existing = nodes.putIfAbsent(key, nodeCount);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (nodeCount == keys.length) {
+            keys = Arrays.copyOf(keys, nodeCount * 2);
+        }
+        keys[nodeCount] = key;
+        if (key >>> 32 == 0) {
+            personCount++;
+        }
+        version++;
+        return nodeCount++;
+    }
+
+    private void addEdge(int person, int title) {
+        if (edgeSet.putIfAbsent(((long) person << 32) | title, 0) >= 0) {
+            return;
+        }
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+        }
+        edgeFrom[edgeCount] = person;
+        edgeTo[edgeCount] = title;
+        edgeCount++;
+        version++;
+    }
+
+    private void markComplete(int node) {
+        if (!complete.get(node)) {
+            complete.set(node);
+            version++;
+        }
+    }
+
+    static long key(EntityType type, int id) {
+        long bits = type == EntityType.MOVIE ? MOVIE_BITS : type == EntityType.TV_SERIES ? TV_BITS : 0;
+        return bits | (id & 0xffffffffL);
+    }
+
+    static GraphNode toNode(long key) {
+        long bits = key & ~0xffffffffL;
+        EntityType type = bits == MOVIE_BITS ? EntityType.MOVIE
+                : bits == TV_BITS ? EntityType.TV_SERIES : EntityType.PERSON;
+        return new GraphNode(type, (int) key);
+    }
+
+    /**
+     * The graph in CSR form at one point in time
+     */
+    static final class Snapshot {
+        final int version;
+        final int nodeCount;
+        final int[] offsets;
+        final int[] targets;
+        private final long[] keys;
+        private final BitSet complete;
+
+        private Snapshot(CreditGraph graph) {
+            this.version = graph.version;
+            this.nodeCount = graph.nodeCount;
+            this.keys = graph.keys;
+            this.complete = (BitSet) graph.complete.clone();
+            int edgeCount = graph.edgeCount;
+
+            // Every credit is an edge in both directions
+            offsets = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[graph.edgeFrom[e] + 1]++;
+                offsets[graph.edgeTo[e] + 1]++;
+            }
+            for (int n = 0; n < nodeCount; n++) {
+                offsets[n + 1] += offsets[n];
+            }
+            targets = new int[2 * edgeCount];
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                targets[next[graph.edgeFrom[e]]++] = graph.edgeTo[e];
+                targets[next[graph.edgeTo[e]]++] = graph.edgeFrom[e];
+            }
+        }
+
+        boolean isComplete(int node) {
+            return complete.get(node);
+        }
+
+        long key(int node) {
+            return keys[node];
+        }
+
+        GraphNode toNode(int node) {
+            return CreditGraph.toNode(keys[node]);
+        }
+    }
+}
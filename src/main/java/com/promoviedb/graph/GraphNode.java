@@ -0,0 +1,52 @@
+package com.promoviedb.graph;
+
+import com.promoviedb.cache.EntityType;
+
+import java.util.Locale;
+
+/**
+ * A person, movie or TV series in a {@link CreditGraph}
+ */
+public final class GraphNode {
+    private final EntityType type;
+    private final int id;
+
+    public GraphNode(EntityType type, int id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isPerson() {
+        return type == EntityType.PERSON;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GraphNode)) {
+            return false;
+        }
+        GraphNode other = (GraphNode) o;
+        return type == other.type && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + id;
+    }
+
+    @Override
+    public String toString() {
+        return type.name().toLowerCase(Locale.ROOT) + "/" + id;
+    }
+}
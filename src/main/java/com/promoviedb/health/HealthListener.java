@@ -0,0 +1,17 @@
+package com.promoviedb.health;
+
+/**
+ * Notified when the health state changes
+ * <p>
+ * Listeners run on the monitor thread and should return quickly.
+ */
+public interface HealthListener {
+
+    /**
+     * The state changed between two checks
+     *
+     * @param previous Snapshot before the check
+     * @param current  Snapshot after the check
+     */
+    void onStateChange(HealthSnapshot previous, HealthSnapshot current);
+}
@@ -0,0 +1,324 @@
+package com.promoviedb.health;
+
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.Lane;
+import com.promoviedb.util.ThreadSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Checks the API on a schedule and publishes its health
+ * <p>
+ * Every check runs the probe, usually {@code StatusService.ping()}, in the {@link Lane#BACKGROUND}
+ * lane with a deadline. The monitor keeps an exponentially weighted moving average of the latency of
+ * successful checks and the success rate over a sliding window of recent checks. After each check it
+ * publishes an immutable {@link HealthSnapshot}, so reading the health is a single volatile read that
+ * never touches the network.
+ * <p>
+ * The state is {@link HealthState#UNHEALTHY} after {@code failureThreshold} consecutive failures or
+ * when the success rate drops below {@code unhealthySuccessRate}, and {@link HealthState#DEGRADED}
+ * when the success rate drops below {@code degradedSuccessRate} or the latency average exceeds
+ * {@code degradedLatencyMillis}. The success-rate thresholds apply once the window holds
+ * {@code minSamples} checks; until then a failed last check only makes the API degraded.
+ *
+ * <pre>{@code
+ * HealthMonitor monitor = new HealthMonitor.Builder(client.statusService()::ping)
+ *     .intervalMillis(5000)
+ *     .build();
+ * monitor.addListener((previous, current) -> log.info("API is now {}", current.getState()));
+ * monitor.start();
+ * }</pre>
+ */
+public class HealthMonitor implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(HealthMonitor.class);
+
+    private final Probe probe;
+    private final long intervalMillis;
+    private final long timeoutMillis;
+    private final double alpha;
+    private final int failureThreshold;
+    private final int minSamples;
+    private final double unhealthySuccessRate;
+    private final double degradedSuccessRate;
+    private final double degradedLatencyMillis;
+    private final List<HealthListener> listeners = new CopyOnWriteArrayList<>();
+    // A lock rather than a monitor, so checks on a virtual thread never pin its carrier
+    private final ReentrantLock recordLock = new ReentrantLock();
+
+    // Guarded by recordLock
+    private final boolean[] window;
+    private int windowSize;
+    private int windowNext;
+    private int windowSuccesses;
+
+    private volatile HealthSnapshot snapshot = HealthSnapshot.INITIAL;
+    private ScheduledExecutorService scheduler;
+
+    private HealthMonitor(Builder builder) {
+        this.probe = builder.probe;
+        this.intervalMillis = builder.intervalMillis;
+        this.timeoutMillis = builder.timeoutMillis;
+        this.alpha = builder.alpha;
+        this.failureThreshold = builder.failureThreshold;
+        this.minSamples = Math.min(builder.minSamples, builder.windowSize);
+        this.unhealthySuccessRate = builder.unhealthySuccessRate;
+        this.degradedSuccessRate = builder.degradedSuccessRate;
+        this.degradedLatencyMillis = builder.degradedLatencyMillis;
+        this.window = new boolean[builder.windowSize];
+    }
+
+    /**
+     * Start checking on a daemon thread, beginning immediately
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                task -> ThreadSupport.newThread("promoviedb-health", task));
+        scheduler.scheduleWithFixedDelay(this::checkSafely, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop checking; the last snapshot stays available
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Get the health published by the last check
+     */
+    public HealthSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public HealthState getState() {
+        return snapshot.getState();
+    }
+
+    /**
+     * Whether the API is healthy or degraded, or has not been checked yet
+     */
+    public boolean isAvailable() {
+        return snapshot.isAvailable();
+    }
+
+    public void addListener(HealthListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(HealthListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Run one check now and publish its result
+     */
+    public HealthSnapshot check() {
+        long start = System.nanoTime();
+        String error = null;
+        CallContext context = CallContext.current().toBuilder()
+                .lane(Lane.BACKGROUND)
+                .timeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+        try (CallContext.Scope scope = context.attach()) {
+            probe.check();
+        } catch (Exception e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        recordLock.lock();
+        try {
+            return record(error == null, (System.nanoTime() - start) / 1e6, error);
+        } finally {
+            recordLock.unlock();
+        }
+    }
+
+    private void checkSafely() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            logger.warn("Health check failed unexpectedly", e);
+        }
+    }
+
+    private HealthSnapshot record(boolean success, double latencyMillis, String error) {
+        HealthSnapshot previous = snapshot;
+
+        if (windowSize == window.length) {
+            if (window[windowNext]) {
+                windowSuccesses--;
+            }
+        } else {
+            windowSize++;
+        }
+        window[windowNext] = success;
+        if (success) {
+            windowSuccesses++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+
+        double ewma = previous.getLatencyEwmaMillis();
+        if (success) {
+            ewma = previous.getCheckCount() == 0 || ewma == 0 ? latencyMillis : ewma + alpha * (latencyMillis - ewma);
+        }
+        int failures = success ? 0 : previous.getConsecutiveFailures() + 1;
+        double successRate = (double) windowSuccesses / windowSize;
+        // A rate over a handful of checks swings too far to judge by
+        boolean rated = windowSize >= minSamples;
+
+        HealthState state;
+        if (failures >= failureThreshold || rated && successRate < unhealthySuccessRate) {
+            state = HealthState.UNHEALTHY;
+        } else if ((rated ? successRate < degradedSuccessRate : failures > 0) || ewma > degradedLatencyMillis) {
+            state = HealthState.DEGRADED;
+        } else {
+            state = HealthState.HEALTHY;
+        }
+
+        HealthSnapshot current = new HealthSnapshot(state, ewma, successRate, failures,
+                previous.getCheckCount() + 1, System.currentTimeMillis(), error);
+        snapshot = current;
+        if (state != previous.getState()) {
+            logger.info("API health changed from {} to {}", previous.getState(), current);
+            for (HealthListener listener : listeners) {
+                try {
+                    listener.onStateChange(previous, current);
+                } catch (RuntimeException e) {
+                    logger.warn("Health listener failed", e);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A single health check; throws if the API is not healthy
+     */
+    @FunctionalInterface
+    public interface Probe {
+        void check() throws Exception;
+    }
+
+    /**
+     * Builder for creating HealthMonitor instances
+     */
+    public static class Builder {
+        private final Probe probe;
+        private long intervalMillis = 10000;
+        private long timeoutMillis = 2000;
+        private double alpha = 0.3;
+        private int windowSize = 20;
+        private int failureThreshold = 3;
+        private int minSamples = 5;
+        private double unhealthySuccessRate = 0.5;
+        private double degradedSuccessRate = 0.9;
+        private double degradedLatencyMillis = 1000;
+
+        public Builder(Probe probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * Delay between the end of one check and the start of the next (default 10000)
+         */
+        public Builder intervalMillis(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+            return this;
+        }
+
+        /**
+         * Deadline of each check (default 2000)
+         */
+        public Builder timeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        /**
+         * Weight of each new latency sample in the moving average, between 0 and 1 (default 0.3)
+         */
+        public Builder alpha(double alpha) {
+            this.alpha = alpha;
+            return this;
+        }
+
+        /**
+         * Number of recent checks the success rate covers (default 20)
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Consecutive failures after which the API is unhealthy (default 3)
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Checks the window must hold before the success-rate thresholds apply (default 5, at most the window size)
+         */
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Success rate below which the API is unhealthy (default 0.5)
+         */
+        public Builder unhealthySuccessRate(double unhealthySuccessRate) {
+            this.unhealthySuccessRate = unhealthySuccessRate;
+            return this;
+        }
+
+        /**
+         * Success rate below which the API is degraded (default 0.9)
+         */
+        public Builder degradedSuccessRate(double degradedSuccessRate) {
+            this.degradedSuccessRate = degradedSuccessRate;
+            return this;
+        }
+
+        /**
+         * Average latency above which the API is degraded (default 1000)
+         */
+        public Builder degradedLatencyMillis(double degradedLatencyMillis) {
+            this.degradedLatencyMillis = degradedLatencyMillis;
+            return this;
+        }
+
+        public HealthMonitor build() {
+            if (probe == null) {
+                throw new IllegalArgumentException("Probe is required");
+            }
+            if (intervalMillis <= 0 || timeoutMillis <= 0) {
+                throw new IllegalArgumentException("Interval and timeout must be positive");
+            }
+            if (alpha <= 0 || alpha > 1 || windowSize <= 0 || failureThreshold <= 0
+                    || minSamples <= 0) {
+                throw new IllegalArgumentException("Invalid health statistics settings");
+            }
+            if (unhealthySuccessRate < 0 || degradedSuccessRate < unhealthySuccessRate || degradedSuccessRate > 1) {
+                throw new IllegalArgumentException("Invalid success rate thresholds");
+            }
+            return new HealthMonitor(this);
+        }
+    }
+}
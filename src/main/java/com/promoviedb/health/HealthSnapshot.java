@@ -0,0 +1,89 @@
+package com.promoviedb.health;
+
+/**
+ * Immutable view of the health of the API at the time of the last check
+ */
+public final class HealthSnapshot {
+    static final HealthSnapshot INITIAL = new HealthSnapshot(HealthState.UNKNOWN, 0, 1.0, 0, 0, 0, null);
+
+    private final HealthState state;
+    private final double latencyEwmaMillis;
+    private final double successRate;
+    private final int consecutiveFailures;
+    private final long checkCount;
+    private final long lastCheckMillis;
+    private final String lastError;
+
+    HealthSnapshot(HealthState state, double latencyEwmaMillis, double successRate, int consecutiveFailures,
+                   long checkCount, long lastCheckMillis, String lastError) {
+        this.state = state;
+        this.latencyEwmaMillis = latencyEwmaMillis;
+        this.successRate = successRate;
+        this.consecutiveFailures = consecutiveFailures;
+        this.checkCount = checkCount;
+        this.lastCheckMillis = lastCheckMillis;
+        this.lastError = lastError;
+    }
+
+    public HealthState getState() {
+        return state;
+    }
+
+    /**
+     * Whether calls can be expected to succeed: the API is healthy or degraded
+     * Before the first check this is true, so that callers are not blocked by a monitor that has not run.
+     */
+    public boolean isAvailable() {
+        return state != HealthState.UNHEALTHY;
+    }
+
+    /**
+     * Get the exponentially weighted moving average of successful check latency
+     */
+    public double getLatencyEwmaMillis() {
+        return latencyEwmaMillis;
+    }
+
+    /**
+     * Get the share of successful checks in the sliding window
+     */
+    public double getSuccessRate() {
+        return successRate;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Get the number of checks run since the monitor started
+     */
+    public long getCheckCount() {
+        return checkCount;
+    }
+
+    /**
+     * Get the wall-clock time of the last check, or 0 before the first one
+     */
+    public long getLastCheckMillis() {
+        return lastCheckMillis;
+    }
+
+    /**
+     * Get the message of the last failed check, or null if the last check succeeded
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "HealthSnapshot{" +
+                "state=" + state +
+                ", latencyEwmaMillis=" + String.format("%.1f", latencyEwmaMillis) +
+                ", successRate=" + String.format("%.2f", successRate) +
+                ", consecutiveFailures=" + consecutiveFailures +
+                ", lastError='" + lastError + '\'' +
+                '}';
+    }
+}
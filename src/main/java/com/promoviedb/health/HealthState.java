@@ -0,0 +1,26 @@
+package com.promoviedb.health;
+
+/**
+ * Health of the API as seen by a {@link HealthMonitor}
+ */
+public enum HealthState {
+    /**
+     * No check has completed yet
+     */
+    UNKNOWN,
+
+    /**
+     * Checks succeed with normal latency
+     */
+    HEALTHY,
+
+    /**
+     * The API answers, but slowly or with occasional failures
+     */
+    DEGRADED,
+
+    /**
+     * Most recent checks fail
+     */
+    UNHEALTHY
+}
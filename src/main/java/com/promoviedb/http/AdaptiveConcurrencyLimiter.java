@@ -0,0 +1,380 @@
+package com.promoviedb.http;
+
+import com.promoviedb.exception.ConcurrencyLimitException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of in-flight requests, adapting the limit to the observed round-trip time
+ * <p>
+ * The limiter follows the gradient approach: it keeps a long-term average RTT and compares every
+ * new sample against it. While samples stay within {@code rttTolerance} of the average, the limit
+ * grows by about its square root per sample; when latency rises, the limit shrinks in proportion to
+ * the ratio of the two. Timeouts, 429 and 503 responses cut the limit multiplicatively.
+ * <p>
+ * A request over the limit waits in a bounded queue for a short time and is otherwise rejected with a
+ * {@link ConcurrencyLimitException}, without reaching the API.
+ *
+ * <pre>{@code
+ * AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+ *     .initialLimit(20)
+ *     .maxLimit(200)
+ *     .build();
+ *
+ * ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *     .apiKey("your-api-key")
+ *     .concurrencyLimiter(limiter)
+ *     .build();
+ * }</pre>
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final double longRttFactor;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double longRttNanos;
+
+    private AdaptiveConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.smoothing = builder.smoothing;
+        this.rttTolerance = builder.rttTolerance;
+        this.backoffRatio = builder.backoffRatio;
+        this.longRttFactor = 2.0 / (builder.longWindow + 1);
+        this.maxQueueSize = builder.maxQueueSize;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxQueueWaitMillis);
+        this.limit = builder.initialLimit;
+    }
+
+    /**
+     * Acquire a slot for one request, waiting in the queue if the limit is reached
+     * The wait is bounded by the deadline of the current call context. The returned permit must be
+     * completed exactly once with one of its methods.
+     *
+     * @throws ConcurrencyLimitException if the queue is full or the wait times out
+     * @throws com.promoviedb.exception.DeadlineExceededException if the deadline passes first
+     */
+    public Permit acquire() {
+        CallContext context = CallContext.current();
+        CancellationToken.Registration cancellation = null;
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                return grant();
+            }
+            if (queued >= maxQueueSize) {
+                rejectedCount.incrementAndGet();
+                throw new ConcurrencyLimitException("Concurrency limit of " + currentLimit() + " reached");
+            }
+            queued++;
+            try {
+                long remaining = context.boundWait(maxQueueWaitNanos);
+                while (inFlight >= currentLimit()) {
+                    try {
+                        context.checkActive();
+                    } catch (RuntimeException e) {
+                        rejectedCount.incrementAndGet();
+                        throw e;
+                    }
+                    if (remaining <= 0) {
+                        rejectedCount.incrementAndGet();
+                        throw new ConcurrencyLimitException("Timed out waiting for a slot under the concurrency limit of "
+                                + currentLimit());
+                    }
+                    if (cancellation == null) {
+                        cancellation = context.onCancel(this::wakeWaiters);
+                        continue;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                return grant();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedCount.incrementAndGet();
+                throw new ConcurrencyLimitException("Interrupted while waiting for a slot under the concurrency limit");
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+            if (cancellation != null) {
+                cancellation.close();
+            }
+        }
+    }
+
+    /**
+     * Wake every queued request so that a cancelled one leaves the queue; the others wait again
+     */
+    private void wakeWaiters() {
+        lock.lock();
+        try {
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the current limit on in-flight requests
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests currently in flight
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests waiting for a slot
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the long-term average round-trip time in milliseconds, or 0 before the first sample
+     */
+    public double getLongRttMillis() {
+        lock.lock();
+        try {
+            return longRttNanos / 1e6;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests rejected without being sent
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the number of requests that timed out or were throttled by the API
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private Permit grant() {
+        inFlight++;
+        return new Permit(System.nanoTime(), inFlight);
+    }
+
+    private void release(long rttNanos, int inFlightAtStart, Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (outcome == Outcome.DROPPED) {
+                droppedCount.incrementAndGet();
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (outcome == Outcome.SUCCESS && rttNanos > 0) {
+                update(rttNanos, inFlightAtStart);
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * longRttFactor;
+            // Let the baseline recover quickly after a period of high latency
+            if (longRttNanos > 2 * rttNanos) {
+                longRttNanos *= 0.95;
+            }
+        }
+
+        // A client using less than half its limit says nothing about whether the limit is too low
+        if (inFlightAtStart * 2 < limit) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    private enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    /**
+     * Slot held by one in-flight request
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean completed;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The request got a response; its round-trip time feeds the limit
+         */
+        public void onSuccess() {
+            complete(Outcome.SUCCESS);
+        }
+
+        /**
+         * The request timed out or was throttled; the limit is cut
+         */
+        public void onDropped() {
+            complete(Outcome.DROPPED);
+        }
+
+        /**
+         * Release the slot without affecting the limit; a no-op once the permit is completed
+         */
+        public void onIgnore() {
+            complete(Outcome.IGNORED);
+        }
+
+        private void complete(Outcome outcome) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            release(System.nanoTime() - startNanos, inFlightAtStart, outcome);
+        }
+    }
+
+    /**
+     * Builder for creating AdaptiveConcurrencyLimiter instances
+     */
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private double rttTolerance = 1.5;
+        private double backoffRatio = 0.9;
+        private int longWindow = 600;
+        private int maxQueueSize = 64;
+        private int maxQueueWaitMillis = 250;
+
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Weight of each new limit estimate, between 0 and 1 (default 0.2)
+         */
+        public Builder smoothing(double smoothing) {
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Ratio of sample RTT to average RTT tolerated before the limit shrinks (default 1.5)
+         */
+        public Builder rttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+            return this;
+        }
+
+        /**
+         * Factor applied to the limit when a request is dropped (default 0.9)
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Number of samples the long-term RTT average spans (default 600)
+         */
+        public Builder longWindow(int longWindow) {
+            this.longWindow = longWindow;
+            return this;
+        }
+
+        /**
+         * Maximum number of requests waiting for a slot; 0 rejects at once (default 64)
+         */
+        public Builder maxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        /**
+         * Maximum time a request waits for a slot (default 250)
+         */
+        public Builder maxQueueWaitMillis(int maxQueueWaitMillis) {
+            this.maxQueueWaitMillis = maxQueueWaitMillis;
+            return this;
+        }
+
+        public AdaptiveConcurrencyLimiter build() {
+            if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Invalid concurrency limits");
+            }
+            if (smoothing <= 0 || smoothing > 1 || rttTolerance < 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("Invalid limit adjustment settings");
+            }
+            if (longWindow <= 0 || maxQueueSize < 0 || maxQueueWaitMillis < 0) {
+                throw new IllegalArgumentException("Invalid queue settings");
+            }
+            return new AdaptiveConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.promoviedb.http;
+
+import com.promoviedb.exception.AuthenticationException;
+import com.promoviedb.exception.RateLimitException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of API keys, each with its own quota
+ * <p>
+ * Every key has a token bucket refilled at its quota rate. Each request is dispatched to the key
+ * with the most tokens left, so traffic is spread in proportion to the quotas and aggregate throughput
+ * grows with the number of keys. A key rejected with 401/403 is quarantined; a key answered with 429
+ * is backed off exponentially, or for the duration given by {@code Retry-After}.
+ *
+ * <pre>{@code
+ * ApiKeyPool pool = new ApiKeyPool.Builder()
+ *     .addKey("key-1", 40)
+ *     .addKey("key-2", 40)
+ *     .addKey("key-3", 10)
+ *     .build();
+ *
+ * ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *     .apiKeyPool(pool)
+ *     .build();
+ * }</pre>
+ */
+public class ApiKeyPool {
+    private final List<KeyState> keys;
+    private final long quarantineNanos;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long acquireTimeoutNanos;
+
+    // Guards the key states; a lock rather than a monitor so waiting virtual threads unmount
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition tokensChanged = lock.newCondition();
+
+    private ApiKeyPool(Builder builder) {
+        List<KeyState> states = new ArrayList<>();
+        long now = System.nanoTime();
+        for (KeyQuota quota : builder.quotas) {
+            states.add(new KeyState(quota, now));
+        }
+        this.keys = Collections.unmodifiableList(states);
+        this.quarantineNanos = TimeUnit.SECONDS.toNanos(builder.quarantineSeconds);
+        this.baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(builder.baseBackoffMillis);
+        this.maxBackoffNanos = TimeUnit.SECONDS.toNanos(builder.maxBackoffSeconds);
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.acquireTimeoutMillis);
+    }
+
+    /**
+     * Take a token from the key with the most headroom, waiting for a refill if every key is drained
+     *
+     * @return the API key to use for the next request
+     * @throws AuthenticationException if every key is quarantined
+     * @throws RateLimitException if no key frees up within the acquire timeout
+     */
+    public String acquire() {
+        CallContext context = CallContext.current();
+        long deadline = System.nanoTime() + context.boundWait(acquireTimeoutNanos);
+        CancellationToken.Registration cancellation = null;
+        lock.lock();
+        try {
+            while (true) {
+                context.checkActive();
+                long now = System.nanoTime();
+                KeyState best = null;
+                long earliest = Long.MAX_VALUE;
+                boolean anyUsable = false;
+                for (KeyState key : keys) {
+                    if (key.quarantinedUntil > now) {
+                        continue;
+                    }
+                    anyUsable = true;
+                    key.refill(now);
+                    if (key.backoffUntil > now) {
+                        earliest = Math.min(earliest, key.backoffUntil - now);
+                        continue;
+                    }
+                    if (key.tokens >= 1 && (best == null || key.tokens > best.tokens)) {
+                        best = key;
+                    }
+                    earliest = Math.min(earliest, key.nanosUntilToken());
+                }
+                if (!anyUsable) {
+                    throw new AuthenticationException("All API keys in the pool are quarantined");
+                }
+                if (best != null) {
+                    best.tokens -= 1;
+                    best.dispatched++;
+                    return best.quota.apiKey;
+                }
+
+                if (now + earliest > deadline) {
+                    throw new RateLimitException("No API key in the pool has quota left");
+                }
+                if (cancellation == null) {
+                    // Registered only once the call has to wait; the listener wakes this wait on cancel
+                    cancellation = context.onCancel(this::wakeWaiters);
+                    continue;
+                }
+                try {
+                    tokensChanged.awaitNanos(Math.max(earliest, TimeUnit.MILLISECONDS.toNanos(1)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RateLimitException("Interrupted while waiting for API key quota");
+                }
+            }
+        } finally {
+            lock.unlock();
+            if (cancellation != null) {
+                cancellation.close();
+            }
+        }
+    }
+
+    private void wakeWaiters() {
+        lock.lock();
+        try {
+            tokensChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a key other than the given one can serve a request right now
+     */
+    public boolean hasAvailableKeyOtherThan(String apiKey) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (KeyState key : keys) {
+                if (key.quota.apiKey.equals(apiKey) || key.quarantinedUntil > now || key.backoffUntil > now) {
+                    continue;
+                }
+                key.refill(now);
+                if (key.tokens >= 1) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Report the outcome of a request sent with a key
+     *
+     * @param apiKey            Key the request was sent with
+     * @param statusCode        HTTP status code
+     * @param retryAfterSeconds Value of the Retry-After header in seconds, or -1 if absent
+     */
+    public void report(String apiKey, int statusCode, long retryAfterSeconds) {
+        lock.lock();
+        try {
+            KeyState key = find(apiKey);
+            if (key == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            switch (statusCode) {
+                case 401:
+                case 403:
+                    key.quarantinedUntil = now + quarantineNanos;
+                    key.quarantines++;
+                    break;
+                case 429:
+                    key.consecutiveRateLimits++;
+                    long backoff = retryAfterSeconds >= 0
+                            ? TimeUnit.SECONDS.toNanos(retryAfterSeconds)
+                            : baseBackoffNanos << Math.min(key.consecutiveRateLimits - 1, 20);
+                    key.backoffUntil = now + Math.min(backoff, maxBackoffNanos);
+                    key.tokens = 0;
+                    key.rateLimits++;
+                    break;
+                default:
+                    key.consecutiveRateLimits = 0;
+                    break;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a point-in-time view of every key in the pool
+     */
+    public List<KeyStats> getStats() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            List<KeyStats> stats = new ArrayList<>(keys.size());
+            for (KeyState key : keys) {
+                key.refill(now);
+                stats.add(new KeyStats(key, now));
+            }
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of keys in the pool
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Get the first key of the pool
+     */
+    public String getPrimaryKey() {
+        return keys.get(0).quota.apiKey;
+    }
+
+    private KeyState find(String apiKey) {
+        for (KeyState key : keys) {
+            if (key.quota.apiKey.equals(apiKey)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static final class KeyQuota {
+        final String apiKey;
+        final double requestsPerSecond;
+        final double burst;
+
+        KeyQuota(String apiKey, double requestsPerSecond, double burst) {
+            this.apiKey = apiKey;
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    private static final class KeyState {
+        final KeyQuota quota;
+        double tokens;
+        long lastRefill;
+        long quarantinedUntil;
+        long backoffUntil;
+        int consecutiveRateLimits;
+        long dispatched;
+        long rateLimits;
+        long quarantines;
+
+        KeyState(KeyQuota quota, long now) {
+            this.quota = quota;
+            this.tokens = quota.burst;
+            this.lastRefill = now;
+        }
+
+        void refill(long now) {
+            double elapsedSeconds = (now - lastRefill) / 1e9;
+            tokens = Math.min(quota.burst, tokens + elapsedSeconds * quota.requestsPerSecond);
+            lastRefill = now;
+        }
+
+        long nanosUntilToken() {
+            return tokens >= 1 ? 0 : (long) ((1 - tokens) / quota.requestsPerSecond * 1e9);
+        }
+    }
+
+    /**
+     * Usage and state of a single key; the key itself is masked
+     */
+    public static class KeyStats {
+        private final String maskedKey;
+        private final double availableTokens;
+        private final boolean quarantined;
+        private final boolean backedOff;
+        private final long dispatched;
+        private final long rateLimits;
+        private final long quarantines;
+
+        KeyStats(KeyState key, long now) {
+            String apiKey = key.quota.apiKey;
+            this.maskedKey = apiKey.length() > 4 ? "..." + apiKey.substring(apiKey.length() - 4) : "...";
+            this.availableTokens = key.tokens;
+            this.quarantined = key.quarantinedUntil > now;
+            this.backedOff = key.backoffUntil > now;
+            this.dispatched = key.dispatched;
+            this.rateLimits = key.rateLimits;
+            this.quarantines = key.quarantines;
+        }
+
+        public String getMaskedKey() {
+            return maskedKey;
+        }
+
+        public double getAvailableTokens() {
+            return availableTokens;
+        }
+
+        public boolean isQuarantined() {
+            return quarantined;
+        }
+
+        public boolean isBackedOff() {
+            return backedOff;
+        }
+
+        public long getDispatched() {
+            return dispatched;
+        }
+
+        public long getRateLimits() {
+            return rateLimits;
+        }
+
+        public long getQuarantines() {
+            return quarantines;
+        }
+    }
+
+    /**
+     * Builder for creating ApiKeyPool instances
+     */
+    public static class Builder {
+        private final List<KeyQuota> quotas = new ArrayList<>();
+        private int quarantineSeconds = 3600;
+        private int baseBackoffMillis = 500;
+        private int maxBackoffSeconds = 60;
+        private int acquireTimeoutMillis = 5000;
+
+        /**
+         * Add a key with a quota in requests per second and a burst of one second of quota
+         */
+        public Builder addKey(String apiKey, double requestsPerSecond) {
+            return addKey(apiKey, requestsPerSecond, Math.max(1, (int) Math.ceil(requestsPerSecond)));
+        }
+
+        /**
+         * Add a key with a quota in requests per second and a maximum burst
+         */
+        public Builder addKey(String apiKey, double requestsPerSecond, int burst) {
+            if (apiKey == null || apiKey.trim().isEmpty()) {
+                throw new IllegalArgumentException("API key is required");
+            }
+            if (requestsPerSecond <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("Key quota must be positive");
+            }
+            quotas.add(new KeyQuota(apiKey, requestsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * How long a key rejected with 401/403 stays out of rotation (default 3600)
+         */
+        public Builder quarantineSeconds(int quarantineSeconds) {
+            this.quarantineSeconds = quarantineSeconds;
+            return this;
+        }
+
+        /**
+         * First backoff after a 429 without Retry-After, doubled on each consecutive 429 (default 500)
+         */
+        public Builder baseBackoffMillis(int baseBackoffMillis) {
+            this.baseBackoffMillis = baseBackoffMillis;
+            return this;
+        }
+
+        public Builder maxBackoffSeconds(int maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+            return this;
+        }
+
+        /**
+         * Maximum time a request waits for quota before failing with a RateLimitException (default 5000)
+         */
+        public Builder acquireTimeoutMillis(int acquireTimeoutMillis) {
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+            return this;
+        }
+
+        public ApiKeyPool build() {
+            if (quotas.isEmpty()) {
+                throw new IllegalArgumentException("At least one API key is required");
+            }
+            if (quarantineSeconds < 0 || baseBackoffMillis <= 0 || maxBackoffSeconds < 0 || acquireTimeoutMillis < 0) {
+                throw new IllegalArgumentException("Invalid key pool settings");
+            }
+            return new ApiKeyPool(this);
+        }
+    }
+}
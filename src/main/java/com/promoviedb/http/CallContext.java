@@ -0,0 +1,316 @@
+package com.promoviedb.http;
+
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.DeadlineExceededException;
+import com.promoviedb.tracing.TraceContext;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-call tags, deadline and cancellation carried on the calling thread
+ * <p>
+ * Requests sent while a context is attached are tagged with its lane and tenant, must complete
+ * before its deadline and are cancelled together with its cancellation token. Every service method
+ * honors the attached context, and requests carry the {@code traceparent} header of its trace context.
+ * Without one, requests go in the {@link Lane#INTERACTIVE} lane for the
+ * {@value #DEFAULT_TENANT} tenant, with no deadline beyond the configured timeouts.
+ * <p>
+ * The context stays on the thread that attached it; use {@link #wrap(Runnable)} or
+ * {@link #propagating(ExecutorService)} to carry it to tasks run by an executor.
+ *
+ * <pre>{@code
+ * CancellationToken token = new CancellationToken();
+ * CallContext context = new CallContext.Builder()
+ *     .timeout(2, TimeUnit.SECONDS)
+ *     .cancellationToken(token)
+ *     .build();
+ * try (CallContext.Scope scope = context.attach()) {
+ *     client.movieService().getDetails("550");
+ * }
+ * }</pre>
+ */
+public final class CallContext {
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final CallContext DEFAULT = new Builder().build();
+    private static final ThreadLocal<CallContext> CURRENT = new ThreadLocal<>();
+
+    private final Lane lane;
+    private final String tenant;
+    private final Deadline deadline;
+    private final CancellationToken cancellationToken;
+    private final TraceContext traceContext;
+
+    private CallContext(Builder builder) {
+        this.lane = builder.lane;
+        this.tenant = builder.tenant;
+        this.deadline = builder.deadline;
+        this.cancellationToken = builder.cancellationToken;
+        this.traceContext = builder.traceContext;
+    }
+
+    /**
+     * Get the context attached to the current thread, or the default context
+     */
+    public static CallContext current() {
+        CallContext context = CURRENT.get();
+        return context != null ? context : DEFAULT;
+    }
+
+    /**
+     * Attach this context to the current thread until the scope is closed
+     */
+    public Scope attach() {
+        CallContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Copy of this context in another lane
+     */
+    public CallContext withLane(Lane lane) {
+        return toBuilder().lane(lane).build();
+    }
+
+    /**
+     * Copy of this context whose deadline is the earlier of its own and the given one
+     */
+    public CallContext withDeadline(Deadline deadline) {
+        return toBuilder().deadline(deadline.min(this.deadline)).build();
+    }
+
+    /**
+     * Wrap a task so that it runs with this context attached
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            try (Scope scope = attach()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Wrap a task so that it runs with this context attached
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            try (Scope scope = attach()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Wrap a supplier so that it runs with this context attached
+     */
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        return () -> {
+            try (Scope scope = attach()) {
+                return supplier.get();
+            }
+        };
+    }
+
+    /**
+     * Wrap an executor so that every task runs with the context of the thread that submitted it
+     */
+    public static ExecutorService propagating(ExecutorService executor) {
+        return new PropagatingExecutor(executor);
+    }
+
+    /**
+     * Fail fast if the call has been cancelled or its deadline has passed
+     *
+     * @throws CallCancelledException if the cancellation token is cancelled
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void checkActive() {
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            throw new CallCancelledException("Call cancelled");
+        }
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded");
+        }
+    }
+
+    /**
+     * Run a listener when the call is cancelled, so that a wait can end as soon as the caller gives up
+     *
+     * @return a registration that removes the listener when closed; a no-op without a cancellation token
+     */
+    CancellationToken.Registration onCancel(Runnable listener) {
+        return cancellationToken != null ? cancellationToken.onCancel(listener) : () -> {
+        };
+    }
+
+    /**
+     * Bound a wait by the time left before the deadline
+     *
+     * @return the shorter of the given wait and the remaining time, in nanoseconds
+     */
+    public long boundWait(long waitNanos) {
+        return deadline != null ? Math.min(waitNanos, Math.max(0, deadline.remainingNanos())) : waitNanos;
+    }
+
+    public Builder toBuilder() {
+        return new Builder().lane(lane).tenant(tenant).deadline(deadline).cancellationToken(cancellationToken)
+                .traceContext(traceContext);
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    /**
+     * Get the deadline, or null if the call has none
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Get the cancellation token, or null if the call cannot be cancelled
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Get the caller's trace context, or null if the call is not part of a trace
+     */
+    public TraceContext getTraceContext() {
+        return traceContext;
+    }
+
+    private static final class PropagatingExecutor extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        PropagatingExecutor(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(current().wrap(command));
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    /**
+     * Restores the previously attached context when closed
+     */
+    public static final class Scope implements AutoCloseable {
+        private final CallContext previous;
+
+        private Scope(CallContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Builder for creating CallContext instances
+     */
+    public static class Builder {
+        private Lane lane = Lane.INTERACTIVE;
+        private String tenant = DEFAULT_TENANT;
+        private Deadline deadline;
+        private CancellationToken cancellationToken;
+        private TraceContext traceContext;
+
+        public Builder lane(Lane lane) {
+            this.lane = lane;
+            return this;
+        }
+
+        public Builder tenant(String tenant) {
+            this.tenant = tenant;
+            return this;
+        }
+
+        /**
+         * Deadline by which the call, including retries and fan-outs, must complete (optional)
+         */
+        public Builder deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Set the deadline the given duration from now
+         */
+        public Builder timeout(long duration, TimeUnit unit) {
+            this.deadline = Deadline.after(duration, unit);
+            return this;
+        }
+
+        /**
+         * Token that cancels the call (optional)
+         */
+        public Builder cancellationToken(CancellationToken cancellationToken) {
+            this.cancellationToken = cancellationToken;
+            return this;
+        }
+
+        /**
+         * Trace the call belongs to; requests carry a child span in the {@code traceparent} header (optional)
+         */
+        public Builder traceContext(TraceContext traceContext) {
+            this.traceContext = traceContext;
+            return this;
+        }
+
+        public CallContext build() {
+            if (lane == null) {
+                throw new IllegalArgumentException("Lane is required");
+            }
+            if (tenant == null || tenant.trim().isEmpty()) {
+                throw new IllegalArgumentException("Tenant is required");
+            }
+            return new CallContext(this);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.promoviedb.http;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handle that lets a caller give up on calls made on its behalf
+ * <p>
+ * Attach a token through a {@link CallContext}; cancelling it cancels the in-flight HTTP calls of
+ * that context and makes later calls fail fast with a {@code CallCancelledException}. Cancellation
+ * cannot be undone.
+ */
+public final class CancellationToken {
+    private final List<Runnable> listeners = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    /**
+     * Cancel the token and run the registered listeners; a no-op if already cancelled
+     */
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (listeners) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+        for (Runnable listener : toRun) {
+            listener.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Run a listener on cancellation, or right away if the token is already cancelled
+     *
+     * @return a registration that removes the listener when closed
+     */
+    public Registration onCancel(Runnable listener) {
+        synchronized (listeners) {
+            if (!cancelled) {
+                listeners.add(listener);
+                return () -> {
+                    synchronized (listeners) {
+                        listeners.remove(listener);
+                    }
+                };
+            }
+        }
+        listener.run();
+        return () -> {
+        };
+    }
+
+    /**
+     * Registered cancellation listener
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
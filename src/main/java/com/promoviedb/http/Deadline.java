@@ -0,0 +1,53 @@
+package com.promoviedb.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a call, including its retries and fan-outs, must complete
+ * <p>
+ * Deadlines are based on {@link System#nanoTime()} and are only meaningful within one JVM.
+ */
+public final class Deadline {
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Create a deadline the given duration from now
+     */
+    public static Deadline after(long duration, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * Get the time left before the deadline, in nanoseconds; zero or negative once it has passed
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remaining(TimeUnit unit) {
+        return unit.convert(remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Get whichever of this deadline and the other one comes first
+     */
+    public Deadline min(Deadline other) {
+        if (other == null) {
+            return this;
+        }
+        return deadlineNanos - other.deadlineNanos <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms}";
+    }
+}
@@ -0,0 +1,513 @@
+package com.promoviedb.http;
+
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads requests across several base URLs, preferring the fastest healthy one
+ * <p>
+ * Each request picks two endpoints at random and goes to the one with the lower cost: its peak EWMA
+ * latency multiplied by its outstanding requests plus one. The average decays with time rather than
+ * per sample, so endpoints receiving little traffic are compared fairly, and jumps at once to any
+ * slower sample so that a degrading endpoint is avoided quickly. An endpoint without a response yet
+ * is costed at {@code initialLatencyMillis}, or at the mean latency of the measured endpoints if none is
+ * set, so that requests already in flight to it still count.
+ * <p>
+ * After {@code ejectionThreshold} consecutive failures (connection errors or 5xx responses) an
+ * endpoint is ejected for {@code baseEjectionMillis}, doubling with each further ejection up to
+ * {@code maxEjectionMillis}. Ejected endpoints are used only when no other is left. Idempotent
+ * requests that fail are retried on another endpoint, up to {@code maxAttempts} in total.
+ * <p>
+ * With {@link Builder#consistentHashing(boolean)} enabled, requests for a movie, TV series or person
+ * go to the endpoint its ID hashes to on a ring of virtual nodes instead, so each endpoint's cache
+ * sees a stable subset of IDs. An endpoint already holding more than {@code loadFactor} times the
+ * average in-flight requests passes the request on to the next one on the ring, as does an ejected
+ * endpoint. Requests without an entity ID, such as searches, are still routed by latency.
+ *
+ * <pre>{@code
+ * EndpointRouter router = new EndpointRouter.Builder()
+ *     .addEndpoint("https://eu.gateway.example.com")
+ *     .addEndpoint("https://us.gateway.example.com")
+ *     .build();
+ *
+ * ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *     .apiKey("your-api-key")
+ *     .endpointRouter(router)
+ *     .build();
+ * }</pre>
+ */
+public class EndpointRouter {
+    private static final Set<String> ENTITY_TYPES = new HashSet<>(Arrays.asList("movie", "tv", "person"));
+    private static final double FALLBACK_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final List<Endpoint> endpoints;
+    private final HashRing ring;
+    private final double loadFactor;
+    private final double decayNanos;
+    private final double initialLatencyNanos;
+    private final int ejectionThreshold;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final int maxAttempts;
+
+    private EndpointRouter(Builder builder) {
+        List<Endpoint> list = new ArrayList<>();
+        for (String baseUrl : builder.baseUrls) {
+            list.add(new Endpoint(normalize(baseUrl)));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+        if (builder.consistentHashing) {
+            List<String> nodeIds = new ArrayList<>();
+            for (Endpoint endpoint : list) {
+                nodeIds.add(endpoint.baseUrl);
+            }
+            this.ring = new HashRing(nodeIds, builder.virtualNodes);
+        } else {
+            this.ring = null;
+        }
+        this.loadFactor = builder.loadFactor;
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(builder.decayMillis);
+        this.initialLatencyNanos = TimeUnit.MILLISECONDS.toNanos(builder.initialLatencyMillis);
+        this.ejectionThreshold = builder.ejectionThreshold;
+        this.baseEjectionNanos = TimeUnit.MILLISECONDS.toNanos(builder.baseEjectionMillis);
+        this.maxEjectionNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxEjectionMillis);
+        this.maxAttempts = builder.maxAttempts;
+    }
+
+    /**
+     * Get the base URL services build request URLs from; requests are then rerouted from it
+     */
+    public String getPrimaryBaseUrl() {
+        return endpoints.get(0).baseUrl;
+    }
+
+    /**
+     * Get all endpoints, in the order they were added
+     */
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Get the maximum number of endpoints an idempotent request is sent to
+     */
+    public int getMaxAttempts() {
+        return Math.min(maxAttempts, endpoints.size());
+    }
+
+    /**
+     * Get the key a request is hashed by, such as {@code movie/550} for the movie's details, credits
+     * or images, or null if the request is routed by latency
+     */
+    public String routingKey(HttpUrl url) {
+        if (ring == null) {
+            return null;
+        }
+        List<String> segments = url.pathSegments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (ENTITY_TYPES.contains(segments.get(i)) && isNumeric(segments.get(i + 1))) {
+                return segments.get(i) + "/" + segments.get(i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pick the endpoint for the next attempt
+     *
+     * @param tried Endpoints already tried for this request; avoided while others remain
+     */
+    public Endpoint select(Set<Endpoint> tried) {
+        return select(tried, null);
+    }
+
+    /**
+     * Pick the endpoint for the next attempt
+     *
+     * @param tried Endpoints already tried for this request; avoided while others remain
+     * @param routingKey Key from {@link #routingKey(HttpUrl)}, or null to route by latency
+     */
+    public Endpoint select(Set<Endpoint> tried, String routingKey) {
+        long now = System.nanoTime();
+        if (routingKey != null && ring != null) {
+            Endpoint owner = selectOnRing(routingKey, tried, now);
+            if (owner != null) {
+                return owner;
+            }
+        }
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (!tried.contains(endpoint) && !endpoint.isEjected(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Everything left is ejected; the one due back soonest is the best bet
+            Endpoint soonest = null;
+            for (Endpoint endpoint : endpoints) {
+                if (!tried.contains(endpoint) && (soonest == null || endpoint.ejectedUntil < soonest.ejectedUntil)) {
+                    soonest = endpoint;
+                }
+            }
+            return soonest != null ? soonest : endpoints.get(0);
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = candidates.get(first);
+        Endpoint b = candidates.get(second);
+        double unmeasured = unmeasuredLatencyNanos(now);
+        return a.cost(now, unmeasured) <= b.cost(now, unmeasured) ? a : b;
+    }
+
+    /**
+     * Get the latency assumed for an endpoint without a response yet
+     */
+    private double unmeasuredLatencyNanos(long now) {
+        if (initialLatencyNanos > 0) {
+            return initialLatencyNanos;
+        }
+        double sum = 0;
+        int measured = 0;
+        for (Endpoint endpoint : endpoints) {
+            double latency = endpoint.latencyNanos(now);
+            if (latency >= 0) {
+                sum += latency;
+                measured++;
+            }
+        }
+        return measured > 0 ? sum / measured : FALLBACK_LATENCY_NANOS;
+    }
+
+    /**
+     * Walk the ring from the key's position to the first usable endpoint with room under the load bound
+     *
+     * @return the endpoint, or null if every endpoint is tried or ejected
+     */
+    private Endpoint selectOnRing(String routingKey, Set<Endpoint> tried, long now) {
+        long totalInFlight = 0;
+        for (Endpoint endpoint : endpoints) {
+            totalInFlight += endpoint.getInFlight();
+        }
+        // Bounded loads: no endpoint takes more than loadFactor times its share of in-flight requests
+        long capacity = (long) Math.ceil(loadFactor * (totalInFlight + 1) / endpoints.size());
+
+        boolean[] seen = new boolean[endpoints.size()];
+        int remaining = endpoints.size();
+        Endpoint firstUsable = null;
+        int start = ring.start(routingKey);
+        for (int i = 0; i < ring.size() && remaining > 0; i++) {
+            int index = ring.ownerAt(start + i);
+            if (seen[index]) {
+                continue;
+            }
+            seen[index] = true;
+            remaining--;
+            Endpoint endpoint = endpoints.get(index);
+            if (tried.contains(endpoint) || endpoint.isEjected(now)) {
+                continue;
+            }
+            if (endpoint.getInFlight() < capacity) {
+                return endpoint;
+            }
+            if (firstUsable == null) {
+                firstUsable = endpoint;
+            }
+        }
+        return firstUsable;
+    }
+
+    /**
+     * Rewrite a URL built on the primary base URL onto an endpoint
+     *
+     * @return the rewritten URL, or the URL unchanged if it is not under the primary base URL
+     */
+    public String rewrite(String url, Endpoint endpoint) {
+        String primary = getPrimaryBaseUrl();
+        if (endpoint.baseUrl.equals(primary) || !url.startsWith(primary)) {
+            return url;
+        }
+        String rest = url.substring(primary.length());
+        if (!rest.isEmpty() && rest.charAt(0) != '/' && rest.charAt(0) != '?') {
+            return url;
+        }
+        return endpoint.baseUrl + rest;
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String baseUrl) {
+        String trimmed = baseUrl.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /**
+     * One base URL and its latency and failure statistics
+     */
+    public final class Endpoint {
+        private final String baseUrl;
+
+        // Guarded by this
+        private double ewmaNanos;
+        private long lastUpdate;
+        private int inFlight;
+        private int consecutiveFailures;
+        private int ejections;
+        private long ejectedUntil;
+        private long requestCount;
+        private long failureCount;
+
+        private Endpoint(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /**
+         * Mark the start of an attempt on this endpoint
+         */
+        public synchronized void onStart() {
+            inFlight++;
+            requestCount++;
+        }
+
+        /**
+         * The attempt got a response the endpoint is not to blame for
+         */
+        public synchronized void onSuccess(long latencyNanos) {
+            inFlight--;
+            consecutiveFailures = 0;
+            ejections = 0;
+            observe(latencyNanos);
+        }
+
+        /**
+         * The attempt failed to connect or got a 5xx response
+         */
+        public synchronized void onFailure(long latencyNanos) {
+            inFlight--;
+            failureCount++;
+            observe(latencyNanos);
+            if (++consecutiveFailures >= ejectionThreshold) {
+                long backoff = baseEjectionNanos << Math.min(ejections, 20);
+                ejectedUntil = System.nanoTime() + Math.min(maxEjectionNanos, backoff);
+                ejections++;
+                consecutiveFailures = 0;
+            }
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * Get the peak EWMA latency in milliseconds, or 0 before the first response
+         */
+        public synchronized double getLatencyMillis() {
+            return ewmaNanos / 1e6;
+        }
+
+        public synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        public synchronized long getRequestCount() {
+            return requestCount;
+        }
+
+        public synchronized long getFailureCount() {
+            return failureCount;
+        }
+
+        /**
+         * Whether the endpoint is currently ejected after repeated failures
+         */
+        public boolean isEjected() {
+            return isEjected(System.nanoTime());
+        }
+
+        private synchronized boolean isEjected(long now) {
+            return ejectedUntil != 0 && now - ejectedUntil < 0;
+        }
+
+        /**
+         * @param unmeasuredNanos Latency to assume before the first response
+         */
+        private synchronized double cost(long now, double unmeasuredNanos) {
+            double latency = lastUpdate != 0 ? latencyNanos(now) : unmeasuredNanos;
+            return latency * (inFlight + 1);
+        }
+
+        /**
+         * Get the decayed peak EWMA latency, or -1 before the first response
+         */
+        private synchronized double latencyNanos(long now) {
+            if (lastUpdate == 0) {
+                return -1;
+            }
+            // Let an old peak fade even while no responses arrive
+            return ewmaNanos * Math.exp(-(now - lastUpdate) / decayNanos);
+        }
+
+        private void observe(long latencyNanos) {
+            long now = System.nanoTime();
+            if (lastUpdate == 0 || latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdate) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        @Override
+        public String toString() {
+            return "Endpoint{" +
+                    "baseUrl='" + baseUrl + '\'' +
+                    ", latencyMillis=" + String.format("%.1f", getLatencyMillis()) +
+                    ", inFlight=" + getInFlight() +
+                    ", ejected=" + isEjected() +
+                    '}';
+        }
+    }
+
+    /**
+     * Builder for creating EndpointRouter instances
+     */
+    public static class Builder {
+        private final List<String> baseUrls = new ArrayList<>();
+        private long decayMillis = 10000;
+        private long initialLatencyMillis = 0;
+        private int ejectionThreshold = 3;
+        private long baseEjectionMillis = 1000;
+        private long maxEjectionMillis = 60000;
+        private int maxAttempts = 2;
+        private boolean consistentHashing = false;
+        private int virtualNodes = 160;
+        private double loadFactor = 1.25;
+
+        /**
+         * Add a base URL; the first one added is the primary
+         */
+        public Builder addEndpoint(String baseUrl) {
+            this.baseUrls.add(baseUrl);
+            return this;
+        }
+
+        /**
+         * Time over which latency samples lose most of their weight (default 10000)
+         */
+        public Builder decayMillis(long decayMillis) {
+            this.decayMillis = decayMillis;
+            return this;
+        }
+
+        /**
+         * Latency assumed for an endpoint until its first response (default 0: the mean latency of the
+         * endpoints measured so far)
+         */
+        public Builder initialLatencyMillis(long initialLatencyMillis) {
+            this.initialLatencyMillis = initialLatencyMillis;
+            return this;
+        }
+
+        /**
+         * Consecutive failures after which an endpoint is ejected (default 3)
+         */
+        public Builder ejectionThreshold(int ejectionThreshold) {
+            this.ejectionThreshold = ejectionThreshold;
+            return this;
+        }
+
+        /**
+         * Length of the first ejection, doubled for each further one (default 1000)
+         */
+        public Builder baseEjectionMillis(long baseEjectionMillis) {
+            this.baseEjectionMillis = baseEjectionMillis;
+            return this;
+        }
+
+        /**
+         * Longest ejection (default 60000)
+         */
+        public Builder maxEjectionMillis(long maxEjectionMillis) {
+            this.maxEjectionMillis = maxEjectionMillis;
+            return this;
+        }
+
+        /**
+         * Maximum number of endpoints an idempotent request is tried on (default 2)
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Route movie, TV series and person requests by hashing their ID (default false)
+         */
+        public Builder consistentHashing(boolean consistentHashing) {
+            this.consistentHashing = consistentHashing;
+            return this;
+        }
+
+        /**
+         * Points each endpoint takes on the hash ring (default 160)
+         */
+        public Builder virtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+            return this;
+        }
+
+        /**
+         * Multiple of the average in-flight requests an endpoint may hold before hashed requests
+         * spill to the next endpoint on the ring (default 1.25)
+         */
+        public Builder loadFactor(double loadFactor) {
+            this.loadFactor = loadFactor;
+            return this;
+        }
+
+        public EndpointRouter build() {
+            if (baseUrls.isEmpty()) {
+                throw new IllegalArgumentException("At least one endpoint is required");
+            }
+            for (String baseUrl : baseUrls) {
+                if (baseUrl == null || baseUrl.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Endpoint base URL is required");
+                }
+            }
+            if (decayMillis <= 0 || initialLatencyMillis < 0 || ejectionThreshold <= 0 || baseEjectionMillis <= 0
+                    || maxEjectionMillis < baseEjectionMillis || maxAttempts <= 0
+                    || virtualNodes <= 0 || loadFactor < 1) {
+                throw new IllegalArgumentException("Invalid routing settings");
+            }
+            return new EndpointRouter(this);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.promoviedb.http;
+
+import com.promoviedb.exception.ConcurrencyLimitException;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Weighted-fair dispatch of requests across lanes and tenants
+ * <p>
+ * At most {@code maxConcurrentRequests} requests are in flight. When a slot frees up, the next request
+ * is taken from the waiting lane with the lowest virtual finish time, so lanes share
+ * slots in proportion to their weights. Within a lane, tenants take turns. A number of slots is reserved
+ * for {@link Lane#INTERACTIVE} requests, so background and bulk work only ever use spare capacity.
+ * <p>
+ * The lane and tenant of a request come from the {@link CallContext} attached to the calling thread.
+ *
+ * <pre>{@code
+ * FairScheduler scheduler = new FairScheduler.Builder()
+ *     .maxConcurrentRequests(32)
+ *     .reservedInteractiveSlots(8)
+ *     .build();
+ *
+ * ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *     .apiKey("your-api-key")
+ *     .scheduler(scheduler)
+ *     .build();
+ * }</pre>
+ */
+public class FairScheduler {
+    private final int maxConcurrentRequests;
+    private final int reservedInteractiveSlots;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final EnumMap<Lane, LaneQueue> lanes = new EnumMap<>(Lane.class);
+
+    // Guarded by lock
+    private int inFlight;
+    private int inFlightNonInteractive;
+    private double virtualTime;
+
+    private FairScheduler(Builder builder) {
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.reservedInteractiveSlots = builder.reservedInteractiveSlots;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxWaitMillis);
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneQueue(lane, builder.weights.get(lane)));
+        }
+    }
+
+    /**
+     * Wait for a dispatch slot in the lane of the current call context
+     *
+     * @throws ConcurrencyLimitException if no slot is granted within the maximum wait
+     */
+    public Ticket acquire() {
+        CallContext context = CallContext.current();
+        return acquire(context.getLane(), context.getTenant());
+    }
+
+    /**
+     * Wait for a dispatch slot, for no longer than the deadline of the current call context allows
+     * The returned ticket must be released exactly once.
+     *
+     * @throws ConcurrencyLimitException if no slot is granted within the maximum wait
+     * @throws com.promoviedb.exception.DeadlineExceededException if the deadline passes first
+     */
+    public Ticket acquire(Lane lane, String tenant) {
+        CallContext context = CallContext.current();
+        context.checkActive();
+        lock.lock();
+        CancellationToken.Registration cancellation = null;
+        try {
+            LaneQueue queue = lanes.get(lane);
+            Waiter waiter = new Waiter(tenant, lock.newCondition());
+            queue.add(waiter, virtualTime);
+            dispatch();
+
+            long remaining = context.boundWait(maxWaitNanos);
+            try {
+                while (!waiter.granted) {
+                    try {
+                        context.checkActive();
+                    } catch (RuntimeException e) {
+                        queue.remove(waiter);
+                        throw e;
+                    }
+                    if (remaining <= 0) {
+                        queue.remove(waiter);
+                        throw new ConcurrencyLimitException("Timed out waiting for a slot in the " + lane + " lane");
+                    }
+                    if (cancellation == null) {
+                        cancellation = context.onCancel(() -> signal(waiter));
+                        continue;
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.granted) {
+                    finish(lane);
+                } else {
+                    queue.remove(waiter);
+                }
+                throw new ConcurrencyLimitException("Interrupted while waiting for a slot in the " + lane + " lane");
+            }
+            return new Ticket(lane);
+        } finally {
+            lock.unlock();
+            if (cancellation != null) {
+                cancellation.close();
+            }
+        }
+    }
+
+    /**
+     * Get the number of requests in flight
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests waiting in a lane
+     */
+    public int getQueued(Lane lane) {
+        lock.lock();
+        try {
+            return lanes.get(lane).size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    private boolean canStart(Lane lane) {
+        if (inFlight >= maxConcurrentRequests) {
+            return false;
+        }
+        return lane == Lane.INTERACTIVE || inFlightNonInteractive < maxConcurrentRequests - reservedInteractiveSlots;
+    }
+
+    /**
+     * Grant free slots to waiters; called with the lock held
+     */
+    private void dispatch() {
+        while (inFlight < maxConcurrentRequests) {
+            LaneQueue next = null;
+            for (LaneQueue queue : lanes.values()) {
+                if (queue.size > 0 && canStart(queue.lane) && (next == null || queue.finishTag() < next.finishTag())) {
+                    next = queue;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Waiter waiter = next.poll();
+            virtualTime = next.pass;
+            next.pass = next.finishTag();
+            inFlight++;
+            if (next.lane != Lane.INTERACTIVE) {
+                inFlightNonInteractive++;
+            }
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private void signal(Waiter waiter) {
+        lock.lock();
+        try {
+            waiter.condition.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(Lane lane) {
+        inFlight--;
+        if (lane != Lane.INTERACTIVE) {
+            inFlightNonInteractive--;
+        }
+        dispatch();
+    }
+
+    private static final class Waiter {
+        final String tenant;
+        final Condition condition;
+        boolean granted;
+
+        Waiter(String tenant, Condition condition) {
+            this.tenant = tenant;
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * Waiters of one lane, grouped by tenant and served round-robin
+     */
+    private static final class LaneQueue {
+        final Lane lane;
+        final int weight;
+        final LinkedHashMap<String, ArrayDeque<Waiter>> tenants = new LinkedHashMap<>();
+        double pass;
+        int size;
+
+        LaneQueue(Lane lane, int weight) {
+            this.lane = lane;
+            this.weight = weight;
+        }
+
+        void add(Waiter waiter, double virtualTime) {
+            if (size == 0) {
+                // An idle lane does not bank credit while it has nothing to send
+                pass = Math.max(pass, virtualTime);
+            }
+            tenants.computeIfAbsent(waiter.tenant, t -> new ArrayDeque<>()).add(waiter);
+            size++;
+        }
+
+        /**
+         * Virtual time at which the next request of the lane would complete its share
+         */
+        double finishTag() {
+            return pass + 1.0 / weight;
+        }
+
+        Waiter poll() {
+            Iterator<Map.Entry<String, ArrayDeque<Waiter>>> it = tenants.entrySet().iterator();
+            Map.Entry<String, ArrayDeque<Waiter>> first = it.next();
+            Waiter waiter = first.getValue().poll();
+            it.remove();
+            if (!first.getValue().isEmpty()) {
+                // Move the tenant to the back of the rotation
+                tenants.put(first.getKey(), first.getValue());
+            }
+            size--;
+            return waiter;
+        }
+
+        void remove(Waiter waiter) {
+            ArrayDeque<Waiter> queue = tenants.get(waiter.tenant);
+            if (queue != null && queue.remove(waiter)) {
+                size--;
+                if (queue.isEmpty()) {
+                    tenants.remove(waiter.tenant);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatch slot held by one in-flight request
+     */
+    public final class Ticket {
+        private final Lane lane;
+        private boolean released;
+
+        private Ticket(Lane lane) {
+            this.lane = lane;
+        }
+
+        public Lane getLane() {
+            return lane;
+        }
+
+        /**
+         * Free the slot for the next waiting request; a no-op once released
+         */
+        public void release() {
+            lock.lock();
+            try {
+                if (!released) {
+                    released = true;
+                    finish(lane);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Builder for creating FairScheduler instances
+     */
+    public static class Builder {
+        private int maxConcurrentRequests = 16;
+        private int reservedInteractiveSlots = 4;
+        private int maxWaitMillis = 30000;
+        private final EnumMap<Lane, Integer> weights = new EnumMap<>(Lane.class);
+
+        public Builder() {
+            for (Lane lane : Lane.values()) {
+                weights.put(lane, lane.getDefaultWeight());
+            }
+        }
+
+        /**
+         * Maximum number of requests in flight across all lanes (default 16)
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Slots only interactive requests may use (default 4)
+         */
+        public Builder reservedInteractiveSlots(int reservedInteractiveSlots) {
+            this.reservedInteractiveSlots = reservedInteractiveSlots;
+            return this;
+        }
+
+        /**
+         * Maximum time a request waits for a slot (default 30000)
+         */
+        public Builder maxWaitMillis(int maxWaitMillis) {
+            this.maxWaitMillis = maxWaitMillis;
+            return this;
+        }
+
+        /**
+         * Override the weight of a lane
+         */
+        public Builder weight(Lane lane, int weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Lane weight must be positive");
+            }
+            weights.put(lane, weight);
+            return this;
+        }
+
+        public FairScheduler build() {
+            if (maxConcurrentRequests <= 0 || reservedInteractiveSlots < 0
+                    || reservedInteractiveSlots >= maxConcurrentRequests) {
+                throw new IllegalArgumentException("Invalid scheduler capacity");
+            }
+            if (maxWaitMillis < 0) {
+                throw new IllegalArgumentException("Max wait must not be negative");
+            }
+            return new FairScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.promoviedb.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hash ring with virtual nodes
+ * <p>
+ * Every node is placed at {@code virtualNodes} points on a 64-bit ring; a key belongs to the node
+ * owning the first point at or after the key's hash. Adding or removing a node only moves the keys
+ * between its points and their predecessors, about {@code 1/n} of all keys.
+ */
+final class HashRing {
+    private final long[] points;
+    private final int[] owners;
+
+    /**
+     * @param nodeIds Stable identity of each node; a node's index in this list is its owner index
+     * @param virtualNodes Points per node; more points give a more even split
+     */
+    HashRing(List<String> nodeIds, int virtualNodes) {
+        int size = nodeIds.size() * virtualNodes;
+        long[] packedPoints = new long[size];
+        Integer[] order = new Integer[size];
+        int[] pointOwners = new int[size];
+        for (int node = 0, p = 0; node < nodeIds.size(); node++) {
+            for (int v = 0; v < virtualNodes; v++, p++) {
+                packedPoints[p] = hash(nodeIds.get(node) + "#" + v);
+                pointOwners[p] = node;
+                order[p] = p;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compareUnsigned(packedPoints[a], packedPoints[b]));
+
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = packedPoints[order[i]];
+            owners[i] = pointOwners[order[i]];
+        }
+    }
+
+    /**
+     * Get the number of points on the ring
+     */
+    int size() {
+        return points.length;
+    }
+
+    /**
+     * Get the position of the first point at or after the key's hash
+     */
+    int start(String key) {
+        long h = hash(key);
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], h) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == points.length ? 0 : low;
+    }
+
+    /**
+     * Get the node owning a position, wrapping past the end of the ring
+     */
+    int ownerAt(int position) {
+        return owners[position % owners.length];
+    }
+
+    /**
+     * 64-bit FNV-1a, finished with the MurmurHash3 mixer so that similar keys spread over the whole ring
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
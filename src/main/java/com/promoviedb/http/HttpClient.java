@@ -5,12 +5,27 @@ import com.google.gson.JsonObject;
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.exception.ApiException;
 import com.promoviedb.exception.AuthenticationException;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.DeadlineExceededException;
 import com.promoviedb.exception.RateLimitException;
+import com.promoviedb.diagnostics.CallRecording;
+import com.promoviedb.diagnostics.Phase;
+import com.promoviedb.diagnostics.PhaseRecording;
+import com.promoviedb.diagnostics.RequestEvents;
+import com.promoviedb.metrics.EndpointFamily;
+import com.promoviedb.metrics.MetricsRecorder;
+import com.promoviedb.tracing.TraceContext;
+import com.promoviedb.tracing.TracingEventListener;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -19,85 +34,117 @@ import java.util.concurrent.TimeUnit;
 public class HttpClient {
     private static final Logger logger = LoggerFactory.getLogger(HttpClient.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final RequestBody EMPTY_BODY = RequestBody.create(new byte[0], null);
 
     private final OkHttpClient client;
     private final ClientConfig config;
     private final Gson gson;
+    private final boolean ownsTransport;
 
     public HttpClient(ClientConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Create an HTTP client on top of a shared transport
+     * The connection pool and dispatcher of the transport are reused; timeouts and logging follow the config.
+     *
+     * @param transport Shared transport, or null to create a dedicated connection pool
+     */
+    public HttpClient(ClientConfig config, SharedTransport transport) {
         this.config = config;
         this.gson = new Gson();
+        this.ownsTransport = transport == null;
 
-        OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .connectTimeout(config.getConnectTimeout(), TimeUnit.SECONDS)
+        OkHttpClient.Builder builder = transport != null
+                ? transport.getOkHttpClient().newBuilder()
+                : new OkHttpClient.Builder()
+                        .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+                        .retryOnConnectionFailure(true);
+        builder.connectTimeout(config.getConnectTimeout(), TimeUnit.SECONDS)
                 .readTimeout(config.getReadTimeout(), TimeUnit.SECONDS)
-                .writeTimeout(config.getWriteTimeout(), TimeUnit.SECONDS)
-                .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
-                .retryOnConnectionFailure(true);
+                .writeTimeout(config.getWriteTimeout(), TimeUnit.SECONDS);
+
+        if (config.getSpanExporter() != null) {
+            builder.eventListenerFactory(TracingEventListener.factory(config.getSpanExporter()));
+        }
+
+        if (config.getApiKeyPool() != null) {
+            builder.addInterceptor(new ApiKeyInterceptor(config.getApiKeyPool()));
+        }
+
+        // Inside key rotation, so that a request rerouted to another endpoint keeps its key
+        if (config.getEndpointRouter() != null) {
+            builder.addInterceptor(new RoutingInterceptor(config.getEndpointRouter()));
+        }
 
         // Add logging interceptor if enabled
         if (config.isEnableLogging()) {
             builder.addInterceptor(new LoggingInterceptor());
         }
 
+        // Last, so that every attempt made by key rotation is recorded or replayed, and logged
+        if (config.getTrafficRecorder() != null) {
+            builder.addInterceptor(config.getTrafficRecorder());
+        }
+        if (config.getTrafficReplayer() != null) {
+            builder.addInterceptor(config.getTrafficReplayer());
+        }
+
         this.client = builder.build();
+        registerGauges(config.getMetricsRecorder());
     }
 
     /**
      * Execute GET request
      */
     public String get(String url) throws ApiException {
-        Request request = new Request.Builder()
-                .url(url)
-                .get()
-                .build();
-
-        return executeRequest(request);
+        return execute(url, "GET", null);
     }
 
     /**
      * Execute POST request
      */
     public String post(String url, String jsonBody) throws ApiException {
-        RequestBody body = RequestBody.create(jsonBody, JSON);
-        Request request = new Request.Builder()
-                .url(url)
-                .post(body)
-                .build();
-
-        return executeRequest(request);
+        return execute(url, "POST", RequestBody.create(jsonBody, JSON));
     }
 
     /**
      * Execute PUT request
      */
     public String put(String url, String jsonBody) throws ApiException {
-        RequestBody body = RequestBody.create(jsonBody, JSON);
-        Request request = new Request.Builder()
-                .url(url)
-                .put(body)
-                .build();
-
-        return executeRequest(request);
+        return execute(url, "PUT", RequestBody.create(jsonBody, JSON));
     }
 
     /**
      * Execute DELETE request
      */
     public String delete(String url) throws ApiException {
-        Request request = new Request.Builder()
-                .url(url)
-                .delete()
-                .build();
-
-        return executeRequest(request);
+        return execute(url, "DELETE", EMPTY_BODY);
     }
 
     /**
      * Parse JSON response to specified type
      */
     public <T> T parseResponse(String json, Class<T> clazz) {
-        return gson.fromJson(json, clazz);
+        PhaseRecording decode = RequestEvents.begin(Phase.JSON_DECODE);
+        try {
+            return gson.fromJson(json, clazz);
+        } finally {
+            decode.end(null);
+        }
+    }
+
+    /**
+     * Parse JSON response to a generic type, such as one captured by a Gson {@code TypeToken}
+     */
+    public <T> T parseResponse(String json, Type type) {
+        PhaseRecording decode = RequestEvents.begin(Phase.JSON_DECODE);
+        try {
+            return gson.fromJson(json, type);
+        } finally {
+            decode.end(null);
+        }
     }
 
     /**
@@ -109,17 +156,97 @@ public class HttpClient {
 
     /**
      * Close the HTTP client
+     * A shared transport is left open.
      */
     public void close() {
-        if (client != null) {
+        if (client != null && ownsTransport) {
             client.dispatcher().executorService().shutdown();
             client.connectionPool().evictAll();
         }
     }
 
-    private String executeRequest(Request request) throws ApiException {
-        try (Response response = client.newCall(request).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
+    private String execute(String url, String method, RequestBody body) throws ApiException {
+        // The URL is parsed once, here, and named by the endpoint family the rest of the call reports
+        PhaseRecording urlBuild = RequestEvents.begin(Phase.URL_BUILD);
+        Request request = new Request.Builder()
+                .url(url)
+                .method(method, body)
+                .build();
+        String endpoint = EndpointFamily.of(request.url().pathSegments());
+        urlBuild.end(endpoint);
+
+        return executeRequest(request, endpoint);
+    }
+
+    private String executeRequest(Request request, String endpoint) throws ApiException {
+        CallContext context = CallContext.current();
+        context.checkActive();
+
+        CallRecording recording = RequestEvents.beginCall(endpoint, request.method());
+        PhaseRecording queueWait = RequestEvents.begin(Phase.QUEUE_WAIT);
+
+        FairScheduler scheduler = config.getScheduler();
+        AdaptiveConcurrencyLimiter limiter = config.getConcurrencyLimiter();
+        FairScheduler.Ticket ticket = null;
+        AdaptiveConcurrencyLimiter.Permit permit = null;
+        boolean admitted = false;
+        try {
+            ticket = scheduler != null ? scheduler.acquire() : null;
+            permit = limiter != null ? limiter.acquire() : null;
+            admitted = true;
+        } finally {
+            // Rejected, cancelled and expired calls are recorded too, with the time they waited
+            queueWait.end(endpoint);
+            if (!admitted) {
+                recording.end(-1, contentLength(request.body()), 0);
+                if (ticket != null) {
+                    ticket.release();
+                }
+            }
+        }
+        try {
+            return executeAdmitted(request, context, endpoint, recording, permit);
+        } finally {
+            if (ticket != null) {
+                ticket.release();
+            }
+        }
+    }
+
+    private String executeAdmitted(Request request, CallContext context, String endpoint,
+                                   CallRecording recording, AdaptiveConcurrencyLimiter.Permit permit)
+            throws ApiException {
+        Call call = client.newCall(traced(request, context));
+        Deadline deadline = context.getDeadline();
+        if (deadline != null) {
+            // Covers the whole call, including the resends done by interceptors
+            call.timeout().timeout(Math.max(1, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+        }
+        CancellationToken token = context.getCancellationToken();
+        CancellationToken.Registration registration = token != null ? token.onCancel(call::cancel) : null;
+
+        MetricsRecorder metrics = config.getMetricsRecorder();
+        int statusCode = -1;
+        long bytesReceived = 0;
+        metrics.requestStarted(endpoint);
+        long start = System.nanoTime();
+        PhaseRecording network = RequestEvents.begin(Phase.NETWORK);
+        try (Response response = call.execute()) {
+            network.end(endpoint);
+            statusCode = response.code();
+            PhaseRecording bodyRead = RequestEvents.begin(Phase.BODY_READ);
+            byte[] body = response.body() != null ? response.body().bytes() : new byte[0];
+            bytesReceived = body.length;
+            String responseBody = new String(body, charsetOf(response.body()));
+            bodyRead.end(endpoint);
+
+            if (permit != null) {
+                if (response.code() == 429 || response.code() == 503) {
+                    permit.onDropped();
+                } else {
+                    permit.onSuccess();
+                }
+            }
 
             if (!response.isSuccessful()) {
                 handleErrorResponse(response.code(), responseBody);
@@ -127,8 +254,87 @@ public class HttpClient {
 
             return responseBody;
         } catch (IOException e) {
+            if (token != null && token.isCancelled()) {
+                throw new CallCancelledException("Call cancelled", e);
+            }
+            if (permit != null) {
+                permit.onDropped();
+            }
+            if (deadline != null && deadline.isExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded", e);
+            }
             logger.error("HTTP request failed", e);
             throw new ApiException("HTTP request failed: " + e.getMessage(), e);
+        } finally {
+            long bytesSent = contentLength(request.body());
+            metrics.requestCompleted(endpoint, request.method(), statusCode, System.nanoTime() - start,
+                    bytesSent, bytesReceived);
+            recording.end(statusCode, bytesSent, bytesReceived);
+            if (permit != null) {
+                permit.onIgnore();
+            }
+            if (registration != null) {
+                registration.close();
+            }
+        }
+    }
+
+    /**
+     * Add the traceparent header of a new child span of the caller's trace
+     * Without a caller trace, a new trace is started only when spans are exported.
+     */
+    private Request traced(Request request, CallContext context) {
+        TraceContext parent = context.getTraceContext();
+        if (parent == null && config.getSpanExporter() == null) {
+            return request;
+        }
+        TraceContext span = parent != null ? parent.newChild() : TraceContext.newRoot();
+        Request.Builder builder = request.newBuilder()
+                .header(TraceContext.TRACEPARENT_HEADER, span.toTraceparent())
+                .tag(TraceContext.class, span);
+        if (span.getTraceState() != null) {
+            builder.header(TraceContext.TRACESTATE_HEADER, span.getTraceState());
+        }
+        return builder.build();
+    }
+
+    private static Charset charsetOf(ResponseBody body) {
+        MediaType contentType = body != null ? body.contentType() : null;
+        return contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+    }
+
+    private static long contentLength(RequestBody body) {
+        if (body == null) {
+            return 0;
+        }
+        try {
+            return body.contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void registerGauges(MetricsRecorder metrics) {
+        FairScheduler scheduler = config.getScheduler();
+        if (scheduler != null) {
+            for (Lane lane : Lane.values()) {
+                metrics.registerGauge("promoviedb_scheduler_queued_" + lane.name().toLowerCase(),
+                        "Requests waiting for a slot in the " + lane.name().toLowerCase() + " lane",
+                        () -> scheduler.getQueued(lane));
+            }
+            metrics.registerGauge("promoviedb_scheduler_in_flight", "Requests holding a scheduler slot",
+                    scheduler::getInFlight);
+        }
+        AdaptiveConcurrencyLimiter limiter = config.getConcurrencyLimiter();
+        if (limiter != null) {
+            metrics.registerGauge("promoviedb_concurrency_limit", "Current adaptive concurrency limit",
+                    limiter::getLimit);
+            metrics.registerGauge("promoviedb_concurrency_limiter_in_flight",
+                    "Requests holding a concurrency limiter slot", limiter::getInFlight);
+            metrics.registerGauge("promoviedb_concurrency_limiter_queued", "Requests waiting for the concurrency limiter",
+                    limiter::getQueued);
+            metrics.registerCounter("promoviedb_concurrency_limiter_rejected_total",
+                    "Requests rejected by the concurrency limiter", limiter::getRejectedCount);
         }
     }
 
@@ -156,6 +362,117 @@ public class HttpClient {
         }
     }
 
+    /**
+     * Dispatches each request to a key of the pool and reports the outcome back to it
+     * A request rejected with 401/403/429 is resent once per key while another key is available.
+     */
+    private static class ApiKeyInterceptor implements Interceptor {
+        private static final String API_KEY_PARAM = "api_key";
+
+        private final ApiKeyPool pool;
+
+        ApiKeyInterceptor(ApiKeyPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            if (request.url().queryParameter(API_KEY_PARAM) == null) {
+                return chain.proceed(request);
+            }
+
+            for (int attempt = 1; ; attempt++) {
+                String apiKey = pool.acquire();
+                Request keyed = request.newBuilder()
+                        .url(request.url().newBuilder().setQueryParameter(API_KEY_PARAM, apiKey).build())
+                        .build();
+                Response response = chain.proceed(keyed);
+                int code = response.code();
+                pool.report(apiKey, code, parseRetryAfter(response.header("Retry-After")));
+
+                boolean rejected = code == 401 || code == 403 || code == 429;
+                if (!rejected || attempt >= pool.size() || !pool.hasAvailableKeyOtherThan(apiKey)) {
+                    return response;
+                }
+                logger.debug("Key rejected with status {}, resending {} with another key", code, request.url().encodedPath());
+                response.close();
+            }
+        }
+
+        private static long parseRetryAfter(String value) {
+            if (value == null) {
+                return -1;
+            }
+            try {
+                return Math.max(0, Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Sends each request to an endpoint chosen by the router, retrying idempotent requests on another
+     * endpoint after a connection error or a 5xx response
+     */
+    private static class RoutingInterceptor implements Interceptor {
+        private final EndpointRouter router;
+
+        RoutingInterceptor(EndpointRouter router) {
+            this.router = router;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            int maxAttempts = isIdempotent(request.method()) ? router.getMaxAttempts() : 1;
+            String routingKey = router.routingKey(request.url());
+            Set<EndpointRouter.Endpoint> tried = new HashSet<>();
+            for (int attempt = 1; ; attempt++) {
+                EndpointRouter.Endpoint endpoint = router.select(tried, routingKey);
+                tried.add(endpoint);
+                Request routed = request.newBuilder()
+                        .url(router.rewrite(request.url().toString(), endpoint))
+                        .build();
+
+                boolean last = attempt >= maxAttempts;
+                endpoint.onStart();
+                long start = System.nanoTime();
+                Response response;
+                try {
+                    response = chain.proceed(routed);
+                } catch (IOException e) {
+                    endpoint.onFailure(System.nanoTime() - start);
+                    if (last || chain.call().isCanceled()) {
+                        throw e;
+                    }
+                    logger.debug("Request to {} failed, retrying on another endpoint", endpoint.getBaseUrl(), e);
+                    CallContext.current().checkActive();
+                    continue;
+                }
+
+                long latency = System.nanoTime() - start;
+                if (response.code() < 500) {
+                    endpoint.onSuccess(latency);
+                    return response;
+                }
+                endpoint.onFailure(latency);
+                if (last) {
+                    return response;
+                }
+                logger.debug("Endpoint {} answered {}, retrying on another endpoint", endpoint.getBaseUrl(), response.code());
+                response.close();
+                CallContext.current().checkActive();
+            }
+        }
+
+        private static boolean isIdempotent(String method) {
+            return "GET".equals(method) || "HEAD".equals(method) || "PUT".equals(method)
+                    || "DELETE".equals(method) || "OPTIONS".equals(method);
+        }
+    }
+
     /**
      * Logging interceptor for debugging
      */
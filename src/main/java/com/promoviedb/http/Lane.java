@@ -0,0 +1,34 @@
+package com.promoviedb.http;
+
+/**
+ * Traffic class of a request, used by the {@link FairScheduler} to order dispatch
+ */
+public enum Lane {
+    /**
+     * User-facing lookups; dispatched first and guaranteed reserved capacity
+     */
+    INTERACTIVE(16),
+
+    /**
+     * Cache refreshes, change-feed polling and similar housekeeping
+     */
+    BACKGROUND(4),
+
+    /**
+     * Crawls and exports; only uses capacity the other lanes leave free
+     */
+    BULK(1);
+
+    private final int defaultWeight;
+
+    Lane(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * Share of dispatch slots the lane gets relative to the others when all of them have requests waiting
+     */
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
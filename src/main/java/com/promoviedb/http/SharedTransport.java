@@ -0,0 +1,117 @@
+package com.promoviedb.http;
+
+import com.promoviedb.cache.EntityCache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool, dispatcher and cache shared by several clients
+ * <p>
+ * Clients built with a shared transport keep their own {@code ClientConfig} (API key, language,
+ * timeouts, logging) but send requests through one OkHttp connection pool and dispatcher and read
+ * through one details cache. Closing such a client leaves the transport open; close the transport
+ * once every client using it is done.
+ *
+ * <pre>{@code
+ * SharedTransport transport = new SharedTransport.Builder()
+ *     .maxIdleConnections(20)
+ *     .cache(new EntityCache(3_600_000, 50_000))
+ *     .build();
+ *
+ * ProMovieDBClient english = new ProMovieDBClient.Builder().apiKey(key).language("en").transport(transport).build();
+ * ProMovieDBClient german = new ProMovieDBClient.Builder().apiKey(key).language("de").transport(transport).build();
+ * }</pre>
+ */
+public class SharedTransport {
+    private final OkHttpClient okHttpClient;
+    private final EntityCache cache;
+
+    private SharedTransport(Builder builder) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(builder.maxRequests);
+        dispatcher.setMaxRequestsPerHost(builder.maxRequestsPerHost);
+
+        this.okHttpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(builder.maxIdleConnections, builder.keepAliveMinutes, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .retryOnConnectionFailure(true)
+                .build();
+        this.cache = builder.cache;
+    }
+
+    /**
+     * Get the base OkHttp client whose pool and dispatcher are shared
+     */
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    /**
+     * Get the shared details cache
+     *
+     * @return the cache, or null if clients use their own
+     */
+    public EntityCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Close the transport and release the shared resources
+     */
+    public void close() {
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * Builder for creating SharedTransport instances
+     */
+    public static class Builder {
+        private int maxIdleConnections = 5;
+        private int keepAliveMinutes = 5;
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 5;
+        private EntityCache cache;
+
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public Builder keepAliveMinutes(int keepAliveMinutes) {
+            this.keepAliveMinutes = keepAliveMinutes;
+            return this;
+        }
+
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Details cache shared by every client (optional)
+         */
+        public Builder cache(EntityCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public SharedTransport build() {
+            if (maxIdleConnections < 0 || keepAliveMinutes <= 0) {
+                throw new IllegalArgumentException("Invalid connection pool settings");
+            }
+            if (maxRequests <= 0 || maxRequestsPerHost <= 0) {
+                throw new IllegalArgumentException("Invalid dispatcher settings");
+            }
+            return new SharedTransport(this);
+        }
+    }
+}
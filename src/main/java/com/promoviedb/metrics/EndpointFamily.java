@@ -0,0 +1,55 @@
+package com.promoviedb.metrics;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Derives the endpoint family of a request path by replacing IDs with placeholders
+ * <p>
+ * For example {@code /v1/np/3/movie/550/credits} becomes {@code movie/{id}/credits} and
+ * {@code /v1/np/3/tv/1399/season/2} becomes {@code tv/{id}/season/{id}}.
+ */
+public final class EndpointFamily {
+    private static final Pattern NUMERIC = Pattern.compile("\\d+");
+    private static final Pattern HEX_ID = Pattern.compile("[0-9a-fA-F]{12,}");
+    private static final Pattern IMDB_ID = Pattern.compile("(tt|nm)\\d+");
+    private static final Pattern API_VERSION = Pattern.compile("v\\d+");
+
+    private EndpointFamily() {
+    }
+
+    /**
+     * Get the family of a path given as its segments
+     */
+    public static String of(List<String> pathSegments) {
+        int start = 0;
+        for (int i = 0; i + 1 < pathSegments.size(); i++) {
+            if ("np".equals(pathSegments.get(i)) && NUMERIC.matcher(pathSegments.get(i + 1)).matches()) {
+                start = i + 2;
+                break;
+            }
+        }
+        if (start == 0 && !pathSegments.isEmpty() && API_VERSION.matcher(pathSegments.get(0)).matches()) {
+            start = 1;
+        }
+
+        StringBuilder family = new StringBuilder();
+        for (int i = start; i < pathSegments.size(); i++) {
+            String segment = pathSegments.get(i);
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (family.length() > 0) {
+                family.append('/');
+            }
+            family.append(isId(segment) ? "{id}" : segment);
+        }
+        return family.length() > 0 ? family.toString() : "/";
+    }
+
+    private static boolean isId(String segment) {
+        return NUMERIC.matcher(segment).matches()
+                || HEX_ID.matcher(segment).matches()
+                || IMDB_ID.matcher(segment).matches();
+    }
+}
@@ -0,0 +1,146 @@
+package com.promoviedb.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Built-in metrics recorder keeping everything in memory
+ * <p>
+ * Per endpoint family it tracks a latency histogram, request counts by method and status code,
+ * bytes sent and received, and the number of requests in flight. Registered gauges and counters
+ * are sampled when the metrics are read. Use {@link #scrape()} to render them in the Prometheus
+ * text format.
+ *
+ * <pre>{@code
+ * InMemoryMetricsRecorder metrics = new InMemoryMetricsRecorder();
+ * ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *     .apiKey("your-api-key")
+ *     .metricsRecorder(metrics)
+ *     .build();
+ *
+ * String body = metrics.scrape(); // serve on /metrics
+ * }</pre>
+ */
+public class InMemoryMetricsRecorder implements MetricsRecorder {
+    private final ConcurrentHashMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestStarted(String endpoint) {
+        stats(endpoint).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(String endpoint, String method, int statusCode, long latencyNanos,
+                                 long bytesSent, long bytesReceived) {
+        EndpointStats stats = stats(endpoint);
+        stats.inFlight.decrementAndGet();
+        stats.latency.record(latencyNanos);
+        stats.requests.computeIfAbsent(method + " " + statusCode, k -> new LongAdder()).increment();
+        stats.bytesSent.add(Math.max(0, bytesSent));
+        stats.bytesReceived.add(Math.max(0, bytesReceived));
+    }
+
+    @Override
+    public void registerGauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, value));
+    }
+
+    @Override
+    public void registerCounter(String name, String help, LongSupplier value) {
+        counters.put(name, new Counter(help, value));
+    }
+
+    /**
+     * Get the statistics of every endpoint family seen so far, sorted by family
+     */
+    public Map<String, EndpointStats> getEndpoints() {
+        return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+    }
+
+    /**
+     * Render every metric in the Prometheus text exposition format
+     */
+    public String scrape() {
+        return PrometheusTextWriter.write(this);
+    }
+
+    Map<String, Gauge> gauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    Map<String, Counter> counters() {
+        return new TreeMap<>(counters);
+    }
+
+    private EndpointStats stats(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        return stats != null ? stats : endpoints.computeIfAbsent(endpoint, e -> new EndpointStats());
+    }
+
+    /**
+     * Measurements of one endpoint family
+     */
+    public static final class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final ConcurrentHashMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Get the number of requests by method and status code, keyed as {@code "GET 200"}
+         * Requests that got no response have status code -1.
+         */
+        public Map<String, Long> getRequestCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            for (Map.Entry<String, LongAdder> e : requests.entrySet()) {
+                counts.put(e.getKey(), e.getValue().sum());
+            }
+            return counts;
+        }
+
+        public long getBytesSent() {
+            return bytesSent.sum();
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived.sum();
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+    }
+
+    static final class Gauge {
+        final String help;
+        final DoubleSupplier value;
+
+        Gauge(String help, DoubleSupplier value) {
+            this.help = help;
+            this.value = value;
+        }
+    }
+
+    static final class Counter {
+        final String help;
+        final LongSupplier value;
+
+        Counter(String help, LongSupplier value) {
+            this.help = help;
+            this.value = value;
+        }
+    }
+}
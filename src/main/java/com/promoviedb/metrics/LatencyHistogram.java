@@ -0,0 +1,123 @@
+package com.promoviedb.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets
+ * <p>
+ * Like an HDR histogram, each power-of-two range of microseconds is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so every recorded value is kept within about 3% of its
+ * true value from 1µs up to several hours. Recording is a single atomic increment.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_SHIFT = 32;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_SHIFT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    /**
+     * Record one latency
+     */
+    public void record(long latencyNanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        buckets.incrementAndGet(indexOf(micros));
+        count.increment();
+        sumMicros.add(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the sum of all recorded latencies, in seconds
+     */
+    public double getSumSeconds() {
+        return sumMicros.sum() / 1e6;
+    }
+
+    /**
+     * Get the latency at a percentile, in milliseconds
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return the upper bound of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] snapshot = snapshot();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return upperBoundMicros(i) / 1000.0;
+            }
+        }
+        return upperBoundMicros(snapshot.length - 1) / 1000.0;
+    }
+
+    /**
+     * Get the number of recorded latencies at or below each bound, for cumulative exposition
+     *
+     * @param boundsSeconds Ascending bucket bounds, in seconds
+     */
+    public long[] cumulativeCounts(double[] boundsSeconds) {
+        long[] snapshot = snapshot();
+        long[] counts = new long[boundsSeconds.length];
+        int bound = 0;
+        long seen = 0;
+        for (int i = 0; i < snapshot.length && bound < boundsSeconds.length; i++) {
+            // A bucket counts towards the first bound that covers its whole range
+            while (bound < boundsSeconds.length && upperBoundMicros(i) > boundsSeconds[bound] * 1e6) {
+                counts[bound++] = seen;
+            }
+            seen += snapshot[i];
+        }
+        while (bound < boundsSeconds.length) {
+            counts[bound++] = seen;
+        }
+        return counts;
+    }
+
+    private long[] snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+        }
+        return snapshot;
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = msb - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (micros >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.promoviedb.metrics;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Receives the measurements taken by the client
+ * <p>
+ * Implementations must be thread-safe and cheap: every method is called on the request path.
+ * Endpoints are reported as families such as {@code movie/{id}/credits}, so that their number stays
+ * bounded (see {@link EndpointFamily}). {@link InMemoryMetricsRecorder} is the built-in implementation;
+ * adapt another metrics library by implementing this interface.
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Recorder that drops every measurement; the default
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+        @Override
+        public void requestStarted(String endpoint) {
+        }
+
+        @Override
+        public void requestCompleted(String endpoint, String method, int statusCode, long latencyNanos,
+                                     long bytesSent, long bytesReceived) {
+        }
+
+        @Override
+        public void registerGauge(String name, String help, DoubleSupplier value) {
+        }
+
+        @Override
+        public void registerCounter(String name, String help, LongSupplier value) {
+        }
+    };
+
+    /**
+     * A request to an endpoint is about to be sent
+     */
+    void requestStarted(String endpoint);
+
+    /**
+     * A request completed; every call to {@link #requestStarted} is followed by exactly one call to this method
+     *
+     * @param statusCode    HTTP status code, or -1 if no response was received
+     * @param latencyNanos  Time from sending the request to reading the whole response body
+     * @param bytesSent     Size of the request body
+     * @param bytesReceived Size of the response body
+     */
+    void requestCompleted(String endpoint, String method, int statusCode, long latencyNanos,
+                          long bytesSent, long bytesReceived);
+
+    /**
+     * Register a value sampled when metrics are read, such as a queue depth
+     * Registering a name again replaces the previous supplier.
+     */
+    void registerGauge(String name, String help, DoubleSupplier value);
+
+    /**
+     * Register a monotonically increasing count sampled when metrics are read, such as cache hits
+     * Registering a name again replaces the previous supplier.
+     */
+    void registerCounter(String name, String help, LongSupplier value);
+}
@@ -0,0 +1,94 @@
+package com.promoviedb.metrics;
+
+import java.util.Map;
+
+/**
+ * Renders an {@link InMemoryMetricsRecorder} in the Prometheus text exposition format (version 0.0.4)
+ */
+public final class PrometheusTextWriter {
+    /**
+     * Content type to serve the output with
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] LATENCY_BUCKETS_SECONDS =
+            {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    private PrometheusTextWriter() {
+    }
+
+    /**
+     * Render every metric of the recorder
+     */
+    public static String write(InMemoryMetricsRecorder recorder) {
+        StringBuilder out = new StringBuilder(4096);
+        Map<String, InMemoryMetricsRecorder.EndpointStats> endpoints = recorder.getEndpoints();
+
+        header(out, "promoviedb_request_duration_seconds", "Latency of API requests by endpoint family", "histogram");
+        for (Map.Entry<String, InMemoryMetricsRecorder.EndpointStats> e : endpoints.entrySet()) {
+            String endpoint = escape(e.getKey());
+            LatencyHistogram latency = e.getValue().getLatency();
+            long count = latency.getCount();
+            long[] cumulative = latency.cumulativeCounts(LATENCY_BUCKETS_SECONDS);
+            for (int i = 0; i < LATENCY_BUCKETS_SECONDS.length; i++) {
+                out.append("promoviedb_request_duration_seconds_bucket{endpoint=\"").append(endpoint)
+                        .append("\",le=\"").append(LATENCY_BUCKETS_SECONDS[i]).append("\"} ")
+                        .append(cumulative[i]).append('\n');
+            }
+            out.append("promoviedb_request_duration_seconds_bucket{endpoint=\"").append(endpoint)
+                    .append("\",le=\"+Inf\"} ").append(count).append('\n');
+            out.append("promoviedb_request_duration_seconds_sum{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(latency.getSumSeconds()).append('\n');
+            out.append("promoviedb_request_duration_seconds_count{endpoint=\"").append(endpoint).append("\"} ")
+                    .append(count).append('\n');
+        }
+
+        header(out, "promoviedb_requests_total", "API requests by endpoint family, method and status code", "counter");
+        for (Map.Entry<String, InMemoryMetricsRecorder.EndpointStats> e : endpoints.entrySet()) {
+            String endpoint = escape(e.getKey());
+            for (Map.Entry<String, Long> request : e.getValue().getRequestCounts().entrySet()) {
+                String[] methodAndStatus = request.getKey().split(" ", 2);
+                out.append("promoviedb_requests_total{endpoint=\"").append(endpoint)
+                        .append("\",method=\"").append(escape(methodAndStatus[0]))
+                        .append("\",status=\"").append(escape(methodAndStatus[1])).append("\"} ")
+                        .append(request.getValue()).append('\n');
+            }
+        }
+
+        header(out, "promoviedb_request_bytes_sent_total", "Request body bytes sent", "counter");
+        for (Map.Entry<String, InMemoryMetricsRecorder.EndpointStats> e : endpoints.entrySet()) {
+            sample(out, "promoviedb_request_bytes_sent_total", e.getKey(), e.getValue().getBytesSent());
+        }
+        header(out, "promoviedb_response_bytes_received_total", "Response body bytes received", "counter");
+        for (Map.Entry<String, InMemoryMetricsRecorder.EndpointStats> e : endpoints.entrySet()) {
+            sample(out, "promoviedb_response_bytes_received_total", e.getKey(), e.getValue().getBytesReceived());
+        }
+        header(out, "promoviedb_requests_in_flight", "API requests currently in flight", "gauge");
+        for (Map.Entry<String, InMemoryMetricsRecorder.EndpointStats> e : endpoints.entrySet()) {
+            sample(out, "promoviedb_requests_in_flight", e.getKey(), e.getValue().getInFlight());
+        }
+
+        for (Map.Entry<String, InMemoryMetricsRecorder.Gauge> e : recorder.gauges().entrySet()) {
+            header(out, e.getKey(), e.getValue().help, "gauge");
+            out.append(e.getKey()).append(' ').append(e.getValue().value.getAsDouble()).append('\n');
+        }
+        for (Map.Entry<String, InMemoryMetricsRecorder.Counter> e : recorder.counters().entrySet()) {
+            header(out, e.getKey(), e.getValue().help, "counter");
+            out.append(e.getKey()).append(' ').append(e.getValue().value.getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String endpoint, long value) {
+        out.append(name).append("{endpoint=\"").append(escape(endpoint)).append("\"} ").append(value).append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
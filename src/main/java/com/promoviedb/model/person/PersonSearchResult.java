@@ -0,0 +1,96 @@
+package com.promoviedb.model.person;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Person entry of a search result page
+ */
+public class PersonSearchResult {
+    @SerializedName("id")
+    private Integer id;
+
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("original_name")
+    private String originalName;
+
+    @SerializedName("known_for_department")
+    private String knownForDepartment;
+
+    @SerializedName("gender")
+    private Integer gender;
+
+    @SerializedName("profile_path")
+    private String profilePath;
+
+    @SerializedName("popularity")
+    private Double popularity;
+
+    @SerializedName("adult")
+    private Boolean adult;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    public void setOriginalName(String originalName) {
+        this.originalName = originalName;
+    }
+
+    public String getKnownForDepartment() {
+        return knownForDepartment;
+    }
+
+    public void setKnownForDepartment(String knownForDepartment) {
+        this.knownForDepartment = knownForDepartment;
+    }
+
+    public Integer getGender() {
+        return gender;
+    }
+
+    public void setGender(Integer gender) {
+        this.gender = gender;
+    }
+
+    public String getProfilePath() {
+        return profilePath;
+    }
+
+    public void setProfilePath(String profilePath) {
+        this.profilePath = profilePath;
+    }
+
+    public Double getPopularity() {
+        return popularity;
+    }
+
+    public void setPopularity(Double popularity) {
+        this.popularity = popularity;
+    }
+
+    public Boolean getAdult() {
+        return adult;
+    }
+
+    public void setAdult(Boolean adult) {
+        this.adult = adult;
+    }
+}
@@ -0,0 +1,44 @@
+package com.promoviedb.model.response;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Minimal search result: only the ID and display title are decoded, every other field is skipped
+ */
+public class SearchResultSummary {
+    @SerializedName("id")
+    private Integer id;
+
+    @SerializedName("title")
+    private String title;
+
+    @SerializedName("name")
+    private String name;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the title of a movie, or the name of a TV series or person
+     */
+    public String getTitle() {
+        return title != null ? title : name;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,104 @@
+package com.promoviedb.recording;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One request/response pair captured by a {@link TrafficRecorder}
+ * <p>
+ * The URL and headers are redacted before the exchange is stored, so recordings can be shared.
+ */
+public final class RecordedExchange {
+    private final long timestampMillis;
+    private final long latencyNanos;
+    private final String method;
+    private final String url;
+    private final byte[] requestBody;
+    private final int statusCode;
+    private final String message;
+    private final List<String> headers;
+    private final byte[] body;
+
+    RecordedExchange(long timestampMillis, long latencyNanos, String method, String url, byte[] requestBody,
+                     int statusCode, String message, List<String> headers, byte[] body) {
+        this.timestampMillis = timestampMillis;
+        this.latencyNanos = latencyNanos;
+        this.method = method;
+        this.url = url;
+        this.requestBody = requestBody;
+        this.statusCode = statusCode;
+        this.message = message;
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        this.body = body;
+    }
+
+    /**
+     * Get the wall-clock time the request was sent
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Get the time from sending the request until the response body was read
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the request URL, with the API key redacted
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Get the request body, empty for requests without one
+     */
+    public byte[] getRequestBody() {
+        return requestBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Get the response headers as alternating names and values
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Get the key used to match a replayed request: method, path and sorted query
+     */
+    public String getKey() {
+        return TrafficLog.keyOf(method, url);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordedExchange{" +
+                "method='" + method + '\'' +
+                ", url='" + url + '\'' +
+                ", statusCode=" + statusCode +
+                ", latencyNanos=" + latencyNanos +
+                ", bodyBytes=" + body.length +
+                '}';
+    }
+}
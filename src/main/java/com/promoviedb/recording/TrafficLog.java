@@ -0,0 +1,298 @@
+package com.promoviedb.recording;
+
+import okhttp3.HttpUrl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Append-only file of recorded exchanges with a fixed-width index
+ * <p>
+ * Records are appended to the data file as a length-prefixed block. For every record, a 20-byte entry
+ * holding its offset, length and key hash is appended to a sidecar {@code .idx} file, so a replayer
+ * finds records by key without reading the data file. If the index is missing or shorter than the
+ * data file, for example after a crash between the two writes, it is rebuilt by scanning the data.
+ * A torn record at the end of the data file is ignored.
+ */
+public final class TrafficLog implements Closeable {
+    private static final byte[] MAGIC = "PMDBTRF1".getBytes(StandardCharsets.US_ASCII);
+    private static final int INDEX_ENTRY_BYTES = 8 + 4 + 8;
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final FileChannel data;
+    private final FileChannel index;
+    private final List<Entry> entries = new ArrayList<>();
+    private long dataEnd;
+
+    private TrafficLog(Path dataPath) throws IOException {
+        this.dataPath = dataPath;
+        this.indexPath = Paths.get(dataPath.toString() + ".idx");
+        this.data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (data.size() == 0) {
+            data.write(ByteBuffer.wrap(MAGIC), 0);
+            index.truncate(0);
+        } else {
+            checkMagic();
+        }
+        dataEnd = MAGIC.length;
+        loadIndex();
+    }
+
+    /**
+     * Open a log, creating it if it does not exist
+     */
+    public static TrafficLog open(Path path) throws IOException {
+        return new TrafficLog(path);
+    }
+
+    /**
+     * Append an exchange and its index entry
+     */
+    public synchronized void append(RecordedExchange exchange) throws IOException {
+        byte[] record = encode(exchange);
+        ByteBuffer block = ByteBuffer.allocate(4 + record.length);
+        block.putInt(record.length).put(record).flip();
+        long offset = dataEnd;
+        writeFully(data, block, offset);
+        dataEnd = offset + 4 + record.length;
+
+        Entry entry = new Entry(offset, record.length, hash(exchange.getKey()));
+        ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        indexEntry.putLong(entry.offset).putInt(entry.length).putLong(entry.keyHash).flip();
+        writeFully(index, indexEntry, (long) entries.size() * INDEX_ENTRY_BYTES);
+        entries.add(entry);
+    }
+
+    /**
+     * Get the index entries in recording order
+     */
+    public synchronized List<Entry> entries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    /**
+     * Read the record an index entry points to
+     */
+    public RecordedExchange read(Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        long position = entry.offset + 4;
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Record at " + entry.offset + " is truncated in " + dataPath);
+            }
+        }
+        return decode(buffer.array());
+    }
+
+    /**
+     * Read every record in recording order
+     */
+    public List<RecordedExchange> readAll() throws IOException {
+        List<RecordedExchange> exchanges = new ArrayList<>();
+        for (Entry entry : entries()) {
+            exchanges.add(read(entry));
+        }
+        return exchanges;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.force(false);
+            index.force(false);
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    /**
+     * Key matching a request to its recordings: method, path and query sorted by name
+     * Scheme, host and port are left out so that a recording replays against any base URL.
+     */
+    static String keyOf(String method, String url) {
+        HttpUrl parsed = HttpUrl.parse(url);
+        if (parsed == null) {
+            return method + " " + url;
+        }
+        TreeMap<String, List<String>> query = new TreeMap<>();
+        for (String name : parsed.queryParameterNames()) {
+            query.put(name, parsed.queryParameterValues(name));
+        }
+        StringBuilder key = new StringBuilder(method).append(' ').append(parsed.encodedPath());
+        char separator = '?';
+        for (java.util.Map.Entry<String, List<String>> param : query.entrySet()) {
+            for (String value : param.getValue()) {
+                key.append(separator).append(param.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a key
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void checkMagic() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+        data.read(header, 0);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header.get(i) != MAGIC[i]) {
+                throw new IOException("Not a traffic log: " + dataPath);
+            }
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        long count = index.size() / INDEX_ENTRY_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        for (long i = 0; i < count; i++) {
+            buffer.clear();
+            index.read(buffer, i * INDEX_ENTRY_BYTES);
+            buffer.flip();
+            Entry entry = new Entry(buffer.getLong(), buffer.getInt(), buffer.getLong());
+            long end = entry.offset + 4 + entry.length;
+            if (entry.offset != dataEnd || end > data.size()) {
+                break;
+            }
+            entries.add(entry);
+            dataEnd = end;
+        }
+        int indexed = entries.size();
+
+        // Index any records written after the last complete index entry
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while (dataEnd + 4 <= data.size()) {
+            length.clear();
+            data.read(length, dataEnd);
+            int recordLength = length.getInt(0);
+            if (recordLength < 0 || dataEnd + 4 + recordLength > data.size()) {
+                break;
+            }
+            RecordedExchange exchange = read(new Entry(dataEnd, recordLength, 0));
+            Entry entry = new Entry(dataEnd, recordLength, hash(exchange.getKey()));
+            entries.add(entry);
+            dataEnd += 4 + recordLength;
+        }
+        index.truncate((long) entries.size() * INDEX_ENTRY_BYTES);
+        ByteBuffer rewrite = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        for (int i = indexed; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            rewrite.clear();
+            rewrite.putLong(entry.offset).putInt(entry.length).putLong(entry.keyHash).flip();
+            writeFully(index, rewrite, (long) i * INDEX_ENTRY_BYTES);
+        }
+        data.truncate(dataEnd);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] encode(RecordedExchange exchange) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(exchange.getBody().length + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(exchange.getTimestampMillis());
+        out.writeLong(exchange.getLatencyNanos());
+        out.writeUTF(exchange.getMethod());
+        out.writeUTF(exchange.getUrl());
+        out.writeInt(exchange.getRequestBody().length);
+        out.write(exchange.getRequestBody());
+        out.writeShort(exchange.getStatusCode());
+        out.writeUTF(exchange.getMessage());
+        out.writeShort(exchange.getHeaders().size());
+        for (String header : exchange.getHeaders()) {
+            out.writeUTF(header);
+        }
+        out.writeInt(exchange.getBody().length);
+        out.write(exchange.getBody());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static RecordedExchange decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        long timestampMillis = in.readLong();
+        long latencyNanos = in.readLong();
+        String method = in.readUTF();
+        String url = in.readUTF();
+        byte[] requestBody = new byte[in.readInt()];
+        in.readFully(requestBody);
+        int statusCode = in.readUnsignedShort();
+        String message = in.readUTF();
+        int headerCount = in.readUnsignedShort();
+        List<String> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(in.readUTF());
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new RecordedExchange(timestampMillis, latencyNanos, method, url, requestBody, statusCode, message,
+                headers, body);
+    }
+
+    /**
+     * Position of one record in the data file
+     */
+    public static final class Entry {
+        private final long offset;
+        private final int length;
+        private final long keyHash;
+
+        Entry(long offset, int length, long keyHash) {
+            this.offset = offset;
+            this.length = length;
+            this.keyHash = keyHash;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Get the hash of the record's request key
+         */
+        public long getKeyHash() {
+            return keyHash;
+        }
+    }
+}
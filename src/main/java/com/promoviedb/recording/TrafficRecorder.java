@@ -0,0 +1,128 @@
+package com.promoviedb.recording;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records every exchange sent by the client to a {@link TrafficLog}
+ * <p>
+ * The API key and credential headers are replaced with {@value #REDACTED} before anything is written.
+ * Responses are buffered in memory so that their bodies can be both recorded and returned. A failure
+ * to write the log is logged and does not fail the call.
+ *
+ * <pre>{@code
+ * try (TrafficRecorder recorder = TrafficRecorder.open(Paths.get("traffic.log"))) {
+ *     ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *         .apiKey("your-api-key")
+ *         .trafficRecorder(recorder)
+ *         .build();
+ *     // ... run the workload
+ * }
+ * }</pre>
+ */
+public final class TrafficRecorder implements Interceptor, Closeable {
+    public static final String REDACTED = "REDACTED";
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficRecorder.class);
+    private static final Set<String> REDACTED_PARAMS = new HashSet<>(Arrays.asList("api_key", "session_id"));
+    private static final Set<String> REDACTED_HEADERS = new HashSet<>(Arrays.asList(
+            "authorization", "cookie", "set-cookie", "proxy-authorization"));
+
+    private final TrafficLog log;
+
+    public TrafficRecorder(TrafficLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Record to a log file, appending to it if it exists
+     */
+    public static TrafficRecorder open(Path path) throws IOException {
+        return new TrafficRecorder(TrafficLog.open(path));
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long timestampMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        byte[] bytes = body != null ? body.bytes() : new byte[0];
+        long latencyNanos = System.nanoTime() - start;
+
+        try {
+            log.append(new RecordedExchange(timestampMillis, latencyNanos, request.method(),
+                    redact(request.url()).toString(), requestBody(request), response.code(), response.message(),
+                    redact(response.headers()), bytes));
+        } catch (IOException e) {
+            logger.warn("Failed to record {} {}", request.method(), request.url().encodedPath(), e);
+        }
+        return response.newBuilder()
+                .body(ResponseBody.create(bytes, body != null ? body.contentType() : null))
+                .build();
+    }
+
+    /**
+     * Get the log being written
+     */
+    public TrafficLog getLog() {
+        return log;
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * Replace credential query parameters with {@value #REDACTED}
+     */
+    static HttpUrl redact(HttpUrl url) {
+        HttpUrl.Builder builder = null;
+        for (String name : url.queryParameterNames()) {
+            if (REDACTED_PARAMS.contains(name)) {
+                if (builder == null) {
+                    builder = url.newBuilder();
+                }
+                builder.setQueryParameter(name, REDACTED);
+            }
+        }
+        return builder != null ? builder.build() : url;
+    }
+
+    private static List<String> redact(Headers headers) {
+        List<String> redacted = new ArrayList<>(headers.size() * 2);
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            redacted.add(name);
+            redacted.add(REDACTED_HEADERS.contains(name.toLowerCase()) ? REDACTED : headers.value(i));
+        }
+        return redacted;
+    }
+
+    private static byte[] requestBody(Request request) throws IOException {
+        if (request.body() == null) {
+            return new byte[0];
+        }
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        return buffer.readByteArray();
+    }
+}
@@ -0,0 +1,189 @@
+package com.promoviedb.recording;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves recorded exchanges instead of sending requests over the network
+ * <p>
+ * A request is matched to recordings by method, path and query, ignoring the host and the API key.
+ * When the same request was recorded several times, the recordings are served in order and then
+ * cycled, so a replayed workload sees the same sequence of responses as the original one. Each
+ * response is delayed by its recorded latency multiplied by the time scale.
+ *
+ * <pre>{@code
+ * TrafficReplayer replayer = new TrafficReplayer.Builder(TrafficLog.open(Paths.get("traffic.log")))
+ *     .timeScale(0.5)
+ *     .build();
+ * ProMovieDBClient client = new ProMovieDBClient.Builder()
+ *     .apiKey("any-key")
+ *     .trafficReplayer(replayer)
+ *     .build();
+ * }</pre>
+ */
+public final class TrafficReplayer implements Interceptor, Closeable {
+    private final TrafficLog log;
+    private final double timeScale;
+    private final boolean failOnMissing;
+    private final Map<Long, List<TrafficLog.Entry>> entriesByHash = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+    private final Map<TrafficLog.Entry, RecordedExchange> decoded = new ConcurrentHashMap<>();
+
+    private TrafficReplayer(Builder builder) {
+        this.log = builder.log;
+        this.timeScale = builder.timeScale;
+        this.failOnMissing = builder.failOnMissing;
+        for (TrafficLog.Entry entry : log.entries()) {
+            entriesByHash.computeIfAbsent(entry.getKeyHash(), h -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    /**
+     * Replay a log file with the original timings
+     */
+    public static TrafficReplayer open(Path path) throws IOException {
+        return new Builder(TrafficLog.open(path)).build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String key = TrafficLog.keyOf(request.method(), TrafficRecorder.redact(request.url()).toString());
+        RecordedExchange exchange = next(key);
+        if (exchange == null) {
+            if (failOnMissing) {
+                throw new IOException("No recorded response for " + key);
+            }
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(404)
+                    .message("Not Recorded")
+                    .body(ResponseBody.create("{\"status_message\":\"Not recorded\"}",
+                            MediaType.get("application/json; charset=utf-8")))
+                    .build();
+        }
+
+        long delayNanos = (long) (exchange.getLatencyNanos() * timeScale);
+        if (delayNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while replaying " + key);
+            }
+        }
+        return toResponse(request, exchange);
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private RecordedExchange next(String key) throws IOException {
+        List<TrafficLog.Entry> candidates = entriesByHash.get(TrafficLog.hash(key));
+        if (candidates == null) {
+            return null;
+        }
+        List<RecordedExchange> matches = new ArrayList<>(candidates.size());
+        for (TrafficLog.Entry entry : candidates) {
+            RecordedExchange exchange = read(entry);
+            // Different keys can share a hash
+            if (exchange.getKey().equals(key)) {
+                matches.add(exchange);
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+        int position = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return matches.get(Math.floorMod(position, matches.size()));
+    }
+
+    private RecordedExchange read(TrafficLog.Entry entry) throws IOException {
+        RecordedExchange exchange = decoded.get(entry);
+        if (exchange == null) {
+            exchange = log.read(entry);
+            decoded.put(entry, exchange);
+        }
+        return exchange;
+    }
+
+    private static Response toResponse(Request request, RecordedExchange exchange) {
+        Response.Builder builder = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(exchange.getStatusCode())
+                .message(exchange.getMessage());
+        List<String> headers = exchange.getHeaders();
+        String contentType = null;
+        for (int i = 0; i + 1 < headers.size(); i += 2) {
+            builder.addHeader(headers.get(i), headers.get(i + 1));
+            if ("content-type".equalsIgnoreCase(headers.get(i))) {
+                contentType = headers.get(i + 1);
+            }
+        }
+        long now = System.currentTimeMillis();
+        return builder
+                .body(ResponseBody.create(exchange.getBody(), contentType != null ? MediaType.parse(contentType) : null))
+                .sentRequestAtMillis(now)
+                .receivedResponseAtMillis(now)
+                .build();
+    }
+
+    /**
+     * Builder for creating TrafficReplayer instances
+     */
+    public static class Builder {
+        private final TrafficLog log;
+        private double timeScale = 1.0;
+        private boolean failOnMissing = true;
+
+        public Builder(TrafficLog log) {
+            this.log = log;
+        }
+
+        /**
+         * Factor applied to recorded latencies; 0 replays without delay (default 1)
+         */
+        public Builder timeScale(double timeScale) {
+            this.timeScale = timeScale;
+            return this;
+        }
+
+        /**
+         * Fail requests with no recording instead of answering 404 (default true)
+         */
+        public Builder failOnMissing(boolean failOnMissing) {
+            this.failOnMissing = failOnMissing;
+            return this;
+        }
+
+        public TrafficReplayer build() {
+            if (log == null) {
+                throw new IllegalArgumentException("Traffic log is required");
+            }
+            if (timeScale < 0) {
+                throw new IllegalArgumentException("Time scale must not be negative");
+            }
+            return new TrafficReplayer(this);
+        }
+    }
+}
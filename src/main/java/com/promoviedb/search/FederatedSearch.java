@@ -0,0 +1,246 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.CancellationToken;
+import com.promoviedb.model.movie.MovieSearchResult;
+import com.promoviedb.model.person.PersonSearchResult;
+import com.promoviedb.model.response.PagedResponse;
+import com.promoviedb.model.tv.TvSeriesSearchResult;
+import com.promoviedb.service.SearchService;
+import com.promoviedb.util.ThreadSupport;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Searches movies, TV series and people in parallel and merges them into one typed ranking
+ * <p>
+ * Each category is searched with its own typed endpoint at the same time. Results are scored by a
+ * {@link SearchScorer} and merged. The search returns once every category has answered or the latency
+ * budget has run out, whichever comes first; categories still searching by then are cancelled and
+ * reported in {@link FederatedSearchResult#getTimedOut()}, so one slow category costs its results rather
+ * than the caller's time. A deadline or cancellation token of the caller's {@link CallContext} applies
+ * to all categories.
+ *
+ * <pre>{@code
+ * FederatedSearch search = new FederatedSearch.Builder(client.searchService())
+ *     .executor(client.executor())
+ *     .budgetMillis(300)
+ *     .build();
+ * FederatedSearchResult result = search.search("nolan");
+ * }</pre>
+ */
+public class FederatedSearch implements Closeable {
+    private final SearchService searchService;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Set<EntityType> types;
+    private final SearchScorer scorer;
+    private final long budgetNanos;
+    private final String language;
+    private final int limit;
+
+    private FederatedSearch(Builder builder) {
+        this.searchService = builder.searchService;
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor
+                ? ThreadSupport.newBlockingExecutor("promoviedb-search", 3 * EntityType.values().length)
+                : builder.executor;
+        this.types = builder.types;
+        this.scorer = builder.scorer;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(builder.budgetMillis);
+        this.language = builder.language;
+        this.limit = builder.limit;
+    }
+
+    /**
+     * Search every category and merge what arrives within the latency budget
+     *
+     * @param query Search keywords (required)
+     * @return merged results, best first
+     */
+    public FederatedSearchResult search(String query) {
+        long start = System.nanoTime();
+        CallContext parent = CallContext.current();
+        CancellationToken token = new CancellationToken();
+        CancellationToken.Registration link = parent.getCancellationToken() != null
+                ? parent.getCancellationToken().onCancel(token::cancel)
+                : null;
+        CallContext context = parent.toBuilder().cancellationToken(token).build();
+
+        Map<EntityType, Future<List<SearchHit>>> futures = new EnumMap<>(EntityType.class);
+        for (EntityType type : types) {
+            Callable<List<SearchHit>> task = () -> fetch(type, query);
+            futures.put(type, executor.submit(context.wrap(task)));
+        }
+
+        List<SearchHit> hits = new ArrayList<>();
+        Set<EntityType> timedOut = EnumSet.noneOf(EntityType.class);
+        Map<EntityType, Exception> errors = new EnumMap<>(EntityType.class);
+        long budgetEnd = start + parent.boundWait(budgetNanos);
+        boolean interrupted = false;
+        try {
+            for (Map.Entry<EntityType, Future<List<SearchHit>>> e : futures.entrySet()) {
+                if (interrupted) {
+                    timedOut.add(e.getKey());
+                    continue;
+                }
+                try {
+                    long remaining = Math.max(0, budgetEnd - System.nanoTime());
+                    for (SearchHit hit : e.getValue().get(remaining, TimeUnit.NANOSECONDS)) {
+                        hits.add(hit.withScore(scorer.score(query, hit)));
+                    }
+                } catch (TimeoutException ex) {
+                    timedOut.add(e.getKey());
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    errors.put(e.getKey(), cause instanceof Exception ? (Exception) cause : ex);
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                    timedOut.add(e.getKey());
+                }
+            }
+        } finally {
+            if (!timedOut.isEmpty()) {
+                // Nobody waits for the stragglers any more
+                token.cancel();
+            }
+            if (link != null) {
+                link.close();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        List<SearchHit> top = hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        return new FederatedSearchResult(top, timedOut, errors,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Shut down the executor if the search created it
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<SearchHit> fetch(EntityType type, String query) throws ApiException {
+        List<SearchHit> hits = new ArrayList<>();
+        if (type == EntityType.MOVIE) {
+            List<MovieSearchResult> results = results(searchService.searchMoviePage(query, language, null));
+            for (int i = 0; i < results.size(); i++) {
+                hits.add(SearchHit.of(results.get(i), i));
+            }
+        } else if (type == EntityType.TV_SERIES) {
+            List<TvSeriesSearchResult> results = results(searchService.searchTvPage(query, language, null));
+            for (int i = 0; i < results.size(); i++) {
+                hits.add(SearchHit.of(results.get(i), i));
+            }
+        } else {
+            List<PersonSearchResult> results = results(searchService.searchPersonPage(query, language, null));
+            for (int i = 0; i < results.size(); i++) {
+                hits.add(SearchHit.of(results.get(i), i));
+            }
+        }
+        return hits;
+    }
+
+    private static <T> List<T> results(PagedResponse<T> page) {
+        return page != null && page.getResults() != null ? page.getResults() : Collections.emptyList();
+    }
+
+    /**
+     * Builder for creating FederatedSearch instances
+     */
+    public static class Builder {
+        private final SearchService searchService;
+        private ExecutorService executor;
+        private Set<EntityType> types = EnumSet.allOf(EntityType.class);
+        private SearchScorer scorer = new RelevanceScorer();
+        private long budgetMillis = 300;
+        private String language;
+        private int limit = 20;
+
+        public Builder(SearchService searchService) {
+            this.searchService = searchService;
+        }
+
+        /**
+         * Run the category searches on this executor (optional); the search creates and owns one otherwise
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Categories to search (default all)
+         */
+        public Builder types(EntityType... types) {
+            this.types = types.length > 0 ? EnumSet.copyOf(Arrays.asList(types)) : EnumSet.noneOf(EntityType.class);
+            return this;
+        }
+
+        /**
+         * Score results for merging (default {@link RelevanceScorer})
+         */
+        public Builder scorer(SearchScorer scorer) {
+            this.scorer = scorer;
+            return this;
+        }
+
+        /**
+         * Time after which the search returns with the categories that have answered (default 300)
+         */
+        public Builder budgetMillis(long budgetMillis) {
+            this.budgetMillis = budgetMillis;
+            return this;
+        }
+
+        /**
+         * ISO 639-1 code of the results (optional, default the client language)
+         */
+        public Builder language(String language) {
+            this.language = language;
+            return this;
+        }
+
+        /**
+         * Maximum number of merged results (default 20)
+         */
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public FederatedSearch build() {
+            if (searchService == null || scorer == null) {
+                throw new IllegalArgumentException("Search service and scorer are required");
+            }
+            if (types.isEmpty() || budgetMillis <= 0 || limit <= 0) {
+                throw new IllegalArgumentException("Invalid federated search settings");
+            }
+            return new FederatedSearch(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merged results of a {@link FederatedSearch}, with the categories that did not make it in time
+ */
+public final class FederatedSearchResult {
+    private final List<SearchHit> hits;
+    private final Set<EntityType> timedOut;
+    private final Map<EntityType, Exception> errors;
+    private final long elapsedMillis;
+
+    FederatedSearchResult(List<SearchHit> hits, Set<EntityType> timedOut, Map<EntityType, Exception> errors,
+                          long elapsedMillis) {
+        this.hits = Collections.unmodifiableList(hits);
+        this.timedOut = Collections.unmodifiableSet(timedOut);
+        this.errors = Collections.unmodifiableMap(errors);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Get the results of every category that answered, best first
+     */
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the categories still searching when the latency budget ran out
+     */
+    public Set<EntityType> getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Get the categories whose search failed, with the error
+     */
+    public Map<EntityType, Exception> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Whether every category answered in time
+     */
+    public boolean isComplete() {
+        return timedOut.isEmpty() && errors.isEmpty();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -0,0 +1,87 @@
+package com.promoviedb.search;
+
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.http.CallContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * One page of search results holding only IDs and titles until their details are requested
+ *
+ * @param <D> Details model of the results
+ */
+public final class LazySearchPage<D> {
+    private final int page;
+    private final int totalPages;
+    private final int totalResults;
+    private final List<ResultHandle<D>> handles;
+    private final Executor executor;
+
+    LazySearchPage(int page, int totalPages, int totalResults, List<ResultHandle<D>> handles, Executor executor) {
+        this.page = page;
+        this.totalPages = totalPages;
+        this.totalResults = totalResults;
+        this.handles = Collections.unmodifiableList(handles);
+        this.executor = executor;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public int getTotalResults() {
+        return totalResults;
+    }
+
+    /**
+     * Get the results of the page in ranking order
+     */
+    public List<ResultHandle<D>> getHandles() {
+        return handles;
+    }
+
+    public int size() {
+        return handles.size();
+    }
+
+    /**
+     * Load the details of the results in [from, to) in parallel, skipping those already loaded
+     * Typically called with the range that is about to become visible.
+     *
+     * @param from First result, inclusive
+     * @param to   Last result, exclusive
+     * @return details in ranking order
+     * @throws ApiException if loading any of the details fails
+     */
+    public List<D> hydrate(int from, int to) throws ApiException {
+        List<ResultHandle<D>> range = handles.subList(from, Math.min(to, handles.size()));
+        CallContext context = CallContext.current();
+        Executor contextual = task -> executor.execute(context.wrap(task));
+        List<CompletableFuture<D>> futures = new ArrayList<>(range.size());
+        for (ResultHandle<D> handle : range) {
+            futures.add(handle.hydrate(contextual));
+        }
+        List<D> details = new ArrayList<>(futures.size());
+        for (CompletableFuture<D> future : futures) {
+            details.add(ResultHandle.join(future));
+        }
+        return details;
+    }
+
+    /**
+     * Load the details of every result on the page
+     *
+     * @throws ApiException if loading any of the details fails
+     */
+    public List<D> hydrateAll() throws ApiException {
+        return hydrate(0, handles.size());
+    }
+}
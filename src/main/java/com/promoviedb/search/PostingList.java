@@ -0,0 +1,82 @@
+package com.promoviedb.search;
+
+import java.util.Arrays;
+
+/**
+ * Ascending list of int IDs stored as variable-length deltas
+ * <p>
+ * IDs are appended in increasing order, so each is stored as its distance from the previous one in
+ * 7-bit groups. Dense lists of small gaps take about one byte per ID instead of four, and the list
+ * is decoded sequentially, which is all that intersection needs.
+ */
+final class PostingList {
+    private byte[] bytes = new byte[4];
+    private int length;
+    private int size;
+    private int last = -1;
+
+    /**
+     * Append an ID; IDs not greater than the last one are ignored
+     */
+    void add(int id) {
+        if (id <= last) {
+            return;
+        }
+        int delta = id - last;
+        last = id;
+        size++;
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((delta & ~0x7f) != 0) {
+            bytes[length++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+        bytes[length++] = (byte) delta;
+    }
+
+    /**
+     * Get the number of IDs
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of bytes the encoded IDs take
+     */
+    int byteSize() {
+        return length;
+    }
+
+    /**
+     * Decode all IDs, in ascending order
+     */
+    int[] toArray() {
+        int[] ids = new int[size];
+        int id = -1;
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += delta;
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Release the spare capacity left by growing
+     */
+    void trim() {
+        if (bytes.length > length) {
+            bytes = Arrays.copyOf(bytes, length);
+        }
+    }
+}
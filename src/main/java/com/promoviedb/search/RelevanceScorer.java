@@ -0,0 +1,53 @@
+package com.promoviedb.search;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Default {@link SearchScorer}: a weighted sum of title match, popularity and category rank
+ * <p>
+ * The title match is the share of query tokens found in the title, plus a half when the title
+ * consists of exactly the query tokens. Popularity is scaled logarithmically so that it reaches 1 at
+ * a popularity of 1000. The category rank contributes {@code 1 / (1 + rank)}, keeping the API's own
+ * order within a category. The title match ranges from 0 to 1.5 and the other two from 0 to 1.
+ */
+public class RelevanceScorer implements SearchScorer {
+    private static final double POPULARITY_SCALE = Math.log1p(1000);
+
+    private final double titleWeight;
+    private final double popularityWeight;
+    private final double rankWeight;
+
+    public RelevanceScorer() {
+        this(1.0, 0.5, 0.5);
+    }
+
+    public RelevanceScorer(double titleWeight, double popularityWeight, double rankWeight) {
+        this.titleWeight = titleWeight;
+        this.popularityWeight = popularityWeight;
+        this.rankWeight = rankWeight;
+    }
+
+    @Override
+    public double score(String query, SearchHit hit) {
+        return titleWeight * titleMatch(query, hit.getTitle())
+                + popularityWeight * Math.min(1, Math.log1p(Math.max(0, hit.getPopularity())) / POPULARITY_SCALE)
+                + rankWeight / (1 + hit.getRank());
+    }
+
+    static double titleMatch(String query, String title) {
+        Set<String> queryTokens = new HashSet<>(TextNormalizer.tokens(query));
+        if (queryTokens.isEmpty()) {
+            return 0;
+        }
+        Set<String> titleSet = new HashSet<>(TextNormalizer.tokens(title));
+        int found = 0;
+        for (String token : queryTokens) {
+            if (titleSet.contains(token)) {
+                found++;
+            }
+        }
+        double match = (double) found / queryTokens.size();
+        return titleSet.equals(queryTokens) ? match + 0.5 : match;
+    }
+}
@@ -0,0 +1,146 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.exception.ApiException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lightweight search result that loads its full details on first access
+ * <p>
+ * A handle holds only the ID and title from the search page. The details are loaded at most once, by
+ * {@link #getDetails()} or by {@link LazySearchPage#hydrate(int, int)}; concurrent callers share the load.
+ * A failed load is forgotten, so the next access tries again.
+ *
+ * @param <D> Details model: MovieDetails, TvSeriesDetails or PersonDetails
+ */
+public final class ResultHandle<D> {
+    private final EntityType type;
+    private final String id;
+    private final String title;
+    private final DetailsLoader<D> loader;
+    private final AtomicReference<CompletableFuture<D>> details = new AtomicReference<>();
+
+    ResultHandle(EntityType type, String id, String title, DetailsLoader<D> loader) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.loader = loader;
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the title of a movie, or the name of a TV series or person, as returned by the search
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Whether the details have been loaded
+     */
+    public boolean isHydrated() {
+        CompletableFuture<D> future = details.get();
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /**
+     * Get the full details, loading them on the calling thread unless already loaded or loading
+     *
+     * @throws ApiException if loading the details fails
+     */
+    public D getDetails() throws ApiException {
+        while (true) {
+            CompletableFuture<D> future = details.get();
+            if (future != null) {
+                return join(future);
+            }
+            CompletableFuture<D> created = new CompletableFuture<>();
+            if (details.compareAndSet(null, created)) {
+                load(created);
+                return join(created);
+            }
+        }
+    }
+
+    /**
+     * Start loading the details on an executor unless already loaded or loading
+     *
+     * @return the pending or completed load
+     */
+    CompletableFuture<D> hydrate(Executor executor) {
+        while (true) {
+            CompletableFuture<D> future = details.get();
+            if (future != null) {
+                return future;
+            }
+            CompletableFuture<D> created = new CompletableFuture<>();
+            if (details.compareAndSet(null, created)) {
+                try {
+                    executor.execute(() -> load(created));
+                } catch (RuntimeException e) {
+                    // Rejected, e.g. after the search was closed; the next access may try again
+                    fail(created, e);
+                }
+                return created;
+            }
+        }
+    }
+
+    private void load(CompletableFuture<D> future) {
+        try {
+            future.complete(loader.load(id));
+        } catch (Throwable e) {
+            fail(future, e);
+        }
+    }
+
+    /**
+     * Complete a load with its failure and forget it, so that waiters are released and the next access retries
+     */
+    private void fail(CompletableFuture<D> future, Throwable e) {
+        details.compareAndSet(future, null);
+        future.completeExceptionally(e);
+    }
+
+    static <D> D join(CompletableFuture<D> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ResultHandle{" +
+                "type=" + type +
+                ", id='" + id + '\'' +
+                ", title='" + title + '\'' +
+                ", hydrated=" + isHydrated() +
+                '}';
+    }
+
+    /**
+     * Loads the details of one entity, usually through the cache of its service
+     */
+    interface DetailsLoader<D> {
+        D load(String id) throws ApiException;
+    }
+}
@@ -0,0 +1,115 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.model.movie.MovieSearchResult;
+import com.promoviedb.model.person.PersonSearchResult;
+import com.promoviedb.model.tv.TvSeriesSearchResult;
+
+/**
+ * One typed result of a {@link FederatedSearch}
+ */
+public final class SearchHit {
+    private final EntityType type;
+    private final String id;
+    private final String title;
+    private final double popularity;
+    private final int rank;
+    private final Object result;
+    private final double score;
+
+    SearchHit(EntityType type, String id, String title, double popularity, int rank, Object result, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.popularity = popularity;
+        this.rank = rank;
+        this.result = result;
+        this.score = score;
+    }
+
+    static SearchHit of(MovieSearchResult movie, int rank) {
+        return new SearchHit(EntityType.MOVIE, String.valueOf(movie.getId()), movie.getTitle(),
+                movie.getPopularity() != null ? movie.getPopularity() : 0, rank, movie, 0);
+    }
+
+    static SearchHit of(TvSeriesSearchResult series, int rank) {
+        return new SearchHit(EntityType.TV_SERIES, String.valueOf(series.getId()), series.getName(),
+                series.getPopularity() != null ? series.getPopularity() : 0, rank, series, 0);
+    }
+
+    static SearchHit of(PersonSearchResult person, int rank) {
+        return new SearchHit(EntityType.PERSON, String.valueOf(person.getId()), person.getName(),
+                person.getPopularity() != null ? person.getPopularity() : 0, rank, person, 0);
+    }
+
+    SearchHit withScore(double score) {
+        return new SearchHit(type, id, title, popularity, rank, result, score);
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the title of a movie or TV series, or the name of a person
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Get the popularity reported by the API, or 0 if it reported none
+     */
+    public double getPopularity() {
+        return popularity;
+    }
+
+    /**
+     * Get the position of this result in its own category's results, from 0
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Get the score given by the {@link SearchScorer}; higher is better
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Get the movie, or null if this is not a movie
+     */
+    public MovieSearchResult getMovie() {
+        return result instanceof MovieSearchResult ? (MovieSearchResult) result : null;
+    }
+
+    /**
+     * Get the TV series, or null if this is not a TV series
+     */
+    public TvSeriesSearchResult getTvSeries() {
+        return result instanceof TvSeriesSearchResult ? (TvSeriesSearchResult) result : null;
+    }
+
+    /**
+     * Get the person, or null if this is not a person
+     */
+    public PersonSearchResult getPerson() {
+        return result instanceof PersonSearchResult ? (PersonSearchResult) result : null;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+                "type=" + type +
+                ", id='" + id + '\'' +
+                ", title='" + title + '\'' +
+                ", score=" + String.format("%.3f", score) +
+                '}';
+    }
+}
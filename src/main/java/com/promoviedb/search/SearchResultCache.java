@@ -0,0 +1,365 @@
+package com.promoviedb.search;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of search results shared by every page and page size of the same query
+ * <p>
+ * Queries are keyed by their normalized text (case, accents, punctuation and spacing removed, see
+ * {@link TextNormalizer}), language, adult flag, detail flag and family, so "Spider-Man",
+ * " spider man " and "SPIDER MAN" share one entry. Each entry stores results by their position in the
+ * whole result list rather than by page, so page 2 of size 10 is served from an earlier page 1 of size
+ * 20, and any request whose positions have all been fetched within the TTL of its family costs no request.
+ * <p>
+ * When a response reports a different total than the cached one, the results have shifted and the
+ * cached positions of that query are dropped. Queries are evicted least recently used first.
+ */
+public class SearchResultCache {
+    /**
+     * Results per page when a search does not give a page size
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * Search endpoints, each with its own TTL and statistics
+     */
+    public enum Family {
+        MOVIE("movie"),
+        TV("tv"),
+        PERSON("person"),
+        MULTI("multi");
+
+        private final String path;
+
+        Family(String path) {
+            this.path = path;
+        }
+
+        /**
+         * Get the last segment of the search endpoint, such as {@code movie}
+         */
+        public String getPath() {
+            return path;
+        }
+    }
+
+    private final Map<Family, Long> ttlMillis;
+    private final int maxItemsPerQuery;
+    private final Map<Family, AtomicLong> hitCounts = new EnumMap<>(Family.class);
+    private final Map<Family, AtomicLong> missCounts = new EnumMap<>(Family.class);
+
+    // Guarded by this
+    private final LinkedHashMap<Key, CachedQuery> entries;
+
+    private SearchResultCache(Builder builder) {
+        this.ttlMillis = new EnumMap<>(builder.ttlMillis);
+        this.maxItemsPerQuery = builder.maxItemsPerQuery;
+        for (Family family : Family.values()) {
+            hitCounts.put(family, new AtomicLong());
+            missCounts.put(family, new AtomicLong());
+        }
+        int maxQueries = builder.maxQueries;
+        this.entries = new LinkedHashMap<Key, CachedQuery>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedQuery> eldest) {
+                return size() > maxQueries;
+            }
+        };
+    }
+
+    /**
+     * Build the key of a query
+     *
+     * @param language Language the results are requested in; the caller resolves the default
+     * @return the key, or null if the query has no searchable text and is not cached
+     */
+    public Key key(Family family, String query, String language, Boolean includeAdult, Boolean detail) {
+        String normalized = query != null ? String.join(" ", TextNormalizer.tokens(query)) : "";
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return new Key(family, normalized, language,
+                Boolean.TRUE.equals(includeAdult), detail == null || detail);
+    }
+
+    /**
+     * Get a page assembled from cached results
+     *
+     * @param page     Page number (null for 1)
+     * @param pageSize Page size (null for {@link #DEFAULT_PAGE_SIZE})
+     * @return a page in the API's response format, or null unless every result of the page is cached and fresh
+     */
+    public JsonObject get(Key key, Integer page, Integer pageSize) {
+        int size = pageSize != null && pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        int from = (page != null && page > 0 ? page - 1 : 0) * size;
+        long now = System.currentTimeMillis();
+        long ttl = ttlMillis.get(key.family);
+        JsonArray results = new JsonArray();
+        int total;
+        synchronized (this) {
+            CachedQuery entry = entries.get(key);
+            total = entry != null ? entry.total : -1;
+            int to = total >= 0 ? Math.min(from + size, total) : from + size;
+            if (entry == null || entry.totalFetchedAt < now - ttl || !entry.isFresh(from, to, now - ttl)) {
+                missCounts.get(key.family).incrementAndGet();
+                return null;
+            }
+            for (int i = from; i < to; i++) {
+                results.add(entry.items[i].deepCopy());
+            }
+        }
+        hitCounts.get(key.family).incrementAndGet();
+
+        JsonObject response = new JsonObject();
+        response.addProperty("page", from / size + 1);
+        response.add("results", results);
+        response.addProperty("total_pages", (total + size - 1) / size);
+        response.addProperty("total_results", total);
+        return response;
+    }
+
+    /**
+     * Store the results of a page fetched from the API
+     *
+     * @param page     Page number the response was requested with (null for 1)
+     * @param pageSize Page size the response was requested with (null for {@link #DEFAULT_PAGE_SIZE})
+     */
+    public void put(Key key, Integer page, Integer pageSize, JsonObject response) {
+        JsonElement results = response.get("results");
+        if (results == null || !results.isJsonArray()) {
+            return;
+        }
+        JsonArray array = results.getAsJsonArray();
+        int size = pageSize != null && pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        int from = (page != null && page > 0 ? page - 1 : 0) * size;
+        JsonElement totalElement = response.get("total_results");
+        int total = totalElement != null && totalElement.isJsonPrimitive() ? totalElement.getAsInt()
+                : array.size() < size ? from + array.size() : -1;
+        int to = Math.min(Math.min(from + array.size(), total), maxItemsPerQuery);
+        if (total < 0 || to <= from && total > 0) {
+            // Without a total the end of the list is unknown; past the limit positions are not kept
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            CachedQuery entry = entries.get(key);
+            if (entry == null || entry.total != total) {
+                entry = new CachedQuery(total);
+                entries.put(key, entry);
+            }
+            entry.totalFetchedAt = now;
+            entry.ensureCapacity(to);
+            for (int i = from; i < to; i++) {
+                entry.items[i] = array.get(i - from).deepCopy();
+                entry.fetchedAt[i] = now;
+            }
+        }
+    }
+
+    /**
+     * Drop every cached query
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of cached queries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of pages served from the cache for a family
+     */
+    public long getHitCount(Family family) {
+        return hitCounts.get(family).get();
+    }
+
+    /**
+     * Get the number of pages that had to be fetched for a family
+     */
+    public long getMissCount(Family family) {
+        return missCounts.get(family).get();
+    }
+
+    /**
+     * Get the number of pages served from the cache across all families
+     */
+    public long getHitCount() {
+        long hits = 0;
+        for (AtomicLong count : hitCounts.values()) {
+            hits += count.get();
+        }
+        return hits;
+    }
+
+    /**
+     * Get the number of pages that had to be fetched across all families
+     */
+    public long getMissCount() {
+        long misses = 0;
+        for (AtomicLong count : missCounts.values()) {
+            misses += count.get();
+        }
+        return misses;
+    }
+
+    /**
+     * Identity of a query; pages and page sizes of the same query share a key
+     */
+    public static final class Key {
+        private final Family family;
+        private final String query;
+        private final String language;
+        private final boolean includeAdult;
+        private final boolean detail;
+
+        private Key(Family family, String query, String language, boolean includeAdult, boolean detail) {
+            this.family = family;
+            this.query = query;
+            this.language = language;
+            this.includeAdult = includeAdult;
+            this.detail = detail;
+        }
+
+        public Family getFamily() {
+            return family;
+        }
+
+        /**
+         * Get the normalized query text
+         */
+        public String getQuery() {
+            return query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return family == other.family && includeAdult == other.includeAdult && detail == other.detail
+                    && query.equals(other.query) && Objects.equals(language, other.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(family, query, language, includeAdult, detail);
+        }
+
+        @Override
+        public String toString() {
+            return family.getPath() + ":" + query + ":" + language + (includeAdult ? ":adult" : "")
+                    + (detail ? "" : ":summary");
+        }
+    }
+
+    /**
+     * Results of one query by position, each with the time it was fetched
+     */
+    private static final class CachedQuery {
+        private final int total;
+        private JsonElement[] items = new JsonElement[0];
+        private long[] fetchedAt = new long[0];
+        private long totalFetchedAt;
+
+        private CachedQuery(int total) {
+            this.total = total;
+        }
+
+        private void ensureCapacity(int length) {
+            if (length > items.length) {
+                int old = items.length;
+                items = Arrays.copyOf(items, length);
+                fetchedAt = Arrays.copyOf(fetchedAt, length);
+                Arrays.fill(fetchedAt, old, length, Long.MIN_VALUE);
+            }
+        }
+
+        private boolean isFresh(int from, int to, long notBefore) {
+            if (to > items.length) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (fetchedAt[i] < notBefore) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Builder for creating SearchResultCache instances
+     */
+    public static class Builder {
+        private final Map<Family, Long> ttlMillis = new EnumMap<>(Family.class);
+        private int maxQueries = 1000;
+        private int maxItemsPerQuery = 1000;
+
+        public Builder() {
+            ttlMillis(60_000);
+        }
+
+        /**
+         * Time results of every family stay fresh (default 60000)
+         */
+        public Builder ttlMillis(long ttlMillis) {
+            for (Family family : Family.values()) {
+                this.ttlMillis.put(family, ttlMillis);
+            }
+            return this;
+        }
+
+        /**
+         * Time results of one family stay fresh, overriding {@link #ttlMillis(long)}
+         */
+        public Builder ttlMillis(Family family, long ttlMillis) {
+            this.ttlMillis.put(family, ttlMillis);
+            return this;
+        }
+
+        /**
+         * Maximum number of queries kept (default 1000)
+         */
+        public Builder maxQueries(int maxQueries) {
+            this.maxQueries = maxQueries;
+            return this;
+        }
+
+        /**
+         * Positions kept per query; later pages are always fetched (default 1000)
+         */
+        public Builder maxItemsPerQuery(int maxItemsPerQuery) {
+            this.maxItemsPerQuery = maxItemsPerQuery;
+            return this;
+        }
+
+        public SearchResultCache build() {
+            for (long ttl : ttlMillis.values()) {
+                if (ttl <= 0) {
+                    throw new IllegalArgumentException("Search cache TTL must be positive");
+                }
+            }
+            if (maxQueries <= 0 || maxItemsPerQuery <= 0) {
+                throw new IllegalArgumentException("Search cache size must be positive");
+            }
+            return new SearchResultCache(this);
+        }
+    }
+}
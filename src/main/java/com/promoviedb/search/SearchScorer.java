@@ -0,0 +1,16 @@
+package com.promoviedb.search;
+
+/**
+ * Scores the results of a {@link FederatedSearch} so that movies, TV series and people can be merged
+ * into one ranking
+ */
+public interface SearchScorer {
+
+    /**
+     * Score a result; higher is better
+     *
+     * @param query Query as given to the search
+     * @param hit   Result, with its popularity and its rank within its own category
+     */
+    double score(String query, SearchHit hit);
+}
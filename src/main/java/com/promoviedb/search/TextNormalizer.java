@@ -0,0 +1,50 @@
+package com.promoviedb.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits titles and queries into normalized tokens
+ * <p>
+ * Text is decomposed and stripped of diacritics, lower-cased, and split at anything that is not a
+ * letter or digit, so {@code "Amélie"} and {@code "amelie"} give the same token and
+ * {@code "Spider-Man: No Way Home"} gives {@code spider, man, no, way, home}. Apostrophes are dropped
+ * rather than split on, so {@code "Schindler's List"} gives {@code schindlers, list}.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Get the normalized tokens of a text, in order
+     */
+    public static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int charType = Character.getType(c);
+            if (charType == Character.NON_SPACING_MARK || c == '\'' || c == '\u2019') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                tokens.add(token.toString().toLowerCase(Locale.ROOT));
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,654 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.CacheEntry;
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.CacheListener;
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.model.person.PersonDetails;
+import com.promoviedb.model.tv.TvSeriesDetails;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over the titles and names of movies, TV series and people
+ * <p>
+ * Titles are split into normalized tokens (see {@link TextNormalizer}), and every token maps to the
+ * list of entities containing it, stored as {@link PostingList delta-encoded IDs}. A query matches the
+ * entities containing all of its tokens. A query token missing from the index is matched against
+ * similar tokens instead: candidates sharing enough trigrams with it are found through a second
+ * inverted index from trigrams to tokens, and those within one edit (two for tokens of eight or more
+ * characters) are used at a lower weight. Single and two-character tokens must match exactly.
+ * <p>
+ * Results are ranked by how well each query token matched, with a bonus when the query covers a whole
+ * title. Attached to an {@link EntityCache}, the index picks up every cached movie, series and person,
+ * including the original title and the names a person is also known as. A cached entity is indexed
+ * under the names of its latest cached value and dropped once its last cache entry is removed.
+ * Entities added directly, such as remote search results, are kept up to {@code maxAddedEntries},
+ * the least recently added dropped first.
+ * <p>
+ * The index is safe for concurrent use: searches share a read lock, and updates take a write lock.
+ */
+public class TitleIndex implements CacheListener {
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int TWO_EDIT_LENGTH = 8;
+    private static final double EDIT_PENALTY = 0.3;
+    private static final double FULL_TITLE_BONUS = 0.5;
+    private static final int MIN_DELETED_TO_COMPACT = 1000;
+
+    /**
+     * Entities added directly that are kept by default
+     */
+    public static final int DEFAULT_MAX_ADDED_ENTRIES = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxAddedEntries;
+
+    // Guarded by lock
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<PostingList> postings = new ArrayList<>();
+    private final Map<String, PostingList> trigramTerms = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    // Type, token count and title length of each document, packed so that ranking reads one array
+    private int[] rankKeys = new int[64];
+    // Names of each cache entry of a cached entity, by entity key
+    private final Map<String, Map<CacheKey, List<String>>> cacheSources = new HashMap<>();
+    // Entities added directly and not cached, least recently added first
+    private final LinkedHashMap<String, Boolean> added = new LinkedHashMap<>(16, 0.75f, true);
+
+    public TitleIndex() {
+        this(DEFAULT_MAX_ADDED_ENTRIES);
+    }
+
+    /**
+     * @param maxAddedEntries Entities added directly rather than from a cache that are kept
+     */
+    public TitleIndex(int maxAddedEntries) {
+        if (maxAddedEntries < 0) {
+            throw new IllegalArgumentException("Maximum added entries must not be negative");
+        }
+        this.maxAddedEntries = maxAddedEntries;
+    }
+
+    /**
+     * Index every entity in a cache now, and every one cached from now on
+     */
+    public void attach(EntityCache cache) {
+        cache.addListener(this);
+        for (EntityType type : EntityType.values()) {
+            for (CacheKey key : cache.keys(type)) {
+                CacheEntry entry = cache.getEntry(key);
+                if (entry != null) {
+                    onPut(key, entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Index a cached entity under the names of the cached value, replacing the names it had
+     */
+    @Override
+    public void onPut(CacheKey key, Object value) {
+        EntityType type;
+        List<String> names;
+        if (value instanceof MovieDetails) {
+            MovieDetails movie = (MovieDetails) value;
+            type = EntityType.MOVIE;
+            names = distinct(movie.getTitle(), movie.getOriginalTitle());
+        } else if (value instanceof TvSeriesDetails) {
+            TvSeriesDetails series = (TvSeriesDetails) value;
+            type = EntityType.TV_SERIES;
+            names = distinct(series.getName(), series.getOriginalName());
+        } else if (value instanceof PersonDetails) {
+            PersonDetails person = (PersonDetails) value;
+            List<String> all = new ArrayList<>();
+            all.add(person.getName());
+            if (person.getAlsoKnownAs() != null) {
+                all.addAll(Arrays.asList(person.getAlsoKnownAs()));
+            }
+            type = EntityType.PERSON;
+            names = distinct(all.toArray(new String[0]));
+        } else {
+            return;
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            String documentKey = type + ":" + key.getId();
+            added.remove(documentKey);
+            cacheSources.computeIfAbsent(documentKey, k -> new LinkedHashMap<>()).put(key, names);
+            setNames(type, key.getId(), names);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a cached entity once none of its cache entries is left, or fall back to the names of one that is
+     */
+    @Override
+    public void onRemove(CacheKey key, Object value) {
+        lock.writeLock().lock();
+        try {
+            String documentKey = key.getType() + ":" + key.getId();
+            Map<CacheKey, List<String>> sources = cacheSources.get(documentKey);
+            if (sources == null || sources.remove(key) == null) {
+                return;
+            }
+            Integer existing = documentIds.get(documentKey);
+            if (sources.isEmpty()) {
+                cacheSources.remove(documentKey);
+                remove(documentKey);
+            } else if (existing != null) {
+                List<String> remaining = null;
+                for (List<String> names : sources.values()) {
+                    remaining = names;
+                }
+                setNames(documents.get(existing).type, key.getId(), remaining);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index an entity under one or more titles
+     * Adding an entity again adds any new titles to it; the first title ever given stays its display title.
+     * Entities that are not cached count towards {@code maxAddedEntries}.
+     *
+     * @param names Title first, then any original title or alternative names; null entries are skipped
+     */
+    public void add(EntityType type, String id, String... names) {
+        List<String> given = distinct(names);
+        if (given.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            String key = type + ":" + id;
+            if (!cacheSources.containsKey(key)) {
+                if (maxAddedEntries == 0) {
+                    return;
+                }
+                added.put(key, Boolean.TRUE);
+                if (added.size() > maxAddedEntries) {
+                    Iterator<String> eldest = added.keySet().iterator();
+                    String evicted = eldest.next();
+                    eldest.remove();
+                    remove(evicted);
+                }
+            }
+            Integer existing = documentIds.get(key);
+            List<String> merged = given;
+            if (existing != null) {
+                merged = new ArrayList<>(documents.get(existing).names);
+                for (String name : given) {
+                    if (!merged.contains(name)) {
+                        merged.add(name);
+                    }
+                }
+            }
+            setNames(type, id, merged);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an entity from the index
+     */
+    public void remove(EntityType type, String id) {
+        lock.writeLock().lock();
+        try {
+            String key = type + ":" + id;
+            added.remove(key);
+            cacheSources.remove(key);
+            remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find movies, TV series and people by title
+     *
+     * @param limit Maximum number of matches
+     * @return matches, best first; empty if nothing matched every token of the query
+     */
+    public List<TitleMatch> search(String query, int limit) {
+        return search(null, query, limit);
+    }
+
+    /**
+     * Find entities of one type by title
+     *
+     * @param type  Entity type, or null for all types
+     * @param limit Maximum number of matches
+     * @return matches, best first; empty if nothing matched every token of the query
+     */
+    public List<TitleMatch> search(EntityType type, String query, int limit) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(TextNormalizer.tokens(query)));
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Integer, Double>> expansions = new ArrayList<>();
+            for (String token : queryTokens) {
+                Map<Integer, Double> termWeights = expand(token);
+                if (termWeights.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                expansions.add(termWeights);
+            }
+            // Intersect from the rarest token, so the candidate set starts small
+            expansions.sort((a, b) -> Long.compare(postingCount(a), postingCount(b)));
+
+            Candidates candidates = union(expansions.get(0));
+            for (int i = 1; i < expansions.size() && candidates.size > 0; i++) {
+                candidates = candidates.intersect(union(expansions.get(i)));
+            }
+            return rank(candidates, type, queryTokens.size(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of entities in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size() - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of distinct tokens in the index
+     */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of bytes taken by the encoded token and trigram postings
+     */
+    public long getPostingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : postings) {
+                bytes += list.byteSize();
+            }
+            for (PostingList list : trigramTerms.values()) {
+                bytes += list.byteSize();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<String> distinct(String... names) {
+        List<String> given = new ArrayList<>();
+        for (String name : names) {
+            if (name != null && !name.trim().isEmpty() && !given.contains(name)) {
+                given.add(name);
+            }
+        }
+        return given;
+    }
+
+    /**
+     * Index an entity under exactly these names; called with the write lock held
+     */
+    private void setNames(EntityType type, String id, List<String> names) {
+        String key = type + ":" + id;
+        Integer existing = documentIds.get(key);
+        if (existing != null) {
+            if (documents.get(existing).names.equals(names)) {
+                return;
+            }
+            // Postings are append-only, so the old document is hidden and a new one added
+            deleted.set(existing);
+            deletedCount++;
+        }
+        addDocument(new Document(type, id, names));
+        compactIfNeeded();
+    }
+
+    /**
+     * Hide the document of an entity; called with the write lock held
+     */
+    private void remove(String key) {
+        Integer existing = documentIds.remove(key);
+        if (existing != null) {
+            deleted.set(existing);
+            deletedCount++;
+            compactIfNeeded();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount >= MIN_DELETED_TO_COMPACT && deletedCount > documents.size() / 2) {
+            compact();
+        }
+    }
+
+    private void addDocument(Document document) {
+        int docId = documents.size();
+        documents.add(document);
+        if (docId == rankKeys.length) {
+            rankKeys = Arrays.copyOf(rankKeys, docId * 2);
+        }
+        rankKeys[docId] = document.type.ordinal() << 24
+                | Math.min(document.minTokens, 0xff) << 16
+                | Math.min(document.names.get(0).length(), 0xffff);
+        documentIds.put(document.type + ":" + document.id, docId);
+        for (String name : document.names) {
+            for (String token : TextNormalizer.tokens(name)) {
+                postings.get(termId(token)).add(docId);
+            }
+        }
+    }
+
+    private int termId(String token) {
+        Integer existing = termIds.get(token);
+        if (existing != null) {
+            return existing;
+        }
+        int termId = terms.size();
+        termIds.put(token, termId);
+        terms.add(token);
+        postings.add(new PostingList());
+        for (String trigram : trigrams(token)) {
+            trigramTerms.computeIfAbsent(trigram, t -> new PostingList()).add(termId);
+        }
+        return termId;
+    }
+
+    /**
+     * Rebuild the postings without the documents replaced by newer versions
+     */
+    private void compact() {
+        List<Document> live = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            if (!deleted.get(i)) {
+                live.add(documents.get(i));
+            }
+        }
+        termIds.clear();
+        terms.clear();
+        postings.clear();
+        trigramTerms.clear();
+        documents.clear();
+        documentIds.clear();
+        deleted.clear();
+        deletedCount = 0;
+        for (Document document : live) {
+            addDocument(document);
+        }
+        for (PostingList list : postings) {
+            list.trim();
+        }
+        for (PostingList list : trigramTerms.values()) {
+            list.trim();
+        }
+    }
+
+    /**
+     * Get the index tokens a query token matches, with the weight of each
+     */
+    private Map<Integer, Double> expand(String token) {
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            return Collections.singletonMap(exact, 1.0);
+        }
+        if (token.length() < MIN_FUZZY_LENGTH) {
+            return Collections.emptyMap();
+        }
+
+        int maxEdits = token.length() >= TWO_EDIT_LENGTH ? 2 : 1;
+        Set<String> grams = trigrams(token);
+        // An insertion, deletion or substitution changes at most three trigrams and a transposition
+        // six, so tokens within maxEdits share at least this many
+        int minShared = Math.max(1, grams.size() - 6 * maxEdits);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            PostingList list = trigramTerms.get(gram);
+            if (list != null) {
+                for (int termId : list.toArray()) {
+                    shared.merge(termId, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<Integer, Double> weights = new HashMap<>();
+        for (Map.Entry<Integer, Integer> e : shared.entrySet()) {
+            if (e.getValue() < minShared) {
+                continue;
+            }
+            String term = terms.get(e.getKey());
+            int distance = editDistance(token, term, maxEdits);
+            if (distance <= maxEdits) {
+                weights.put(e.getKey(), 1.0 - EDIT_PENALTY * distance);
+            }
+        }
+        return weights;
+    }
+
+    private long postingCount(Map<Integer, Double> termWeights) {
+        long count = 0;
+        for (int termId : termWeights.keySet()) {
+            count += postings.get(termId).size();
+        }
+        return count;
+    }
+
+    /**
+     * Merge the postings of a token's expansions, keeping the best weight per document
+     */
+    private Candidates union(Map<Integer, Double> termWeights) {
+        Candidates merged = null;
+        for (Map.Entry<Integer, Double> e : termWeights.entrySet()) {
+            int[] docIds = postings.get(e.getKey()).toArray();
+            double[] scores = new double[docIds.length];
+            Arrays.fill(scores, e.getValue());
+            Candidates next = new Candidates(docIds, scores, docIds.length);
+            merged = merged == null ? next : merged.union(next);
+        }
+        return merged;
+    }
+
+    private List<TitleMatch> rank(Candidates candidates, EntityType type, int queryTokenCount, int limit) {
+        double[] scores = new double[candidates.size];
+        // Worst of the best matches so far on top, so that only the top limit are ever sorted
+        Comparator<Integer> worstFirst = (a, b) -> {
+            int byScore = Double.compare(scores[a], scores[b]);
+            if (byScore != 0) {
+                return byScore;
+            }
+            return Integer.compare(rankKeys[candidates.docIds[b]] & 0xffff, rankKeys[candidates.docIds[a]] & 0xffff);
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, Math.max(1, candidates.size)), worstFirst);
+        for (int i = 0; i < candidates.size; i++) {
+            int docId = candidates.docIds[i];
+            int rankKey = rankKeys[docId];
+            if (deleted.get(docId) || (type != null && rankKey >>> 24 != type.ordinal())) {
+                continue;
+            }
+            double score = candidates.scores[i] / queryTokenCount;
+            if ((rankKey >>> 16 & 0xff) == queryTokenCount) {
+                score += FULL_TITLE_BONUS;
+            }
+            scores[i] = score;
+            if (best.size() < limit) {
+                best.add(i);
+            } else if (worstFirst.compare(i, best.peek()) > 0) {
+                best.poll();
+                best.add(i);
+            }
+        }
+
+        TitleMatch[] matches = new TitleMatch[best.size()];
+        for (int n = matches.length - 1; n >= 0; n--) {
+            int index = best.poll();
+            Document document = documents.get(candidates.docIds[index]);
+            matches[n] = new TitleMatch(document.type, document.id, document.names.get(0), document.names,
+                    scores[index], true);
+        }
+        return Arrays.asList(matches);
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and adjacent transpositions
+     *
+     * @return the distance, or any value above {@code max} once it is certain to exceed it
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Document {
+        private final EntityType type;
+        private final String id;
+        private final List<String> names;
+        private final int minTokens;
+
+        private Document(EntityType type, String id, List<String> names) {
+            this.type = type;
+            this.id = id;
+            this.names = names;
+            int min = Integer.MAX_VALUE;
+            for (String name : names) {
+                min = Math.min(min, new LinkedHashSet<>(TextNormalizer.tokens(name)).size());
+            }
+            this.minTokens = min;
+        }
+    }
+
+    /**
+     * Document IDs in ascending order with the score accumulated for each
+     */
+    private static final class Candidates {
+        private final int[] docIds;
+        private final double[] scores;
+        private final int size;
+
+        private Candidates(int[] docIds, double[] scores, int size) {
+            this.docIds = docIds;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        private Candidates union(Candidates other) {
+            int[] ids = new int[size + other.size];
+            double[] best = new double[ids.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docIds[i] < other.docIds[j])) {
+                    ids[n] = docIds[i];
+                    best[n++] = scores[i++];
+                } else if (i == size || docIds[i] > other.docIds[j]) {
+                    ids[n] = other.docIds[j];
+                    best[n++] = other.scores[j++];
+                } else {
+                    ids[n] = docIds[i];
+                    best[n++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return new Candidates(ids, best, n);
+        }
+
+        private Candidates intersect(Candidates other) {
+            int[] ids = new int[Math.min(size, other.size)];
+            double[] sums = new double[ids.length];
+            int n = 0;
+            int[] otherIds = other.docIds;
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                int a = docIds[i];
+                int b = otherIds[j];
+                if (a == b) {
+                    ids[n] = a;
+                    sums[n++] = scores[i] + other.scores[j];
+                }
+                // Advance without a hard-to-predict branch; both sides advance on a match
+                i += a <= b ? 1 : 0;
+                j += b <= a ? 1 : 0;
+            }
+            return new Candidates(ids, sums, n);
+        }
+    }
+}
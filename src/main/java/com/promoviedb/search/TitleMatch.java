@@ -0,0 +1,81 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A movie, TV series or person whose title or name matched a search
+ */
+public final class TitleMatch {
+    private final EntityType type;
+    private final String id;
+    private final String title;
+    private final List<String> names;
+    private final double score;
+    private final boolean local;
+
+    public TitleMatch(EntityType type, String id, String title, double score, boolean local) {
+        this(type, id, title, Collections.singletonList(title), score, local);
+    }
+
+    /**
+     * @param names Every name the match is known by, such as its original title, the display title first
+     */
+    public TitleMatch(EntityType type, String id, String title, List<String> names, double score, boolean local) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.names = Collections.unmodifiableList(names);
+        this.score = score;
+        this.local = local;
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the title of a movie or TV series, or the name of a person
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Get every name the match is known by, the display title first; the query may have matched any of them
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Get the relevance score; higher is better, and 0 for remote results, which keep the API's order
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Whether the match came from the local index rather than the search API
+     */
+    public boolean isLocal() {
+        return local;
+    }
+
+    @Override
+    public String toString() {
+        return "TitleMatch{" +
+                "type=" + type +
+                ", id='" + id + '\'' +
+                ", title='" + title + '\'' +
+                ", score=" + String.format("%.2f", score) +
+                ", local=" + local +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.promoviedb.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Matches of a {@code SearchService.findTitles} query, with whether they are every title the API has for it
+ */
+public final class TitleSearchResult {
+    private final List<TitleMatch> matches;
+    private final boolean complete;
+
+    public TitleSearchResult(List<TitleMatch> matches, boolean complete) {
+        this.matches = Collections.unmodifiableList(matches);
+        this.complete = complete;
+    }
+
+    /**
+     * Get the matches, best first
+     */
+    public List<TitleMatch> getMatches() {
+        return matches;
+    }
+
+    /**
+     * Whether the API reported no results beyond these; false for local matches and truncated pages
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,175 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.model.person.PersonDetails;
+import com.promoviedb.model.response.PagedResponse;
+import com.promoviedb.model.response.SearchResultSummary;
+import com.promoviedb.model.tv.TvSeriesDetails;
+import com.promoviedb.service.MovieService;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.service.SearchService;
+import com.promoviedb.service.TvSeriesService;
+import com.promoviedb.util.ThreadSupport;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Searches for IDs and titles only, and loads full details just for the results that are shown
+ * <p>
+ * The search page is requested with {@code detail=false}, so the response and the decoded page stay
+ * small however many fields the details have. Each result becomes a {@link ResultHandle}; details are
+ * loaded when a handle is read or when a range is hydrated with {@link LazySearchPage#hydrate(int, int)}.
+ * Details go through the details services, so cached entities cost no request and loaded ones are cached
+ * for later pages and searches.
+ *
+ * <pre>{@code
+ * TwoPhaseSearch search = new TwoPhaseSearch.Builder(client.searchService(), client.movieService(),
+ *         client.tvSeriesService(), client.personService())
+ *     .executor(client.executor())
+ *     .build();
+ * LazySearchPage<MovieDetails> page = search.movies("inception", 1);
+ * List<MovieDetails> visible = page.hydrate(0, 5);
+ * }</pre>
+ */
+public class TwoPhaseSearch implements Closeable {
+    private final SearchService searchService;
+    private final MovieService movieService;
+    private final TvSeriesService tvSeriesService;
+    private final PersonService personService;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final String language;
+
+    private TwoPhaseSearch(Builder builder) {
+        this.searchService = builder.searchService;
+        this.movieService = builder.movieService;
+        this.tvSeriesService = builder.tvSeriesService;
+        this.personService = builder.personService;
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor
+                ? ThreadSupport.newBlockingExecutor("promoviedb-hydrate", builder.parallelism)
+                : builder.executor;
+        this.language = builder.language;
+    }
+
+    /**
+     * Search movies, returning handles whose details load on demand
+     *
+     * @param query Search keywords (required)
+     * @param page  Page number (optional, default 1)
+     * @throws ApiException if the search fails
+     */
+    public LazySearchPage<MovieDetails> movies(String query, Integer page) throws ApiException {
+        return search(EntityType.MOVIE, query, page, id -> movieService.getDetails(id, language, null));
+    }
+
+    /**
+     * Search TV series, returning handles whose details load on demand
+     *
+     * @param query Search keywords (required)
+     * @param page  Page number (optional, default 1)
+     * @throws ApiException if the search fails
+     */
+    public LazySearchPage<TvSeriesDetails> tvSeries(String query, Integer page) throws ApiException {
+        return search(EntityType.TV_SERIES, query, page, id -> tvSeriesService.getDetails(id, language, null));
+    }
+
+    /**
+     * Search people, returning handles whose details load on demand
+     *
+     * @param query Search keywords (required)
+     * @param page  Page number (optional, default 1)
+     * @throws ApiException if the search fails
+     */
+    public LazySearchPage<PersonDetails> people(String query, Integer page) throws ApiException {
+        return search(EntityType.PERSON, query, page, id -> personService.getDetails(id, language, null));
+    }
+
+    /**
+     * Shut down the executor if the search created it
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <D> LazySearchPage<D> search(EntityType type, String query, Integer page,
+                                         ResultHandle.DetailsLoader<D> loader) throws ApiException {
+        PagedResponse<SearchResultSummary> response = searchService.searchSummaryPage(type, query, language, page);
+        List<ResultHandle<D>> handles = new ArrayList<>();
+        if (response != null && response.getResults() != null) {
+            for (SearchResultSummary summary : response.getResults()) {
+                if (summary != null && summary.getId() != null) {
+                    handles.add(new ResultHandle<>(type, String.valueOf(summary.getId()), summary.getTitle(), loader));
+                }
+            }
+        }
+        return new LazySearchPage<>(
+                response != null && response.getPage() != null ? response.getPage() : 1,
+                response != null && response.getTotalPages() != null ? response.getTotalPages() : 0,
+                response != null && response.getTotalResults() != null ? response.getTotalResults() : handles.size(),
+                handles, executor);
+    }
+
+    /**
+     * Builder for creating TwoPhaseSearch instances
+     */
+    public static class Builder {
+        private final SearchService searchService;
+        private final MovieService movieService;
+        private final TvSeriesService tvSeriesService;
+        private final PersonService personService;
+        private ExecutorService executor;
+        private int parallelism = 8;
+        private String language;
+
+        public Builder(SearchService searchService, MovieService movieService,
+                       TvSeriesService tvSeriesService, PersonService personService) {
+            this.searchService = searchService;
+            this.movieService = movieService;
+            this.tvSeriesService = tvSeriesService;
+            this.personService = personService;
+        }
+
+        /**
+         * Load details on this executor (optional); the search creates and owns one otherwise
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Threads of the executor the search creates when none is given (default 8)
+         */
+        public Builder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * ISO 639-1 code of the results and details (optional, default the client language)
+         */
+        public Builder language(String language) {
+            this.language = language;
+            return this;
+        }
+
+        public TwoPhaseSearch build() {
+            if (searchService == null || movieService == null || tvSeriesService == null || personService == null) {
+                throw new IllegalArgumentException("Search and details services are required");
+            }
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive");
+            }
+            return new TwoPhaseSearch(this);
+        }
+    }
+}
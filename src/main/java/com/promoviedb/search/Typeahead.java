@@ -0,0 +1,345 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.CancellationToken;
+import com.promoviedb.http.Lane;
+import com.promoviedb.service.SearchService;
+import com.promoviedb.util.ThreadSupport;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns keystrokes into title suggestions with as few search requests as possible
+ * <p>
+ * Input is normalized and looked up in a bounded LRU cache of earlier inputs first. On a miss, the
+ * longest cached prefix of the input whose results were complete (the API reported nothing more for it)
+ * is filtered locally instead: a title matching the longer input also matches its prefix, through its
+ * title or any other name it is known by. Only when neither helps is a search sent, after the input has been stable for the debounce
+ * interval. Each new input cancels the pending search and any search still in flight, since their
+ * results would be discarded anyway.
+ * <p>
+ * Searches go through {@link SearchService#findTitles}, so a local title index attached to the
+ * service is consulted before the API.
+ *
+ * <pre>{@code
+ * Typeahead typeahead = new Typeahead.Builder(client.searchService(), listener)
+ *     .type(EntityType.MOVIE)
+ *     .build();
+ * searchBox.onChange(typeahead::onInput);
+ * }</pre>
+ */
+public class Typeahead implements Closeable {
+    /**
+     * Matches kept per search, one page of the search API
+     */
+    static final int PAGE_SIZE = 20;
+
+    private final SearchService searchService;
+    private final TypeaheadListener listener;
+    private final EntityType type;
+    private final long debounceMillis;
+    private final int minLength;
+    private final int limit;
+    private final ScheduledExecutorService worker;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object deliveryLock = new Object();
+
+    // Guarded by this
+    private final Map<String, CachedResult> cache;
+    private ScheduledFuture<?> pending;
+    private CancellationToken inFlight;
+
+    private final AtomicLong fetchCount = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong prefixReuseCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    private Typeahead(Builder builder) {
+        this.searchService = builder.searchService;
+        this.listener = builder.listener;
+        this.type = builder.type;
+        this.debounceMillis = builder.debounceMillis;
+        this.minLength = builder.minLength;
+        this.limit = builder.limit;
+        int cacheSize = builder.cacheSize;
+        this.cache = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.worker = Executors.newSingleThreadScheduledExecutor(
+                task -> ThreadSupport.newThread("promoviedb-typeahead", task));
+    }
+
+    /**
+     * Pass the current content of the input box
+     * Cached suggestions are delivered before this returns; others after the debounce interval.
+     */
+    public void onInput(String input) {
+        String key = String.join(" ", TextNormalizer.tokens(input));
+        List<TitleMatch> immediate = null;
+        long current;
+        synchronized (this) {
+            current = generation.incrementAndGet();
+            supersede();
+            if (key.length() < minLength) {
+                immediate = Collections.emptyList();
+            } else {
+                CachedResult hit = cache.get(key);
+                if (hit != null) {
+                    cacheHitCount.incrementAndGet();
+                    immediate = hit.matches;
+                } else {
+                    CachedResult prefix = completePrefix(key);
+                    if (prefix != null) {
+                        prefixReuseCount.incrementAndGet();
+                        immediate = filter(prefix.matches, key);
+                        cache.put(key, new CachedResult(immediate, true));
+                    } else {
+                        String query = input.trim();
+                        pending = worker.schedule(() -> fetch(input, query, key, current),
+                                debounceMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+        if (immediate != null) {
+            deliver(current, input, immediate);
+        }
+    }
+
+    /**
+     * Get the number of searches sent
+     */
+    public long getFetchCount() {
+        return fetchCount.get();
+    }
+
+    /**
+     * Get the number of inputs answered from the cache
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    /**
+     * Get the number of inputs answered by filtering the results of a shorter prefix
+     */
+    public long getPrefixReuseCount() {
+        return prefixReuseCount.get();
+    }
+
+    /**
+     * Get the number of searches cancelled while in flight
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    /**
+     * Cancel any pending search and stop the worker thread
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            supersede();
+        }
+        worker.shutdownNow();
+    }
+
+    private void supersede() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+            cancelledCount.incrementAndGet();
+        }
+    }
+
+    private CachedResult completePrefix(String key) {
+        for (int end = key.length() - 1; end >= minLength; end--) {
+            CachedResult result = cache.get(key.substring(0, end));
+            if (result != null && result.complete) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private void fetch(String input, String query, String key, long expected) {
+        CancellationToken token = new CancellationToken();
+        synchronized (this) {
+            if (generation.get() != expected) {
+                return;
+            }
+            pending = null;
+            inFlight = token;
+        }
+        fetchCount.incrementAndGet();
+
+        CallContext context = CallContext.current().toBuilder()
+                .lane(Lane.INTERACTIVE)
+                .cancellationToken(token)
+                .build();
+        TitleSearchResult result;
+        try (CallContext.Scope scope = context.attach()) {
+            result = searchService.findTitles(type, query, PAGE_SIZE);
+        } catch (Exception e) {
+            if (!token.isCancelled() && generation.get() == expected) {
+                synchronized (deliveryLock) {
+                    listener.onError(input, e);
+                }
+            }
+            return;
+        } finally {
+            synchronized (this) {
+                if (inFlight == token) {
+                    inFlight = null;
+                }
+            }
+        }
+
+        synchronized (this) {
+            cache.put(key, new CachedResult(result.getMatches(), result.isComplete()));
+        }
+        deliver(expected, input, result.getMatches());
+    }
+
+    private void deliver(long expected, String input, List<TitleMatch> matches) {
+        synchronized (deliveryLock) {
+            if (generation.get() == expected) {
+                listener.onResults(input, matches.size() > limit ? matches.subList(0, limit) : matches);
+            }
+        }
+    }
+
+    /**
+     * Keep the matches with a name containing every token of the input, the last one as a prefix
+     */
+    static List<TitleMatch> filter(List<TitleMatch> matches, String key) {
+        String[] queryTokens = key.split(" ");
+        List<TitleMatch> filtered = new ArrayList<>();
+        for (TitleMatch match : matches) {
+            for (String name : match.getNames()) {
+                if (matches(TextNormalizer.tokens(name), queryTokens)) {
+                    filtered.add(match);
+                    break;
+                }
+            }
+        }
+        return filtered;
+    }
+
+    private static boolean matches(List<String> nameTokens, String[] queryTokens) {
+        String last = queryTokens[queryTokens.length - 1];
+        boolean matched = false;
+        for (String token : nameTokens) {
+            if (token.startsWith(last)) {
+                matched = true;
+                break;
+            }
+        }
+        for (int i = 0; matched && i < queryTokens.length - 1; i++) {
+            matched = nameTokens.contains(queryTokens[i]);
+        }
+        return matched;
+    }
+
+    private static final class CachedResult {
+        private final List<TitleMatch> matches;
+        private final boolean complete;
+
+        private CachedResult(List<TitleMatch> matches, boolean complete) {
+            this.matches = matches;
+            this.complete = complete;
+        }
+    }
+
+    /**
+     * Builder for creating Typeahead instances
+     */
+    public static class Builder {
+        private final SearchService searchService;
+        private final TypeaheadListener listener;
+        private EntityType type;
+        private long debounceMillis = 150;
+        private int minLength = 2;
+        private int limit = 10;
+        private int cacheSize = 256;
+
+        /**
+         * @param searchService Service to search with
+         * @param listener      Receiver of the suggestions
+         */
+        public Builder(SearchService searchService, TypeaheadListener listener) {
+            this.searchService = searchService;
+            this.listener = listener;
+        }
+
+        /**
+         * Suggest only this entity type (default null, all types through multi-search)
+         */
+        public Builder type(EntityType type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Time the input must be stable before a search is sent (default 150)
+         */
+        public Builder debounceMillis(long debounceMillis) {
+            this.debounceMillis = debounceMillis;
+            return this;
+        }
+
+        /**
+         * Shortest normalized input that gets suggestions (default 2)
+         */
+        public Builder minLength(int minLength) {
+            this.minLength = minLength;
+            return this;
+        }
+
+        /**
+         * Maximum number of suggestions delivered (default 10)
+         */
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Number of inputs whose results are kept (default 256)
+         */
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Typeahead build() {
+            if (searchService == null || listener == null) {
+                throw new IllegalArgumentException("Search service and listener are required");
+            }
+            if (debounceMillis < 0 || minLength < 1 || limit <= 0 || cacheSize <= 0) {
+                throw new IllegalArgumentException("Invalid typeahead settings");
+            }
+            return new Typeahead(this);
+        }
+    }
+}
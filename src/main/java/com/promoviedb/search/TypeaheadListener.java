@@ -0,0 +1,25 @@
+package com.promoviedb.search;
+
+import java.util.List;
+
+/**
+ * Receives the suggestions of a {@link Typeahead}
+ * <p>
+ * Results answered from the prefix cache are delivered on the thread that passed the input; fetched
+ * results are delivered on the typeahead's worker thread. Only the latest input gets results.
+ */
+public interface TypeaheadListener {
+
+    /**
+     * Suggestions for the latest input
+     *
+     * @param input   Input as passed to {@link Typeahead#onInput(String)}
+     * @param matches Suggestions, best first; empty for input shorter than the minimum length
+     */
+    void onResults(String input, List<TitleMatch> matches);
+
+    /**
+     * Fetching suggestions for the latest input failed
+     */
+    void onError(String input, Exception error);
+}
@@ -1,5 +1,8 @@
 package com.promoviedb.service;
 
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.cache.EntityType;
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.http.HttpClient;
 
@@ -9,10 +12,16 @@ import com.promoviedb.http.HttpClient;
 public abstract class BaseService {
     protected final HttpClient httpClient;
     protected final ClientConfig config;
+    protected final EntityCache cache;
 
     protected BaseService(HttpClient httpClient, ClientConfig config) {
+        this(httpClient, config, null);
+    }
+
+    protected BaseService(HttpClient httpClient, ClientConfig config, EntityCache cache) {
         this.httpClient = httpClient;
         this.config = config;
+        this.cache = cache;
     }
 
     /**
@@ -34,4 +43,17 @@ public abstract class BaseService {
         }
         return baseUrl + path;
     }
+
+    /**
+     * Build the cache key for a details request
+     * Only plain details requests are cached; requests with append_to_response bypass the cache.
+     *
+     * @return the cache key, or null if the request must not be cached
+     */
+    protected CacheKey cacheKey(EntityType type, String id, String language, String appendToResponse) {
+        if (cache == null || (appendToResponse != null && !appendToResponse.trim().isEmpty())) {
+            return null;
+        }
+        return new CacheKey(type, id, language != null ? language : config.getLanguage());
+    }
 }
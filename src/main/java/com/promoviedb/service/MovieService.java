@@ -2,6 +2,9 @@ package com.promoviedb.service;
 
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.cache.EntityType;
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.exception.ApiException;
 import com.promoviedb.http.HttpClient;
@@ -23,6 +26,10 @@ public class MovieService extends BaseService {
         super(httpClient, config);
     }
 
+    public MovieService(HttpClient httpClient, ClientConfig config, EntityCache cache) {
+        super(httpClient, config, cache);
+    }
+
     /**
      * Get the top level details of a movie by ID
      *
@@ -33,6 +40,14 @@ public class MovieService extends BaseService {
      * @throws ApiException if the request fails
      */
     public MovieDetails getDetails(String movieId, String language, String appendToResponse) throws ApiException {
+        CacheKey key = cacheKey(EntityType.MOVIE, movieId, language, appendToResponse);
+        if (key != null) {
+            MovieDetails cached = cache.get(key, MovieDetails.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         String url = UrlBuilder.create(buildUrl("np/3/movie/" + movieId))
                 .addQueryParam("api_key", config.getApiKey())
                 .addQueryParam("language", language != null ? language : config.getLanguage())
@@ -40,7 +55,11 @@ public class MovieService extends BaseService {
                 .build();
 
         String response = httpClient.get(url);
-        return httpClient.parseResponse(response, MovieDetails.class);
+        MovieDetails details = httpClient.parseResponse(response, MovieDetails.class);
+        if (key != null && details != null) {
+            cache.put(key, details);
+        }
+        return details;
     }
 
     /**
@@ -1,6 +1,9 @@
 package com.promoviedb.service;
 
 import com.google.gson.JsonObject;
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.cache.EntityType;
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.exception.ApiException;
 import com.promoviedb.http.HttpClient;
@@ -16,6 +19,10 @@ public class PersonService extends BaseService {
         super(httpClient, config);
     }
 
+    public PersonService(HttpClient httpClient, ClientConfig config, EntityCache cache) {
+        super(httpClient, config, cache);
+    }
+
     /**
      * Query the top level details of a person
      *
@@ -26,6 +33,14 @@ public class PersonService extends BaseService {
      * @throws ApiException if the request fails
      */
     public PersonDetails getDetails(String personId, String language, String appendToResponse) throws ApiException {
+        CacheKey key = cacheKey(EntityType.PERSON, personId, language, appendToResponse);
+        if (key != null) {
+            PersonDetails cached = cache.get(key, PersonDetails.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         String url = UrlBuilder.create(buildUrl("np/3/person/" + personId))
                 .addQueryParam("api_key", config.getApiKey())
                 .addQueryParam("language", language != null ? language : config.getLanguage())
@@ -33,7 +48,11 @@ public class PersonService extends BaseService {
                 .build();
 
         String response = httpClient.get(url);
-        return httpClient.parseResponse(response, PersonDetails.class);
+        PersonDetails details = httpClient.parseResponse(response, PersonDetails.class);
+        if (key != null && details != null) {
+            cache.put(key, details);
+        }
+        return details;
     }
 
     /**
@@ -1,15 +1,42 @@
 package com.promoviedb.service;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.promoviedb.cache.EntityType;
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.exception.ApiException;
 import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.movie.MovieSearchResult;
+import com.promoviedb.model.person.PersonSearchResult;
+import com.promoviedb.model.response.PagedResponse;
+import com.promoviedb.model.response.SearchResultSummary;
+import com.promoviedb.model.tv.TvSeriesSearchResult;
+import com.promoviedb.search.SearchResultCache;
+import com.promoviedb.search.SearchResultCache.Family;
+import com.promoviedb.search.TitleIndex;
+import com.promoviedb.search.TitleMatch;
+import com.promoviedb.search.TitleSearchResult;
 import com.promoviedb.util.UrlBuilder;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Service for search-related API calls
  */
 public class SearchService extends BaseService {
+    private static final Type MOVIE_PAGE = new TypeToken<PagedResponse<MovieSearchResult>>() { }.getType();
+    private static final Type TV_PAGE = new TypeToken<PagedResponse<TvSeriesSearchResult>>() { }.getType();
+    private static final Type PERSON_PAGE = new TypeToken<PagedResponse<PersonSearchResult>>() { }.getType();
+    private static final Type SUMMARY_PAGE = new TypeToken<PagedResponse<SearchResultSummary>>() { }.getType();
+
+    private volatile TitleIndex titleIndex;
+    private volatile SearchResultCache searchCache;
 
     public SearchService(HttpClient httpClient, ClientConfig config) {
         super(httpClient, config);
@@ -29,18 +56,7 @@ public class SearchService extends BaseService {
      */
     public JsonObject searchMovie(String query, String language, Boolean includeAdult,
                                    Integer page, Boolean detail, Integer pageSize) throws ApiException {
-        String url = UrlBuilder.create(buildUrl("np/3/search/movie"))
-                .addQueryParam("api_key", config.getApiKey())
-                .addQueryParam("query", query)
-                .addQueryParam("language", language != null ? language : config.getLanguage())
-                .addQueryParam("include_adult", includeAdult)
-                .addQueryParam("page", page)
-                .addQueryParam("detail", detail)
-                .addQueryParam("page_size", pageSize)
-                .build();
-
-        String response = httpClient.get(url);
-        return httpClient.parseResponse(response, JsonObject.class);
+        return search(Family.MOVIE, query, language, includeAdult, page, detail, pageSize);
     }
 
     /**
@@ -68,18 +84,7 @@ public class SearchService extends BaseService {
      */
     public JsonObject searchTv(String query, String language, Boolean includeAdult,
                                 Integer page, Boolean detail, Integer pageSize) throws ApiException {
-        String url = UrlBuilder.create(buildUrl("np/3/search/tv"))
-                .addQueryParam("api_key", config.getApiKey())
-                .addQueryParam("query", query)
-                .addQueryParam("language", language != null ? language : config.getLanguage())
-                .addQueryParam("include_adult", includeAdult)
-                .addQueryParam("page", page)
-                .addQueryParam("detail", detail)
-                .addQueryParam("page_size", pageSize)
-                .build();
-
-        String response = httpClient.get(url);
-        return httpClient.parseResponse(response, JsonObject.class);
+        return search(Family.TV, query, language, includeAdult, page, detail, pageSize);
     }
 
     /**
@@ -107,18 +112,7 @@ public class SearchService extends BaseService {
      */
     public JsonObject searchPerson(String query, String language, Boolean includeAdult,
                                     Integer page, Boolean detail, Integer pageSize) throws ApiException {
-        String url = UrlBuilder.create(buildUrl("np/3/search/person"))
-                .addQueryParam("api_key", config.getApiKey())
-                .addQueryParam("query", query)
-                .addQueryParam("language", language != null ? language : config.getLanguage())
-                .addQueryParam("include_adult", includeAdult)
-                .addQueryParam("page", page)
-                .addQueryParam("detail", detail)
-                .addQueryParam("page_size", pageSize)
-                .build();
-
-        String response = httpClient.get(url);
-        return httpClient.parseResponse(response, JsonObject.class);
+        return search(Family.PERSON, query, language, includeAdult, page, detail, pageSize);
     }
 
     /**
@@ -146,28 +140,258 @@ public class SearchService extends BaseService {
      */
     public JsonObject searchMulti(String query, String language, Boolean includeAdult,
                                    Integer page, Boolean detail, Integer pageSize) throws ApiException {
-        String url = UrlBuilder.create(buildUrl("np/3/search/multi"))
+        return search(Family.MULTI, query, language, includeAdult, page, detail, pageSize);
+    }
+
+    /**
+     * Multi-search for movies, TV shows, and people
+     *
+     * @param query Search keywords (required)
+     * @return Search results as JsonObject
+     * @throws ApiException if the request fails
+     */
+    public JsonObject searchMulti(String query) throws ApiException {
+        return searchMulti(query, null, null, null, null, null);
+    }
+
+    /**
+     * Search for movies, decoded into typed results
+     *
+     * @param query    Search keywords (required)
+     * @param language ISO 639-1 code (optional)
+     * @param page     Page number (optional, default 1, max 10)
+     * @return One page of movies
+     * @throws ApiException if the request fails
+     */
+    public PagedResponse<MovieSearchResult> searchMoviePage(String query, String language, Integer page) throws ApiException {
+        return searchPage(Family.MOVIE, query, language, page, null, MOVIE_PAGE);
+    }
+
+    /**
+     * Search for TV shows, decoded into typed results
+     *
+     * @param query    Search keywords (required)
+     * @param language ISO 639-1 code (optional)
+     * @param page     Page number (optional, default 1, max 10)
+     * @return One page of TV shows
+     * @throws ApiException if the request fails
+     */
+    public PagedResponse<TvSeriesSearchResult> searchTvPage(String query, String language, Integer page) throws ApiException {
+        return searchPage(Family.TV, query, language, page, null, TV_PAGE);
+    }
+
+    /**
+     * Search for people, decoded into typed results
+     *
+     * @param query    Search keywords (required)
+     * @param language ISO 639-1 code (optional)
+     * @param page     Page number (optional, default 1, max 10)
+     * @return One page of people
+     * @throws ApiException if the request fails
+     */
+    public PagedResponse<PersonSearchResult> searchPersonPage(String query, String language, Integer page) throws ApiException {
+        return searchPage(Family.PERSON, query, language, page, null, PERSON_PAGE);
+    }
+
+    /**
+     * Search with {@code detail=false} and decode only the ID and title of each result
+     * The lightweight page is meant to be hydrated later, see {@link com.promoviedb.search.TwoPhaseSearch}.
+     *
+     * @param type     Entity type to search (required)
+     * @param query    Search keywords (required)
+     * @param language ISO 639-1 code (optional)
+     * @param page     Page number (optional, default 1, max 10)
+     * @return One page of result summaries
+     * @throws ApiException if the request fails
+     */
+    public PagedResponse<SearchResultSummary> searchSummaryPage(EntityType type, String query, String language,
+                                                                Integer page) throws ApiException {
+        Family family = type == EntityType.MOVIE ? Family.MOVIE
+                : type == EntityType.TV_SERIES ? Family.TV : Family.PERSON;
+        return searchPage(family, query, language, page, false, SUMMARY_PAGE);
+    }
+
+    /**
+     * Serve searches from a cache shared by all pages and page sizes of a query
+     *
+     * @param searchCache Cache, or null to always search remotely
+     */
+    public void setSearchCache(SearchResultCache searchCache) {
+        this.searchCache = searchCache;
+    }
+
+    /**
+     * Get the search cache attached to this service, or null if there is none
+     */
+    public SearchResultCache getSearchCache() {
+        return searchCache;
+    }
+
+    private JsonObject search(Family family, String query, String language, Boolean includeAdult,
+                              Integer page, Boolean detail, Integer pageSize) throws ApiException {
+        String resolvedLanguage = language != null ? language : config.getLanguage();
+        SearchResultCache cache = searchCache;
+        SearchResultCache.Key key = cache != null
+                ? cache.key(family, query, resolvedLanguage, includeAdult, detail)
+                : null;
+        if (key != null) {
+            JsonObject cached = cache.get(key, page, pageSize);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String url = searchUrl(family, query, resolvedLanguage, includeAdult, page, detail, pageSize);
+        JsonObject results = httpClient.parseResponse(httpClient.get(url), JsonObject.class);
+        if (key != null && results != null) {
+            cache.put(key, page, pageSize, results);
+        }
+        return results;
+    }
+
+    private <T> T searchPage(Family family, String query, String language, Integer page, Boolean detail,
+                             Type type) throws ApiException {
+        if (searchCache == null) {
+            String resolvedLanguage = language != null ? language : config.getLanguage();
+            String response = httpClient.get(searchUrl(family, query, resolvedLanguage, null, page, detail, null));
+            return httpClient.parseResponse(response, type);
+        }
+        return httpClient.getGson().fromJson(search(family, query, language, null, page, detail, null), type);
+    }
+
+    private String searchUrl(Family family, String query, String language, Boolean includeAdult,
+                             Integer page, Boolean detail, Integer pageSize) {
+        return UrlBuilder.create(buildUrl("np/3/search/" + family.getPath()))
                 .addQueryParam("api_key", config.getApiKey())
                 .addQueryParam("query", query)
-                .addQueryParam("language", language != null ? language : config.getLanguage())
+                .addQueryParam("language", language)
                 .addQueryParam("include_adult", includeAdult)
                 .addQueryParam("page", page)
                 .addQueryParam("detail", detail)
                 .addQueryParam("page_size", pageSize)
                 .build();
+    }
 
-        String response = httpClient.get(url);
-        return httpClient.parseResponse(response, JsonObject.class);
+    /**
+     * Answer {@link #searchTitles} from a local index first, and add remote results to it
+     *
+     * @param titleIndex Index, or null to always search remotely
+     */
+    public void setTitleIndex(TitleIndex titleIndex) {
+        this.titleIndex = titleIndex;
     }
 
     /**
-     * Multi-search for movies, TV shows, and people
+     * Get the local index attached to this service, or null if there is none
+     */
+    public TitleIndex getTitleIndex() {
+        return titleIndex;
+    }
+
+    /**
+     * Find movies, TV shows or people by title, locally when possible
+     * With a title index attached, the index is searched first and the API only when nothing
+     * matches locally; the API's results are then indexed so the next such query is answered locally.
      *
+     * @param type  Entity type, or null to search all types
      * @param query Search keywords (required)
-     * @return Search results as JsonObject
-     * @throws ApiException if the request fails
+     * @param limit Maximum number of matches
+     * @return matches, best first
+     * @throws ApiException if the local index has no match and the request fails
      */
-    public JsonObject searchMulti(String query) throws ApiException {
-        return searchMulti(query, null, null, null, null, null);
+    public List<TitleMatch> searchTitles(EntityType type, String query, int limit) throws ApiException {
+        return findTitles(type, query, limit).getMatches();
+    }
+
+    /**
+     * Find movies, TV shows or people by title like {@link #searchTitles}, telling whether the matches are
+     * all the API has for the query
+     * Completeness comes from the first page of the API's response, its {@code total_results} or a page
+     * shorter than {@link SearchResultCache#DEFAULT_PAGE_SIZE}, not from the matches kept; local matches
+     * and matches cut at the limit are never complete.
+     *
+     * @param type  Entity type, or null to search all types
+     * @param query Search keywords (required)
+     * @param limit Maximum number of matches
+     * @return matches, best first, and whether they are complete
+     * @throws ApiException if the local index has no match and the request fails
+     */
+    public TitleSearchResult findTitles(EntityType type, String query, int limit) throws ApiException {
+        TitleIndex index = titleIndex;
+        if (index != null) {
+            List<TitleMatch> local = index.search(type, query, limit);
+            if (!local.isEmpty()) {
+                // The index only covers what has been seen, not everything the API knows
+                return new TitleSearchResult(local, false);
+            }
+        }
+
+        JsonObject response;
+        if (type == EntityType.MOVIE) {
+            response = searchMovie(query);
+        } else if (type == EntityType.TV_SERIES) {
+            response = searchTv(query);
+        } else if (type == EntityType.PERSON) {
+            response = searchPerson(query);
+        } else {
+            response = searchMulti(query);
+        }
+
+        List<TitleMatch> matches = new ArrayList<>();
+        JsonArray results = response != null && response.has("results") && response.get("results").isJsonArray()
+                ? response.getAsJsonArray("results") : new JsonArray();
+        boolean truncated = false;
+        for (JsonElement element : results) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+            JsonObject result = element.getAsJsonObject();
+            EntityType resultType = type != null ? type : mediaType(result);
+            String id = string(result, "id");
+            if (resultType == null || id == null) {
+                continue;
+            }
+            boolean movie = resultType == EntityType.MOVIE;
+            String title = string(result, movie ? "title" : "name");
+            String originalTitle = string(result, movie ? "original_title" : "original_name");
+            String display = title != null ? title : originalTitle;
+            if (display == null) {
+                // Nothing to show or match on, as in the index
+                continue;
+            }
+            if (index != null) {
+                index.add(resultType, id, title, originalTitle);
+            }
+            if (matches.size() < limit) {
+                List<String> names = originalTitle == null || originalTitle.equals(display)
+                        ? Collections.singletonList(display) : Arrays.asList(display, originalTitle);
+                matches.add(new TitleMatch(resultType, id, display, names, 0, false));
+            } else {
+                truncated = true;
+            }
+        }
+
+        JsonElement total = response != null ? response.get("total_results") : null;
+        boolean complete = total != null && total.isJsonPrimitive()
+                ? total.getAsInt() <= results.size()
+                : results.size() < SearchResultCache.DEFAULT_PAGE_SIZE;
+        return new TitleSearchResult(matches, complete && !truncated);
+    }
+
+    private static EntityType mediaType(JsonObject result) {
+        String mediaType = string(result, "media_type");
+        if ("movie".equals(mediaType)) {
+            return EntityType.MOVIE;
+        } else if ("tv".equals(mediaType)) {
+            return EntityType.TV_SERIES;
+        } else if ("person".equals(mediaType)) {
+            return EntityType.PERSON;
+        }
+        return null;
+    }
+
+    private static String string(JsonObject object, String member) {
+        JsonElement value = object.get(member);
+        return value != null && !value.isJsonNull() ? value.getAsString() : null;
     }
 }
@@ -2,6 +2,7 @@ package com.promoviedb.service;
 
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.exception.ApiException;
+import com.promoviedb.health.HealthMonitor;
 import com.promoviedb.http.HttpClient;
 import com.promoviedb.util.UrlBuilder;
 
@@ -9,6 +10,7 @@ import com.promoviedb.util.UrlBuilder;
  * Service for status and monitoring API calls
  */
 public class StatusService extends BaseService {
+    private volatile HealthMonitor healthMonitor;
 
     public StatusService(HttpClient httpClient, ClientConfig config) {
         super(httpClient, config);
@@ -27,12 +29,33 @@ public class StatusService extends BaseService {
         return httpClient.get(url);
     }
 
+    /**
+     * Answer {@link #isHealthy()} from the cached state of a monitor instead of pinging
+     *
+     * @param healthMonitor Monitor, or null to ping on every call again
+     */
+    public void setHealthMonitor(HealthMonitor healthMonitor) {
+        this.healthMonitor = healthMonitor;
+    }
+
+    /**
+     * Get the monitor attached to this service, or null if there is none
+     */
+    public HealthMonitor getHealthMonitor() {
+        return healthMonitor;
+    }
+
     /**
      * Check if API is healthy
+     * With a health monitor attached, this returns its cached state without a request.
      *
      * @return true if API is accessible
      */
     public boolean isHealthy() {
+        HealthMonitor monitor = healthMonitor;
+        if (monitor != null) {
+            return monitor.isAvailable();
+        }
         try {
             ping();
             return true;
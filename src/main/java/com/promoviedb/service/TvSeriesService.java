@@ -1,6 +1,9 @@
 package com.promoviedb.service;
 
 import com.google.gson.JsonObject;
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.cache.EntityType;
 import com.promoviedb.config.ClientConfig;
 import com.promoviedb.exception.ApiException;
 import com.promoviedb.http.HttpClient;
@@ -17,6 +20,10 @@ public class TvSeriesService extends BaseService {
         super(httpClient, config);
     }
 
+    public TvSeriesService(HttpClient httpClient, ClientConfig config, EntityCache cache) {
+        super(httpClient, config, cache);
+    }
+
     /**
      * Get the details of a TV show
      *
@@ -27,6 +34,14 @@ public class TvSeriesService extends BaseService {
      * @throws ApiException if the request fails
      */
     public TvSeriesDetails getDetails(String seriesId, String language, String appendToResponse) throws ApiException {
+        CacheKey key = cacheKey(EntityType.TV_SERIES, seriesId, language, appendToResponse);
+        if (key != null) {
+            TvSeriesDetails cached = cache.get(key, TvSeriesDetails.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         String url = UrlBuilder.create(buildUrl("np/3/tv/" + seriesId))
                 .addQueryParam("api_key", config.getApiKey())
                 .addQueryParam("language", language != null ? language : config.getLanguage())
@@ -34,7 +49,11 @@ public class TvSeriesService extends BaseService {
                 .build();
 
         String response = httpClient.get(url);
-        return httpClient.parseResponse(response, TvSeriesDetails.class);
+        TvSeriesDetails details = httpClient.parseResponse(response, TvSeriesDetails.class);
+        if (key != null && details != null) {
+            cache.put(key, details);
+        }
+        return details;
     }
 
     /**
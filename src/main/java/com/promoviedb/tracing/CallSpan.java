@@ -0,0 +1,221 @@
+package com.promoviedb.tracing;
+
+/**
+ * Timings of one HTTP call, broken down by connection phase
+ * <p>
+ * Phase durations are in nanoseconds and are 0 for phases the call skipped, such as DNS, connect and
+ * TLS on a reused connection. When a call was resent, for example with another API key, the request
+ * and response phases describe the last attempt.
+ */
+public final class CallSpan {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String endpoint;
+    private final String method;
+    private final String host;
+    private final long startEpochMillis;
+    private final long durationNanos;
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsNanos;
+    private final long connectionAcquireNanos;
+    private final long requestNanos;
+    private final long timeToFirstByteNanos;
+    private final long responseBodyNanos;
+    private final boolean connectionReused;
+    private final String protocol;
+    private final int attempts;
+    private final int statusCode;
+    private final String error;
+
+    CallSpan(Builder builder) {
+        this.traceId = builder.traceId;
+        this.spanId = builder.spanId;
+        this.parentSpanId = builder.parentSpanId;
+        this.endpoint = builder.endpoint;
+        this.method = builder.method;
+        this.host = builder.host;
+        this.startEpochMillis = builder.startEpochMillis;
+        this.durationNanos = builder.durationNanos;
+        this.dnsNanos = builder.dnsNanos;
+        this.connectNanos = builder.connectNanos;
+        this.tlsNanos = builder.tlsNanos;
+        this.connectionAcquireNanos = builder.connectionAcquireNanos;
+        this.requestNanos = builder.requestNanos;
+        this.timeToFirstByteNanos = builder.timeToFirstByteNanos;
+        this.responseBodyNanos = builder.responseBodyNanos;
+        this.connectionReused = builder.connectionReused;
+        this.protocol = builder.protocol;
+        this.attempts = builder.attempts;
+        this.statusCode = builder.statusCode;
+        this.error = builder.error;
+    }
+
+    /**
+     * Get the trace ID, or null if the request carried no trace context
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * Get the ID of this call's span, sent in the {@code traceparent} header
+     */
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Get the ID of the caller's span, or null if the SDK started the trace
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    /**
+     * Get the endpoint family, such as {@code movie/{id}}
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * Get the time from the start of the call until the response body was read or the call failed
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDnsNanos() {
+        return dnsNanos;
+    }
+
+    /**
+     * Get the TCP connect time, including TLS
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    public long getTlsNanos() {
+        return tlsNanos;
+    }
+
+    /**
+     * Get the time from the start of route selection until a new connection was ready
+     * A pooled connection is acquired without route selection, so this is 0 when the connection was reused.
+     */
+    public long getConnectionAcquireNanos() {
+        return connectionAcquireNanos;
+    }
+
+    /**
+     * Get the time spent writing request headers and body
+     */
+    public long getRequestNanos() {
+        return requestNanos;
+    }
+
+    /**
+     * Get the time from the end of the request until the response headers started to arrive
+     */
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    public long getResponseBodyNanos() {
+        return responseBodyNanos;
+    }
+
+    /**
+     * Whether the call ran on a pooled connection
+     */
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    /**
+     * Get the HTTP protocol, such as {@code http/1.1} or {@code h2}, or null if no connection was acquired
+     */
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Get the number of times the request was sent
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Get the HTTP status code, or -1 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the failure message, or null if the call completed
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return "CallSpan{" +
+                "endpoint='" + endpoint + '\'' +
+                ", method='" + method + '\'' +
+                ", statusCode=" + statusCode +
+                ", durationNanos=" + durationNanos +
+                ", connectionReused=" + connectionReused +
+                ", traceId='" + traceId + '\'' +
+                ", spanId='" + spanId + '\'' +
+                '}';
+    }
+
+    static final class Builder {
+        String traceId;
+        String spanId;
+        String parentSpanId;
+        String endpoint;
+        String method;
+        String host;
+        long startEpochMillis;
+        long durationNanos;
+        long dnsNanos;
+        long connectNanos;
+        long tlsNanos;
+        long connectionAcquireNanos;
+        long requestNanos;
+        long timeToFirstByteNanos;
+        long responseBodyNanos;
+        boolean connectionReused;
+        String protocol;
+        int attempts;
+        int statusCode = -1;
+        String error;
+
+        CallSpan build() {
+            return new CallSpan(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.promoviedb.tracing;
+
+/**
+ * Receives a span for every HTTP call made by the client
+ * <p>
+ * Implementations bridge spans to a tracing pipeline. They are called on the thread that ran the call,
+ * right after it ends, so they should hand spans off rather than block.
+ */
+public interface SpanExporter {
+
+    /**
+     * Export one finished call
+     */
+    void export(CallSpan span);
+}
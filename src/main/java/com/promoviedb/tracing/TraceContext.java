@@ -0,0 +1,157 @@
+package com.promoviedb.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace context identifying the span a request belongs to
+ * <p>
+ * Attach one to a {@link com.promoviedb.http.CallContext} to continue a trace started by the caller;
+ * every request then carries a {@code traceparent} header naming a new child span.
+ *
+ * <pre>{@code
+ * TraceContext parent = TraceContext.parse(incoming.getHeader("traceparent"));
+ * CallContext context = new CallContext.Builder().traceContext(parent).build();
+ * }</pre>
+ */
+public final class TraceContext {
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String TRACESTATE_HEADER = "tracestate";
+
+    private static final String VERSION = "00";
+    private static final int FLAG_SAMPLED = 0x01;
+
+    private final String traceId;
+    private final String spanId;
+    private final int flags;
+    private final String traceState;
+    private final String parentSpanId;
+
+    private TraceContext(String traceId, String spanId, int flags, String traceState, String parentSpanId) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.flags = flags;
+        this.traceState = traceState;
+        this.parentSpanId = parentSpanId;
+    }
+
+    /**
+     * Start a new sampled trace
+     */
+    public static TraceContext newRoot() {
+        return new TraceContext(randomHex(16), randomHex(8), FLAG_SAMPLED, null, null);
+    }
+
+    /**
+     * Parse a {@code traceparent} header value
+     *
+     * @return the context, or null if the value is missing or malformed
+     */
+    public static TraceContext parse(String traceparent) {
+        return parse(traceparent, null);
+    }
+
+    /**
+     * Parse {@code traceparent} and {@code tracestate} header values
+     *
+     * @return the context, or null if the traceparent is missing or malformed
+     */
+    public static TraceContext parse(String traceparent, String traceState) {
+        if (traceparent == null) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length < 4 || parts[0].length() != 2 || "ff".equals(parts[0])
+                || (VERSION.equals(parts[0]) && parts.length != 4)) {
+            return null;
+        }
+        String traceId = parts[1];
+        String spanId = parts[2];
+        if (!isHex(traceId, 32) || !isHex(spanId, 16) || !isHex(parts[3], 2)
+                || isZero(traceId) || isZero(spanId)) {
+            return null;
+        }
+        String state = traceState != null && !traceState.trim().isEmpty() ? traceState.trim() : null;
+        return new TraceContext(traceId, spanId, Integer.parseInt(parts[3], 16), state, null);
+    }
+
+    /**
+     * Create a child span in the same trace
+     */
+    public TraceContext newChild() {
+        return new TraceContext(traceId, randomHex(8), flags, traceState, spanId);
+    }
+
+    /**
+     * Format as a {@code traceparent} header value
+     */
+    public String toTraceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + String.format("%02x", flags & 0xff);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * Get the vendor-specific {@code tracestate} value, or null if there is none
+     */
+    public String getTraceState() {
+        return traceState;
+    }
+
+    /**
+     * Get the span ID of the parent, or null for a root or parsed context
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public boolean isSampled() {
+        return (flags & FLAG_SAMPLED) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+
+    private static String randomHex(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        String value;
+        do {
+            hex.setLength(0);
+            for (int i = 0; i < bytes; i++) {
+                hex.append(String.format("%02x", random.nextInt(256)));
+            }
+            value = hex.toString();
+        } while (isZero(value));
+        return value;
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String hex) {
+        for (int i = 0; i < hex.length(); i++) {
+            if (hex.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,205 @@
+package com.promoviedb.tracing;
+
+import com.promoviedb.metrics.EndpointFamily;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * OkHttp event listener that times the connection phases of a call and exports them as a span
+ * <p>
+ * One listener is created per call. It reads the {@link TraceContext} tagged on the request by
+ * {@link com.promoviedb.http.HttpClient}, so the span carries the same IDs as the {@code traceparent}
+ * header sent to the API. The host, endpoint and method are those of the request actually sent, after
+ * interceptors such as endpoint routing have rewritten it.
+ */
+public final class TracingEventListener extends EventListener {
+    private static final Logger logger = LoggerFactory.getLogger(TracingEventListener.class);
+
+    private final SpanExporter exporter;
+    private final CallSpan.Builder span = new CallSpan.Builder();
+
+    private long callStart;
+    private long acquireStart;
+    private boolean acquired;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseBodyStart;
+    private boolean connected;
+    private boolean finished;
+
+    private TracingEventListener(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Create a factory for {@link okhttp3.OkHttpClient.Builder#eventListenerFactory}
+     */
+    public static EventListener.Factory factory(SpanExporter exporter) {
+        if (exporter == null) {
+            throw new IllegalArgumentException("Span exporter is required");
+        }
+        return call -> new TracingEventListener(exporter);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+        span.startEpochMillis = System.currentTimeMillis();
+
+        // Replaced by the request actually sent; kept for calls that fail before it is written
+        Request request = call.request();
+        target(request.url());
+        span.method = request.method();
+
+        TraceContext trace = request.tag(TraceContext.class);
+        if (trace != null) {
+            span.traceId = trace.getTraceId();
+            span.spanId = trace.getSpanId();
+            span.parentSpanId = trace.getParentSpanId();
+        }
+    }
+
+    @Override
+    public void proxySelectStart(Call call, HttpUrl url) {
+        if (acquireStart == 0) {
+            acquireStart = System.nanoTime();
+        }
+        // The URL of the address being connected to, without the path
+        span.host = url.host();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        span.dnsNanos += System.nanoTime() - dnsStart;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        span.tlsNanos += System.nanoTime() - secureConnectStart;
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        span.connectNanos += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        span.connectNanos += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        if (!acquired) {
+            acquired = true;
+            // Route selection only starts when no pooled connection fits
+            span.connectionAcquireNanos = acquireStart != 0 ? System.nanoTime() - acquireStart : 0;
+            span.connectionReused = !connected;
+        }
+        span.protocol = connection.protocol().toString();
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+        requestEnd = 0;
+        span.attempts++;
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+        target(request.url());
+        span.method = request.method();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        long now = System.nanoTime();
+        span.requestNanos = requestEnd - requestStart;
+        span.timeToFirstByteNanos = now - requestEnd;
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        span.statusCode = response.code();
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        span.responseBodyNanos = System.nanoTime() - responseBodyStart;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        finish(null);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        finish(ioe.getMessage() != null ? ioe.getMessage() : ioe.getClass().getSimpleName());
+    }
+
+    private void target(HttpUrl url) {
+        span.endpoint = EndpointFamily.of(url.pathSegments());
+        span.host = url.host();
+    }
+
+    private void finish(String error) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        span.durationNanos = System.nanoTime() - callStart;
+        span.error = error;
+        try {
+            exporter.export(span.build());
+        } catch (RuntimeException e) {
+            logger.warn("Span exporter failed", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.promoviedb.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads that run blocking API calls
+ * <p>
+ * This is the Java 8 implementation, backed by daemon platform threads. The multi-release JAR carries
+ * a Java 21 implementation under {@code META-INF/versions/21} that runs each task on a virtual thread,
+ * so that thousands of concurrent blocking lookups cost little more than their sockets.
+ */
+public final class ThreadSupport {
+
+    private ThreadSupport() {
+    }
+
+    /**
+     * Whether tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return false;
+    }
+
+    /**
+     * Create an executor for tasks that block on HTTP calls
+     *
+     * @param namePrefix Prefix of the thread names
+     * @param maxThreads Number of platform threads; ignored when tasks run on virtual threads
+     */
+    public static ExecutorService newBlockingExecutor(String namePrefix, int maxThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(maxThreads, r -> {
+            Thread thread = new Thread(r, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create an unstarted daemon thread
+     */
+    public static Thread newThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,38 @@
+package com.promoviedb.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP call to the API, from queueing to the end of the body
+ */
+@Name("promoviedb.ApiCall")
+@Label("ProMovieDB API Call")
+@Category({"ProMovieDB", "HTTP"})
+@Description("HTTP call made by the ProMovieDB SDK")
+@StackTrace(true)
+class ApiCallEvent extends Event {
+    @Label("Endpoint")
+    @Description("Endpoint family, with IDs replaced by {id}")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Status Code")
+    @Description("HTTP status code, or -1 if no response was received")
+    int statusCode;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+}
@@ -0,0 +1,25 @@
+package com.promoviedb.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of an API call: URL build, queue wait, network, body read or JSON decode
+ */
+@Name("promoviedb.Phase")
+@Label("ProMovieDB Call Phase")
+@Category({"ProMovieDB", "HTTP"})
+@Description("Phase of an HTTP call made by the ProMovieDB SDK")
+@StackTrace(false)
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Endpoint")
+    @Description("Endpoint family, with IDs replaced by {id}")
+    String endpoint;
+}
@@ -0,0 +1,78 @@
+package com.promoviedb.diagnostics;
+
+import jdk.jfr.EventType;
+
+/**
+ * Emits Java Flight Recorder events for API calls and their phases
+ * <p>
+ * This is the Java 21 implementation, selected from the multi-release JAR on Java 21 and later.
+ * It emits {@code promoviedb.ApiCall} and {@code promoviedb.Phase} events. When those events are
+ * disabled in the recording settings, no event objects are created.
+ */
+public final class RequestEvents {
+    private static final PhaseRecording NOOP_PHASE = endpoint -> {
+    };
+    private static final CallRecording NOOP_CALL = (statusCode, bytesSent, bytesReceived) -> {
+    };
+
+    private static final EventType CALL_TYPE = EventType.getEventType(ApiCallEvent.class);
+    private static final EventType PHASE_TYPE = EventType.getEventType(PhaseEvent.class);
+
+    // Endpoint of the last call on each thread, for phases that run after the call such as JSON decode
+    private static final ThreadLocal<String> LAST_ENDPOINT = new ThreadLocal<>();
+
+    private RequestEvents() {
+    }
+
+    /**
+     * Whether events are being recorded
+     */
+    public static boolean isEnabled() {
+        return CALL_TYPE.isEnabled() || PHASE_TYPE.isEnabled();
+    }
+
+    /**
+     * Start timing a phase on the current thread
+     */
+    public static PhaseRecording begin(Phase phase) {
+        if (!PHASE_TYPE.isEnabled()) {
+            return NOOP_PHASE;
+        }
+        PhaseEvent event = new PhaseEvent();
+        event.phase = phase.name();
+        event.begin();
+        return endpoint -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint != null ? endpoint : LAST_ENDPOINT.get();
+                event.commit();
+            }
+        };
+    }
+
+    /**
+     * Start timing an API call on the current thread
+     */
+    public static CallRecording beginCall(String endpoint, String method) {
+        if (PHASE_TYPE.isEnabled()) {
+            // Only phases read it; left unset when disabled so calls allocate nothing per thread
+            LAST_ENDPOINT.set(endpoint);
+        }
+        if (!CALL_TYPE.isEnabled()) {
+            return NOOP_CALL;
+        }
+        ApiCallEvent event = new ApiCallEvent();
+        event.endpoint = endpoint;
+        event.method = method;
+        event.begin();
+        return (statusCode, bytesSent, bytesReceived) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.statusCode = statusCode;
+                event.bytesSent = bytesSent;
+                event.bytesReceived = bytesReceived;
+                event.commit();
+            }
+        };
+    }
+}
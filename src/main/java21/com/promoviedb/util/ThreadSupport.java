@@ -0,0 +1,40 @@
+package com.promoviedb.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the threads that run blocking API calls
+ * <p>
+ * This is the Java 21 implementation, selected from the multi-release JAR on Java 21 and later.
+ * Every task runs on its own virtual thread, which unmounts from its carrier while blocked on I/O.
+ */
+public final class ThreadSupport {
+
+    private ThreadSupport() {
+    }
+
+    /**
+     * Whether tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return true;
+    }
+
+    /**
+     * Create an executor for tasks that block on HTTP calls
+     *
+     * @param namePrefix Prefix of the thread names
+     * @param maxThreads Number of platform threads; ignored when tasks run on virtual threads
+     */
+    public static ExecutorService newBlockingExecutor(String namePrefix, int maxThreads) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix + "-", 1).factory());
+    }
+
+    /**
+     * Create an unstarted daemon thread
+     */
+    public static Thread newThread(String name, Runnable task) {
+        return Thread.ofVirtual().name(name).unstarted(task);
+    }
+}
@@ -1,7 +1,9 @@
 package com.promoviedb;
 
 import com.google.gson.JsonObject;
+import com.promoviedb.cache.EntityCache;
 import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.SharedTransport;
 import com.promoviedb.model.common.Credits;
 import com.promoviedb.model.movie.MovieDetails;
 import com.promoviedb.model.person.PersonDetails;
@@ -12,6 +14,15 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 
 /**
@@ -383,4 +394,96 @@ public class ProMovieDBClientIntegrationTest {
         assertSame(client.personService(), client.personService());
         assertSame(client.searchService(), client.searchService());
     }
+
+    @Test
+    public void testServiceSingletonUnderConcurrentAccess() throws Exception {
+        ProMovieDBClient fresh = new ProMovieDBClient.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        try {
+            int threads = 8;
+            CountDownLatch start = new CountDownLatch(1);
+            Set<Object> instances = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        instances.add(fresh.movieService());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(1, instances.size());
+            assertSame(fresh.movieService(), instances.iterator().next());
+        } finally {
+            fresh.close();
+        }
+    }
+
+    @Test
+    public void testSharedTransport() throws Exception {
+        EntityCache sharedCache = new EntityCache(60_000, 100);
+        SharedTransport transport = new SharedTransport.Builder()
+                .cache(sharedCache)
+                .build();
+
+        ProMovieDBClient english = new ProMovieDBClient.Builder()
+                .apiKey("key-en")
+                .baseUrl(mockWebServer.url("/").toString())
+                .language("en")
+                .transport(transport)
+                .build();
+        ProMovieDBClient german = new ProMovieDBClient.Builder()
+                .apiKey("key-de")
+                .baseUrl(mockWebServer.url("/").toString())
+                .language("de")
+                .transport(transport)
+                .build();
+        try {
+            assertSame(sharedCache, english.cache());
+            assertSame(sharedCache, german.cache());
+
+            mockWebServer.enqueue(new MockResponse()
+                    .setResponseCode(200)
+                    .setBody("{\"id\":550,\"title\":\"Fight Club\"}"));
+            mockWebServer.enqueue(new MockResponse()
+                    .setResponseCode(200)
+                    .setBody("{\"id\":550,\"title\":\"Fight Club DE\"}"));
+
+            english.movieService().getDetails("550");
+            english.close();
+            MovieDetails movie = german.movieService().getDetails("550");
+
+            assertEquals("Fight Club DE", movie.getTitle());
+            assertTrue(mockWebServer.takeRequest().getPath().contains("api_key=key-en"));
+            assertTrue(mockWebServer.takeRequest().getPath().contains("language=de"));
+            assertEquals(2, sharedCache.size());
+        } finally {
+            german.close();
+            transport.close();
+        }
+    }
+
+    @Test
+    public void testAsyncExecutor() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"id\":550,\"title\":\"Fight Club\"}"));
+
+        CompletableFuture<MovieDetails> future = CompletableFuture.supplyAsync(
+                () -> client.movieService().getDetails("550"), client.executor());
+
+        assertEquals("Fight Club", future.get(5, TimeUnit.SECONDS).getTitle());
+        assertSame(client.executor(), client.executor());
+
+        client.close();
+        assertTrue(client.executor().isShutdown());
+    }
 }
@@ -0,0 +1,92 @@
+package com.promoviedb.cache;
+
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.model.person.PersonDetails;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CacheSnapshot
+ */
+public class CacheSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndLoad() throws Exception {
+        EntityCache cache = new EntityCache(60_000, 100);
+
+        MovieDetails movie = new MovieDetails();
+        movie.setId(550);
+        movie.setTitle("Fight Club");
+        CacheKey movieKey = new CacheKey(EntityType.MOVIE, "550", "en");
+        cache.put(movieKey, movie);
+        cache.get(movieKey, MovieDetails.class);
+
+        PersonDetails person = new PersonDetails();
+        person.setId(287);
+        person.setName("Brad Pitt");
+        person.setAlsoKnownAs(new String[]{"B. Pitt"});
+        CacheKey personKey = new CacheKey(EntityType.PERSON, "287", "de");
+        cache.put(personKey, person);
+
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        assertEquals(2, CacheSnapshot.write(cache, file));
+
+        EntityCache restored = new EntityCache(60_000, 100);
+        CacheSnapshot.LoadResult result = CacheSnapshot.load(restored, file);
+
+        assertEquals(2, result.getLoaded());
+        assertEquals(0, result.getExpired());
+        assertEquals(Collections.singletonList(movieKey), result.getHotKeys());
+        assertTrue(result.getExpiredHotKeys().isEmpty());
+
+        assertEquals("Fight Club", restored.get(movieKey, MovieDetails.class).getTitle());
+        PersonDetails restoredPerson = restored.get(personKey, PersonDetails.class);
+        assertEquals("Brad Pitt", restoredPerson.getName());
+        assertArrayEquals(new String[]{"B. Pitt"}, restoredPerson.getAlsoKnownAs());
+        assertEquals(cache.getEntry(movieKey).getCreatedAt(), restored.getEntry(movieKey).getCreatedAt());
+    }
+
+    @Test
+    public void testExpiredEntriesAreSkipped() throws Exception {
+        long now = System.currentTimeMillis();
+
+        MovieDetails movie = new MovieDetails();
+        movie.setId(13);
+        CacheKey expiredKey = new CacheKey(EntityType.MOVIE, "13", "en");
+
+        // Hot entry that expires right after the snapshot is written
+        EntityCache cache = new EntityCache(60_000, 100);
+        cache.restore(expiredKey, movie, now - 10_000, now + 50, 5, true);
+
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        CacheSnapshot.write(cache, file);
+        Thread.sleep(100);
+
+        EntityCache restored = new EntityCache(60_000, 100);
+        CacheSnapshot.LoadResult result = CacheSnapshot.load(restored, file);
+
+        assertEquals(0, result.getLoaded());
+        assertEquals(1, result.getExpired());
+        assertEquals(Collections.singletonList(expiredKey), result.getExpiredHotKeys());
+        assertNull(restored.get(expiredKey, MovieDetails.class));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsForeignFile() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("not-a-snapshot");
+        Files.write(file, new byte[]{1, 2, 3, 4});
+
+        CacheSnapshot.load(new EntityCache(60_000, 100), file);
+    }
+}
@@ -0,0 +1,237 @@
+package com.promoviedb.cache;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.person.PersonDetails;
+import com.promoviedb.service.PersonService;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ChangeFeedSynchronizer
+ */
+public class ChangeFeedSynchronizerTest {
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private EntityCache cache;
+    private PersonService personService;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+
+        httpClient = new HttpClient(config);
+        cache = new EntityCache(60_000, 100);
+        personService = new PersonService(httpClient, config, cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testDetailsAreServedFromCache() throws Exception {
+        enqueuePerson("Brad Pitt");
+
+        PersonDetails first = personService.getDetails("287");
+        PersonDetails second = personService.getDetails("287");
+
+        assertSame(first, second);
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testChangedEntryIsInvalidated() throws Exception {
+        enqueuePerson("Brad Pitt");
+        personService.getDetails("287");
+        mockWebServer.takeRequest();
+
+        enqueueChanges("2999-01-01 00:00:00 UTC", "en");
+
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .build();
+        ChangeFeedSynchronizer.SyncResult result = sync.syncOnce();
+
+        assertEquals(1, result.getChecked());
+        assertEquals(1, result.getInvalidated());
+        assertEquals(0, cache.size());
+        assertNotNull(sync.getCheckpoint());
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertTrue(request.getPath().contains("/v1/np/3/person/287/changes"));
+        assertTrue(request.getPath().contains("start_date="));
+    }
+
+    @Test
+    public void testOlderAndOtherLanguageChangesKeepEntry() throws Exception {
+        enqueuePerson("Brad Pitt");
+        personService.getDetails("287");
+
+        enqueueChanges("2000-01-01 00:00:00 UTC", "en");
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .build();
+        assertEquals(0, sync.syncOnce().getInvalidated());
+
+        enqueueChanges("2999-01-01 00:00:00 UTC", "de");
+        assertEquals(0, sync.syncOnce().getInvalidated());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testRefreshRefetchesChangedEntry() throws Exception {
+        enqueuePerson("Brad Pitt");
+        personService.getDetails("287");
+
+        enqueueChanges("2999-01-01 00:00:00 UTC", null);
+        enqueuePerson("William Bradley Pitt");
+
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .refresh(true)
+                .build();
+        ChangeFeedSynchronizer.SyncResult result = sync.syncOnce();
+
+        assertEquals(1, result.getRefreshed());
+        assertEquals("William Bradley Pitt", personService.getDetails("287").getName());
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testFailedPollKeepsCheckpoint() throws Exception {
+        enqueuePerson("Brad Pitt");
+        personService.getDetails("287");
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .build();
+
+        assertEquals(1, sync.syncOnce().getFailed());
+        assertNull(sync.getCheckpoint());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPatchAppliesChangesWithoutRefetch() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"id\":287,\"name\":\"Brad Pitt\",\"also_known_as\":[\"B. Pitt\"]}")
+                .addHeader("Content-Type", "application/json"));
+        PersonDetails original = personService.getDetails("287");
+
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"changes\":["
+                        + "{\"key\":\"place_of_birth\",\"items\":[{\"action\":\"updated\","
+                        + "\"time\":\"2999-01-01 00:00:00 UTC\",\"value\":\"Shawnee, Oklahoma, USA\"}]},"
+                        + "{\"key\":\"also_known_as\",\"items\":[{\"action\":\"added\","
+                        + "\"time\":\"2999-01-01 00:00:01 UTC\",\"value\":\"Bradley Pitt\"}]}]}")
+                .addHeader("Content-Type", "application/json"));
+
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .patch(true)
+                .build();
+        ChangeFeedSynchronizer.SyncResult result = sync.syncOnce();
+
+        assertEquals(1, result.getPatched());
+        assertEquals(2, mockWebServer.getRequestCount());
+
+        PersonDetails patched = personService.getDetails("287");
+        assertNotSame(original, patched);
+        assertNull(original.getPlaceOfBirth());
+        assertEquals("Shawnee, Oklahoma, USA", patched.getPlaceOfBirth());
+        assertArrayEquals(new String[]{"B. Pitt", "Bradley Pitt"}, patched.getAlsoKnownAs());
+    }
+
+    @Test
+    public void testPatchFallsBackToRefetch() throws Exception {
+        enqueuePerson("Brad Pitt");
+        personService.getDetails("287");
+
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"changes\":[{\"key\":\"images\",\"items\":[{\"action\":\"added\","
+                        + "\"time\":\"2999-01-01 00:00:00 UTC\",\"value\":{\"profile\":{}}}]}]}")
+                .addHeader("Content-Type", "application/json"));
+        enqueuePerson("Brad Pitt");
+
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .patch(true)
+                .build();
+        ChangeFeedSynchronizer.SyncResult result = sync.syncOnce();
+
+        assertEquals(0, result.getPatched());
+        assertEquals(1, result.getRefreshed());
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testCloseDoesNotWaitForRunningPass() throws Exception {
+        enqueuePerson("Brad Pitt");
+        personService.getDetails("287");
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"changes\":[]}")
+                .setHeadersDelay(30, TimeUnit.SECONDS));
+
+        ChangeFeedSynchronizer sync = new ChangeFeedSynchronizer.Builder()
+                .personService(personService)
+                .cache(cache)
+                .pollIntervalSeconds(1)
+                .build();
+        sync.start();
+        mockWebServer.takeRequest();
+        assertNotNull(mockWebServer.takeRequest(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        sync.close();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertNull(sync.getCheckpoint());
+    }
+
+    private void enqueuePerson(String name) {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"id\":287,\"name\":\"" + name + "\"}")
+                .addHeader("Content-Type", "application/json"));
+    }
+
+    private void enqueueChanges(String time, String language) {
+        String languageField = language != null ? ",\"iso_639_1\":\"" + language + "\"" : "";
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"changes\":[{\"key\":\"name\",\"items\":[{\"id\":\"1\",\"action\":\"updated\","
+                        + "\"time\":\"" + time + "\"" + languageField + ",\"value\":\"x\"}]}]}")
+                .addHeader("Content-Type", "application/json"));
+    }
+}
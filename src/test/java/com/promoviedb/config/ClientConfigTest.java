@@ -1,5 +1,6 @@
 package com.promoviedb.config;
 
+import com.promoviedb.http.ApiKeyPool;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -186,4 +187,34 @@ public class ClientConfigTest {
                 .build();
         assertEquals("vbeta", config.getApiVersion());
     }
+
+    @Test
+    public void testCacheSettings() {
+        ClientConfig defaults = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .build();
+        assertFalse(defaults.isCacheEnabled()); // disabled by default
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .cacheTtlSeconds(3600)
+                .cacheMaxEntries(500)
+                .build();
+        assertTrue(config.isCacheEnabled());
+        assertEquals(3600, config.getCacheTtlSeconds());
+        assertEquals(500, config.getCacheMaxEntries());
+    }
+
+    @Test
+    public void testApiKeyPoolReplacesApiKey() {
+        ApiKeyPool pool = new ApiKeyPool.Builder()
+                .addKey("pool-key-1", 10)
+                .addKey("pool-key-2", 10)
+                .build();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKeyPool(pool)
+                .build();
+        assertSame(pool, config.getApiKeyPool());
+        assertEquals("pool-key-1", config.getApiKey());
+    }
 }
@@ -0,0 +1,186 @@
+package com.promoviedb.export;
+
+import com.google.gson.JsonParser;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.CancellationToken;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.common.Cast;
+import com.promoviedb.model.common.Credits;
+import com.promoviedb.model.common.Crew;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.service.SearchService;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for NdjsonExporter
+ */
+public class NdjsonExporterTest {
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private ClientConfig config;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+
+        httpClient = new HttpClient(config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testExportPersonDetails() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            enqueueJson("{\"id\":" + i + ",\"name\":\"Person " + i + "\"}");
+        }
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404).setBody("{}"));
+
+        NdjsonExporter exporter = new NdjsonExporter.Builder()
+                .parallelism(2)
+                .queueCapacity(1)
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportStats stats = exporter.export(Arrays.asList("1", "2", "3", "4").iterator(),
+                ExportFetcher.personDetails(new PersonService(httpClient, config)), out);
+
+        List<String> lines = readLines(out.toByteArray(), false);
+        assertEquals(3, lines.size());
+        for (String line : lines) {
+            assertTrue(JsonParser.parseString(line).getAsJsonObject().has("name"));
+        }
+        assertEquals(4, stats.getInputs());
+        assertEquals(3, stats.getRecords());
+        assertEquals(1, stats.getFailures());
+        assertEquals(out.size(), stats.getBytes());
+        assertTrue(stats.isFinished());
+    }
+
+    @Test
+    public void testExportSearchHitsGzipped() throws Exception {
+        enqueueJson("{\"page\":1,\"total_pages\":2,\"results\":[{\"id\":1},{\"id\":2}]}");
+        enqueueJson("{\"page\":2,\"total_pages\":2,\"results\":[{\"id\":3}]}");
+
+        NdjsonExporter exporter = new NdjsonExporter.Builder()
+                .parallelism(1)
+                .gzip(true)
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportStats stats = exporter.export(Collections.singletonList("Matrix").iterator(),
+                ExportFetcher.movieSearchHits(new SearchService(httpClient, config), 10), out);
+
+        List<String> lines = readLines(out.toByteArray(), true);
+        assertEquals(Arrays.asList("{\"id\":1}", "{\"id\":2}", "{\"id\":3}"), lines);
+        assertEquals(3, stats.getRecords());
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void testCancelWhileQueueIsFullAndWriterIsSlow() throws Exception {
+        char[] chars = new char[100_000];
+        Arrays.fill(chars, 'x');
+        List<String> records = Collections.nCopies(100, new String(chars));
+        OutputStream slow = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        NdjsonExporter exporter = new NdjsonExporter.Builder()
+                .parallelism(4)
+                .queueCapacity(1)
+                .build();
+
+        CancellationToken token = new CancellationToken();
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+        canceller.schedule(token::cancel, 300, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        try (CallContext.Scope scope = CallContext.current().toBuilder().cancellationToken(token).build().attach()) {
+            exporter.export(Arrays.asList("1", "2", "3", "4").iterator(), input -> records, slow);
+            fail("Expected CallCancelledException");
+        } catch (CallCancelledException expected) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+        } finally {
+            canceller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPersonIdsFromCredits() {
+        Cast cast = new Cast();
+        cast.setId(287);
+        Crew crew = new Crew();
+        crew.setId(7467);
+        Crew duplicate = new Crew();
+        duplicate.setId(287);
+
+        Credits credits = new Credits();
+        credits.setCast(Collections.singletonList(cast));
+        credits.setCrew(Arrays.asList(crew, duplicate));
+
+        assertEquals(Arrays.asList("287", "7467"), ExportFetcher.personIds(Collections.singletonList(credits)));
+    }
+
+    private void enqueueJson(String body) {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(body)
+                .addHeader("Content-Type", "application/json"));
+    }
+
+    private static List<String> readLines(byte[] data, boolean gzip) throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(data))
+                : new ByteArrayInputStream(data), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,125 @@
+package com.promoviedb.graph;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.service.MovieService;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.service.TvSeriesService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CreditGraph ingestion and ConnectionFinder bidirectional search
+ */
+public class ConnectionFinderTest {
+
+    // 1 -- movie 10 -- 2 -- tv 20 -- 3, and 4 without credits
+    private static final Map<String, String> RESPONSES = new HashMap<>();
+
+    static {
+        RESPONSES.put("/np/3/person/1/combined_credits", "{\"cast\":[{\"id\":10,\"media_type\":\"movie\"}]}");
+        RESPONSES.put("/np/3/person/2/combined_credits",
+                "{\"cast\":[{\"id\":10,\"media_type\":\"movie\"},{\"id\":20,\"media_type\":\"tv\"}]}");
+        RESPONSES.put("/np/3/person/3/combined_credits", "{\"cast\":[{\"id\":20,\"media_type\":\"tv\"}]}");
+        RESPONSES.put("/np/3/person/4/combined_credits", "{\"cast\":[],\"crew\":[]}");
+        RESPONSES.put("/np/3/movie/10/credits", "{\"id\":10,\"cast\":[{\"id\":1},{\"id\":2}],\"crew\":[{\"id\":4}]}");
+        RESPONSES.put("/np/3/tv/20/credits", "{\"id\":20,\"cast\":[{\"id\":2},{\"id\":3}]}");
+    }
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private ClientConfig config;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = RESPONSES.get(request.getRequestUrl().encodedPath());
+                return body != null ? new MockResponse().setBody(body) : new MockResponse().setResponseCode(404);
+            }
+        });
+        mockWebServer.start();
+        config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testFindsShortestChainAndCachesCredits() {
+        try (ConnectionFinder finder = finder(6)) {
+            Connection connection = finder.find(1, 3);
+
+            assertNotNull(connection);
+            assertEquals(2, connection.getDegrees());
+            assertEquals(Arrays.asList(
+                    new GraphNode(EntityType.PERSON, 1),
+                    new GraphNode(EntityType.MOVIE, 10),
+                    new GraphNode(EntityType.PERSON, 2),
+                    new GraphNode(EntityType.TV_SERIES, 20),
+                    new GraphNode(EntityType.PERSON, 3)), connection.getPath());
+            assertEquals(mockWebServer.getRequestCount(), connection.getFetchCount());
+
+            int requests = mockWebServer.getRequestCount();
+            Connection again = finder.find(1, 3);
+            assertEquals(2, again.getDegrees());
+            assertEquals(0, again.getFetchCount());
+            assertEquals(requests, mockWebServer.getRequestCount());
+        }
+    }
+
+    @Test
+    public void testReturnsNullWhenNotConnected() {
+        try (ConnectionFinder finder = finder(6)) {
+            assertNull(finder.find(1, 4));
+        }
+        try (ConnectionFinder finder = finder(1)) {
+            assertNull(finder.find(1, 3));
+        }
+    }
+
+    @Test
+    public void testGraphDeduplicatesCredits() {
+        try (ConnectionFinder finder = finder(6)) {
+            finder.find(1, 3);
+            CreditGraph graph = finder.getGraph();
+
+            // Crew credits are left out by default
+            assertEquals(3, graph.getPersonCount());
+            assertEquals(2, graph.getTitleCount());
+            assertEquals(4, graph.getEdgeCount());
+            assertTrue(graph.isComplete(EntityType.MOVIE, 10));
+            assertFalse(graph.isComplete(EntityType.PERSON, 3));
+            assertEquals(2, graph.getNeighbours(EntityType.PERSON, 2).size());
+        }
+    }
+
+    private ConnectionFinder finder(int maxDegrees) {
+        return new ConnectionFinder.Builder(new PersonService(httpClient, config),
+                new MovieService(httpClient, config), new TvSeriesService(httpClient, config))
+                .parallelism(2)
+                .maxDegrees(maxDegrees)
+                .build();
+    }
+}
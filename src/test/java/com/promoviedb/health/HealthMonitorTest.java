@@ -0,0 +1,130 @@
+package com.promoviedb.health;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.service.StatusService;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for HealthMonitor
+ */
+public class HealthMonitorTest {
+
+    @Test
+    public void testStateFollowsChecks() {
+        AtomicBoolean failing = new AtomicBoolean();
+        List<HealthState> changes = new ArrayList<>();
+        HealthMonitor monitor = new HealthMonitor.Builder(() -> {
+            if (failing.get()) {
+                throw new IllegalStateException("down");
+            }
+        })
+                .windowSize(10)
+                .failureThreshold(3)
+                .build();
+        monitor.addListener((previous, current) -> changes.add(current.getState()));
+
+        assertEquals(HealthState.UNKNOWN, monitor.getState());
+        assertTrue(monitor.isAvailable());
+
+        monitor.check();
+        assertEquals(HealthState.HEALTHY, monitor.getState());
+
+        failing.set(true);
+        monitor.check();
+        assertEquals(HealthState.DEGRADED, monitor.getState());
+        assertEquals("down", monitor.getSnapshot().getLastError());
+        monitor.check();
+        monitor.check();
+        assertEquals(HealthState.UNHEALTHY, monitor.getState());
+        assertFalse(monitor.isAvailable());
+        assertEquals(3, monitor.getSnapshot().getConsecutiveFailures());
+        assertEquals(0.25, monitor.getSnapshot().getSuccessRate(), 0.001);
+
+        failing.set(false);
+        for (int i = 0; i < 10; i++) {
+            monitor.check();
+        }
+        assertEquals(HealthState.HEALTHY, monitor.getState());
+        assertEquals(1.0, monitor.getSnapshot().getSuccessRate(), 0.001);
+        assertEquals(14, monitor.getSnapshot().getCheckCount());
+
+        assertEquals(HealthState.HEALTHY, changes.get(0));
+        assertEquals(HealthState.UNHEALTHY, changes.get(2));
+    }
+
+    @Test
+    public void testFirstFailedCheckOnlyDegrades() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        HealthMonitor monitor = new HealthMonitor.Builder(() -> {
+            if (failing.get()) {
+                throw new IllegalStateException("down");
+            }
+        })
+                .windowSize(10)
+                .minSamples(4)
+                .failureThreshold(3)
+                .build();
+
+        monitor.check();
+        assertEquals(HealthState.DEGRADED, monitor.getState());
+        assertTrue(monitor.isAvailable());
+        assertEquals(0.0, monitor.getSnapshot().getSuccessRate(), 0.001);
+
+        failing.set(false);
+        monitor.check();
+        monitor.check();
+        assertEquals(HealthState.HEALTHY, monitor.getState());
+
+        // With four checks in the window, one failure in four is below the degraded rate
+        monitor.check();
+        assertEquals(HealthState.DEGRADED, monitor.getState());
+        assertEquals(0.75, monitor.getSnapshot().getSuccessRate(), 0.001);
+    }
+
+    @Test
+    public void testSlowChecksDegrade() {
+        HealthMonitor monitor = new HealthMonitor.Builder(() -> Thread.sleep(30))
+                .degradedLatencyMillis(10)
+                .build();
+
+        monitor.check();
+
+        assertEquals(HealthState.DEGRADED, monitor.getState());
+        assertTrue(monitor.getSnapshot().getLatencyEwmaMillis() >= 30);
+    }
+
+    @Test
+    public void testStatusServiceUsesCachedState() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"status\":\"ok\"}"));
+            server.start();
+            ClientConfig config = new ClientConfig.Builder()
+                    .apiKey("test-api-key")
+                    .baseUrl(server.url("/").toString())
+                    .build();
+            HttpClient httpClient = new HttpClient(config);
+            try {
+                StatusService status = new StatusService(httpClient, config);
+                HealthMonitor monitor = new HealthMonitor.Builder(status::ping).build();
+                status.setHealthMonitor(monitor);
+
+                monitor.check();
+                for (int i = 0; i < 5; i++) {
+                    assertTrue(status.isHealthy());
+                }
+                assertEquals(1, server.getRequestCount());
+            } finally {
+                httpClient.close();
+            }
+        }
+    }
+}
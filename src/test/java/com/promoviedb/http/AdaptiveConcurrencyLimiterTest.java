@@ -0,0 +1,118 @@
+package com.promoviedb.http;
+
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.ConcurrencyLimitException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testRejectsOverLimitWithoutQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+                .initialLimit(2)
+                .maxQueueSize(0)
+                .build();
+
+        limiter.acquire();
+        limiter.acquire();
+        try {
+            limiter.acquire();
+            fail("Should throw ConcurrencyLimitException");
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(1, limiter.getRejectedCount());
+        }
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testQueuedRequestGetsReleasedSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+                .initialLimit(1)
+                .maxQueueWaitMillis(5000)
+                .build();
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            limiter.acquire().onIgnore();
+            acquired.countDown();
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, limiter.getQueued());
+        held.onIgnore();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testCancelledRequestLeavesQueuePromptly() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+                .initialLimit(1)
+                .maxQueueWaitMillis(30_000)
+                .build();
+        limiter.acquire();
+
+        CancellationToken token = new CancellationToken();
+        CallContext context = new CallContext.Builder().cancellationToken(token).build();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread waiter = new Thread(context.wrap(() -> {
+            try {
+                limiter.acquire().onIgnore();
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+        }));
+        waiter.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (limiter.getQueued() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        token.cancel();
+        waiter.join(1000);
+
+        assertFalse(waiter.isAlive());
+        assertTrue(thrown.get() instanceof CallCancelledException);
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitAdaptsToOutcomes() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+                .initialLimit(10)
+                .build();
+
+        // Saturated at a steady latency: the limit grows
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            permits.add(limiter.acquire());
+        }
+        Thread.sleep(20);
+        for (AdaptiveConcurrencyLimiter.Permit permit : permits) {
+            permit.onSuccess();
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10);
+        assertTrue(limiter.getLongRttMillis() >= 20);
+
+        // A dropped request cuts it
+        limiter.acquire().onDropped();
+        assertTrue(limiter.getLimit() < grown);
+        assertEquals(1, limiter.getDroppedCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
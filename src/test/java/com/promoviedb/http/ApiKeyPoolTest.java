@@ -0,0 +1,141 @@
+package com.promoviedb.http;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.exception.AuthenticationException;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.RateLimitException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ApiKeyPool and its dispatch through HttpClient
+ */
+public class ApiKeyPoolTest {
+
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testDispatchFollowsQuotas() {
+        ApiKeyPool pool = new ApiKeyPool.Builder()
+                .addKey("key-a", 30, 30)
+                .addKey("key-b", 10, 10)
+                .acquireTimeoutMillis(0)
+                .build();
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            counts.merge(pool.acquire(), 1, Integer::sum);
+        }
+
+        // Both buckets are drained, most of the traffic went to the larger quota
+        assertEquals(Integer.valueOf(30), counts.get("key-a"));
+        assertEquals(Integer.valueOf(10), counts.get("key-b"));
+    }
+
+    @Test
+    public void testQuarantineOnAuthenticationFailure() {
+        ApiKeyPool pool = new ApiKeyPool.Builder()
+                .addKey("key-a", 10)
+                .addKey("key-b", 10)
+                .build();
+
+        pool.report("key-a", 401, -1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("key-b", pool.acquire());
+        }
+        assertTrue(pool.getStats().get(0).isQuarantined());
+
+        pool.report("key-b", 403, -1);
+        try {
+            pool.acquire();
+            fail("Should throw AuthenticationException");
+        } catch (AuthenticationException e) {
+            assertTrue(e.getMessage().contains("quarantined"));
+        }
+    }
+
+    @Test(expected = RateLimitException.class)
+    public void testBackoffOnRateLimit() {
+        ApiKeyPool pool = new ApiKeyPool.Builder()
+                .addKey("key-a", 10)
+                .acquireTimeoutMillis(100)
+                .build();
+
+        pool.report("key-a", 429, 30);
+        pool.acquire();
+    }
+
+    @Test
+    public void testCancelledCallStopsWaitingForQuota() throws Exception {
+        ApiKeyPool pool = new ApiKeyPool.Builder()
+                .addKey("key-a", 10)
+                .acquireTimeoutMillis(60_000)
+                .build();
+        pool.report("key-a", 429, 30);
+
+        CancellationToken token = new CancellationToken();
+        CallContext context = new CallContext.Builder().cancellationToken(token).build();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread waiter = new Thread(context.wrap(() -> {
+            try {
+                pool.acquire();
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+        }));
+        waiter.start();
+        Thread.sleep(100);
+
+        token.cancel();
+        waiter.join(1000);
+
+        assertFalse(waiter.isAlive());
+        assertTrue(thrown.get() instanceof CallCancelledException);
+    }
+
+    @Test
+    public void testRequestResentWithAnotherKey() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "30"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+
+        ApiKeyPool pool = new ApiKeyPool.Builder()
+                .addKey("key-a", 10, 10)
+                .addKey("key-b", 5, 5)
+                .build();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKeyPool(pool)
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        HttpClient httpClient = new HttpClient(config);
+        try {
+            String result = httpClient.get(mockWebServer.url("/3/movie/550?api_key=" + config.getApiKey()).toString());
+
+            assertEquals("{}", result);
+            assertTrue(mockWebServer.takeRequest().getPath().contains("api_key=key-a"));
+            assertTrue(mockWebServer.takeRequest().getPath().contains("api_key=key-b"));
+            assertTrue(pool.getStats().get(0).isBackedOff());
+        } finally {
+            httpClient.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.promoviedb.http;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.DeadlineExceededException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CallContext deadlines and cancellation through HttpClient
+ */
+public class CallContextTest {
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testDeadlineCancelsSlowCall() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{}")
+                .setHeadersDelay(5, TimeUnit.SECONDS));
+
+        CallContext context = new CallContext.Builder().timeout(200, TimeUnit.MILLISECONDS).build();
+        long start = System.nanoTime();
+        try (CallContext.Scope scope = context.attach()) {
+            httpClient.get(mockWebServer.url("/slow").toString());
+            fail("Should throw DeadlineExceededException");
+        } catch (DeadlineExceededException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        }
+    }
+
+    @Test
+    public void testCancellationAbortsInFlightCall() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{}")
+                .setHeadersDelay(5, TimeUnit.SECONDS));
+
+        CancellationToken token = new CancellationToken();
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+        try {
+            canceller.schedule(token::cancel, 200, TimeUnit.MILLISECONDS);
+            CallContext context = new CallContext.Builder().cancellationToken(token).build();
+            try (CallContext.Scope scope = context.attach()) {
+                httpClient.get(mockWebServer.url("/slow").toString());
+                fail("Should throw CallCancelledException");
+            } catch (CallCancelledException e) {
+                assertTrue(token.isCancelled());
+            }
+        } finally {
+            canceller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCancelledContextFailsWithoutRequest() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        CallContext context = new CallContext.Builder().cancellationToken(token).build();
+        try (CallContext.Scope scope = context.attach()) {
+            httpClient.get(mockWebServer.url("/test").toString());
+            fail("Should throw CallCancelledException");
+        } catch (CallCancelledException e) {
+            assertEquals(0, mockWebServer.getRequestCount());
+        }
+    }
+
+    @Test
+    public void testPropagatingExecutorCarriesContext() throws Exception {
+        ExecutorService executor = CallContext.propagating(Executors.newSingleThreadExecutor());
+        try {
+            CallContext context = new CallContext.Builder()
+                    .tenant("tenant-a")
+                    .timeout(1, TimeUnit.MINUTES)
+                    .build();
+            Future<CallContext> seen;
+            try (CallContext.Scope scope = context.attach()) {
+                seen = executor.submit(CallContext::current);
+            }
+
+            assertSame(context, seen.get(5, TimeUnit.SECONDS));
+            assertEquals(CallContext.DEFAULT_TENANT, CallContext.current().getTenant());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.promoviedb.http;
+
+import com.promoviedb.config.ClientConfig;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for EndpointRouter and failover between endpoints
+ */
+public class EndpointRouterTest {
+
+    private MockWebServer primary;
+    private MockWebServer secondary;
+
+    @Before
+    public void setUp() throws Exception {
+        primary = new MockWebServer();
+        secondary = new MockWebServer();
+        primary.start();
+        secondary.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        primary.shutdown();
+        secondary.shutdown();
+    }
+
+    @Test
+    public void testRewrite() {
+        EndpointRouter router = new EndpointRouter.Builder()
+                .addEndpoint("https://a.example.com/")
+                .addEndpoint("https://b.example.com")
+                .build();
+        EndpointRouter.Endpoint b = router.getEndpoints().get(1);
+
+        assertEquals("https://a.example.com", router.getPrimaryBaseUrl());
+        assertEquals("https://b.example.com/v1/np/3/movie/550?language=en",
+                router.rewrite("https://a.example.com/v1/np/3/movie/550?language=en", b));
+        assertEquals("https://a.example.com.evil/v1", router.rewrite("https://a.example.com.evil/v1", b));
+    }
+
+    @Test
+    public void testGetFailsOverAfterServerError() throws Exception {
+        primary.setDispatcher(respond(new MockResponse().setResponseCode(500)));
+        secondary.setDispatcher(respond(new MockResponse().setResponseCode(200).setBody("{\"id\":550}")));
+
+        EndpointRouter router = router(3);
+        HttpClient httpClient = new HttpClient(config(router));
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertEquals("{\"id\":550}", httpClient.get(primary.url("/v1/np/3/movie/550").toString()));
+            }
+        } finally {
+            httpClient.close();
+        }
+        assertEquals(5, secondary.getRequestCount());
+    }
+
+    @Test
+    public void testGetFailsOverWhenEndpointIsDown() throws Exception {
+        secondary.setDispatcher(respond(new MockResponse().setResponseCode(200).setBody("{\"id\":550}")));
+        String primaryBaseUrl = primary.url("/").toString();
+        primary.shutdown();
+
+        EndpointRouter router = new EndpointRouter.Builder()
+                .addEndpoint(primaryBaseUrl)
+                .addEndpoint(secondary.url("/").toString())
+                .build();
+        HttpClient httpClient = new HttpClient(config(router));
+        try {
+            assertEquals("{\"id\":550}", httpClient.get(primaryBaseUrl + "v1/np/3/movie/550"));
+        } finally {
+            httpClient.close();
+        }
+    }
+
+    @Test
+    public void testFailingEndpointIsEjected() throws Exception {
+        primary.setDispatcher(respond(new MockResponse().setResponseCode(502)));
+        secondary.setDispatcher(respond(new MockResponse().setResponseCode(200).setBody("{}")));
+
+        EndpointRouter router = router(2);
+        HttpClient httpClient = new HttpClient(config(router));
+        try {
+            for (int i = 0; i < 10; i++) {
+                httpClient.get(primary.url("/v1/np/3/movie/550").toString());
+            }
+        } finally {
+            httpClient.close();
+        }
+
+        EndpointRouter.Endpoint failing = router.getEndpoints().get(0);
+        assertTrue(failing.isEjected());
+        assertEquals(2, failing.getFailureCount());
+        assertEquals(2, primary.getRequestCount());
+        assertEquals(0, failing.getInFlight());
+    }
+
+    @Test
+    public void testPrefersFasterEndpoint() throws Exception {
+        primary.setDispatcher(respond(new MockResponse().setResponseCode(200).setBody("{}")
+                .setHeadersDelay(100, TimeUnit.MILLISECONDS)));
+        secondary.setDispatcher(respond(new MockResponse().setResponseCode(200).setBody("{}")));
+
+        EndpointRouter router = router(3);
+        HttpClient httpClient = new HttpClient(config(router));
+        try {
+            for (int i = 0; i < 10; i++) {
+                httpClient.get(primary.url("/v1/np/3/movie/550").toString());
+            }
+        } finally {
+            httpClient.close();
+        }
+
+        // Each endpoint is tried once before its latency is known; after that the fast one wins
+        assertTrue(primary.getRequestCount() <= 1);
+        assertTrue(router.getEndpoints().get(1).getRequestCount() >= 9);
+    }
+
+    @Test
+    public void testUnmeasuredEndpointCountsRequestsInFlight() {
+        EndpointRouter router = new EndpointRouter.Builder()
+                .addEndpoint("https://a.example.com")
+                .addEndpoint("https://b.example.com")
+                .build();
+        EndpointRouter.Endpoint a = router.getEndpoints().get(0);
+        EndpointRouter.Endpoint b = router.getEndpoints().get(1);
+        a.onStart();
+        a.onSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+        for (int i = 0; i < 5; i++) {
+            b.onStart();
+        }
+
+        // b has no response yet but five requests in flight, so it costs more than the idle a
+        for (int i = 0; i < 20; i++) {
+            assertSame(a, router.select(Collections.emptySet()));
+        }
+    }
+
+    @Test
+    public void testInitialLatencyForUnmeasuredEndpoints() {
+        EndpointRouter router = new EndpointRouter.Builder()
+                .addEndpoint("https://a.example.com")
+                .addEndpoint("https://b.example.com")
+                .initialLatencyMillis(1)
+                .build();
+        EndpointRouter.Endpoint a = router.getEndpoints().get(0);
+        EndpointRouter.Endpoint b = router.getEndpoints().get(1);
+        a.onStart();
+        a.onSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+        b.onStart();
+
+        // Two requests at the assumed 1 ms still cost less than one at 500 ms
+        for (int i = 0; i < 20; i++) {
+            assertSame(b, router.select(Collections.emptySet()));
+        }
+    }
+
+    @Test
+    public void testSelectAvoidsTriedEndpoints() {
+        EndpointRouter router = new EndpointRouter.Builder()
+                .addEndpoint("https://a.example.com")
+                .addEndpoint("https://b.example.com")
+                .build();
+        EndpointRouter.Endpoint a = router.getEndpoints().get(0);
+        EndpointRouter.Endpoint b = router.getEndpoints().get(1);
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(b, router.select(Collections.singleton(a)));
+        }
+    }
+
+    @Test
+    public void testRoutingKey() {
+        EndpointRouter router = hashingRouter(3);
+
+        assertEquals("movie/550", router.routingKey(HttpUrl.parse("https://node0.example.com/v1/np/3/movie/550/credits?language=en")));
+        assertEquals("tv/1399", router.routingKey(HttpUrl.parse("https://node0.example.com/v1/np/3/tv/1399/season/2")));
+        assertEquals("person/287", router.routingKey(HttpUrl.parse("https://node0.example.com/v1/np/3/person/287")));
+        assertNull(router.routingKey(HttpUrl.parse("https://node0.example.com/v1/np/3/search/movie?query=fight")));
+        assertNull(router.routingKey(HttpUrl.parse("https://node0.example.com/v1/np/3/movie/popular")));
+
+        EndpointRouter latencyRouter = new EndpointRouter.Builder()
+                .addEndpoint("https://node0.example.com")
+                .build();
+        assertNull(latencyRouter.routingKey(HttpUrl.parse("https://node0.example.com/v1/np/3/movie/550")));
+    }
+
+    @Test
+    public void testConsistentHashingIsStableAndEven() {
+        EndpointRouter router = hashingRouter(3);
+        Map<EndpointRouter.Endpoint, Integer> counts = new HashMap<>();
+        for (int id = 0; id < 3000; id++) {
+            EndpointRouter.Endpoint endpoint = router.select(Collections.emptySet(), "movie/" + id);
+            assertSame(endpoint, router.select(Collections.emptySet(), "movie/" + id));
+            counts.merge(endpoint, 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue("Uneven split: " + counts, count > 800 && count < 1200);
+        }
+    }
+
+    @Test
+    public void testAddingEndpointMovesFewKeys() {
+        EndpointRouter three = hashingRouter(3);
+        EndpointRouter four = hashingRouter(4);
+
+        int moved = 0;
+        for (int id = 0; id < 4000; id++) {
+            String before = three.select(Collections.emptySet(), "person/" + id).getBaseUrl();
+            String after = four.select(Collections.emptySet(), "person/" + id).getBaseUrl();
+            if (!before.equals(after)) {
+                // A key only ever moves to the new endpoint
+                assertEquals("https://node3.example.com", after);
+                moved++;
+            }
+        }
+        assertTrue("Moved " + moved, moved > 600 && moved < 1400);
+    }
+
+    @Test
+    public void testBoundedLoadSpillsToNextEndpoint() {
+        EndpointRouter router = hashingRouter(3);
+        EndpointRouter.Endpoint owner = router.select(Collections.emptySet(), "movie/550");
+
+        owner.onStart();
+        owner.onStart();
+        // Two of two requests in flight is above 1.25 times the average share
+        EndpointRouter.Endpoint spilled = router.select(Collections.emptySet(), "movie/550");
+        assertNotSame(owner, spilled);
+        assertSame(spilled, router.select(Collections.emptySet(), "movie/550"));
+
+        owner.onSuccess(1000000);
+        owner.onSuccess(1000000);
+        assertSame(owner, router.select(Collections.emptySet(), "movie/550"));
+        assertNotSame(owner, router.select(Collections.singleton(owner), "movie/550"));
+    }
+
+    private static EndpointRouter hashingRouter(int nodes) {
+        EndpointRouter.Builder builder = new EndpointRouter.Builder().consistentHashing(true);
+        for (int i = 0; i < nodes; i++) {
+            builder.addEndpoint("https://node" + i + ".example.com");
+        }
+        return builder.build();
+    }
+
+    private EndpointRouter router(int ejectionThreshold) {
+        return new EndpointRouter.Builder()
+                .addEndpoint(primary.url("/").toString())
+                .addEndpoint(secondary.url("/").toString())
+                .ejectionThreshold(ejectionThreshold)
+                .baseEjectionMillis(60000)
+                .maxEjectionMillis(60000)
+                .build();
+    }
+
+    private static ClientConfig config(EndpointRouter router) {
+        return new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .endpointRouter(router)
+                .build();
+    }
+
+    private static Dispatcher respond(MockResponse response) {
+        return new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return response;
+            }
+        };
+    }
+}
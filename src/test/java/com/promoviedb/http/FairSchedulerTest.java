@@ -0,0 +1,141 @@
+package com.promoviedb.http;
+
+import com.promoviedb.exception.CallCancelledException;
+import com.promoviedb.exception.ConcurrencyLimitException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FairScheduler
+ */
+public class FairSchedulerTest {
+
+    @Test
+    public void testBulkCannotUseReservedSlots() {
+        FairScheduler scheduler = new FairScheduler.Builder()
+                .maxConcurrentRequests(2)
+                .reservedInteractiveSlots(1)
+                .maxWaitMillis(50)
+                .build();
+
+        FairScheduler.Ticket bulk = scheduler.acquire(Lane.BULK, "crawler");
+        try {
+            scheduler.acquire(Lane.BULK, "crawler");
+            fail("Should throw ConcurrencyLimitException");
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(0, scheduler.getQueued(Lane.BULK));
+        }
+
+        FairScheduler.Ticket interactive = scheduler.acquire(Lane.INTERACTIVE, "web");
+        assertEquals(2, scheduler.getInFlight());
+        interactive.release();
+        bulk.release();
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    public void testInteractiveLaneServedFirst() throws Exception {
+        FairScheduler scheduler = new FairScheduler.Builder()
+                .maxConcurrentRequests(1)
+                .reservedInteractiveSlots(0)
+                .build();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        FairScheduler.Ticket held = scheduler.acquire(Lane.INTERACTIVE, "web");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            threads.add(enqueue(scheduler, Lane.BULK, "crawler", "bulk", order, i + 1));
+        }
+        for (int i = 0; i < 2; i++) {
+            threads.add(enqueue(scheduler, Lane.INTERACTIVE, "web", "interactive", order, i + 1));
+        }
+        held.release();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(Arrays.asList("interactive", "interactive", "bulk", "bulk"), order);
+    }
+
+    @Test
+    public void testTenantsTakeTurns() throws Exception {
+        FairScheduler scheduler = new FairScheduler.Builder()
+                .maxConcurrentRequests(1)
+                .reservedInteractiveSlots(0)
+                .build();
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        FairScheduler.Ticket held = scheduler.acquire(Lane.BULK, "a");
+        List<Thread> threads = new ArrayList<>();
+        threads.add(enqueue(scheduler, Lane.BULK, "a", "a", order, 1));
+        threads.add(enqueue(scheduler, Lane.BULK, "a", "a", order, 2));
+        threads.add(enqueue(scheduler, Lane.BULK, "a", "a", order, 3));
+        threads.add(enqueue(scheduler, Lane.BULK, "b", "b", order, 4));
+        held.release();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertEquals(Arrays.asList("a", "b", "a", "a"), order);
+    }
+
+    @Test
+    public void testCancelledCallLeavesQueuePromptly() throws Exception {
+        FairScheduler scheduler = new FairScheduler.Builder()
+                .maxConcurrentRequests(1)
+                .reservedInteractiveSlots(0)
+                .maxWaitMillis(30_000)
+                .build();
+        FairScheduler.Ticket held = scheduler.acquire(Lane.BULK, "a");
+
+        CancellationToken token = new CancellationToken();
+        CallContext context = new CallContext.Builder().cancellationToken(token).build();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread waiter = new Thread(context.wrap(() -> {
+            try {
+                scheduler.acquire(Lane.BULK, "b").release();
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+        }));
+        waiter.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getQueued(Lane.BULK) < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        token.cancel();
+        waiter.join(1000);
+
+        assertFalse(waiter.isAlive());
+        assertTrue(thrown.get() instanceof CallCancelledException);
+        assertEquals(0, scheduler.getQueued(Lane.BULK));
+        held.release();
+    }
+
+    /**
+     * Start a thread that waits for a slot, records its label and releases the slot
+     * Returns once the thread is queued, so that threads queue in call order.
+     */
+    private static Thread enqueue(FairScheduler scheduler, Lane lane, String tenant, String label,
+                                  List<String> order, int expectedQueued) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            FairScheduler.Ticket ticket = scheduler.acquire(lane, tenant);
+            order.add(label);
+            ticket.release();
+        });
+        thread.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getQueued(lane) < expectedQueued && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return thread;
+    }
+}
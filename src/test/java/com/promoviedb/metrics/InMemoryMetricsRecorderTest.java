@@ -0,0 +1,101 @@
+package com.promoviedb.metrics;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for InMemoryMetricsRecorder, its histogram and the Prometheus output
+ */
+public class InMemoryMetricsRecorderTest {
+
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testEndpointFamily() {
+        assertEquals("movie/{id}/credits", EndpointFamily.of(Arrays.asList("v1", "np", "3", "movie", "550", "credits")));
+        assertEquals("tv/{id}/season/{id}", EndpointFamily.of(Arrays.asList("v1", "np", "3", "tv", "1399", "season", "2")));
+        assertEquals("credit/{id}", EndpointFamily.of(Arrays.asList("v1", "np", "3", "credit", "52fe4250c3a36847f80149f3")));
+        assertEquals("search/movie", EndpointFamily.of(Arrays.asList("v1", "np", "3", "search", "movie")));
+        assertEquals("api/openApi/ping/v1", EndpointFamily.of(Arrays.asList("v1", "api", "openApi", "ping", "v1")));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getPercentileMillis(50), 50 * 0.04);
+        assertEquals(99, histogram.getPercentileMillis(99), 99 * 0.04);
+        assertEquals(5.05, histogram.getSumSeconds(), 0.001);
+
+        long[] cumulative = histogram.cumulativeCounts(new double[]{0.01, 0.05, 1});
+        assertTrue(cumulative[0] >= 9 && cumulative[0] <= 10);
+        assertTrue(cumulative[1] >= 48 && cumulative[1] <= 50);
+        assertEquals(100, cumulative[2]);
+    }
+
+    @Test
+    public void testRequestsRecordedAndScraped() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"id\":550}"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404).setBody("{\"status_message\":\"Not Found\"}"));
+
+        InMemoryMetricsRecorder metrics = new InMemoryMetricsRecorder();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .metricsRecorder(metrics)
+                .build();
+        HttpClient httpClient = new HttpClient(config);
+        try {
+            httpClient.get(mockWebServer.url("/v1/np/3/movie/550").toString());
+            try {
+                httpClient.get(mockWebServer.url("/v1/np/3/movie/551").toString());
+                fail("Should throw ApiException");
+            } catch (com.promoviedb.exception.ApiException e) {
+                assertEquals(404, e.getStatusCode());
+            }
+        } finally {
+            httpClient.close();
+        }
+
+        InMemoryMetricsRecorder.EndpointStats stats = metrics.getEndpoints().get("movie/{id}");
+        assertNotNull(stats);
+        assertEquals(2, stats.getLatency().getCount());
+        assertEquals(Long.valueOf(1), stats.getRequestCounts().get("GET 200"));
+        assertEquals(Long.valueOf(1), stats.getRequestCounts().get("GET 404"));
+        assertEquals(10 + 30, stats.getBytesReceived());
+        assertEquals(0, stats.getInFlight());
+
+        metrics.registerGauge("promoviedb_test_gauge", "Test gauge", () -> 1.5);
+        String text = metrics.scrape();
+        assertTrue(text.contains("# TYPE promoviedb_request_duration_seconds histogram"));
+        assertTrue(text.contains("promoviedb_request_duration_seconds_count{endpoint=\"movie/{id}\"} 2"));
+        assertTrue(text.contains("promoviedb_request_duration_seconds_bucket{endpoint=\"movie/{id}\",le=\"+Inf\"} 2"));
+        assertTrue(text.contains("promoviedb_requests_total{endpoint=\"movie/{id}\",method=\"GET\",status=\"404\"} 1"));
+        assertTrue(text.contains("promoviedb_test_gauge 1.5"));
+    }
+}
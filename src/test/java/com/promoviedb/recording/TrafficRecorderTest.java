@@ -0,0 +1,139 @@
+package com.promoviedb.recording;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TrafficRecorder, TrafficLog and TrafficReplayer
+ */
+public class TrafficRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordRedactsApiKey() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("traffic.log");
+        record(path);
+
+        String raw = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1);
+        assertFalse(raw.contains("secret-api-key"));
+        assertTrue(raw.contains("api_key=" + TrafficRecorder.REDACTED));
+
+        try (TrafficLog log = TrafficLog.open(path)) {
+            List<RecordedExchange> exchanges = log.readAll();
+            assertEquals(3, exchanges.size());
+            assertEquals("GET", exchanges.get(0).getMethod());
+            assertEquals(200, exchanges.get(0).getStatusCode());
+            assertEquals("{\"id\":550,\"title\":\"first\"}", new String(exchanges.get(0).getBody(), StandardCharsets.UTF_8));
+            assertEquals(404, exchanges.get(2).getStatusCode());
+        }
+    }
+
+    @Test
+    public void testReplayServesRecordingsInOrder() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("traffic.log");
+        record(path);
+
+        TrafficReplayer replayer = new TrafficReplayer.Builder(TrafficLog.open(path)).timeScale(0).build();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("another-api-key")
+                .baseUrl("http://replay.invalid/")
+                .trafficReplayer(replayer)
+                .build();
+        HttpClient httpClient = new HttpClient(config);
+        try {
+            String url = "http://replay.invalid/v1/np/3/movie/550?api_key=another-api-key";
+            assertEquals("{\"id\":550,\"title\":\"first\"}", httpClient.get(url));
+            assertEquals("{\"id\":550,\"title\":\"second\"}", httpClient.get(url));
+            assertEquals("{\"id\":550,\"title\":\"first\"}", httpClient.get(url));
+            try {
+                httpClient.get("http://replay.invalid/v1/np/3/movie/999?api_key=another-api-key");
+                fail("Should throw ApiException");
+            } catch (com.promoviedb.exception.ApiException e) {
+                assertEquals(404, e.getStatusCode());
+            }
+            try {
+                httpClient.get("http://replay.invalid/v1/np/3/movie/1?api_key=another-api-key");
+                fail("Should fail for a request that was not recorded");
+            } catch (com.promoviedb.exception.ApiException e) {
+                assertTrue(e.getMessage().contains("No recorded response"));
+            }
+        } finally {
+            httpClient.close();
+            replayer.close();
+        }
+    }
+
+    @Test
+    public void testIndexRebuiltWhenMissing() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("traffic.log");
+        record(path);
+        Files.delete(Paths.get(path + ".idx"));
+
+        try (TrafficLog log = TrafficLog.open(path)) {
+            assertEquals(3, log.size());
+            assertEquals(3, log.readAll().size());
+        }
+        assertEquals(3 * 20, Files.size(Paths.get(path + ".idx")));
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("traffic.log");
+        record(path);
+        long size = Files.size(path);
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(path,
+                java.nio.file.StandardOpenOption.WRITE)) {
+            channel.truncate(size - 5);
+        }
+
+        try (TrafficLog log = TrafficLog.open(path)) {
+            assertEquals(2, log.size());
+        }
+    }
+
+    private static void record(Path path) throws IOException {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"id\":550,\"title\":\"first\"}"));
+            server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"id\":550,\"title\":\"second\"}"));
+            server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"status_message\":\"Not Found\"}"));
+            server.start();
+
+            try (TrafficRecorder recorder = TrafficRecorder.open(path)) {
+                ClientConfig config = new ClientConfig.Builder()
+                        .apiKey("secret-api-key")
+                        .baseUrl(server.url("/").toString())
+                        .trafficRecorder(recorder)
+                        .build();
+                HttpClient httpClient = new HttpClient(config);
+                try {
+                    String url = server.url("/v1/np/3/movie/550?api_key=secret-api-key").toString();
+                    httpClient.get(url);
+                    httpClient.get(url);
+                    try {
+                        httpClient.get(server.url("/v1/np/3/movie/999?api_key=secret-api-key").toString());
+                    } catch (com.promoviedb.exception.ApiException e) {
+                        assertEquals(404, e.getStatusCode());
+                    }
+                } finally {
+                    httpClient.close();
+                }
+            }
+        }
+    }
+}
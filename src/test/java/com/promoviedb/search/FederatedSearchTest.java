@@ -0,0 +1,134 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.service.SearchService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FederatedSearch fan-out, merging and the latency budget
+ */
+public class FederatedSearchTest {
+
+    private static final String MOVIES = "{\"page\":1,\"total_results\":2,\"results\":["
+            + "{\"id\":155,\"title\":\"The Dark Knight\",\"popularity\":90.5,\"release_date\":\"2008-07-16\",\"genre_ids\":[18,28]},"
+            + "{\"id\":272,\"title\":\"Batman Begins\",\"popularity\":40.1}]}";
+    private static final String SERIES = "{\"page\":1,\"results\":["
+            + "{\"id\":2098,\"name\":\"Batman: The Animated Series\",\"popularity\":30.0,\"origin_country\":[\"US\"]}]}";
+    private static final String PEOPLE = "{\"page\":1,\"results\":["
+            + "{\"id\":3894,\"name\":\"Christian Bale\",\"known_for_department\":\"Acting\",\"popularity\":50.0}]}";
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private SearchService searchService;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+        searchService = new SearchService(httpClient, config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testMergesTypedResults() {
+        mockWebServer.setDispatcher(dispatcher(0, 200));
+
+        try (FederatedSearch search = new FederatedSearch.Builder(searchService).build()) {
+            FederatedSearchResult result = search.search("batman");
+
+            assertTrue(result.isComplete());
+            assertEquals(4, result.getHits().size());
+            for (int i = 1; i < result.getHits().size(); i++) {
+                assertTrue(result.getHits().get(i - 1).getScore() >= result.getHits().get(i).getScore());
+            }
+
+            SearchHit darkKnight = find(result, "155");
+            assertEquals(EntityType.MOVIE, darkKnight.getType());
+            assertEquals("2008-07-16", darkKnight.getMovie().getReleaseDate());
+            assertEquals(Integer.valueOf(28), darkKnight.getMovie().getGenreIds().get(1));
+            assertNull(darkKnight.getPerson());
+            assertEquals("US", find(result, "2098").getTvSeries().getOriginCountry().get(0));
+            assertEquals("Acting", find(result, "3894").getPerson().getKnownForDepartment());
+        }
+    }
+
+    @Test
+    public void testReturnsPartialResultsWithinBudget() {
+        mockWebServer.setDispatcher(dispatcher(2000, 200));
+
+        try (FederatedSearch search = new FederatedSearch.Builder(searchService).budgetMillis(300).build()) {
+            FederatedSearchResult result = search.search("batman");
+
+            assertTrue(result.getElapsedMillis() < 1500);
+            assertFalse(result.isComplete());
+            assertTrue(result.getTimedOut().contains(EntityType.PERSON));
+            assertEquals(3, result.getHits().size());
+        }
+    }
+
+    @Test
+    public void testCustomScorerAndErrors() {
+        mockWebServer.setDispatcher(dispatcher(0, 500));
+
+        try (FederatedSearch search = new FederatedSearch.Builder(searchService)
+                .scorer((query, hit) -> hit.getPopularity())
+                .build()) {
+            FederatedSearchResult result = search.search("batman");
+
+            assertTrue(result.getErrors().containsKey(EntityType.TV_SERIES));
+            assertEquals(3, result.getHits().size());
+            assertEquals("155", result.getHits().get(0).getId());
+            assertEquals("3894", result.getHits().get(1).getId());
+            assertEquals("272", result.getHits().get(2).getId());
+        }
+    }
+
+    private static SearchHit find(FederatedSearchResult result, String id) {
+        for (SearchHit hit : result.getHits()) {
+            if (hit.getId().equals(id)) {
+                return hit;
+            }
+        }
+        throw new AssertionError("No hit " + id);
+    }
+
+    private static Dispatcher dispatcher(long personDelayMillis, int tvStatus) {
+        return new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getRequestUrl().encodedPath();
+                if (path.endsWith("/search/movie")) {
+                    return new MockResponse().setResponseCode(200).setBody(MOVIES);
+                } else if (path.endsWith("/search/tv")) {
+                    return new MockResponse().setResponseCode(tvStatus).setBody(tvStatus == 200 ? SERIES : "{}");
+                } else if (path.endsWith("/search/person")) {
+                    return new MockResponse().setResponseCode(200).setBody(PEOPLE)
+                            .setHeadersDelay(personDelayMillis, TimeUnit.MILLISECONDS);
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        };
+    }
+}
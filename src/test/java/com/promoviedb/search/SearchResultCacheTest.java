@@ -0,0 +1,132 @@
+package com.promoviedb.search;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.movie.MovieSearchResult;
+import com.promoviedb.model.response.PagedResponse;
+import com.promoviedb.search.SearchResultCache.Family;
+import com.promoviedb.service.SearchService;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SearchResultCache keys, page assembly and expiry
+ */
+public class SearchResultCacheTest {
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private SearchService searchService;
+    private SearchResultCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+        cache = new SearchResultCache.Builder()
+                .ttlMillis(Family.TV, 20)
+                .build();
+        searchService = new SearchService(httpClient, config);
+        searchService.setSearchCache(cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testKeyIgnoresCaseAccentsAndSpacing() {
+        SearchResultCache.Key key = cache.key(Family.MOVIE, "Am\u00e9lie", "en", null, null);
+
+        assertEquals(key, cache.key(Family.MOVIE, "  AMELIE ", "en", false, true));
+        assertNotEquals(key, cache.key(Family.MOVIE, "amelie", "fr", null, null));
+        assertNotEquals(key, cache.key(Family.MOVIE, "amelie", "en", true, null));
+        assertNotEquals(key, cache.key(Family.TV, "amelie", "en", null, null));
+        assertNull(cache.key(Family.MOVIE, " ?! ", "en", null, null));
+    }
+
+    @Test
+    public void testServesPagesFromOverlappingRanges() {
+        SearchResultCache.Key key = cache.key(Family.MOVIE, "batman", "en", null, null);
+        cache.put(key, 1, 20, page(0, 20, 45));
+
+        JsonObject second = cache.get(key, 2, 10);
+        assertNotNull(second);
+        assertEquals(2, second.get("page").getAsInt());
+        assertEquals(5, second.get("total_pages").getAsInt());
+        assertEquals(10, second.getAsJsonArray("results").get(0).getAsJsonObject().get("id").getAsInt());
+        assertNull(cache.get(key, 2, 20));
+
+        cache.put(key, 3, 20, page(40, 20, 45));
+        assertEquals(5, cache.get(key, 3, 20).getAsJsonArray("results").size());
+        assertEquals(2, cache.getHitCount(Family.MOVIE));
+        assertEquals(1, cache.getMissCount(Family.MOVIE));
+    }
+
+    @Test
+    public void testChangedTotalDropsCachedPositions() {
+        SearchResultCache.Key key = cache.key(Family.MOVIE, "batman", "en", null, null);
+        cache.put(key, 1, 20, page(0, 20, 45));
+        cache.put(key, 2, 20, page(20, 20, 46));
+
+        assertNull(cache.get(key, 1, 20));
+        assertNotNull(cache.get(key, 2, 20));
+    }
+
+    @Test
+    public void testFamilyTtl() throws Exception {
+        SearchResultCache.Key tv = cache.key(Family.TV, "friends", "en", null, null);
+        SearchResultCache.Key movie = cache.key(Family.MOVIE, "friends", "en", null, null);
+        cache.put(tv, null, null, page(0, 3, 3));
+        cache.put(movie, null, null, page(0, 3, 3));
+
+        Thread.sleep(50);
+
+        assertNull(cache.get(tv, null, null));
+        assertNotNull(cache.get(movie, null, null));
+    }
+
+    @Test
+    public void testServiceReusesResultsAcrossSpellingsAndPageSizes() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody(page(0, 20, 30).toString()));
+
+        JsonObject first = searchService.searchMovie("The Dark Knight", null, null, 1, null, 20);
+        JsonObject second = searchService.searchMovie("the dark  knight", null, null, 3, null, 5);
+        PagedResponse<MovieSearchResult> typed = searchService.searchMoviePage("THE DARK KNIGHT", null, null);
+
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(20, first.getAsJsonArray("results").size());
+        assertEquals(10, second.getAsJsonArray("results").get(0).getAsJsonObject().get("id").getAsInt());
+        assertEquals(Integer.valueOf(30), typed.getTotalResults());
+        assertEquals(Integer.valueOf(0), typed.getResults().get(0).getId());
+    }
+
+    private static JsonObject page(int from, int size, int total) {
+        JsonArray results = new JsonArray();
+        for (int i = from; i < from + size && i < total; i++) {
+            JsonObject result = new JsonObject();
+            result.addProperty("id", i);
+            result.addProperty("title", "Title " + i);
+            results.add(result);
+        }
+        JsonObject page = new JsonObject();
+        page.addProperty("page", from / size + 1);
+        page.add("results", results);
+        page.addProperty("total_results", total);
+        return page;
+    }
+}
@@ -0,0 +1,246 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.CacheKey;
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.service.SearchService;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TitleIndex and the local-first title search
+ */
+public class TitleIndexTest {
+
+    @Test
+    public void testNormalization() {
+        assertEquals(Arrays.asList("amelie"), TextNormalizer.tokens("Amélie"));
+        assertEquals(Arrays.asList("spider", "man", "no", "way", "home"), TextNormalizer.tokens("Spider-Man: No Way Home"));
+        assertEquals(Arrays.asList("schindlers", "list"), TextNormalizer.tokens("Schindler's List"));
+        assertTrue(TextNormalizer.tokens("  -- ").isEmpty());
+    }
+
+    @Test
+    public void testPostingListRoundTrip() {
+        PostingList list = new PostingList();
+        int[] ids = {0, 1, 2, 130, 131, 20000, 2000000};
+        for (int id : ids) {
+            list.add(id);
+        }
+        list.add(5);
+
+        assertArrayEquals(ids, list.toArray());
+        assertEquals(ids.length, list.size());
+        assertEquals(1 + 1 + 1 + 2 + 1 + 3 + 3, list.byteSize());
+    }
+
+    @Test
+    public void testSearchMatchesAllTokens() {
+        TitleIndex index = sampleIndex();
+
+        List<TitleMatch> matches = index.search("fight club", 10);
+        assertEquals(2, matches.size());
+        assertEquals("550", matches.get(0).getId());
+        assertTrue(matches.get(0).isLocal());
+        assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+
+        assertEquals("194", index.search("Amelie", 10).get(0).getId());
+        assertEquals("194", index.search("fabuleux destin", 10).get(0).getId());
+        assertTrue(index.search("fight matrix", 10).isEmpty());
+    }
+
+    @Test
+    public void testTypoTolerance() {
+        TitleIndex index = sampleIndex();
+
+        assertEquals("603", index.search("matirx", 10).get(0).getId());
+        assertEquals("287", index.search("brad pit", 10).get(0).getId());
+        assertEquals("1399", index.search("game of thornes", 10).get(0).getId());
+        assertTrue(index.search("mtx", 10).isEmpty());
+        assertTrue(TitleIndex.editDistance("matirx", "matrix", 1) <= 1);
+        assertTrue(TitleIndex.editDistance("metropolis", "matrix", 2) > 2);
+    }
+
+    @Test
+    public void testSearchByType() {
+        TitleIndex index = sampleIndex();
+        index.add(EntityType.TV_SERIES, "1000", "The Matrix Chronicles");
+
+        List<TitleMatch> series = index.search(EntityType.TV_SERIES, "matrix", 10);
+        assertEquals(1, series.size());
+        assertEquals("1000", series.get(0).getId());
+        assertEquals(2, index.search("matrix", 10).size());
+    }
+
+    @Test
+    public void testReAddingMergesTitles() {
+        TitleIndex index = sampleIndex();
+        int size = index.size();
+
+        index.add(EntityType.MOVIE, "603", "The Matrix");
+        assertEquals(size, index.size());
+        index.add(EntityType.MOVIE, "603", "Matrix", "Matrix (1999)");
+        assertEquals(size, index.size());
+        assertEquals(1, index.search("1999", 10).size());
+        assertEquals("The Matrix", index.search("1999", 10).get(0).getTitle());
+    }
+
+    @Test
+    public void testAttachIndexesCachedEntities() {
+        EntityCache cache = new EntityCache(60000, 100);
+        cache.put(new CacheKey(EntityType.MOVIE, "550", "en"), movie(550, "Fight Club", "Fight Club"));
+        TitleIndex index = new TitleIndex();
+        index.attach(cache);
+        cache.put(new CacheKey(EntityType.MOVIE, "13", "en"), movie(13, "Forrest Gump", "Forrest Gump"));
+
+        assertEquals("550", index.search("fight", 10).get(0).getId());
+        assertEquals("13", index.search("forest gump", 10).get(0).getId());
+    }
+
+    @Test
+    public void testCachedEntitiesFollowTheCache() {
+        EntityCache cache = new EntityCache(60000, 100);
+        TitleIndex index = new TitleIndex();
+        index.attach(cache);
+        CacheKey english = new CacheKey(EntityType.MOVIE, "550", "en");
+        CacheKey french = new CacheKey(EntityType.MOVIE, "550", "fr");
+
+        cache.put(english, movie(550, "Fight Club", "Fight Club"));
+        cache.put(english, movie(550, "Fight Club (Remastered)", "Fight Club"));
+        assertEquals(1, index.search("remastered", 10).size());
+        cache.put(french, movie(550, "Le Club des Combattants", "Fight Club"));
+
+        // The latest cached value replaces the names instead of adding to them
+        assertTrue(index.search("remastered", 10).isEmpty());
+        assertEquals("550", index.search("combattants", 10).get(0).getId());
+
+        // Removing one language falls back to the names of the other
+        cache.invalidate(french);
+        assertTrue(index.search("combattants", 10).isEmpty());
+        assertEquals("Fight Club (Remastered)", index.search("fight club", 10).get(0).getTitle());
+
+        cache.invalidate(EntityType.MOVIE, "550");
+        assertTrue(index.search("fight club", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testEvictedEntitiesAreRemoved() {
+        EntityCache cache = new EntityCache(60000, 10);
+        TitleIndex index = new TitleIndex();
+        index.attach(cache);
+        for (int id = 0; id < 11; id++) {
+            cache.put(new CacheKey(EntityType.MOVIE, String.valueOf(id), "en"), movie(id, "Movie " + id, null));
+        }
+
+        assertEquals(cache.size(), index.size());
+        cache.clear();
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testAddedEntitiesAreCapped() {
+        TitleIndex index = new TitleIndex(2);
+        index.add(EntityType.MOVIE, "550", "Fight Club");
+        index.add(EntityType.MOVIE, "603", "The Matrix");
+        index.add(EntityType.MOVIE, "550", "Fight Club");
+        index.add(EntityType.MOVIE, "13", "Forrest Gump");
+
+        // The matrix was added least recently
+        assertEquals(2, index.size());
+        assertTrue(index.search("matrix", 10).isEmpty());
+        assertEquals("550", index.search("fight club", 10).get(0).getId());
+
+        // Cached entities do not count towards the cap
+        EntityCache cache = new EntityCache(60000, 100);
+        index.attach(cache);
+        cache.put(new CacheKey(EntityType.MOVIE, "680", "en"), movie(680, "Pulp Fiction", "Pulp Fiction"));
+        index.add(EntityType.MOVIE, "680", "Pulp Fiction");
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testSearchServiceFallsBackToApiOnLocalMiss() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(
+                "{\"page\":1,\"results\":[{\"id\":680,\"title\":\"Pulp Fiction\",\"original_title\":\"Pulp Fiction\"}]}"));
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(server.url("/").toString())
+                .build();
+        HttpClient httpClient = new HttpClient(config);
+        try {
+            SearchService service = new SearchService(httpClient, config);
+            service.setTitleIndex(sampleIndex());
+
+            List<TitleMatch> local = service.searchTitles(EntityType.MOVIE, "matrix", 5);
+            assertEquals("603", local.get(0).getId());
+            assertEquals(0, server.getRequestCount());
+
+            List<TitleMatch> remote = service.searchTitles(EntityType.MOVIE, "pulp fiction", 5);
+            assertEquals("680", remote.get(0).getId());
+            assertFalse(remote.get(0).isLocal());
+            assertEquals(1, server.getRequestCount());
+
+            List<TitleMatch> again = service.searchTitles(EntityType.MOVIE, "pulp fiction", 5);
+            assertTrue(again.get(0).isLocal());
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            httpClient.close();
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void testSearchServiceSkipsUntitledResults() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(
+                "{\"page\":1,\"total_results\":2,\"results\":[{\"id\":1},{\"id\":680,\"title\":\"Pulp Fiction\"}]}"));
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(server.url("/").toString())
+                .build();
+        HttpClient httpClient = new HttpClient(config);
+        try {
+            TitleSearchResult result = new SearchService(httpClient, config).findTitles(EntityType.MOVIE, "pulp", 5);
+            assertEquals(1, result.getMatches().size());
+            assertEquals("Pulp Fiction", result.getMatches().get(0).getTitle());
+            assertTrue(result.isComplete());
+        } finally {
+            httpClient.close();
+            server.shutdown();
+        }
+    }
+
+    private static TitleIndex sampleIndex() {
+        TitleIndex index = new TitleIndex();
+        index.add(EntityType.MOVIE, "550", "Fight Club");
+        index.add(EntityType.MOVIE, "687", "Fight Club: Members Only");
+        index.add(EntityType.MOVIE, "603", "The Matrix");
+        index.add(EntityType.MOVIE, "194", "Amélie", "Le Fabuleux Destin d'Amélie Poulain");
+        index.add(EntityType.TV_SERIES, "1399", "Game of Thrones");
+        index.add(EntityType.PERSON, "287", "Brad Pitt", "William Bradley Pitt");
+        return index;
+    }
+
+    private static MovieDetails movie(int id, String title, String originalTitle) {
+        MovieDetails details = new MovieDetails();
+        details.setId(id);
+        details.setTitle(title);
+        details.setOriginalTitle(originalTitle);
+        return details;
+    }
+}
@@ -0,0 +1,156 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityCache;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.exception.ApiException;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.service.MovieService;
+import com.promoviedb.service.PersonService;
+import com.promoviedb.service.SearchService;
+import com.promoviedb.service.TvSeriesService;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TwoPhaseSearch lightweight pages and on-demand hydration
+ */
+public class TwoPhaseSearchTest {
+
+    private static final String PAGE = "{\"page\":1,\"total_pages\":3,\"total_results\":45,\"results\":["
+            + "{\"id\":27205,\"title\":\"Inception\"},"
+            + "{\"id\":64956,\"title\":\"Inception: The Cobol Job\"},"
+            + "{\"id\":613092,\"title\":\"Inception: Jump Right Into the Action\"},"
+            + "{\"id\":1001,\"title\":\"Other\"}]}";
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private TwoPhaseSearch search;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getRequestUrl().encodedPath();
+                if (path.endsWith("/search/movie")) {
+                    return new MockResponse().setBody(PAGE);
+                }
+                String id = path.substring(path.lastIndexOf('/') + 1);
+                if ("1001".equals(id)) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                return new MockResponse().setBody("{\"id\":" + id + ",\"title\":\"Movie " + id + "\"}");
+            }
+        });
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+        EntityCache cache = new EntityCache(60_000, 100);
+        search = new TwoPhaseSearch.Builder(new SearchService(httpClient, config),
+                new MovieService(httpClient, config, cache),
+                new TvSeriesService(httpClient, config, cache),
+                new PersonService(httpClient, config, cache))
+                .parallelism(2)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        search.close();
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testSearchRequestsSummariesOnly() throws Exception {
+        LazySearchPage<MovieDetails> page = search.movies("inception", 1);
+
+        RecordedRequest request = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("false", request.getRequestUrl().queryParameter("detail"));
+        assertEquals(4, page.size());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(45, page.getTotalResults());
+        assertEquals("27205", page.getHandles().get(0).getId());
+        assertEquals("Inception", page.getHandles().get(0).getTitle());
+        assertFalse(page.getHandles().get(0).isHydrated());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testHydratesOnlyRequestedRange() {
+        LazySearchPage<MovieDetails> page = search.movies("inception", 1);
+
+        List<MovieDetails> details = page.hydrate(0, 2);
+
+        assertEquals(2, details.size());
+        assertEquals("Movie 27205", details.get(0).getTitle());
+        assertEquals("Movie 64956", details.get(1).getTitle());
+        assertTrue(page.getHandles().get(1).isHydrated());
+        assertFalse(page.getHandles().get(2).isHydrated());
+        assertEquals(3, mockWebServer.getRequestCount());
+
+        // Already loaded: no request
+        assertEquals("Movie 27205", page.getHandles().get(0).getDetails().getTitle());
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testCachedDetailsAvoidRequests() {
+        search.movies("inception", 1).hydrate(0, 3);
+        int requests = mockWebServer.getRequestCount();
+
+        LazySearchPage<MovieDetails> again = search.movies("inception", 1);
+        again.hydrate(0, 3);
+
+        assertEquals(requests + 1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testRejectedHydrationDoesNotBlockLaterAccess() {
+        LazySearchPage<MovieDetails> page = search.movies("inception", 1);
+        search.close();
+
+        try {
+            page.hydrate(0, 1);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            assertFalse(page.getHandles().get(0).isHydrated());
+        }
+        assertEquals("Movie 27205", page.getHandles().get(0).getDetails().getTitle());
+    }
+
+    @Test
+    public void testFailedHydrationCanBeRetried() {
+        LazySearchPage<MovieDetails> page = search.movies("inception", 1);
+        ResultHandle<MovieDetails> failing = page.getHandles().get(3);
+
+        try {
+            page.hydrate(3, 4);
+            fail("Expected ApiException");
+        } catch (ApiException expected) {
+            assertFalse(failing.isHydrated());
+        }
+        try {
+            failing.getDetails();
+            fail("Expected ApiException");
+        } catch (ApiException expected) {
+            assertEquals(4, mockWebServer.getRequestCount());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.promoviedb.search;
+
+import com.promoviedb.cache.EntityType;
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.service.SearchService;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Typeahead debouncing, prefix reuse and cancellation
+ */
+public class TypeaheadTest {
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private SearchService searchService;
+    private final BlockingQueue<String> delivered = new LinkedBlockingQueue<>();
+    private final BlockingQueue<List<TitleMatch>> results = new LinkedBlockingQueue<>();
+
+    private final TypeaheadListener listener = new TypeaheadListener() {
+        @Override
+        public void onResults(String input, List<TitleMatch> matches) {
+            delivered.add(input);
+            results.add(matches);
+        }
+
+        @Override
+        public void onError(String input, Exception error) {
+            delivered.add("error: " + input);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+        searchService = new SearchService(httpClient, config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testDebounceSendsOneSearch() throws Exception {
+        mockWebServer.enqueue(searchResponse("The Matrix", "The Matrix Reloaded"));
+
+        try (Typeahead typeahead = typeahead(100)) {
+            typeahead.onInput("m");
+            typeahead.onInput("ma");
+            typeahead.onInput("mat");
+            typeahead.onInput("matr");
+
+            assertEquals("m", delivered.poll(1, TimeUnit.SECONDS));
+            assertEquals("matr", delivered.poll(2, TimeUnit.SECONDS));
+            assertNull(delivered.poll(300, TimeUnit.MILLISECONDS));
+            assertEquals(1, typeahead.getFetchCount());
+        }
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertEquals("matr", request.getRequestUrl().queryParameter("query"));
+    }
+
+    @Test
+    public void testCompletePrefixResultsAreFilteredLocally() throws Exception {
+        mockWebServer.enqueue(searchResponse("Star Wars", "Star Trek", "A Star Is Born"));
+
+        try (Typeahead typeahead = typeahead(0)) {
+            typeahead.onInput("star");
+            assertEquals("star", delivered.poll(2, TimeUnit.SECONDS));
+            assertEquals(3, results.take().size());
+
+            typeahead.onInput("Star W");
+            assertEquals("Star W", delivered.poll());
+            List<TitleMatch> filtered = results.take();
+            assertEquals(1, filtered.size());
+            assertEquals("Star Wars", filtered.get(0).getTitle());
+
+            typeahead.onInput("star");
+            assertEquals("star", delivered.poll());
+            assertEquals(3, results.take().size());
+
+            assertEquals(1, typeahead.getFetchCount());
+            assertEquals(1, typeahead.getPrefixReuseCount());
+            assertEquals(1, typeahead.getCacheHitCount());
+        }
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testNewInputCancelsSearchInFlight() throws Exception {
+        mockWebServer.enqueue(searchResponse("Alien").setHeadersDelay(2, TimeUnit.SECONDS));
+        mockWebServer.enqueue(searchResponse("Aliens"));
+
+        try (Typeahead typeahead = typeahead(0)) {
+            typeahead.onInput("alien");
+            assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+            typeahead.onInput("aliens");
+
+            assertEquals("aliens", delivered.poll(1, TimeUnit.SECONDS));
+            assertEquals("Aliens", results.take().get(0).getTitle());
+            assertNull(delivered.poll(300, TimeUnit.MILLISECONDS));
+            assertEquals(1, typeahead.getCancelledCount());
+        }
+    }
+
+    @Test
+    public void testFullPageIsNotReusedEvenWhenMatchesAreDropped() throws Exception {
+        // A full page of which only a few results are usable, out of more on later pages
+        StringBuilder body = new StringBuilder("{\"page\":1,\"total_results\":45,\"results\":[");
+        for (int i = 0; i < Typeahead.PAGE_SIZE; i++) {
+            body.append(i > 0 ? "," : "").append(i < 3 ? "{\"id\":" + (100 + i) + "," : "{")
+                    .append("\"title\":\"Star ").append(i).append("\"}");
+        }
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(body.append("]}").toString()));
+        mockWebServer.enqueue(searchResponse("Star Wars"));
+
+        try (Typeahead typeahead = typeahead(0)) {
+            typeahead.onInput("star");
+            assertEquals("star", delivered.poll(2, TimeUnit.SECONDS));
+            assertEquals(3, results.take().size());
+
+            typeahead.onInput("star w");
+            assertEquals("star w", delivered.poll(2, TimeUnit.SECONDS));
+            assertEquals("Star Wars", results.take().get(0).getTitle());
+            assertEquals(2, typeahead.getFetchCount());
+            assertEquals(0, typeahead.getPrefixReuseCount());
+        }
+    }
+
+    @Test
+    public void testPrefixReuseMatchesOriginalTitles() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"page\":1,\"total_results\":1,"
+                + "\"results\":[{\"id\":129,\"title\":\"Spirited Away\","
+                + "\"original_title\":\"Sen to Chihiro no Kamikakushi\"}]}"));
+
+        try (Typeahead typeahead = typeahead(0)) {
+            typeahead.onInput("sen");
+            assertEquals("sen", delivered.poll(2, TimeUnit.SECONDS));
+            assertEquals(1, results.take().size());
+
+            typeahead.onInput("sen to chi");
+            assertEquals("sen to chi", delivered.poll());
+            List<TitleMatch> filtered = results.take();
+            assertEquals(1, filtered.size());
+            assertEquals("Spirited Away", filtered.get(0).getTitle());
+            assertEquals(1, typeahead.getPrefixReuseCount());
+        }
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    private Typeahead typeahead(long debounceMillis) {
+        return new Typeahead.Builder(searchService, listener)
+                .type(EntityType.MOVIE)
+                .debounceMillis(debounceMillis)
+                .minLength(2)
+                .build();
+    }
+
+    private static MockResponse searchResponse(String... titles) {
+        StringBuilder body = new StringBuilder("{\"page\":1,\"results\":[");
+        for (int i = 0; i < titles.length; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(100 + i).append(",\"title\":\"").append(titles[i]).append("\"}");
+        }
+        return new MockResponse().setResponseCode(200).setBody(body.append("]}").toString());
+    }
+}
@@ -0,0 +1,149 @@
+package com.promoviedb.tracing;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.http.CallContext;
+import com.promoviedb.http.HttpClient;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TraceContext and TracingEventListener
+ */
+public class TracingEventListenerTest {
+
+    private static final String PARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private List<CallSpan> spans;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        spans = new CopyOnWriteArrayList<>();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .spanExporter(spans::add)
+                .build();
+        httpClient = new HttpClient(config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testParseTraceparent() {
+        TraceContext context = TraceContext.parse(PARENT);
+        assertNotNull(context);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.getTraceId());
+        assertEquals("00f067aa0ba902b7", context.getSpanId());
+        assertTrue(context.isSampled());
+        assertEquals(PARENT, context.toTraceparent());
+
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+    }
+
+    @Test
+    public void testTraceparentPropagatedAndSpanExported() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"id\":550}"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"id\":551}"));
+
+        CallContext context = new CallContext.Builder()
+                .traceContext(TraceContext.parse(PARENT, "vendor=value"))
+                .build();
+        try (CallContext.Scope scope = context.attach()) {
+            httpClient.get(mockWebServer.url("/v1/np/3/movie/550").toString());
+            httpClient.get(mockWebServer.url("/v1/np/3/movie/551").toString());
+        }
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        TraceContext sent = TraceContext.parse(request.getHeader(TraceContext.TRACEPARENT_HEADER));
+        assertNotNull(sent);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", sent.getTraceId());
+        assertNotEquals("00f067aa0ba902b7", sent.getSpanId());
+        assertEquals("vendor=value", request.getHeader(TraceContext.TRACESTATE_HEADER));
+
+        assertEquals(2, spans.size());
+        CallSpan first = spans.get(0);
+        assertEquals("movie/{id}", first.getEndpoint());
+        assertEquals("GET", first.getMethod());
+        assertEquals(200, first.getStatusCode());
+        assertEquals(sent.getSpanId(), first.getSpanId());
+        assertEquals("00f067aa0ba902b7", first.getParentSpanId());
+        assertEquals(1, first.getAttempts());
+        assertFalse(first.isConnectionReused());
+        assertTrue(first.getConnectNanos() > 0);
+        assertFalse(first.isError());
+
+        assertTrue(spans.get(1).isConnectionReused());
+        assertEquals(0, spans.get(1).getConnectNanos());
+    }
+
+    @Test
+    public void testSpanDescribesRewrittenRequest() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+        HttpUrl target = mockWebServer.url("/v1/np/3/movie/550");
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    // A slow interceptor that reroutes the request, as endpoint routing does
+                    long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                    while (System.nanoTime() < until) {
+                        LockSupport.parkNanos(until - System.nanoTime());
+                    }
+                    return chain.proceed(chain.request().newBuilder().url(target).build());
+                })
+                .eventListenerFactory(TracingEventListener.factory(spans::add))
+                .build();
+
+        Request request = new Request.Builder().url("http://unrouted.invalid/v1/np/3/search/movie").build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+
+        assertEquals(1, spans.size());
+        CallSpan span = spans.get(0);
+        assertEquals(target.host(), span.getHost());
+        assertEquals("movie/{id}", span.getEndpoint());
+        assertFalse(span.isConnectionReused());
+        assertTrue(span.getConnectionAcquireNanos() > 0);
+        assertTrue(span.getConnectionAcquireNanos() < TimeUnit.MILLISECONDS.toNanos(200));
+        assertTrue(span.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testRootTraceStartedWithoutCallerContext() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{}"));
+
+        httpClient.get(mockWebServer.url("/v1/np/3/genre/movie/list").toString());
+
+        TraceContext sent = TraceContext.parse(mockWebServer.takeRequest().getHeader(TraceContext.TRACEPARENT_HEADER));
+        assertNotNull(sent);
+        assertEquals(1, spans.size());
+        assertEquals(sent.getTraceId(), spans.get(0).getTraceId());
+        assertNull(spans.get(0).getParentSpanId());
+    }
+}
@@ -0,0 +1,201 @@
+package com.promoviedb.diagnostics;
+
+import com.promoviedb.config.ClientConfig;
+import com.promoviedb.exception.ConcurrencyLimitException;
+import com.promoviedb.http.AdaptiveConcurrencyLimiter;
+import com.promoviedb.http.HttpClient;
+import com.promoviedb.model.movie.MovieDetails;
+import com.promoviedb.service.MovieService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the flight recorder events of the Java 21 RequestEvents
+ */
+public class RequestEventsTest {
+    private static final String CALL_EVENT = "promoviedb.ApiCall";
+    private static final String PHASE_EVENT = "promoviedb.Phase";
+    private static final String MOVIE_BODY = "{\"id\":550,\"title\":\"Fight Club\"}";
+
+    private MockWebServer mockWebServer;
+    private HttpClient httpClient;
+    private MovieService movieService;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .build();
+        httpClient = new HttpClient(config);
+        movieService = new MovieService(httpClient, config);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpClient.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void testCallAndPhasesAreRecorded() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(MOVIE_BODY));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(CALL_EVENT);
+            recording.enable(PHASE_EVENT);
+            recording.start();
+            assertTrue(RequestEvents.isEnabled());
+
+            MovieDetails movie = movieService.getDetails("550");
+            assertEquals("Fight Club", movie.getTitle());
+            events = stop(recording);
+        }
+
+        List<RecordedEvent> calls = named(events, CALL_EVENT);
+        assertEquals(1, calls.size());
+        RecordedEvent call = calls.get(0);
+        assertEquals("movie/{id}", call.getString("endpoint"));
+        assertEquals("GET", call.getString("method"));
+        assertEquals(200, call.getInt("statusCode"));
+        assertEquals(0, call.getLong("bytesSent"));
+        assertEquals(MOVIE_BODY.getBytes(StandardCharsets.UTF_8).length, call.getLong("bytesReceived"));
+        assertNotNull(call.getStackTrace());
+
+        List<String> phases = new ArrayList<>();
+        for (RecordedEvent phase : named(events, PHASE_EVENT)) {
+            phases.add(phase.getString("phase"));
+            assertEquals("movie/{id}", phase.getString("endpoint"));
+        }
+        for (Phase phase : Phase.values()) {
+            assertTrue("Missing phase " + phase, phases.contains(phase.name()));
+        }
+    }
+
+    @Test
+    public void testRequestBodyIsCounted() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(201).setBody("{}"));
+        String body = "{\"value\":8.5}";
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(CALL_EVENT);
+            recording.start();
+            httpClient.post(mockWebServer.url("/v1/np/3/movie/550/rating").toString(), body);
+            events = stop(recording);
+        }
+
+        List<RecordedEvent> calls = named(events, CALL_EVENT);
+        assertEquals(1, calls.size());
+        assertEquals("movie/{id}/rating", calls.get(0).getString("endpoint"));
+        assertEquals("POST", calls.get(0).getString("method"));
+        assertEquals(201, calls.get(0).getInt("statusCode"));
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, calls.get(0).getLong("bytesSent"));
+        assertEquals(2, calls.get(0).getLong("bytesReceived"));
+        assertTrue(named(events, PHASE_EVENT).isEmpty());
+    }
+
+    @Test
+    public void testRejectedCallIsRecorded() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+                .initialLimit(1)
+                .maxLimit(1)
+                .maxQueueSize(0)
+                .build();
+        ClientConfig config = new ClientConfig.Builder()
+                .apiKey("test-api-key")
+                .baseUrl(mockWebServer.url("/").toString())
+                .concurrencyLimiter(limiter)
+                .build();
+        HttpClient limited = new HttpClient(config);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(CALL_EVENT);
+            recording.enable(PHASE_EVENT);
+            recording.start();
+            try {
+                new MovieService(limited, config).getDetails("550");
+                fail("Expected the limiter to reject the call");
+            } catch (ConcurrencyLimitException expected) {
+                // The call never left the client
+            }
+            events = stop(recording);
+        } finally {
+            held.onIgnore();
+            limited.close();
+        }
+
+        List<RecordedEvent> calls = named(events, CALL_EVENT);
+        assertEquals(1, calls.size());
+        assertEquals("movie/{id}", calls.get(0).getString("endpoint"));
+        assertEquals(-1, calls.get(0).getInt("statusCode"));
+        List<String> phases = new ArrayList<>();
+        for (RecordedEvent phase : named(events, PHASE_EVENT)) {
+            phases.add(phase.getString("phase"));
+        }
+        assertTrue(phases.contains(Phase.QUEUE_WAIT.name()));
+        assertFalse(phases.contains(Phase.NETWORK.name()));
+        assertEquals(0, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void testNothingIsRecordedWhenDisabled() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(MOVIE_BODY));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.disable(CALL_EVENT);
+            recording.disable(PHASE_EVENT);
+            recording.start();
+            assertFalse(RequestEvents.isEnabled());
+
+            movieService.getDetails("550");
+            events = stop(recording);
+        }
+
+        assertTrue(named(events, CALL_EVENT).isEmpty());
+        assertTrue(named(events, PHASE_EVENT).isEmpty());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    private static List<RecordedEvent> stop(Recording recording) throws Exception {
+        recording.stop();
+        Path file = Files.createTempFile("promoviedb-events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,50 @@
+package com.promoviedb.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the virtual threads of the Java 21 ThreadSupport
+ */
+public class ThreadSupportTest {
+
+    @Test
+    public void testJava21ImplementationIsSelected() {
+        assertTrue(ThreadSupport.isVirtual());
+    }
+
+    @Test
+    public void testBlockingExecutorRunsTasksOnVirtualThreads() throws Exception {
+        ExecutorService executor = ThreadSupport.newBlockingExecutor("promoviedb-test", 1);
+        try {
+            Future<Thread> first = executor.submit(Thread::currentThread);
+            Future<Thread> second = executor.submit(Thread::currentThread);
+
+            assertTrue(first.get(1, TimeUnit.SECONDS).isVirtual());
+            assertTrue(second.get(1, TimeUnit.SECONDS).isVirtual());
+            assertNotSame(first.get(), second.get());
+            assertTrue(first.get().getName().startsWith("promoviedb-test-"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNewThreadIsVirtual() throws Exception {
+        AtomicReference<Thread> ran = new AtomicReference<>();
+        Thread thread = ThreadSupport.newThread("promoviedb-test", () -> ran.set(Thread.currentThread()));
+
+        assertTrue(thread.isVirtual());
+        assertTrue(thread.isDaemon());
+        assertEquals("promoviedb-test", thread.getName());
+        thread.start();
+        thread.join(1000);
+        assertSame(thread, ran.get());
+    }
+}